@@ -0,0 +1,52 @@
+package com.helpdesk.config;
+
+import java.security.Principal;
+import java.util.Collection;
+import java.util.Collections;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import com.helpdesk.entities.User;
+import com.helpdesk.enums.UserRole;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Principal of a request authenticated from verified JWT claims.
+ * Carries the identity embedded in the token so that no user lookup is needed to authorize the request.
+ */
+@Getter
+@RequiredArgsConstructor
+public final class AuthenticatedUser implements Principal {
+
+	// ID of the authenticated user
+	private final Long id;
+
+	// Username (token subject)
+	private final String userName;
+
+	// Role of the user when the token was issued
+	private final UserRole userRole;
+
+	// Department of the user when the token was issued (null for users without a department)
+	private final Long departmentId;
+
+	// Creates the view of an already loaded user
+	public static AuthenticatedUser of(User user) {
+		return new AuthenticatedUser(user.getId(), user.getUsername(), user.getUserRole(),
+				user.getDepartment() != null ? user.getDepartment().getId() : null);
+	}
+
+	// Returns the username, so Authentication.getName() works the same as with a loaded User
+	@Override
+	public String getName() {
+		return userName;
+	}
+
+	// Returns the single role authority used by the security rules (e.g. ROLE_AGENT)
+	public Collection<? extends GrantedAuthority> getAuthorities() {
+		return Collections.singleton(new SimpleGrantedAuthority("ROLE_" + userRole.name()));
+	}
+}
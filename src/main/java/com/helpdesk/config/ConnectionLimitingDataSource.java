@@ -0,0 +1,130 @@
+package com.helpdesk.config;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Lets at most a fixed number of threads hold database connections at once; the others wait on a fair semaphore.
+ * With virtual threads every request in flight would otherwise queue inside the connection pool, whose waits time out
+ * and fail requests under a burst, and which hands connections out in no particular order. A thread that already
+ * holds a connection gets further ones (ID blocks, {@code REQUIRES_NEW} transactions) without waiting, so the
+ * permits are kept a few connections below the pool size to leave room for them.
+ */
+public class ConnectionLimitingDataSource extends DelegatingDataSource {
+
+	private final Semaphore permits;
+	private final long timeoutNanos; // Longest wait for a permit before the request fails
+	// Connections open per thread; atomic because a connection may be closed by a thread other than its owner
+	private final ThreadLocal<AtomicInteger> held = ThreadLocal.withInitial(AtomicInteger::new);
+
+	public ConnectionLimitingDataSource(DataSource target, int permits, Duration timeout) {
+		super(target);
+		this.permits = new Semaphore(permits, true);
+		this.timeoutNanos = timeout.toNanos();
+	}
+
+	@Override
+	public Connection getConnection() throws SQLException {
+		return limit(() -> obtainTargetDataSource().getConnection());
+	}
+
+	@Override
+	public Connection getConnection(String username, String password) throws SQLException {
+		return limit(() -> obtainTargetDataSource().getConnection(username, password));
+	}
+
+	// Threads waiting for a permit
+	public int getWaiting() {
+		return permits.getQueueLength();
+	}
+
+	// Permits not taken
+	public int getAvailable() {
+		return permits.availablePermits();
+	}
+
+	// Takes a permit unless the thread already holds one, and returns it when the last of its connections closes.
+	// The count is raised before opening, so a close on another thread cannot drop it to zero while this open is pending.
+	private Connection limit(ConnectionSource source) throws SQLException {
+		AtomicInteger count = held.get();
+		if (count.getAndIncrement() == 0) {
+			try {
+				acquire();
+			} catch (SQLException e) {
+				count.decrementAndGet();
+				throw e;
+			}
+		}
+		try {
+			return track(source.open(), count);
+		} catch (SQLException | RuntimeException e) {
+			release(count);
+			throw e;
+		}
+	}
+
+	// Whoever closes the thread's last connection returns its permit
+	private void release(AtomicInteger count) {
+		if (count.decrementAndGet() == 0) {
+			permits.release();
+		}
+	}
+
+	private void acquire() throws SQLException {
+		try {
+			if (!permits.tryAcquire(timeoutNanos, TimeUnit.NANOSECONDS)) {
+				throw new SQLTransientConnectionException("No database connection became free within "
+						+ Duration.ofNanos(timeoutNanos) + " (" + permits.getQueueLength() + " threads waiting)");
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new SQLTransientConnectionException("Interrupted while waiting for a database connection", e);
+		}
+	}
+
+	// The connection with close() releasing the permit once (the count belongs to the opening thread)
+	private Connection track(Connection connection, AtomicInteger count) {
+		AtomicBoolean closed = new AtomicBoolean();
+		return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] { Connection.class },
+				(proxy, method, args) -> {
+					if (method.getName().equals("close")) {
+						if (closed.compareAndSet(false, true)) {
+							try {
+								connection.close();
+							} finally {
+								release(count);
+							}
+						}
+						return null;
+					}
+					if (method.getName().equals("equals")) {
+						return proxy == args[0];
+					}
+					if (method.getName().equals("hashCode")) {
+						return System.identityHashCode(proxy);
+					}
+					try {
+						return method.invoke(connection, args);
+					} catch (InvocationTargetException e) {
+						throw e.getCause();
+					}
+				});
+	}
+
+	@FunctionalInterface
+	private interface ConnectionSource {
+		Connection open() throws SQLException;
+	}
+}
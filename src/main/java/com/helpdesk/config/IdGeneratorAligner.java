@@ -0,0 +1,93 @@
+package com.helpdesk.config;
+
+import java.lang.reflect.Field;
+import java.util.List;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import com.helpdesk.entities.IdGenerators;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Id;
+import jakarta.persistence.TableGenerator;
+import jakarta.persistence.metamodel.EntityType;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Moves each entity's row in the ID generator table past the highest ID already stored.
+ * Tables filled while IDs were auto-increment values (or by scripts that bypass the generator) would otherwise
+ * hand out IDs that are taken. Runs as soon as the EntityManagerFactory is ready, before any bean can insert.
+ */
+@Slf4j
+@Component
+public class IdGeneratorAligner implements BeanPostProcessor {
+
+	@Override
+	public Object postProcessAfterInitialization(Object bean, String beanName) {
+		if (bean instanceof EntityManagerFactory entityManagerFactory) {
+			align(entityManagerFactory);
+		}
+		return bean;
+	}
+
+	// Aligns every entity whose ID comes from the shared generator table, in one transaction
+	private void align(EntityManagerFactory entityManagerFactory) {
+		EntityManager entityManager = entityManagerFactory.createEntityManager();
+		try {
+			entityManager.getTransaction().begin();
+			for (EntityType<?> entity : entityManagerFactory.getMetamodel().getEntities()) {
+				Field id = idField(entity.getJavaType());
+				TableGenerator generator = id == null ? null : id.getAnnotation(TableGenerator.class);
+				if (generator != null && IdGenerators.TABLE.equals(generator.table())) {
+					Long maxId = entityManager.createQuery("select max(e." + id.getName() + ") from " + entity.getName() + " e", Long.class)
+							.getSingleResult();
+					align(entityManager, generator.pkColumnValue(), maxId == null ? 0 : maxId);
+				}
+			}
+			entityManager.getTransaction().commit();
+		} catch (RuntimeException e) {
+			if (entityManager.getTransaction().isActive()) {
+				entityManager.getTransaction().rollback();
+			}
+			throw e;
+		} finally {
+			entityManager.close();
+		}
+	}
+
+	// Marks every ID up to maxId as reserved, creating the generator row if it does not exist yet
+	private void align(EntityManager entityManager, String segment, long maxId) {
+		List<?> current = entityManager.createNativeQuery("select " + IdGenerators.VALUE_COLUMN + " from " + IdGenerators.TABLE
+						+ " where " + IdGenerators.SEGMENT_COLUMN + " = ? for update")
+				.setParameter(1, segment)
+				.getResultList();
+		if (current.isEmpty()) {
+			entityManager.createNativeQuery("insert into " + IdGenerators.TABLE + " (" + IdGenerators.SEGMENT_COLUMN + ", "
+							+ IdGenerators.VALUE_COLUMN + ") values (?, ?)")
+					.setParameter(1, segment)
+					.setParameter(2, maxId)
+					.executeUpdate();
+		} else if (((Number) current.get(0)).longValue() < maxId) {
+			log.info("Moving the {} ID generator past existing ID {}", segment, maxId);
+			entityManager.createNativeQuery("update " + IdGenerators.TABLE + " set " + IdGenerators.VALUE_COLUMN + " = ? where "
+							+ IdGenerators.SEGMENT_COLUMN + " = ?")
+					.setParameter(1, maxId)
+					.setParameter(2, segment)
+					.executeUpdate();
+		}
+	}
+
+	// The field annotated with @Id, looking through superclasses
+	private static Field idField(Class<?> type) {
+		for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+			for (Field field : c.getDeclaredFields()) {
+				if (field.isAnnotationPresent(Id.class)) {
+					return field;
+				}
+			}
+		}
+		return null;
+	}
+}
@@ -2,9 +2,11 @@ package com.helpdesk.config;
 
 import com.helpdesk.services.jwt.UserService;
 import com.helpdesk.utils.JwtUtil;
+import com.helpdesk.utils.VerifiedToken;
 
 import lombok.RequiredArgsConstructor;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
@@ -34,14 +36,16 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 	private final JwtUtil jwtUtil; // Utility class for JWT operations like validation and extraction
 	private final UserService userService; // Service to load user details based on username
 
+	// When true, every request reloads the user from the database instead of trusting the token's claims
+	@Value("${helpdesk.security.jwt.verify-user-in-database:false}")
+	private boolean verifyUserInDatabase;
+
 	@Override
 	protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
 			@NonNull FilterChain filterChain) throws ServletException, IOException {
 
 		// Extract the Authorization header from the incoming request
 		final String authHeader = request.getHeader("Authorization");
-		final String jwt;
-		final String userEmail;
 
 		// If the Authorization header is missing or does not start with "Bearer ", continue without authentication
 		if (StringUtils.isEmpty(authHeader) || !StringUtils.startsWith(authHeader, "Bearer ")) {
@@ -49,27 +53,21 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 			return;
 		}
 
-		// Extract JWT token by removing the "Bearer " prefix
-		jwt = authHeader.substring(7);
-
-		// Extract the username (email) from the token
-		userEmail = jwtUtil.extractUserName(jwt);
+		// Parse and verify the token (signature and expiry) once, removing the "Bearer " prefix
+		final VerifiedToken token = jwtUtil.verify(authHeader.substring(7));
 
 		// Proceed only if username is present and there is no authentication set in the context
-		if (StringUtils.isNotEmpty(userEmail) && SecurityContextHolder.getContext().getAuthentication() == null) {
+		if (StringUtils.isNotEmpty(token.getSubject()) && SecurityContextHolder.getContext().getAuthentication() == null) {
 
-			// Load user details from the database
-			UserDetails userDetails = userService.userDetailService().loadUserByUsername(userEmail);
+			// Authenticate from the token's claims, or from the database in fallback mode or for older tokens
+			UsernamePasswordAuthenticationToken authToken = verifyUserInDatabase || token.getPrincipal() == null
+					? authenticateFromDatabase(token)
+					: new UsernamePasswordAuthenticationToken(token.getPrincipal(), null, token.getPrincipal().getAuthorities());
 
-			// Validate the token against user details
-			if (jwtUtil.isTokenValid(jwt, userDetails)) {
+			if (authToken != null) {
 				// Create a new empty security context
 				SecurityContext context = SecurityContextHolder.createEmptyContext();
 
-				// Create an authentication token using the user details and authorities
-				UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(userDetails,
-						null, userDetails.getAuthorities());
-
 				// Set additional authentication details from the request
 				authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
@@ -83,6 +81,15 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 		filterChain.doFilter(request, response);
 	}
 
+	// Loads the user from the database and checks the token was issued to it (null if it was not)
+	private UsernamePasswordAuthenticationToken authenticateFromDatabase(VerifiedToken token) {
+		UserDetails userDetails = userService.userDetailService().loadUserByUsername(token.getSubject());
+		if (!token.belongsTo(userDetails)) {
+			return null;
+		}
+		return new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+	}
+
 	/**
 	 * This method determines which requests should bypass this filter.
 	 * In this case, authentication-related endpoints (like login or register) are excluded.
@@ -0,0 +1,27 @@
+package com.helpdesk.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Application metrics on top of what Spring Boot already records (HTTP requests, HikariCP pool, JVM,
+ * repository invocations). Everything is exported in Prometheus format on {@code /actuator/prometheus}.
+ */
+@Configuration
+public class MetricsConfig {
+
+	// Timers around @Service methods; static because post-processors must not depend on this configuration instance
+	@Bean
+	public static ServiceMetricsPostProcessor serviceMetricsPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+		return new ServiceMetricsPostProcessor(meterRegistry);
+	}
+
+	// Row counts of repository method results
+	@Bean
+	public static RepositoryMetricsPostProcessor repositoryMetricsPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+		return new RepositoryMetricsPostProcessor(meterRegistry);
+	}
+}
@@ -0,0 +1,82 @@
+package com.helpdesk.config;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import org.springframework.context.SmartLifecycle;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Reports virtual threads that block while pinned to their carrier thread, from the JFR event
+ * {@code jdk.VirtualThreadPinned}. On Java 21 a virtual thread that blocks inside a {@code synchronized} block
+ * (including {@code ConcurrentHashMap.compute} and caches built on it) or a native frame keeps its carrier, and there
+ * are only as many carriers as CPU cores. Every event is counted in {@code helpdesk.virtual.pinned}, tagged with the
+ * first application frame; the first event of each site is also logged with its stack.
+ */
+@Slf4j
+public class PinnedThreadMonitor implements SmartLifecycle {
+
+	public static final String METRIC = "helpdesk.virtual.pinned";
+
+	private static final String EVENT = "jdk.VirtualThreadPinned";
+	private static final String APPLICATION_PACKAGE = "com.helpdesk.";
+
+	private final MeterRegistry meterRegistry;
+	private final Duration threshold; // Shorter pins are not recorded
+	private final Set<String> loggedSites = ConcurrentHashMap.newKeySet();
+	private volatile RecordingStream stream;
+
+	public PinnedThreadMonitor(MeterRegistry meterRegistry, Duration threshold) {
+		this.meterRegistry = meterRegistry;
+		this.threshold = threshold;
+	}
+
+	@Override
+	public void start() {
+		RecordingStream recording = new RecordingStream();
+		recording.enable(EVENT).withThreshold(threshold).withStackTrace();
+		recording.onEvent(EVENT, this::pinned);
+		recording.startAsync();
+		stream = recording;
+	}
+
+	@Override
+	public void stop() {
+		RecordingStream recording = stream;
+		stream = null;
+		if (recording != null) {
+			recording.close();
+		}
+	}
+
+	@Override
+	public boolean isRunning() {
+		return stream != null;
+	}
+
+	private void pinned(RecordedEvent event) {
+		List<RecordedFrame> frames = event.getStackTrace() == null ? List.of() : event.getStackTrace().getFrames();
+		String site = frames.stream()
+				.map(frame -> frame.getMethod().getType().getName() + "." + frame.getMethod().getName())
+				.filter(name -> name.startsWith(APPLICATION_PACKAGE))
+				.findFirst()
+				.orElse("other");
+		meterRegistry.counter(METRIC, "site", site).increment();
+		if (loggedSites.add(site)) {
+			log.warn("Virtual thread pinned to its carrier for {} ms at {}:\n\t{}", event.getDuration().toMillis(), site,
+					frames.stream().map(PinnedThreadMonitor::describe).collect(Collectors.joining("\n\t")));
+		}
+	}
+
+	private static String describe(RecordedFrame frame) {
+		return frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+	}
+}
@@ -0,0 +1,104 @@
+package com.helpdesk.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Read replicas ({@code helpdesk.datasource.replicas}, comma separated JDBC URLs). When any are configured the
+ * pooled primary DataSource is replaced by a {@link ReplicaRoutingDataSource}; each replica gets a HikariCP pool
+ * configured like the primary's. Without replicas nothing changes.
+ */
+@Slf4j
+@Configuration
+public class ReplicaRoutingConfig {
+
+	// Wraps the primary DataSource; ordered so that other DataSource post-processors see the router
+	@Bean
+	public static ReplicaRoutingPostProcessor replicaRoutingPostProcessor(
+			@Value("${helpdesk.datasource.replicas:}") List<String> replicaUrls,
+			@Value("${helpdesk.datasource.read-your-writes:5s}") Duration stickiness,
+			ObjectProvider<MeterRegistry> meterRegistry) {
+		return new ReplicaRoutingPostProcessor(replicaUrls.stream().filter(url -> !url.isBlank()).toList(), stickiness,
+				meterRegistry);
+	}
+
+	// Hibernate otherwise keeps the first connection for the whole session, which spans the request if
+	// open-session-in-view is turned back on, so later transactions of the request would not be routed on their own
+	@Bean
+	public HibernatePropertiesCustomizer replicaConnectionHandling(@Value("${helpdesk.datasource.replicas:}") List<String> replicaUrls) {
+		return properties -> {
+			if (replicaUrls.stream().anyMatch(url -> !url.isBlank())) {
+				properties.putIfAbsent("hibernate.connection.handling_mode", "DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION");
+			}
+		};
+	}
+
+	/**
+	 * Puts the primary HikariCP pool behind a router with one pool per replica. Spring only closes a DataSource bean
+	 * that has a close method itself, so the pools behind the router are closed here on shutdown.
+	 */
+	static class ReplicaRoutingPostProcessor implements BeanPostProcessor, Ordered, DisposableBean {
+
+		private final List<String> replicaUrls;
+		private final Duration stickiness;
+		private final ObjectProvider<MeterRegistry> meterRegistry;
+		private final List<HikariDataSource> pools = new ArrayList<>(); // Primary and replica pools behind the router
+
+		ReplicaRoutingPostProcessor(List<String> replicaUrls, Duration stickiness, ObjectProvider<MeterRegistry> meterRegistry) {
+			this.replicaUrls = replicaUrls;
+			this.stickiness = stickiness;
+			this.meterRegistry = meterRegistry;
+		}
+
+		@Override
+		public Object postProcessAfterInitialization(Object bean, String beanName) {
+			if (replicaUrls.isEmpty() || !(bean instanceof HikariDataSource primary)) {
+				return bean;
+			}
+			pools.add(primary);
+			List<DataSource> replicas = new ArrayList<>();
+			for (String url : replicaUrls) {
+				HikariConfig config = new HikariConfig();
+				primary.copyStateTo(config);
+				config.setJdbcUrl(url);
+				config.setPoolName("replica-" + (replicas.size() + 1));
+				HikariDataSource replica = new HikariDataSource(config);
+				pools.add(replica);
+				replicas.add(replica);
+			}
+			log.info("Read-only transactions are routed to {} replica(s); a user's reads stay on the primary for {} after a write",
+					replicas.size(), stickiness);
+			return ReplicaRoutingDataSource.lazy(new ReplicaRoutingDataSource(primary, replicas, stickiness, meterRegistry));
+		}
+
+		// Before the connection limit of VirtualThreadConfig, which then applies to the router as a whole
+		@Override
+		public int getOrder() {
+			return Ordered.HIGHEST_PRECEDENCE;
+		}
+
+		@Override
+		public void destroy() {
+			pools.forEach(HikariDataSource::close);
+		}
+	}
+}
@@ -0,0 +1,135 @@
+package com.helpdesk.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Sends read-only transactions to replica databases (round robin) and everything else to the primary.
+ * A user whose write transaction committed less than the stickiness window ago reads from the primary too, so a
+ * customer always sees the ticket they just created even while the replicas lag behind. The window is tracked per
+ * application instance.
+ * <p>
+ * Only {@code @Transactional(readOnly = true)} boundaries reach a replica. Declared repository queries do not open a
+ * transaction of their own, so a read is routed only when its service method (or a read-only TransactionTemplate)
+ * opens one. Reads whose result is cached for everyone, like the department list, use {@link #onPrimary} so a lagging
+ * replica is never cached.
+ * <p>
+ * The target is chosen when a statement first needs the connection, which is why the router must be used through
+ * {@link #lazy}: when the transaction opens the connection it is not yet marked read-only. Each choice is counted in
+ * {@code helpdesk.jdbc.routed}, tagged with the target.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+	static final String PRIMARY = "primary";
+	static final String METRIC = "helpdesk.jdbc.routed";
+
+	// Set while onPrimary runs on this thread
+	private static final ThreadLocal<Boolean> PINNED = new ThreadLocal<>();
+
+	private final List<String> replicas; // Lookup keys of the replicas
+	private final AtomicInteger next = new AtomicInteger(); // Round-robin position over the replicas
+
+	// Users who committed a write within the stickiness window
+	private final Cache<String, Boolean> recentWriters;
+
+	// Counts the connections routed to each target; looked up lazily, the router is built by a post-processor
+	private final ObjectProvider<MeterRegistry> meterRegistry;
+
+	public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas, Duration stickiness,
+			ObjectProvider<MeterRegistry> meterRegistry) {
+		Map<Object, Object> targets = new HashMap<>();
+		List<String> keys = new ArrayList<>();
+		targets.put(PRIMARY, primary);
+		for (int i = 0; i < replicas.size(); i++) {
+			keys.add("replica-" + (i + 1));
+			targets.put(keys.get(i), replicas.get(i));
+		}
+		this.replicas = List.copyOf(keys);
+		this.recentWriters = Caffeine.newBuilder().expireAfterWrite(stickiness).maximumSize(100_000).build();
+		this.meterRegistry = meterRegistry;
+		setTargetDataSources(targets);
+		setDefaultTargetDataSource(primary);
+		setLenientFallback(false);
+		afterPropertiesSet();
+	}
+
+	// The router behind a proxy that opens the physical connection only for the first statement
+	public static LazyConnectionDataSourceProxy lazy(ReplicaRoutingDataSource router) {
+		return new LazyConnectionDataSourceProxy(router);
+	}
+
+	// Runs the action with every connection it opens taken from the primary; without replicas it just runs the action.
+	// The action must open its own transaction, since a connection the caller's transaction already holds is reused.
+	public static <T> T onPrimary(Supplier<T> action) {
+		Boolean outer = PINNED.get();
+		PINNED.set(Boolean.TRUE);
+		try {
+			return action.get();
+		} finally {
+			if (outer == null) {
+				PINNED.remove();
+			}
+		}
+	}
+
+	@Override
+	protected Object determineCurrentLookupKey() {
+		String key = route();
+		MeterRegistry registry = meterRegistry.getIfAvailable();
+		if (registry != null) {
+			registry.counter(METRIC, "target", key).increment();
+		}
+		return key;
+	}
+
+	// Primary for pinned reads, writes, connections outside transactions and recent writers; otherwise the next replica
+	private String route() {
+		if (PINNED.get() != null) {
+			return PRIMARY;
+		}
+		String user = currentUser();
+		if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+			if (user != null && TransactionSynchronizationManager.isSynchronizationActive()) {
+				TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+					@Override
+					public void afterCommit() {
+						recentWriters.put(user, Boolean.TRUE);
+					}
+				});
+			}
+			return PRIMARY;
+		}
+		if (replicas.isEmpty() || (user != null && recentWriters.getIfPresent(user) != null)) {
+			return PRIMARY;
+		}
+		return replicas.get(Math.floorMod(next.getAndIncrement(), replicas.size()));
+	}
+
+	// Name of the authenticated user of this request, or null (e.g. signup, startup, background jobs)
+	private static String currentUser() {
+		Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+		return authentication != null && authentication.isAuthenticated() && !(authentication instanceof AnonymousAuthenticationToken)
+				? authentication.getName() : null;
+	}
+}
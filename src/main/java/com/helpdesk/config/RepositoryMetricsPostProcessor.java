@@ -0,0 +1,92 @@
+package com.helpdesk.config;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.stream.BaseStream;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Records how many rows each repository method returns (or, for {@code @Modifying} queries, changes)
+ * as the distribution {@code helpdesk.repository.rows}, tagged with the repository and the method.
+ * Call counts and timings of the same methods come from Spring Boot's {@code spring.data.repository.invocations}.
+ */
+public class RepositoryMetricsPostProcessor implements BeanPostProcessor {
+
+	public static final String METRIC = "helpdesk.repository.rows";
+
+	private final ObjectProvider<MeterRegistry> meterRegistry; // Looked up lazily, post-processors are created early
+
+	public RepositoryMetricsPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+		this.meterRegistry = meterRegistry;
+	}
+
+	// Hooks into each repository factory before it creates the repository proxy
+	@Override
+	public Object postProcessBeforeInitialization(Object bean, String beanName) {
+		if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+			factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+					(proxyFactory, repositoryInformation) -> proxyFactory.addAdvice(
+							new RowCountInterceptor(repositoryInformation.getRepositoryInterface().getSimpleName()))));
+		}
+		return bean;
+	}
+
+	private final class RowCountInterceptor implements MethodInterceptor {
+
+		private final String repository;
+
+		private RowCountInterceptor(String repository) {
+			this.repository = repository;
+		}
+
+		@Override
+		public Object invoke(MethodInvocation invocation) throws Throwable {
+			Object result = invocation.proceed();
+			long rows = rows(result, invocation.getMethod().isAnnotationPresent(Modifying.class));
+			if (rows >= 0) {
+				meterRegistry.getObject().summary(METRIC, "repository", repository, "method", invocation.getMethod().getName())
+						.record(rows);
+			}
+			return result;
+		}
+	}
+
+	// Rows behind a repository result; -1 for streams, which are consumed later and cannot be counted here
+	static long rows(Object result, boolean modifying) {
+		if (result == null) {
+			return 0;
+		}
+		if (result instanceof Collection<?> collection) {
+			return collection.size();
+		}
+		if (result instanceof Optional<?> optional) {
+			return optional.isPresent() ? 1 : 0;
+		}
+		if (result instanceof Slice<?> slice) {
+			return slice.getNumberOfElements();
+		}
+		if (result instanceof Iterable<?> iterable) {
+			long count = 0;
+			for (Object ignored : iterable) {
+				count++;
+			}
+			return count;
+		}
+		if (result instanceof BaseStream<?, ?>) {
+			return -1;
+		}
+		if (modifying && result instanceof Number affected) {
+			return affected.longValue();
+		}
+		return 1; // A single entity, projection or aggregate row
+	}
+}
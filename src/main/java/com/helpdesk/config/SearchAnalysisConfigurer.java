@@ -0,0 +1,22 @@
+package com.helpdesk.config;
+
+import org.hibernate.search.backend.lucene.analysis.LuceneAnalysisConfigurationContext;
+import org.hibernate.search.backend.lucene.analysis.LuceneAnalysisConfigurer;
+
+/**
+ * Text analysis for the ticket search index.
+ * "ticketText" splits on word boundaries, lower-cases, strips accents and reduces English words to their stem,
+ * so "printers" matches "printer" and "Café" matches "cafe".
+ * Registered through {@code hibernate.search.backend.analysis.configurer} in application.properties.
+ */
+public class SearchAnalysisConfigurer implements LuceneAnalysisConfigurer {
+
+	@Override
+	public void configure(LuceneAnalysisConfigurationContext context) {
+		context.analyzer("ticketText").custom()
+				.tokenizer("standard")
+				.tokenFilter("lowercase")
+				.tokenFilter("asciiFolding")
+				.tokenFilter("porterStem");
+	}
+}
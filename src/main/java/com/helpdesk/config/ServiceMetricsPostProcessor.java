@@ -0,0 +1,59 @@
+package com.helpdesk.config;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.framework.autoproxy.AbstractBeanFactoryAwareAdvisingPostProcessor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.ComposablePointcut;
+import org.springframework.aop.support.StaticMethodMatcher;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+import org.springframework.util.ClassUtils;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Times every public method of every {@code @Service} bean as {@code helpdesk.service.calls},
+ * tagged with the service, the method and whether it returned or threw.
+ * The timer wraps any transaction the method opens, so the time includes the commit.
+ */
+public class ServiceMetricsPostProcessor extends AbstractBeanFactoryAwareAdvisingPostProcessor {
+
+	public static final String METRIC = "helpdesk.service.calls";
+
+	public ServiceMetricsPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+		ComposablePointcut pointcut = new ComposablePointcut(new AnnotationMatchingPointcut(Service.class, true))
+				.intersection(new StaticMethodMatcher() {
+					@Override
+					public boolean matches(Method method, Class<?> targetClass) {
+						return method.getDeclaringClass() != Object.class;
+					}
+				});
+		this.advisor = new DefaultPointcutAdvisor(pointcut, new TimingInterceptor(meterRegistry));
+		setBeforeExistingAdvisors(true); // Outermost, so transaction commit time is included
+		setProxyTargetClass(true);
+	}
+
+	// Records one timer sample per call; the registry is looked up lazily because post-processors are created early
+	private record TimingInterceptor(ObjectProvider<MeterRegistry> meterRegistry) implements MethodInterceptor {
+
+		@Override
+		public Object invoke(MethodInvocation invocation) throws Throwable {
+			long start = System.nanoTime();
+			String outcome = "error";
+			try {
+				Object result = invocation.proceed();
+				outcome = "success";
+				return result;
+			} finally {
+				String service = ClassUtils.getUserClass(invocation.getThis()).getSimpleName();
+				meterRegistry.getObject().timer(METRIC, "service", service, "method", invocation.getMethod().getName(), "outcome", outcome)
+						.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+			}
+		}
+	}
+}
@@ -0,0 +1,44 @@
+package com.helpdesk.config;
+
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Password encoder that times hashing ({@code helpdesk.password.encode}) and verification
+ * ({@code helpdesk.password.matches}). BCrypt is deliberately slow, so these timers show how much
+ * of signup and login latency (and CPU) goes into it and whether the work factor needs tuning.
+ */
+public class TimedPasswordEncoder implements PasswordEncoder {
+
+	private final PasswordEncoder delegate; // Does the actual hashing
+	private final Timer encodeTimer;
+	private final Timer matchesTimer;
+
+	public TimedPasswordEncoder(PasswordEncoder delegate, MeterRegistry meterRegistry) {
+		this.delegate = delegate;
+		this.encodeTimer = Timer.builder("helpdesk.password.encode").description("Time spent hashing a password")
+				.register(meterRegistry);
+		this.matchesTimer = Timer.builder("helpdesk.password.matches").description("Time spent checking a password against its hash")
+				.register(meterRegistry);
+	}
+
+	@Override
+	public String encode(CharSequence rawPassword) {
+		return encodeTimer.record((Supplier<String>) () -> delegate.encode(rawPassword));
+	}
+
+	@Override
+	public boolean matches(CharSequence rawPassword, String encodedPassword) {
+		return matchesTimer.record((BooleanSupplier) () -> delegate.matches(rawPassword, encodedPassword));
+	}
+
+	@Override
+	public boolean upgradeEncoding(String encodedPassword) {
+		return delegate.upgradeEncoding(encodedPassword);
+	}
+}
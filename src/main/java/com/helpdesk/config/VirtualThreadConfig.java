@@ -0,0 +1,79 @@
+package com.helpdesk.config;
+
+import java.sql.SQLException;
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Safeguards for handling requests and background work on virtual threads ({@code spring.threads.virtual.enabled}).
+ * Spring Boot then runs Tomcat, the task executor and the schedulers on virtual threads, so the number of requests in
+ * flight is no longer capped by a thread pool. Database access is capped instead by
+ * {@link ConnectionLimitingDataSource}, and {@link PinnedThreadMonitor} reports code that pins carrier threads.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfig {
+
+	// Wraps the pooled DataSource; static because post-processors must not depend on this configuration instance
+	@Bean
+	public static BeanPostProcessor connectionLimitPostProcessor(
+			@Value("${helpdesk.jdbc.reserved-connections:2}") int reservedConnections,
+			@Value("${helpdesk.jdbc.acquire-timeout:30s}") Duration acquireTimeout,
+			ObjectProvider<MeterRegistry> meterRegistry) {
+		return new BeanPostProcessor() {
+			@Override
+			public Object postProcessAfterInitialization(Object bean, String beanName) {
+				if (!(bean instanceof DataSource dataSource) || bean instanceof ConnectionLimitingDataSource) {
+					return bean;
+				}
+				int poolSize = poolSize(dataSource);
+				if (poolSize <= 0) {
+					log.warn("DataSource {} is not a HikariCP pool; database access of virtual threads is not limited", beanName);
+					return bean;
+				}
+				int permits = Math.max(1, poolSize - reservedConnections);
+				ConnectionLimitingDataSource limited = new ConnectionLimitingDataSource(dataSource, permits, acquireTimeout);
+				meterRegistry.ifAvailable(registry -> {
+					Gauge.builder("helpdesk.jdbc.connection.waiting", limited, ConnectionLimitingDataSource::getWaiting)
+							.description("Threads waiting for a database connection permit").register(registry);
+					Gauge.builder("helpdesk.jdbc.connection.permits", limited, ConnectionLimitingDataSource::getAvailable)
+							.description("Database connection permits not taken").register(registry);
+				});
+				log.info("Virtual threads: at most {} threads hold database connections at once (pool size {})", permits, poolSize);
+				return limited;
+			}
+		};
+	}
+
+	// Pinned carrier threads as a metric and a log warning
+	@Bean
+	public PinnedThreadMonitor pinnedThreadMonitor(MeterRegistry meterRegistry,
+			@Value("${helpdesk.virtual-threads.pinned-threshold:20ms}") Duration threshold) {
+		return new PinnedThreadMonitor(meterRegistry, threshold);
+	}
+
+	// Maximum size of the HikariCP pool behind the DataSource, or 0 when there is none
+	private static int poolSize(DataSource dataSource) {
+		try {
+			return dataSource.isWrapperFor(HikariDataSource.class) ? dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize() : 0;
+		} catch (SQLException e) {
+			return 0;
+		}
+	}
+}
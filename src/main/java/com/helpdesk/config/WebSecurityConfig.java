@@ -2,9 +2,21 @@ package com.helpdesk.config;
 
 //import com.helpdesk.enums.UserRole;
 import com.helpdesk.services.jwt.UserService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.health.HealthEndpoint;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.config.Customizer;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.context.annotation.Bean;
@@ -39,24 +51,55 @@ public class WebSecurityConfig {
 	private final JwtAuthenticationFilter jwtAuthenticationFilter; // Custom filter to validate JWTs
 	private final UserService userService; // Custom user details service
 
+	/**
+	 * Security for the actuator endpoints (health, metrics, Prometheus scrape), checked before the API chain.
+	 * Health is public; everything else needs an ADMIN token or, for Prometheus, the optional HTTP Basic scrape user.
+	 */
+	@Bean
+	@Order(1)
+	public SecurityFilterChain actuatorFilterChain(HttpSecurity http, PasswordEncoder passwordEncoder,
+			@Value("${helpdesk.metrics.scrape-user:}") String scrapeUser,
+			@Value("${helpdesk.metrics.scrape-password:}") String scrapePassword) throws Exception {
+		http.securityMatcher(EndpointRequest.toAnyEndpoint())
+			.csrf(AbstractHttpConfigurer::disable)
+			.authorizeHttpRequests(request -> request
+				.requestMatchers(EndpointRequest.to(HealthEndpoint.class)).permitAll() // Liveness checks of load balancers
+				.anyRequest().hasAnyRole("ADMIN", "METRICS"))
+			.sessionManagement(session -> session.sessionCreationPolicy(STATELESS))
+			.exceptionHandling(exceptions -> exceptions.authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED)))
+			.addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class); // Admins use their usual token
+
+		if (!scrapeUser.isBlank()) {
+			// A dedicated account for the Prometheus server, which cannot obtain JWTs; kept only as a BCrypt hash
+			DaoAuthenticationProvider scrapeProvider = new DaoAuthenticationProvider(new InMemoryUserDetailsManager(
+					User.withUsername(scrapeUser).password(passwordEncoder.encode(scrapePassword)).roles("METRICS").build()));
+			scrapeProvider.setPasswordEncoder(passwordEncoder);
+			http.authenticationManager(new ProviderManager(scrapeProvider))
+				.httpBasic(Customizer.withDefaults());
+		}
+		return http.build();
+	}
+
 	/**
 	 * Defines the security filter chain for handling HTTP requests.
 	 * Configures authentication, authorization, session management, and filters.
 	 */
 	@Bean
-	public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+	public SecurityFilterChain securityFilterChain(HttpSecurity http, AuthenticationProvider authenticationProvider) throws Exception {
 		http.csrf(AbstractHttpConfigurer::disable) // Disable CSRF protection (commonly used with JWTs)
 			.cors(cors -> { }) // Enable CORS configuration
 			.authorizeHttpRequests(request -> request
+				.dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll() // Completion of an already authorized streamed response
 				.requestMatchers("/api/auth/**").permitAll() // Public access to auth endpoints
 				.requestMatchers("/swagger-ui/**", "/v3/api-docs/**").permitAll() // Public access to Swagger docs
 				.requestMatchers("/api/admin/**").hasRole("ADMIN") // Only accessible by ADMIN role
 				.requestMatchers("/api/customer/**").hasRole("CUSTOMER") // Only accessible by CUSTOMER role
 				.requestMatchers("/api/agent/**").hasRole("AGENT") // Only accessible by AGENT role
 				.requestMatchers("/api/comments/**").authenticated() // Requires authentication for comment APIs
+				.requestMatchers("/api/events/**").authenticated() // Live event streams; events are filtered per user
 				.anyRequest().authenticated()) // All other requests must be authenticated
 			.sessionManagement(session -> session.sessionCreationPolicy(STATELESS)) // Use stateless session (JWT)
-			.authenticationProvider(authenticationProvider()) // Use custom authentication provider
+			.authenticationProvider(authenticationProvider) // Use custom authentication provider
 			.addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class); // Add JWT filter before default filter
 
 		return http.build(); // Build and return the configured SecurityFilterChain
@@ -83,18 +126,18 @@ public class WebSecurityConfig {
 	 * Configures the password encoder used for encoding and verifying passwords.
 	 */
 	@Bean
-	public PasswordEncoder passwordEncoder() {
-		return new BCryptPasswordEncoder(); // Uses BCrypt hashing algorithm
+	public PasswordEncoder passwordEncoder(MeterRegistry meterRegistry) {
+		return new TimedPasswordEncoder(new BCryptPasswordEncoder(), meterRegistry); // BCrypt, timed for the metrics endpoint
 	}
 
 	/**
 	 * Defines a custom authentication provider using the application's UserService.
 	 */
 	@Bean
-	public AuthenticationProvider authenticationProvider() {
+	public AuthenticationProvider authenticationProvider(PasswordEncoder passwordEncoder) {
 		DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
 		authProvider.setUserDetailsService(userService.userDetailService()); // Custom user details service
-		authProvider.setPasswordEncoder(passwordEncoder()); // Set the password encoder
+		authProvider.setPasswordEncoder(passwordEncoder); // Set the password encoder
 		return authProvider;
 	}
 
@@ -1,19 +1,37 @@
 package com.helpdesk.controller.admin;
 
-import java.util.List;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Locale;
 import java.util.Map;
 
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.helpdesk.dto.PurgeJobDto;
 import com.helpdesk.dto.SignupRequest;
 import com.helpdesk.dto.TicketDto;
+import com.helpdesk.dto.TicketExportFilter;
 import com.helpdesk.dto.UserDto;
+import com.helpdesk.enums.FileFormat;
 import com.helpdesk.enums.Priority;
 import com.helpdesk.enums.Status;
 import com.helpdesk.services.admin.AdminService;
+import com.helpdesk.services.admin.CustomerPurgeService;
+import com.helpdesk.services.admin.TicketExportService;
+import com.helpdesk.services.admin.TicketImportService;
 import com.helpdesk.services.auth.AuthService;
+import com.helpdesk.services.dispatch.TicketDispatchService;
+import com.helpdesk.utils.TicketVersions;
 
 import lombok.RequiredArgsConstructor;
 
@@ -28,6 +46,10 @@ public class AdminController {
 	
 	private final AdminService adminService; // Service for admin-related logic
 	private final AuthService authService;   // Service for authentication and user management
+	private final CustomerPurgeService customerPurgeService; // Background deletion of customers
+	private final TicketImportService ticketImportService;   // Bulk ticket import
+	private final TicketExportService ticketExportService;   // Streaming ticket export
+	private final TicketDispatchService ticketDispatchService; // "Next ticket" dispatch queues
 	
 	/**
 	 * Registers a new agent after checking for username and email conflicts.
@@ -50,6 +72,15 @@ public class AdminController {
 		return ResponseEntity.status(HttpStatus.CREATED).body(createdUserDto);
 	}
 	
+	/**
+	 * Dashboard statistics: ticket counts by status × priority × department and open tickets per agent.
+	 * Counts are computed by the database and may be up to helpdesk.stats.cache-ttl old.
+	 */
+	@GetMapping("/stats")
+	public ResponseEntity<?> getStats() {
+		return ResponseEntity.ok(adminService.getStats());
+	}
+
 	/**
 	 * Fetches all customers.
 	 */
@@ -83,34 +114,53 @@ public class AdminController {
 	}
 	
 	/**
-	 * Retrieves all tickets in the system.
+	 * Retrieves tickets in the system, newest first.
+	 * Paged when a cursor or size is given; otherwise returns the deprecated unpaged list.
 	 */
 	@GetMapping("/tickets")
-	public ResponseEntity<?> getAllTickets() {
-		return ResponseEntity.ok(adminService.getAllTickets());
+	public ResponseEntity<?> getAllTickets(@RequestParam(required = false) String cursor,
+			@RequestParam(required = false) Integer size) {
+		if (cursor == null && size == null) {
+			return legacy(adminService.getAllTickets());
+		}
+		return ResponseEntity.ok(adminService.getAllTickets(cursor, size));
 	}
 	
 	/**
 	 * Fetches a specific ticket by its ID.
+	 * Answers 304 from the ticket's version alone when it is unchanged since the ETag sent in If-None-Match.
 	 */
 	@GetMapping("/ticket/{id}")
-	public ResponseEntity<?> getTicketById(@PathVariable Long id) {
+	public ResponseEntity<?> getTicketById(@PathVariable Long id, WebRequest request) {
+		Long version = adminService.getTicketVersion(id);
+		if (version != null && request.checkNotModified(TicketVersions.eTag(id, version))) {
+			return null; // 304 Not Modified, the ticket and its comments are not loaded
+		}
 		TicketDto ticket = adminService.getTicketById(id);
 		if (ticket == null) {
 			return ResponseEntity.status(HttpStatus.NOT_FOUND)
 				.body(Map.of("error", "Ticket not found", "message", "No ticket found with ID: " + id));
 		}
-		return ResponseEntity.ok(ticket);
+		return ResponseEntity.ok().cacheControl(CacheControl.noCache().cachePrivate())
+				.eTag(TicketVersions.eTag(ticket.getId(), ticket.getVersion()))
+				.body(ticket);
 	}
 	
 	/**
 	 * Assigns a ticket to an agent.
+	 * With an If-Match header (the ticket's ETag) the assignment is rejected with 412 if the ticket changed in the meantime.
 	 */
 	@PutMapping("/tickets/{ticketId}/assign")
-	public ResponseEntity<?> assignTicket(@PathVariable Long ticketId, @RequestParam Long agentId) {
+	public ResponseEntity<?> assignTicket(@PathVariable Long ticketId, @RequestParam Long agentId,
+			@RequestHeader(value = "If-Match", required = false) String ifMatch) {
+		Long expectedVersion = TicketVersions.expectedVersion(ifMatch, ticketId);
 		try {
-			TicketDto updatedTicket = adminService.assignTicket(ticketId, agentId);
-			return ResponseEntity.ok(updatedTicket);
+			TicketDto updatedTicket = adminService.assignTicket(ticketId, agentId, expectedVersion);
+			return ResponseEntity.ok().eTag(TicketVersions.eTag(updatedTicket.getId(), updatedTicket.getVersion())).body(updatedTicket);
+		} catch (OptimisticLockingFailureException e) {
+			// The ticket was changed by someone else since the admin read it
+			return ResponseEntity.status(ifMatch != null ? HttpStatus.PRECONDITION_FAILED : HttpStatus.CONFLICT)
+				.body(Map.of("error", "Ticket was modified", "message", "Ticket " + ticketId + " has changed; reload it and try again"));
 		} catch (RuntimeException e) {
 			return ResponseEntity.badRequest()
 				.body(Map.of("error", "Assignment failed", "message", e.getMessage()));
@@ -121,19 +171,23 @@ public class AdminController {
 	 * Searches tickets by their title.
 	 */
 	@GetMapping("/tickets/search/{title}")
-	public ResponseEntity<List<TicketDto>> searchTicket(@PathVariable String title) {
-		return ResponseEntity.ok(adminService.searchTicketByTitle(title));
+	public ResponseEntity<?> searchTicket(@PathVariable String title, @RequestParam(required = false) String cursor,
+			@RequestParam(required = false) Integer size) {
+		if (cursor == null && size == null) {
+			return legacy(adminService.searchTicketByTitle(title));
+		}
+		return ResponseEntity.ok(adminService.searchTicketByTitle(title, cursor, size));
 	}
 
 	/**
 	 * Filters tickets based on their priority.
 	 */
 	@GetMapping("/tickets/priority/{priority}")
-	public ResponseEntity<?> filterTicketsByPriority(@PathVariable String priority) {
+	public ResponseEntity<?> filterTicketsByPriority(@PathVariable String priority,
+			@RequestParam(required = false) String cursor, @RequestParam(required = false) Integer size) {
+		Priority priorityEnum;
 		try {
-			Priority priorityEnum = Priority.valueOf(priority.toUpperCase());
-			List<TicketDto> tickets = adminService.filterTicketsByPriority(priorityEnum);
-			return ResponseEntity.ok(tickets);
+			priorityEnum = Priority.valueOf(priority.toUpperCase());
 		} catch (IllegalArgumentException e) {
 			return ResponseEntity.badRequest()
 				.body(Map.of(
@@ -142,17 +196,21 @@ public class AdminController {
 						String.join(", ", java.util.Arrays.stream(Priority.values()).map(Enum::name).toArray(String[]::new))
 				));
 		}
+		if (cursor == null && size == null) {
+			return legacy(adminService.filterTicketsByPriority(priorityEnum));
+		}
+		return ResponseEntity.ok(adminService.filterTicketsByPriority(priorityEnum, cursor, size));
 	}
 
 	/**
 	 * Filters tickets based on their status.
 	 */
 	@GetMapping("/tickets/status/{status}")
-	public ResponseEntity<?> filterTicketsByStatus(@PathVariable String status) {
+	public ResponseEntity<?> filterTicketsByStatus(@PathVariable String status,
+			@RequestParam(required = false) String cursor, @RequestParam(required = false) Integer size) {
+		Status statusEnum;
 		try {
-			Status statusEnum = Status.valueOf(status.toUpperCase());
-			List<TicketDto> tickets = adminService.filterTicketsByStatus(statusEnum);
-			return ResponseEntity.ok(tickets);
+			statusEnum = Status.valueOf(status.toUpperCase());
 		} catch (IllegalArgumentException e) {
 			return ResponseEntity.badRequest()
 				.body(Map.of(
@@ -161,30 +219,94 @@ public class AdminController {
 						String.join(", ", java.util.Arrays.stream(Status.values()).map(Enum::name).toArray(String[]::new))
 				));
 		}
+		if (cursor == null && size == null) {
+			return legacy(adminService.filterTicketsByStatus(statusEnum));
+		}
+		return ResponseEntity.ok(adminService.filterTicketsByStatus(statusEnum, cursor, size));
 	}
 
 	/**
 	 * Filters tickets by department name.
 	 */
 	@GetMapping("/tickets/department/{name}")
-	public ResponseEntity<List<TicketDto>> filterTicketsByDepartmentName(@PathVariable String name) {
-		return ResponseEntity.ok(adminService.filterTicketsByDepartmentName(name));
+	public ResponseEntity<?> filterTicketsByDepartmentName(@PathVariable String name,
+			@RequestParam(required = false) String cursor, @RequestParam(required = false) Integer size) {
+		if (cursor == null && size == null) {
+			return legacy(adminService.filterTicketsByDepartmentName(name));
+		}
+		return ResponseEntity.ok(adminService.filterTicketsByDepartmentName(name, cursor, size));
 	}
 
 	/**
-	 * Deletes a customer by ID along with their tickets.
+	 * Starts deleting a customer along with their tickets and comments in the background.
+	 * Responds with 202 and the job; its progress is available at the Location header.
 	 */
 	@DeleteMapping("/customers/{customerId}")
 	public ResponseEntity<?> deleteCustomer(@PathVariable Long customerId) {
 		try {
-			adminService.deleteCustomer(customerId);
-			return ResponseEntity.ok(Map.of("message", "Customer and all their tickets deleted successfully"));
+			PurgeJobDto job = customerPurgeService.startPurge(customerId);
+			return ResponseEntity.accepted()
+				.location(URI.create("/api/admin/jobs/" + job.getJobId()))
+				.body(job);
 		} catch (RuntimeException e) {
 			return ResponseEntity.badRequest()
 				.body(Map.of("error", "Delete failed", "message", e.getMessage()));
 		}
 	}
+
+	/**
+	 * Fetches the status and progress of a background job (e.g. a customer purge).
+	 */
+	@GetMapping("/jobs/{jobId}")
+	public ResponseEntity<?> getJob(@PathVariable String jobId) {
+		return customerPurgeService.getJob(jobId)
+			.<ResponseEntity<?>>map(ResponseEntity::ok)
+			.orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+				.body(Map.of("error", "Job not found", "message", "No job with ID " + jobId)));
+	}
 	
+	/**
+	 * Reports the "next ticket" dispatcher's queue depth per department, dispatch counters and latency.
+	 */
+	@GetMapping("/dispatch/stats")
+	public ResponseEntity<?> getDispatchStats() {
+		return ResponseEntity.ok(ticketDispatchService.getStats());
+	}
+
+	/**
+	 * Creates tickets in bulk from a CSV (text/csv, with a header line) or NDJSON (application/x-ndjson) request body.
+	 * The body is streamed, so uploads of any size can be imported; invalid rows are reported in the summary.
+	 */
+	@PostMapping(value = "/tickets/import", consumes = { "text/csv", MediaType.APPLICATION_NDJSON_VALUE })
+	public ResponseEntity<?> importTickets(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType, InputStream body) {
+		FileFormat format = MediaType.APPLICATION_NDJSON.isCompatibleWith(contentType) ? FileFormat.NDJSON : FileFormat.CSV;
+		try {
+			return ResponseEntity.ok(ticketImportService.importTickets(body, format));
+		} catch (IOException e) {
+			return ResponseEntity.badRequest()
+				.body(Map.of("error", "Import failed", "message", e.getMessage()));
+		}
+	}
+
+	/**
+	 * Downloads tickets as CSV ({format} = csv) or NDJSON ({format} = ndjson), optionally filtered by status, priority,
+	 * department and creation dates (from/to, inclusive, yyyy-MM-dd). Rows are streamed as they are read, so the
+	 * whole table can be exported.
+	 */
+	@GetMapping("/tickets/export/{format}")
+	public ResponseEntity<StreamingResponseBody> exportTickets(@PathVariable String format, TicketExportFilter filter) {
+		// An unknown format is answered with 400 by GlobalExceptionHandler
+		FileFormat fileFormat = Arrays.stream(FileFormat.values())
+			.filter(candidate -> candidate.name().equalsIgnoreCase(format))
+			.findFirst()
+			.orElseThrow(() -> new IllegalArgumentException("Unknown export format " + format + ", expected csv or ndjson"));
+		StreamingResponseBody body = output -> ticketExportService.export(filter, fileFormat, output);
+		return ResponseEntity.ok()
+			.contentType(fileFormat == FileFormat.CSV ? MediaType.parseMediaType("text/csv") : MediaType.APPLICATION_NDJSON)
+			.header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"tickets." + format.toLowerCase(Locale.ROOT) + "\"")
+			.body(body);
+	}
+
 	/**
 	 * Deletes an agent by ID and unassigns their tickets.
 	 */
@@ -198,4 +320,11 @@ public class AdminController {
 				.body(Map.of("error", "Delete failed", "message", e.getMessage()));
 		}
 	}
+
+	/**
+	 * Wraps a response of a deprecated unpaged endpoint, flagging it for clients.
+	 */
+	private ResponseEntity<?> legacy(Object body) {
+		return ResponseEntity.ok().header("Deprecation", "true").body(body);
+	}
 }
@@ -5,10 +5,13 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import com.helpdesk.dto.DepartmentDto;
+import com.helpdesk.dto.DepartmentListDto;
 import com.helpdesk.services.admin.DepartmentService;
+import com.helpdesk.utils.DepartmentETags;
 
 import lombok.RequiredArgsConstructor;
 import java.util.Map;
+import java.util.Optional;
 
 /**
  * REST controller for managing departments.
@@ -23,10 +26,12 @@ public class DepartmentController {
 
 	/**
 	 * Retrieves a list of all departments.
+	 * The response carries the department list version as its ETag, so clients that revalidate with
+	 * If-None-Match get an empty 304 until a department is added, renamed or removed.
 	 */
 	@GetMapping
 	public ResponseEntity<?> getAllDepartments() {
-		return ResponseEntity.ok(departmentService.getAllDepartments());
+		return DepartmentETags.ok(departmentService.getAllDepartments());
 	}
 
 	/**
@@ -34,9 +39,10 @@ public class DepartmentController {
 	 */
 	@GetMapping("/{id}")
 	public ResponseEntity<?> getDepartmentById(@PathVariable Long id) {
-		DepartmentDto department = departmentService.getDepartmentById(id);
-		if (department != null) {
-			return ResponseEntity.ok(department);
+		DepartmentListDto departments = departmentService.getAllDepartments(); // The department and its ETag from one copy
+		Optional<DepartmentDto> department = departments.find(id);
+		if (department.isPresent()) {
+			return DepartmentETags.ok(department.get(), departments);
 		}
 		return ResponseEntity.status(HttpStatus.NOT_FOUND)
 			.body(Map.of("error", "Department not found", "message", "No department found with ID: " + id));
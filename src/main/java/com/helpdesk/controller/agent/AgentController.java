@@ -1,19 +1,25 @@
 package com.helpdesk.controller.agent;
 
-import java.util.List;
-
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import com.helpdesk.dto.TicketDto;
 import com.helpdesk.enums.Priority;
 import com.helpdesk.enums.Status;
 import com.helpdesk.services.agent.AgentService;
+import com.helpdesk.services.dispatch.TicketDispatchService;
+import com.helpdesk.utils.DepartmentETags;
+import com.helpdesk.utils.TicketVersions;
 
 import lombok.RequiredArgsConstructor;
 
@@ -26,92 +32,163 @@ import lombok.RequiredArgsConstructor;
 public class AgentController {
 
 	private final AgentService agentService; // Service layer for agent functionality
+	private final TicketDispatchService ticketDispatchService; // Hands out the next ticket to work on
 
 	/**
-	 * Retrieves all tickets visible to the agent.
+	 * Retrieves tickets visible to the agent, newest first.
+	 * Paged when a cursor or size is given; otherwise returns the deprecated unpaged list.
 	 */
 	@GetMapping("/tickets")
-	public ResponseEntity<?> getAllTickets() {
-		return ResponseEntity.ok(agentService.getAllTickets());
+	public ResponseEntity<?> getAllTickets(@RequestParam(required = false) String cursor,
+			@RequestParam(required = false) Integer size) {
+		if (cursor == null && size == null) {
+			return legacy(agentService.getAllTickets());
+		}
+		return ResponseEntity.ok(agentService.getAllTickets(cursor, size));
 	}
 
 	/**
 	 * Retrieves a ticket by its ID.
+	 * Answers 304 from the ticket's version alone when it is unchanged since the ETag sent in If-None-Match.
 	 */
 	@GetMapping("/ticket/{id}")
-	public ResponseEntity<TicketDto> getTicketById(@PathVariable Long id) {
+	public ResponseEntity<TicketDto> getTicketById(@PathVariable Long id, WebRequest request) {
+		Long version = agentService.getTicketVersion(id);
+		if (version != null && request.checkNotModified(TicketVersions.eTag(id, version))) {
+			return null; // 304 Not Modified, the ticket and its comments are not loaded
+		}
 		TicketDto ticket = agentService.getTicketById(id);
 		if (ticket == null) {
 			return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
 		}
-		return ResponseEntity.ok(ticket);
+		return ResponseEntity.ok().cacheControl(CacheControl.noCache().cachePrivate())
+				.eTag(TicketVersions.eTag(ticket.getId(), ticket.getVersion()))
+				.body(ticket);
 	}
 
 	/**
 	 * Searches for tickets by title.
 	 */
 	@GetMapping("/tickets/search/{title}")
-	public ResponseEntity<List<TicketDto>> searchTicket(@PathVariable String title) {
-		return ResponseEntity.ok(agentService.searchTicketByTitle(title));
+	public ResponseEntity<?> searchTicket(@PathVariable String title, @RequestParam(required = false) String cursor,
+			@RequestParam(required = false) Integer size) {
+		if (cursor == null && size == null) {
+			return legacy(agentService.searchTicketByTitle(title));
+		}
+		return ResponseEntity.ok(agentService.searchTicketByTitle(title, cursor, size));
 	}
 
 	/**
 	 * Filters tickets based on priority (HIGH, MEDIUM, LOW).
 	 */
 	@GetMapping("/tickets/priority/{priority}")
-	public ResponseEntity<List<TicketDto>> filterTicketsByPriority(@PathVariable String priority) {
+	public ResponseEntity<?> filterTicketsByPriority(@PathVariable String priority,
+			@RequestParam(required = false) String cursor, @RequestParam(required = false) Integer size) {
+		Priority priorityEnum;
 		try {
-			Priority priorityEnum = Priority.valueOf(priority.toUpperCase());
-			List<TicketDto> tickets = agentService.filterTicketsByPriority(priorityEnum);
-			return ResponseEntity.ok(tickets);
+			priorityEnum = Priority.valueOf(priority.toUpperCase());
 		} catch (IllegalArgumentException e) {
 			// Return 400 BAD REQUEST if invalid priority is passed
 			return ResponseEntity.badRequest().build();
 		}
+		if (cursor == null && size == null) {
+			return legacy(agentService.filterTicketsByPriority(priorityEnum));
+		}
+		return ResponseEntity.ok(agentService.filterTicketsByPriority(priorityEnum, cursor, size));
 	}
 
 	/**
 	 * Filters tickets based on status (e.g., OPEN, CLOSED, IN_PROGRESS).
 	 */
 	@GetMapping("/tickets/status/{status}")
-	public ResponseEntity<List<TicketDto>> filterTicketsByStatus(@PathVariable String status) {
+	public ResponseEntity<?> filterTicketsByStatus(@PathVariable String status,
+			@RequestParam(required = false) String cursor, @RequestParam(required = false) Integer size) {
+		Status statusEnum;
 		try {
-			Status statusEnum = Status.valueOf(status.toUpperCase());
-			List<TicketDto> tickets = agentService.filterTicketsByStatus(statusEnum);
-			return ResponseEntity.ok(tickets);
+			statusEnum = Status.valueOf(status.toUpperCase());
 		} catch (IllegalArgumentException e) {
 			// Return 400 BAD REQUEST if invalid status is passed
 			return ResponseEntity.badRequest().build();
 		}
+		if (cursor == null && size == null) {
+			return legacy(agentService.filterTicketsByStatus(statusEnum));
+		}
+		return ResponseEntity.ok(agentService.filterTicketsByStatus(statusEnum, cursor, size));
 	}
 
 	/**
 	 * Filters tickets by the department name.
 	 */
 	@GetMapping("/tickets/department/{name}")
-	public ResponseEntity<List<TicketDto>> filterTicketsByDepartmentName(@PathVariable String name) {
-		return ResponseEntity.ok(agentService.filterTicketsByDepartmentName(name));
+	public ResponseEntity<?> filterTicketsByDepartmentName(@PathVariable String name,
+			@RequestParam(required = false) String cursor, @RequestParam(required = false) Integer size) {
+		if (cursor == null && size == null) {
+			return legacy(agentService.filterTicketsByDepartmentName(name));
+		}
+		return ResponseEntity.ok(agentService.filterTicketsByDepartmentName(name, cursor, size));
 	}
 
 	/**
 	 * Assigns the ticket with the given ID to the currently logged-in agent.
+	 * Responds 409 Conflict when the ticket is already assigned, including when another agent claimed it first.
 	 */
 	@PutMapping("/tickets/{ticketId}/assign")
 	public ResponseEntity<?> assignTicketToMe(@PathVariable Long ticketId) {
 		try {
 			TicketDto updatedTicket = agentService.assignTicketToMe(ticketId);
-			return ResponseEntity.ok(updatedTicket);
+			return ResponseEntity.ok().eTag(TicketVersions.eTag(updatedTicket.getId(), updatedTicket.getVersion())).body(updatedTicket);
+		} catch (ConcurrencyFailureException e) {
+			// Another agent holds the ticket
+			return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
 		} catch (RuntimeException e) {
 			// Handle failure (e.g., ticket not found or already assigned)
 			return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
 		}
 	}
 
+	/**
+	 * Assigns the most urgent unassigned ticket of the agent's department to the agent (highest priority, then oldest).
+	 * Responds 204 No Content when the department has nothing waiting.
+	 */
+	@PostMapping("/next")
+	public ResponseEntity<?> nextTicket() {
+		try {
+			TicketDto ticket = ticketDispatchService.next();
+			if (ticket == null) {
+				return ResponseEntity.noContent().build();
+			}
+			return ResponseEntity.ok().eTag(TicketVersions.eTag(ticket.getId(), ticket.getVersion())).body(ticket);
+		} catch (RuntimeException e) {
+			// Handle failure (e.g., agent without a department)
+			return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+		}
+	}
+
+	/**
+	 * Dashboard statistics for the agent's department: ticket counts by status × priority and open tickets per agent.
+	 */
+	@GetMapping("/stats")
+	public ResponseEntity<?> getStats() {
+		try {
+			return ResponseEntity.ok(agentService.getStats());
+		} catch (RuntimeException e) {
+			// Handle failure (e.g., agent without a department)
+			return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+		}
+	}
+
 	/**
 	 * Retrieves all departments accessible to the agent.
 	 */
 	@GetMapping("/departments")
 	public ResponseEntity<?> getAllDepartments() {
-		return ResponseEntity.ok(agentService.getAllDepartments());
+		return DepartmentETags.ok(agentService.getAllDepartments());
+	}
+
+	/**
+	 * Wraps a response of a deprecated unpaged endpoint, flagging it for clients.
+	 */
+	private ResponseEntity<?> legacy(Object body) {
+		return ResponseEntity.ok().header("Deprecation", "true").body(body);
 	}
 }
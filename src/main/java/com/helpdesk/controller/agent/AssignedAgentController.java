@@ -1,20 +1,24 @@
 package com.helpdesk.controller.agent;
 
-import java.util.List;
-
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import com.helpdesk.dto.TicketDto;
 import com.helpdesk.enums.Priority;
 import com.helpdesk.enums.Status;
 import com.helpdesk.services.agent.AgentService;
+import com.helpdesk.utils.DepartmentETags;
+import com.helpdesk.utils.TicketVersions;
 
 import lombok.RequiredArgsConstructor;
 
@@ -30,81 +34,122 @@ public class AssignedAgentController {
     private final AgentService agentService;
 
     /**
-     * Get all tickets assigned to the current agent.
+     * Get tickets assigned to the current agent, newest first.
+     * Paged when a cursor or size is given; otherwise returns the deprecated unpaged list.
+     * Answers 304 when none of the agent's tickets changed since the ETag sent in If-None-Match.
      */
     @GetMapping("/tickets")
-    public ResponseEntity<?> getAssignedTickets() {
-        return ResponseEntity.ok(agentService.getAssignedTickets());
+    public ResponseEntity<?> getAssignedTickets(@RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size, WebRequest request) {
+        String etag = TicketVersions.eTag(agentService.getAssignedTicketsVersion());
+        if (request.checkNotModified(etag)) {
+            return null; // 304 Not Modified, the list is not read
+        }
+        if (cursor == null && size == null) {
+            return ResponseEntity.ok().header("Deprecation", "true")
+                    .cacheControl(CacheControl.noCache().cachePrivate()).eTag(etag)
+                    .body(agentService.getAssignedTickets());
+        }
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache().cachePrivate()).eTag(etag)
+                .body(agentService.getAssignedTickets(cursor, size));
     }
 
     /**
      * Get a specific assigned ticket by its ID.
+     * Answers 304 from the ticket's version alone when it is unchanged since the ETag sent in If-None-Match.
      */
     @GetMapping("/ticket/{id}")
-    public ResponseEntity<TicketDto> getAssignedTicketById(@PathVariable Long id) {
+    public ResponseEntity<TicketDto> getAssignedTicketById(@PathVariable Long id, WebRequest request) {
+        Long version = agentService.getAssignedTicketVersion(id);
+        if (version != null && request.checkNotModified(TicketVersions.eTag(id, version))) {
+            return null; // 304 Not Modified, the ticket and its comments are not loaded
+        }
         TicketDto ticket = agentService.getAssignedTicketById(id);
         if (ticket == null) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
         }
-        return ResponseEntity.ok(ticket);
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache().cachePrivate())
+                .eTag(TicketVersions.eTag(ticket.getId(), ticket.getVersion()))
+                .body(ticket);
     }
 
     /**
      * Search assigned tickets by title.
      */
     @GetMapping("/tickets/search/{title}")
-    public ResponseEntity<List<TicketDto>> searchAssignedTicketByTitle(@PathVariable String title) {
-        return ResponseEntity.ok(agentService.searchAssignedTicketByTitle(title));
+    public ResponseEntity<?> searchAssignedTicketByTitle(@PathVariable String title,
+            @RequestParam(required = false) String cursor, @RequestParam(required = false) Integer size) {
+        if (cursor == null && size == null) {
+            return legacy(agentService.searchAssignedTicketByTitle(title));
+        }
+        return ResponseEntity.ok(agentService.searchAssignedTicketByTitle(title, cursor, size));
     }
 
     /**
      * Filter assigned tickets by priority (e.g., HIGH, MEDIUM, LOW).
      */
     @GetMapping("/tickets/priority/{priority}")
-    public ResponseEntity<List<TicketDto>> filterAssignedTicketsByPriority(@PathVariable String priority) {
+    public ResponseEntity<?> filterAssignedTicketsByPriority(@PathVariable String priority,
+            @RequestParam(required = false) String cursor, @RequestParam(required = false) Integer size) {
+        Priority priorityEnum;
         try {
-            Priority priorityEnum = Priority.valueOf(priority.toUpperCase());
-            List<TicketDto> tickets = agentService.filterAssignedTicketsByPriority(priorityEnum);
-            return ResponseEntity.ok(tickets);
+            priorityEnum = Priority.valueOf(priority.toUpperCase());
         } catch (IllegalArgumentException e) {
             // If the priority is invalid, return 400 BAD REQUEST
             return ResponseEntity.badRequest().build();
         }
+        if (cursor == null && size == null) {
+            return legacy(agentService.filterAssignedTicketsByPriority(priorityEnum));
+        }
+        return ResponseEntity.ok(agentService.filterAssignedTicketsByPriority(priorityEnum, cursor, size));
     }
 
     /**
      * Filter assigned tickets by status (e.g., OPEN, CLOSED).
      */
     @GetMapping("/tickets/status/{status}")
-    public ResponseEntity<List<TicketDto>> filterAssignedTicketsByStatus(@PathVariable String status) {
+    public ResponseEntity<?> filterAssignedTicketsByStatus(@PathVariable String status,
+            @RequestParam(required = false) String cursor, @RequestParam(required = false) Integer size) {
+        Status statusEnum;
         try {
-            Status statusEnum = Status.valueOf(status.toUpperCase());
-            List<TicketDto> tickets = agentService.filterAssignedTicketsByStatus(statusEnum);
-            return ResponseEntity.ok(tickets);
+            statusEnum = Status.valueOf(status.toUpperCase());
         } catch (IllegalArgumentException e) {
             // If the status is invalid, return 400 BAD REQUEST
             return ResponseEntity.badRequest().build();
         }
+        if (cursor == null && size == null) {
+            return legacy(agentService.filterAssignedTicketsByStatus(statusEnum));
+        }
+        return ResponseEntity.ok(agentService.filterAssignedTicketsByStatus(statusEnum, cursor, size));
     }
 
     /**
      * Filter assigned tickets by department name.
      */
     @GetMapping("/tickets/department/{name}")
-    public ResponseEntity<List<TicketDto>> filterAssignedTicketsByDepartmentName(@PathVariable String name) {
-        List<TicketDto> tickets = agentService.filterAssignedTicketsByDepartmentName(name);
-        return ResponseEntity.ok(tickets);
+    public ResponseEntity<?> filterAssignedTicketsByDepartmentName(@PathVariable String name,
+            @RequestParam(required = false) String cursor, @RequestParam(required = false) Integer size) {
+        if (cursor == null && size == null) {
+            return legacy(agentService.filterAssignedTicketsByDepartmentName(name));
+        }
+        return ResponseEntity.ok(agentService.filterAssignedTicketsByDepartmentName(name, cursor, size));
     }
 
     /**
      * Update the priority of a specific assigned ticket.
      */
     @PutMapping("/tickets/{ticketId}/priority")
-    public ResponseEntity<?> updatAssignedTicketePriority(@PathVariable Long ticketId, @RequestParam String priority) {
+    public ResponseEntity<?> updatAssignedTicketePriority(@PathVariable Long ticketId, @RequestParam String priority,
+            @RequestHeader(value = "If-Match", required = false) String ifMatch) {
+        Long expectedVersion = TicketVersions.expectedVersion(ifMatch, ticketId);
         try {
             Priority priorityEnum = Priority.valueOf(priority.toUpperCase());
-            TicketDto updatedTicket = agentService.updatAssignedTicketePriority(ticketId, priorityEnum);
-            return ResponseEntity.ok(updatedTicket);
+            TicketDto updatedTicket = agentService.updatAssignedTicketePriority(ticketId, priorityEnum, expectedVersion);
+            return ResponseEntity.ok().eTag(TicketVersions.eTag(updatedTicket.getId(), updatedTicket.getVersion())).body(updatedTicket);
+        } catch (OptimisticLockingFailureException e) {
+            // The ticket was changed by someone else since the agent read it
+            return ResponseEntity.status(ifMatch != null ? HttpStatus.PRECONDITION_FAILED : HttpStatus.CONFLICT)
+                    .body("Ticket " + ticketId + " has changed; reload it and try again");
         } catch (IllegalArgumentException e) {
             // Invalid priority input
             return ResponseEntity.badRequest().body("Invalid priority: " + priority);
@@ -118,11 +163,17 @@ public class AssignedAgentController {
      * Update the status of a specific assigned ticket.
      */
     @PutMapping("/tickets/{ticketId}/status")
-    public ResponseEntity<?> updateAssignedTicketStatus(@PathVariable Long ticketId, @RequestParam String status) {
+    public ResponseEntity<?> updateAssignedTicketStatus(@PathVariable Long ticketId, @RequestParam String status,
+            @RequestHeader(value = "If-Match", required = false) String ifMatch) {
+        Long expectedVersion = TicketVersions.expectedVersion(ifMatch, ticketId);
         try {
             Status newStatus = Status.valueOf(status.toUpperCase());
-            TicketDto updatedTicket = agentService.updateAssignedTicketStatus(ticketId, newStatus);
-            return ResponseEntity.ok(updatedTicket);
+            TicketDto updatedTicket = agentService.updateAssignedTicketStatus(ticketId, newStatus, expectedVersion);
+            return ResponseEntity.ok().eTag(TicketVersions.eTag(updatedTicket.getId(), updatedTicket.getVersion())).body(updatedTicket);
+        } catch (OptimisticLockingFailureException e) {
+            // The ticket was changed by someone else since the agent read it
+            return ResponseEntity.status(ifMatch != null ? HttpStatus.PRECONDITION_FAILED : HttpStatus.CONFLICT)
+                    .body("Ticket " + ticketId + " has changed; reload it and try again");
         } catch (IllegalArgumentException e) {
             // Invalid status input
             return ResponseEntity.badRequest().body("Invalid status: " + status);
@@ -137,7 +188,14 @@ public class AssignedAgentController {
      */
     @GetMapping("/departments")
     public ResponseEntity<?> getAllDepartments() {
-        return ResponseEntity.ok(agentService.getAllDepartments());
+        return DepartmentETags.ok(agentService.getAllDepartments());
+    }
+
+    /**
+     * Wraps a response of a deprecated unpaged endpoint, flagging it for clients.
+     */
+    private ResponseEntity<?> legacy(Object body) {
+        return ResponseEntity.ok().header("Deprecation", "true").body(body);
     }
 
 }
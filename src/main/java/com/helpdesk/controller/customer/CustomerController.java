@@ -1,16 +1,21 @@
 package com.helpdesk.controller.customer;
 
-import java.util.List;
 import java.util.Map;
 
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import com.helpdesk.dto.TicketDto;
+import com.helpdesk.dto.TicketStatsDto;
 import com.helpdesk.enums.Priority;
 import com.helpdesk.enums.Status;
 import com.helpdesk.services.customer.CustomerService;
+import com.helpdesk.utils.DepartmentETags;
+import com.helpdesk.utils.TicketVersions;
 
 import lombok.RequiredArgsConstructor;
 
@@ -38,11 +43,24 @@ public class CustomerController {
 	}
 
 	/**
-	 * Retrieve all tickets created by the customer.
+	 * Retrieve tickets created by the customer, newest first.
+	 * Paged when a cursor or size is given; otherwise returns the deprecated unpaged list.
+	 * Answers 304 when none of the customer's tickets changed since the ETag sent in If-None-Match.
 	 */
 	@GetMapping("/ticketsCreated")
-    public ResponseEntity<?> getAllTicketsCreated() {
-		return ResponseEntity.ok(customerService.getAllTicketsCreated());
+    public ResponseEntity<?> getAllTicketsCreated(@RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size, WebRequest request) {
+        String etag = TicketVersions.eTag(customerService.getTicketsCreatedVersion());
+        if (request.checkNotModified(etag)) {
+            return null; // 304 Not Modified, the list is not read
+        }
+		if (cursor == null && size == null) {
+			return ResponseEntity.ok().header("Deprecation", "true")
+					.cacheControl(CacheControl.noCache().cachePrivate()).eTag(etag)
+					.body(customerService.getAllTicketsCreated());
+		}
+		return ResponseEntity.ok().cacheControl(CacheControl.noCache().cachePrivate()).eTag(etag)
+				.body(customerService.getAllTicketsCreated(cursor, size));
     }
 
 	/**
@@ -58,33 +76,51 @@ public class CustomerController {
 	 * Search tickets by their title.
 	 */
     @GetMapping("/tickets/search/{title}")
-    public ResponseEntity<?> searchTicketsByTitle(@PathVariable String title) {
-        return ResponseEntity.ok(customerService.searchTicketByTitle(title));
+    public ResponseEntity<?> searchTicketsByTitle(@PathVariable String title,
+            @RequestParam(required = false) String cursor, @RequestParam(required = false) Integer size) {
+        if (cursor == null && size == null) {
+            return legacy(customerService.searchTicketByTitle(title));
+        }
+        return ResponseEntity.ok(customerService.searchTicketByTitle(title, cursor, size));
     }
 
 	/**
 	 * Retrieve a ticket by its ID.
+	 * Answers 304 from the ticket's version alone when it is unchanged since the ETag sent in If-None-Match.
 	 */
     @GetMapping("/ticket/{id}")
-    public ResponseEntity<?> getTicketById(@PathVariable Long id) {
+    public ResponseEntity<?> getTicketById(@PathVariable Long id, WebRequest request) {
+        Long version = customerService.getTicketVersion(id);
+        if (version != null && request.checkNotModified(TicketVersions.eTag(id, version))) {
+            return null; // 304 Not Modified, the ticket and its comments are not loaded
+        }
     	TicketDto ticket = customerService.getTicketById(id);
         if (ticket == null) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                 .body(Map.of("error", "Ticket not found", "message", "No ticket found with ID: " + id));
         }
-        return ResponseEntity.ok(ticket);
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache().cachePrivate())
+                .eTag(TicketVersions.eTag(ticket.getId(), ticket.getVersion()))
+                .body(ticket);
     }
 
 	/**
 	 * Update the status of a ticket.
+	 * With an If-Match header (the ticket's ETag) the update is rejected with 412 if the ticket changed in the meantime.
 	 */
     @PutMapping("/tickets/{ticketId}/status")
-    public ResponseEntity<?> updateTicketStatus(@PathVariable Long ticketId, @RequestParam String status) {
+    public ResponseEntity<?> updateTicketStatus(@PathVariable Long ticketId, @RequestParam String status,
+            @RequestHeader(value = "If-Match", required = false) String ifMatch) {
+        Long expectedVersion = TicketVersions.expectedVersion(ifMatch, ticketId);
         try {
             // Convert status string to enum
             Status newStatus = Status.valueOf(status.toUpperCase());
-            TicketDto updatedTicket = customerService.updateTicketStatus(ticketId, newStatus);
-            return ResponseEntity.ok(updatedTicket);
+            TicketDto updatedTicket = customerService.updateTicketStatus(ticketId, newStatus, expectedVersion);
+            return ResponseEntity.ok().eTag(TicketVersions.eTag(updatedTicket.getId(), updatedTicket.getVersion())).body(updatedTicket);
+        } catch (OptimisticLockingFailureException e) {
+            // The ticket was changed by someone else since the client read it
+            return ResponseEntity.status(ifMatch != null ? HttpStatus.PRECONDITION_FAILED : HttpStatus.CONFLICT)
+                .body(Map.of("error", "Ticket was modified", "message", "Ticket " + ticketId + " has changed; reload it and try again"));
         } catch (IllegalArgumentException e) {
             // Invalid status provided
             return ResponseEntity.badRequest()
@@ -97,52 +133,84 @@ public class CustomerController {
         }
     }
 
+	/**
+	 * Dashboard statistics over the customer's own tickets (counts by status × priority × department).
+	 */
+    @GetMapping("/stats")
+    public ResponseEntity<?> getStats() {
+        TicketStatsDto stats = customerService.getStats();
+        if (stats == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                .body(Map.of("error", "Not authenticated", "message", "User not authenticated"));
+        }
+        return ResponseEntity.ok(stats);
+    }
+
 	/**
 	 * Get all departments available for ticket assignment.
 	 */
     @GetMapping("/departments")
     public ResponseEntity<?> getAllDepartments() {
-        return ResponseEntity.ok(customerService.getAllDepartments());
+        return DepartmentETags.ok(customerService.getAllDepartments());
     }
 
 	/**
 	 * Filter tickets by their priority.
 	 */
     @GetMapping("/tickets/priority/{priority}")
-    public ResponseEntity<List<TicketDto>> filterTicketsByPriority(@PathVariable String priority) {
+    public ResponseEntity<?> filterTicketsByPriority(@PathVariable String priority,
+            @RequestParam(required = false) String cursor, @RequestParam(required = false) Integer size) {
+        Priority priorityEnum;
         try {
             // Convert priority string to enum
-            Priority priorityEnum = Priority.valueOf(priority.toUpperCase());
-            List<TicketDto> tickets = customerService.filterTicketsByPriority(priorityEnum);
-            return ResponseEntity.ok(tickets);
+            priorityEnum = Priority.valueOf(priority.toUpperCase());
         } catch (IllegalArgumentException e) {
             // Invalid priority provided
             return ResponseEntity.badRequest().build();
         }
+        if (cursor == null && size == null) {
+            return legacy(customerService.filterTicketsByPriority(priorityEnum));
+        }
+        return ResponseEntity.ok(customerService.filterTicketsByPriority(priorityEnum, cursor, size));
     }
 
 	/**
 	 * Filter tickets by their status.
 	 */
     @GetMapping("/tickets/status/{status}")
-    public ResponseEntity<List<TicketDto>> filterTicketsByStatus(@PathVariable String status) {
+    public ResponseEntity<?> filterTicketsByStatus(@PathVariable String status,
+            @RequestParam(required = false) String cursor, @RequestParam(required = false) Integer size) {
+        Status statusEnum;
         try {
             // Convert status string to enum
-            Status statusEnum = Status.valueOf(status.toUpperCase());
-            List<TicketDto> tickets = customerService.filterTicketsByStatus(statusEnum);
-            return ResponseEntity.ok(tickets);
+            statusEnum = Status.valueOf(status.toUpperCase());
         } catch (IllegalArgumentException e) {
             // Invalid status provided
             return ResponseEntity.badRequest().build();
         }
+        if (cursor == null && size == null) {
+            return legacy(customerService.filterTicketsByStatus(statusEnum));
+        }
+        return ResponseEntity.ok(customerService.filterTicketsByStatus(statusEnum, cursor, size));
     }
 
 	/**
 	 * Filter tickets by department name.
 	 */
     @GetMapping("/tickets/department/{name}")
-    public ResponseEntity<List<TicketDto>> filterTicketsByDepartmentName(@PathVariable String name) {
-        return ResponseEntity.ok(customerService.filterTicketsByDepartmentName(name));
+    public ResponseEntity<?> filterTicketsByDepartmentName(@PathVariable String name,
+            @RequestParam(required = false) String cursor, @RequestParam(required = false) Integer size) {
+        if (cursor == null && size == null) {
+            return legacy(customerService.filterTicketsByDepartmentName(name));
+        }
+        return ResponseEntity.ok(customerService.filterTicketsByDepartmentName(name, cursor, size));
+    }
+
+	/**
+	 * Wraps a response of a deprecated unpaged endpoint, flagging it for clients.
+	 */
+    private ResponseEntity<?> legacy(Object body) {
+        return ResponseEntity.ok().header("Deprecation", "true").body(body);
     }
 
 }
@@ -0,0 +1,44 @@
+package com.helpdesk.controller.event;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.helpdesk.services.event.TicketEventService;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Controller that streams live ticket and comment events to any authenticated user.
+ */
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/events") // Base path for live event APIs
+public class TicketEventController {
+
+	private final TicketEventService ticketEventService; // Fans events out to open streams
+
+	/**
+	 * Opens a Server-Sent Events stream of "ticket-changed" and "comment-created" events for the tickets the user may view.
+	 * With mine=true only tickets the user created or is assigned to are included. Reconnecting clients send the
+	 * Last-Event-ID header (browsers do this automatically) to receive the events they missed; a "reset" event
+	 * tells them too much was missed and they should refetch.
+	 */
+	@GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	public ResponseEntity<SseEmitter> streamEvents(@RequestParam(defaultValue = "false") boolean mine,
+			@RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+		try {
+			return ResponseEntity.ok(ticketEventService.subscribe(mine, lastEventId));
+		} catch (IllegalStateException e) {
+			// Connection limit reached; EventSource clients retry on their own
+			return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "30").build();
+		}
+	}
+}
@@ -0,0 +1,26 @@
+package com.helpdesk.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Number of open tickets (pending or in progress) assigned to one agent.
+ */
+@Data // Lombok annotation to generate getters, setters, equals, hashCode, and toString methods
+@NoArgsConstructor
+public class AgentLoadDto {
+
+    // The agent
+    private Long agentId;
+    private String agentName;
+
+    // Open tickets assigned to the agent (0 for idle agents)
+    private long openTickets;
+
+    // Used by JPQL constructor expressions
+    public AgentLoadDto(Long agentId, String agentName, Long openTickets) {
+        this.agentId = agentId;
+        this.agentName = agentName;
+        this.openTickets = openTickets == null ? 0 : openTickets;
+    }
+}
@@ -0,0 +1,25 @@
+package com.helpdesk.dto;
+
+import java.util.List;
+
+import lombok.Data;
+
+/**
+ * One page of a keyset-paginated listing.
+ * Clients pass {@code nextCursor} back as the {@code cursor} request parameter to fetch the following page.
+ */
+@Data // Lombok annotation to generate getters, setters, toString, equals, and hashCode
+public class CursorPage<T> {
+
+    // Items on this page, newest first
+    private List<T> items;
+
+    // Page size that was applied to the request
+    private int size;
+
+    // Whether more items exist after this page
+    private boolean hasMore;
+
+    // Opaque cursor pointing after the last item of this page (null on the last page)
+    private String nextCursor;
+}
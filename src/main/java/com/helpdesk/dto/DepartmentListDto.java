@@ -0,0 +1,27 @@
+package com.helpdesk.dto;
+
+import java.util.List;
+import java.util.Optional;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * All departments together with the version of the list they were read from, so a response body and its ETag
+ * always describe the same data.
+ */
+@Data // Lombok annotation to generate getters, setters, equals, hashCode, and toString methods
+@AllArgsConstructor
+public class DepartmentListDto {
+
+    // All departments ordered by ID
+    private List<DepartmentDto> departments;
+
+    // Opaque version of the list; changes whenever a department is added, renamed or removed
+    private String version;
+
+    // A single department of the list by ID
+    public Optional<DepartmentDto> find(Long id) {
+        return departments.stream().filter(department -> department.getId().equals(id)).findFirst();
+    }
+}
@@ -0,0 +1,39 @@
+package com.helpdesk.dto;
+
+import java.util.Map;
+
+import lombok.Data;
+
+/**
+ * Health of the "next ticket" dispatcher: how much work is waiting and how fast it is handed out.
+ * Counters and the mean run from application start; the percentiles and the maximum cover the last few minutes.
+ * The same figures are exported as the helpdesk.dispatch.* metrics.
+ */
+@Data // Lombok annotation to generate getters, setters, equals, hashCode, and toString methods
+public class DispatchStatsDto {
+
+    // Tickets waiting in each department's queue, keyed by department name
+    private Map<String, Integer> queueDepth;
+
+    // Tickets handed out to agents
+    private long dispatched;
+
+    // Requests that found no ticket for the agent's department
+    private long emptyPolls;
+
+    // Queue entries skipped because the ticket had meanwhile been assigned, closed or moved
+    private long staleEntries;
+
+    // Dispatch requests timed since start
+    private long latencySamples;
+
+    // Mean dispatch latency over all requests, in milliseconds
+    private double latencyMeanMillis;
+
+    // Median and 99th percentile dispatch latency of the recent requests, in milliseconds
+    private double latencyP50Millis;
+    private double latencyP99Millis;
+
+    // Slowest recent dispatch, in milliseconds
+    private double latencyMaxMillis;
+}
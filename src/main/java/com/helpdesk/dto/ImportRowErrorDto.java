@@ -0,0 +1,17 @@
+package com.helpdesk.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data // Lombok annotation to generate getters, setters, toString, equals, and hashCode
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportRowErrorDto {
+
+    // 1-based position of the row in the upload, not counting the CSV header
+    private long row;
+
+    // Why the row was not imported
+    private String message;
+}
@@ -0,0 +1,38 @@
+package com.helpdesk.dto;
+
+import java.util.Date;
+
+import com.helpdesk.enums.JobStatus;
+
+import lombok.Data;
+
+@Data // Lombok annotation to generate getters, setters, toString, equals, and hashCode
+public class PurgeJobDto {
+
+    // Identifier used to poll the job's progress
+    private String jobId;
+
+    // ID of the customer being deleted
+    private Long customerId;
+
+    // Current state of the job
+    private JobStatus status;
+
+    // Number of tickets the customer had when the job started
+    private long totalTickets;
+
+    // Tickets deleted so far
+    private long ticketsDeleted;
+
+    // Comments deleted so far
+    private long commentsDeleted;
+
+    // When the job was accepted
+    private Date submittedAt;
+
+    // When the job completed or failed (null while it is still running)
+    private Date finishedAt;
+
+    // Failure reason (null unless the job failed)
+    private String error;
+}
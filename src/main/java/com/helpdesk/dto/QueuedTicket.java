@@ -0,0 +1,12 @@
+package com.helpdesk.dto;
+
+import java.util.Date;
+
+import com.helpdesk.enums.Priority;
+
+/**
+ * A ticket waiting in a department's dispatch queue: just enough to order it and claim it.
+ * Immutable, because entries are compared by the queue while other threads add and remove them.
+ */
+public record QueuedTicket(Long id, Long departmentId, Priority priority, Date createdDate) {
+}
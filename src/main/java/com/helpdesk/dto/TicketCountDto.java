@@ -0,0 +1,36 @@
+package com.helpdesk.dto;
+
+import com.helpdesk.enums.Priority;
+import com.helpdesk.enums.Status;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Number of tickets with one combination of status, priority and department.
+ */
+@Data // Lombok annotation to generate getters, setters, equals, hashCode, and toString methods
+@NoArgsConstructor
+public class TicketCountDto {
+
+    // Status of the counted tickets
+    private Status status;
+
+    // Priority of the counted tickets
+    private Priority priority;
+
+    // Department of the counted tickets
+    private Long departmentId;
+    private String departmentName;
+
+    // Number of tickets
+    private long count;
+
+    // Used by JPQL constructor expressions; the department name is filled in from the department cache
+    public TicketCountDto(Status status, Priority priority, Long departmentId, Long count) {
+        this.status = status;
+        this.priority = priority;
+        this.departmentId = departmentId;
+        this.count = count;
+    }
+}
@@ -29,6 +29,12 @@ public class TicketDto {
     // Current status of the ticket (e.g., PENDING, INPROGRESS, RESOLVED)
     private Status status;
 
+    // Version of the ticket, bumped on every change to it or its comments (send it back as If-Match when updating)
+    private Long version;
+
+    // When the ticket or one of its comments last changed
+    private Date lastModified;
+
     // ID of the customer who created the ticket (auto-set from logged-in user)
     private Long customerId;
 
@@ -0,0 +1,39 @@
+package com.helpdesk.dto;
+
+import java.util.Date;
+
+import com.helpdesk.enums.Priority;
+import com.helpdesk.enums.Status;
+import com.helpdesk.enums.TicketEventType;
+
+import lombok.Data;
+
+/**
+ * Payload of a live ticket event. Carries what a client needs to update its views in place
+ * (or to decide to refetch the ticket); the full ticket is available from the ticket endpoints.
+ */
+@Data // Lombok annotation to generate getters, setters, equals, hashCode, and toString methods
+public class TicketEventDto {
+
+    // What happened
+    private TicketEventType type;
+
+    // The ticket concerned
+    private Long ticketId;
+
+    // Ticket state after the change
+    private Status status;
+    private Priority priority;
+
+    // Version and modification time after the change (ticket-changed only; they match the ticket's ETag)
+    private Long version;
+    private Date lastModified;
+
+    // Who the ticket belongs to, also used to decide who receives the event
+    private Long customerId;
+    private Long agentId;
+    private Long departmentId;
+
+    // The new comment (comment-created only)
+    private CommentDto comment;
+}
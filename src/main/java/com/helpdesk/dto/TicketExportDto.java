@@ -0,0 +1,41 @@
+package com.helpdesk.dto;
+
+import java.util.Date;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.helpdesk.enums.Priority;
+import com.helpdesk.enums.Status;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One line of a ticket export. Built directly by the export query, so no ticket entity is loaded.
+ */
+@Data // Lombok annotation to generate getters, setters, toString, equals, and hashCode
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonPropertyOrder({ "id", "title", "description", "priority", "status", "createdDate", "customerName", "agentName", "departmentName" })
+public class TicketExportDto {
+
+    private Long id;
+
+    private String title;
+
+    private String description;
+
+    private Priority priority;
+
+    private Status status;
+
+    private Date createdDate;
+
+    // Username of the customer who raised the ticket
+    private String customerName;
+
+    // Username of the assigned agent (empty if unassigned)
+    private String agentName;
+
+    private String departmentName;
+}
@@ -0,0 +1,32 @@
+package com.helpdesk.dto;
+
+import java.time.LocalDate;
+
+import org.springframework.format.annotation.DateTimeFormat;
+
+import com.helpdesk.enums.Priority;
+import com.helpdesk.enums.Status;
+
+import lombok.Data;
+
+/**
+ * Optional restrictions on a ticket export, bound from query parameters; unset fields do not filter.
+ */
+@Data // Lombok annotation to generate getters, setters, toString, equals, and hashCode
+public class TicketExportFilter {
+
+    private Status status;
+
+    private Priority priority;
+
+    // Exact department name
+    private String department;
+
+    // First creation day to include (in the server's time zone), e.g. 2024-01-01
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate from;
+
+    // Last creation day to include (in the server's time zone)
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate to;
+}
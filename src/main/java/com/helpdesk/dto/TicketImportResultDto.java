@@ -0,0 +1,31 @@
+package com.helpdesk.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.Data;
+
+@Data // Lombok annotation to generate getters, setters, toString, equals, and hashCode
+public class TicketImportResultDto {
+
+    // Rows read from the upload
+    private long rowsRead;
+
+    // Tickets created
+    private long imported;
+
+    // Rows rejected (invalid values, unknown users or departments, database errors)
+    private long failed;
+
+    // Details of the first rejected rows (see errorsTruncated)
+    private List<ImportRowErrorDto> errors = new ArrayList<>();
+
+    // Whether more rows failed than are listed in errors
+    private boolean errorsTruncated;
+
+    // Wall-clock time of the import
+    private long durationMillis;
+
+    // Rows read per second
+    private double rowsPerSecond;
+}
@@ -0,0 +1,39 @@
+package com.helpdesk.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import lombok.Data;
+
+/**
+ * One ticket of a bulk import, as read from a CSV line or an NDJSON object.
+ * Values are kept as text and validated row by row, so one bad value fails only its own row.
+ */
+@Data // Lombok annotation to generate getters, setters, toString, equals, and hashCode
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class TicketImportRow {
+
+    // Ticket title (required)
+    private String title;
+
+    // Ticket description (required)
+    private String description;
+
+    // LOW, MEDIUM or HIGH (required)
+    private String priority;
+
+    // PENDING, INPROGRESS, RESOLVED or CLOSED (defaults to PENDING)
+    private String status;
+
+    // ISO-8601 instant or date, e.g. 2023-04-01T09:30:00Z or 2023-04-01 (a date is midnight in the server's time zone;
+    // defaults to the import time)
+    private String createdDate;
+
+    // Username of the customer who raised the ticket (required)
+    private String customer;
+
+    // Name of the department the ticket belongs to (required)
+    private String department;
+
+    // Username of the assigned agent (optional)
+    private String agent;
+}
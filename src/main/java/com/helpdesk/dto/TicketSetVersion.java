@@ -0,0 +1,39 @@
+package com.helpdesk.dto;
+
+import java.util.Date;
+
+import lombok.Data;
+
+/**
+ * Fingerprint of a set of tickets (e.g. all tickets of one customer).
+ * It changes whenever a ticket of the set is added, removed or modified, so list endpoints
+ * can answer conditional GETs without loading the tickets themselves.
+ */
+@Data // Lombok annotation to generate getters, setters, equals, hashCode, and toString methods
+public class TicketSetVersion {
+
+    // Number of tickets in the set
+    private long count;
+
+    // Highest ticket ID in the set (changes when a ticket is replaced by a newer one)
+    private long maxId;
+
+    // Sum of the ticket versions (changes when any ticket is modified)
+    private long versionSum;
+
+    // Most recent modification time in the set (null when empty or never stamped)
+    private Date lastModified;
+
+    // Used by JPQL constructor expressions; aggregates over an empty set arrive as null
+    public TicketSetVersion(Long count, Long maxId, Long versionSum, Date lastModified) {
+        this.count = count == null ? 0 : count;
+        this.maxId = maxId == null ? 0 : maxId;
+        this.versionSum = versionSum == null ? 0 : versionSum;
+        this.lastModified = lastModified;
+    }
+
+    // The fingerprint of a set with no tickets
+    public static TicketSetVersion empty() {
+        return new TicketSetVersion(0L, 0L, 0L, null);
+    }
+}
@@ -0,0 +1,35 @@
+package com.helpdesk.dto;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import com.helpdesk.enums.Priority;
+import com.helpdesk.enums.Status;
+
+import lombok.Data;
+
+/**
+ * Ticket counts for a dashboard, computed by the database.
+ * The totals per status, priority and department are sums over {@link #counts}.
+ */
+@Data // Lombok annotation to generate getters, setters, equals, hashCode, and toString methods
+public class TicketStatsDto {
+
+    // Number of tickets in scope
+    private long total;
+
+    // Tickets per status, priority and department name
+    private Map<Status, Long> byStatus;
+    private Map<Priority, Long> byPriority;
+    private Map<String, Long> byDepartment;
+
+    // Tickets per status × priority × department (only combinations that occur)
+    private List<TicketCountDto> counts;
+
+    // Open tickets per agent (not included for customers)
+    private List<AgentLoadDto> openPerAgent;
+
+    // When the counts were taken; they may be served from memory for a short while afterwards
+    private Date generatedAt;
+}
@@ -0,0 +1,57 @@
+package com.helpdesk.dto;
+
+import java.util.Date;
+
+import com.helpdesk.enums.Priority;
+import com.helpdesk.enums.Status;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Slim ticket row for list, search and filter responses.
+ * Built directly by a JPQL constructor expression (see {@code TicketRepository.SUMMARIES}), so listing tickets
+ * never loads ticket entities, their comments or their lazy associations. Use {@link TicketDto} for single-ticket reads.
+ */
+@Data // Lombok annotation to generate getters, setters, toString, equals, and hashCode
+@NoArgsConstructor
+@AllArgsConstructor // Field order below must match the constructor expression in TicketRepository
+public class TicketSummaryDto {
+
+    // Unique identifier for the ticket
+    private Long id;
+
+    // Title of the ticket
+    private String title;
+
+    // Timestamp when the ticket was created
+    private Date createdDate;
+
+    // Priority level of the ticket (e.g., LOW, MEDIUM, HIGH)
+    private Priority priority;
+
+    // Current status of the ticket (e.g., PENDING, INPROGRESS, RESOLVED)
+    private Status status;
+
+    // ID of the customer who created the ticket
+    private Long customerId;
+
+    // Name of the customer who created the ticket
+    private String customerName;
+
+    // ID of the agent assigned to this ticket (null when unassigned)
+    private Long agentId;
+
+    // Name of the agent assigned to this ticket (null when unassigned)
+    private String agentName;
+
+    // ID of the department the ticket is associated with
+    private Long departmentId;
+
+    // Name of the department the ticket is associated with
+    private String departmentName;
+
+    // Number of comments posted on the ticket
+    private Long commentCount;
+}
@@ -5,18 +5,26 @@ import jakarta.persistence.*;
 import lombok.Data;
 import org.hibernate.annotations.OnDelete;
 import org.hibernate.annotations.OnDeleteAction;
+import org.hibernate.search.mapper.pojo.mapping.definition.annotation.FullTextField;
 
 import java.util.Date;
 
 @Entity // Marks this class as a JPA entity
 @Data   // Lombok annotation to generate getters, setters, toString, equals, and hashCode
+@Table(indexes = {
+        @Index(name = "idx_comment_ticket_created", columnList = "ticket_id, created_at"), // Comments of a ticket in posting order
+        @Index(name = "idx_comment_user", columnList = "user_id") // Comments of a user (agent deletion)
+})
 public class Comment {
 
     @Id // Primary key
-    @GeneratedValue(strategy = GenerationType.IDENTITY) // Auto-generates ID values
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "comment_ids") // Pooled IDs so inserts can be batched
+    @TableGenerator(name = "comment_ids", table = IdGenerators.TABLE, pkColumnName = IdGenerators.SEGMENT_COLUMN,
+            valueColumnName = IdGenerators.VALUE_COLUMN, pkColumnValue = "comment", allocationSize = IdGenerators.ALLOCATION_SIZE)
     private Long id;
 
     @Lob // Allows storage of large text content
+    @FullTextField(analyzer = "ticketText") // Indexed with the ticket it belongs to
     private String body;
 
     // Timestamp of when the comment was created
@@ -6,6 +6,7 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.TableGenerator;
 import jakarta.validation.constraints.NotBlank;
 import lombok.Data;
 
@@ -16,7 +17,9 @@ import java.util.List;
 public class Department {
 
 	@Id // Primary key
-	@GeneratedValue(strategy = GenerationType.IDENTITY) // Auto-increment ID generation
+	@GeneratedValue(strategy = GenerationType.TABLE, generator = "department_ids") // Pooled IDs so inserts can be batched
+	@TableGenerator(name = "department_ids", table = IdGenerators.TABLE, pkColumnName = IdGenerators.SEGMENT_COLUMN,
+			valueColumnName = IdGenerators.VALUE_COLUMN, pkColumnValue = "department", allocationSize = IdGenerators.ALLOCATION_SIZE)
 	private Long id;
 
 	@NotBlank(message = "Department name is required") // Ensures name is not null or empty
@@ -0,0 +1,26 @@
+package com.helpdesk.entities;
+
+/**
+ * Shared settings of the primary key generators.
+ * Every entity draws its IDs from its own row of one generator table and reserves them in blocks of
+ * {@link #ALLOCATION_SIZE}, so Hibernate knows an ID before the INSERT and can send inserts in JDBC batches
+ * (auto-increment columns force one round trip per row). Each row holds the highest ID reserved so far; with the
+ * "pooled-lo" optimizer ({@code hibernate.id.optimizer.pooled.preferred}) a node that reads N reserves N+1 to N+50.
+ */
+public final class IdGenerators {
+
+	// Table holding one row per entity
+	public static final String TABLE = "id_generator";
+
+	// Column naming the entity a row belongs to
+	public static final String SEGMENT_COLUMN = "entity_name";
+
+	// Column holding the highest ID reserved so far
+	public static final String VALUE_COLUMN = "last_reserved_id";
+
+	// IDs reserved per round trip to the generator table (matches hibernate.jdbc.batch_size)
+	public static final int ALLOCATION_SIZE = 50;
+
+	private IdGenerators() {
+	}
+}
@@ -5,8 +5,17 @@ import java.util.List;
 import java.util.stream.Collectors;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.OnDelete;
 import org.hibernate.annotations.OnDeleteAction;
+import org.hibernate.annotations.OptimisticLock;
+import org.hibernate.search.engine.backend.types.Sortable;
+import org.hibernate.search.mapper.pojo.automaticindexing.ReindexOnUpdate;
+import org.hibernate.search.mapper.pojo.mapping.definition.annotation.FullTextField;
+import org.hibernate.search.mapper.pojo.mapping.definition.annotation.GenericField;
+import org.hibernate.search.mapper.pojo.mapping.definition.annotation.Indexed;
+import org.hibernate.search.mapper.pojo.mapping.definition.annotation.IndexedEmbedded;
+import org.hibernate.search.mapper.pojo.mapping.definition.annotation.IndexingDependency;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.helpdesk.dto.TicketDto;
@@ -17,19 +26,42 @@ import lombok.Data;
 
 @Data // Lombok annotation to generate getters/setters, toString, equals, etc.
 @Entity // Marks this class as a JPA entity
+@Indexed // Full-text indexed (title, description, comment bodies); kept up to date on every write
+@Table(indexes = {
+	// One index per list access path; each ends in (created_date, id) so keyset pages are read in index order
+	@Index(name = "idx_ticket_created", columnList = "created_date, id"),
+	@Index(name = "idx_ticket_status_created", columnList = "status, created_date, id"),
+	@Index(name = "idx_ticket_priority_created", columnList = "priority, created_date, id"),
+	@Index(name = "idx_ticket_department_created", columnList = "department_id, created_date, id"),
+	@Index(name = "idx_ticket_department_status", columnList = "department_id, status"),
+	@Index(name = "idx_ticket_customer_created", columnList = "customer_id, created_date, id"),
+	@Index(name = "idx_ticket_customer_status_created", columnList = "customer_id, status, created_date, id"),
+	@Index(name = "idx_ticket_customer_priority_created", columnList = "customer_id, priority, created_date, id"),
+	@Index(name = "idx_ticket_customer_department_created", columnList = "customer_id, department_id, created_date, id"),
+	@Index(name = "idx_ticket_agent_created", columnList = "assigned_agent_id, created_date, id"),
+	@Index(name = "idx_ticket_agent_status_created", columnList = "assigned_agent_id, status, created_date, id"),
+	@Index(name = "idx_ticket_agent_priority_created", columnList = "assigned_agent_id, priority, created_date, id"),
+	// Covers the dashboard's status × priority × department counts, so they are read from the index alone
+	@Index(name = "idx_ticket_stats", columnList = "status, priority, department_id")
+})
 public class Ticket {
 
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY) // Auto-generated primary key
+	@GeneratedValue(strategy = GenerationType.TABLE, generator = "ticket_ids") // Pooled IDs so inserts can be batched
+	@TableGenerator(name = "ticket_ids", table = IdGenerators.TABLE, pkColumnName = IdGenerators.SEGMENT_COLUMN,
+			valueColumnName = IdGenerators.VALUE_COLUMN, pkColumnValue = "ticket", allocationSize = IdGenerators.ALLOCATION_SIZE)
 	private Long id;
 
 	@Column(nullable = false) // Title must not be null
+	@FullTextField(analyzer = "ticketText")
 	private String title;
 
 	@Column(nullable = false) // Description must not be null
+	@FullTextField(analyzer = "ticketText")
 	private String description;
 
 	@Column(name = "created_date", nullable = false) // Timestamp of ticket creation
+	@GenericField(sortable = Sortable.YES) // Breaks ties between equally relevant search hits
 	private Date createdDate;
 
 	@Column(nullable = false) // Ticket priority (HIGH, MEDIUM, LOW)
@@ -38,14 +70,26 @@ public class Ticket {
 	@Column(nullable = false) // Ticket status (OPEN, IN_PROGRESS, RESOLVED, etc.)
 	private Status status;
 
+	@Version // Optimistic locking; bumped on every change to the ticket or its comments and used as its ETag
+	@ColumnDefault("0") // Rows that existed before the column was added start at version 0
+	@Column(nullable = false)
+	private Long version;
+
+	@Column(name = "last_modified") // When the ticket or one of its comments last changed
+	private Date lastModified;
+
 	@ManyToOne(fetch = FetchType.LAZY, optional = false) // Many tickets belong to one customer
 	@JoinColumn(name = "customer_id", nullable = false)
 	@OnDelete(action = OnDeleteAction.CASCADE) // If customer is deleted, their tickets are too
 	@JsonIgnore // Prevent infinite recursion during serialization
+	@IndexedEmbedded(includePaths = "id") // customer.id scopes customer searches
+	@IndexingDependency(reindexOnUpdate = ReindexOnUpdate.SHALLOW) // Reindex when the customer changes, not when their profile does
 	private User customer;
 
 	@ManyToOne // Many tickets can be assigned to one agent
 	@JoinColumn(name = "assigned_agent_id") // Nullable: can be unassigned
+	@IndexedEmbedded(includePaths = "id") // assignedAgent.id scopes agent searches
+	@IndexingDependency(reindexOnUpdate = ReindexOnUpdate.SHALLOW) // Reindex on (re)assignment, not on profile changes
 	private User assignedAgent;
 
 	@ManyToOne // Many tickets can belong to one department
@@ -53,8 +97,17 @@ public class Ticket {
 	private Department department;
 
 	@OneToMany(mappedBy = "ticket", cascade = CascadeType.ALL) // One ticket can have many comments
+	@OptimisticLock(excluded = true) // New comments bump the version with TicketRepository.markModified instead
+	@IndexedEmbedded(includePaths = "body") // Comment text is searchable as part of its ticket
 	private List<Comment> comments;
 
+	// Stamps the modification time whenever the ticket row is written
+	@PrePersist
+	@PreUpdate
+	void onWrite() {
+		lastModified = new Date();
+	}
+
 	// Converts Ticket entity to TicketDto for API responses
 	public TicketDto getTicketDto() {
 		TicketDto ticketDto = new TicketDto();
@@ -64,6 +117,8 @@ public class Ticket {
 		ticketDto.setCreatedDate(createdDate);
 		ticketDto.setPriority(priority);
 		ticketDto.setStatus(status);
+		ticketDto.setVersion(version);
+		ticketDto.setLastModified(lastModified);
 
 		ticketDto.setCustomerId(customer.getId());
 		ticketDto.setCustomerName(customer.getUsername());
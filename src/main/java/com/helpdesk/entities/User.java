@@ -7,6 +7,8 @@ import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
+import org.hibernate.search.mapper.pojo.mapping.definition.annotation.GenericField;
+
 import com.helpdesk.dto.UserDto;
 import com.helpdesk.enums.UserRole;
 
@@ -18,10 +20,17 @@ import lombok.Data;
 
 @Data // Lombok annotation to generate boilerplate code (getters, setters, toString, etc.)
 @Entity // Marks this class as a JPA entity
+@Table(indexes = {
+	@Index(name = "idx_user_role_name", columnList = "user_role, user_name"), // Role listings and username search per role
+	@Index(name = "idx_user_department", columnList = "department_id") // Agents of a department
+})
 public class User implements UserDetails { // Implements Spring Security's UserDetails for authentication
 
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY) // Auto-generates primary key
+	@GeneratedValue(strategy = GenerationType.TABLE, generator = "user_ids") // Pooled IDs so inserts can be batched
+	@TableGenerator(name = "user_ids", table = IdGenerators.TABLE, pkColumnName = IdGenerators.SEGMENT_COLUMN,
+			valueColumnName = IdGenerators.VALUE_COLUMN, pkColumnValue = "user", allocationSize = IdGenerators.ALLOCATION_SIZE)
+	@GenericField // Indexed on tickets as customer.id / assignedAgent.id to scope searches
 	private Long id;
 
 	@Column(name="user_name", unique = true, nullable = false) // Unique username required
@@ -0,0 +1,9 @@
+package com.helpdesk.enums;
+
+/**
+ * Enum representing the file formats of the bulk ticket import and export.
+ */
+public enum FileFormat {
+	CSV,   // Comma-separated values with a header line naming the columns (text/csv)
+	NDJSON // One JSON object per line (application/x-ndjson)
+}
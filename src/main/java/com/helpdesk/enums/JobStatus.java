@@ -0,0 +1,11 @@
+package com.helpdesk.enums;
+
+/**
+ * Enum representing the lifecycle of a background admin job (e.g. a customer purge).
+ */
+public enum JobStatus {
+	QUEUED,    // Accepted and waiting for a worker thread
+	RUNNING,   // Currently deleting data chunk by chunk
+	COMPLETED, // Finished successfully
+	FAILED     // Stopped with an error; data deleted by earlier chunks stays deleted
+}
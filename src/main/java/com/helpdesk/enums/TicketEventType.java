@@ -0,0 +1,21 @@
+package com.helpdesk.enums;
+
+/**
+ * Enum representing the kinds of live events pushed to subscribed clients.
+ * The event name is what clients listen for on the Server-Sent Events stream.
+ */
+public enum TicketEventType {
+	TICKET_CHANGED("ticket-changed"),   // A ticket was created, assigned, unassigned or had its status or priority changed
+	COMMENT_CREATED("comment-created"); // A comment was posted on a ticket
+
+	private final String eventName;
+
+	TicketEventType(String eventName) {
+		this.eventName = eventName;
+	}
+
+	// Name of the SSE event
+	public String getEventName() {
+		return eventName;
+	}
+}
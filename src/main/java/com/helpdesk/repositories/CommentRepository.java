@@ -1,22 +1,40 @@
 package com.helpdesk.repositories;
 
 import com.helpdesk.entities.Comment;
-import com.helpdesk.entities.Ticket;
 import com.helpdesk.entities.User;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
 
-    // Retrieves all comments associated with a specific ticket by ticket ID
+    // Retrieves all comments associated with a specific ticket by ticket ID, with their authors in the same statement
+    @EntityGraph(attributePaths = "user")
     List<Comment> findAllByTicketId(Long ticketId);
 
     // Retrieves all comments made by a specific user
     List<Comment> findByUser(User user);
 
-    // Retrieves all comments associated with a specific ticket entity
-    List<Comment> findByTicket(Ticket ticket);
+    // Deletes all comments on the given tickets with one statement
+    @Transactional
+    @Modifying
+    @Query("delete from Comment c where c.ticket.id in :ticketIds")
+    int deleteByTicketIdIn(Collection<Long> ticketIds);
+
+    // IDs of the tickets a user has commented on (used by the customer purge)
+    @Query("select distinct c.ticket.id from Comment c where c.user.id = :userId")
+    List<Long> findTicketIdsByUserId(Long userId);
+
+    // Deletes all comments written by a specific user with one statement
+    @Transactional
+    @Modifying
+    @Query("delete from Comment c where c.user.id = :userId")
+    int deleteByUserId(Long userId);
 }
@@ -1,72 +1,231 @@
 package com.helpdesk.repositories;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.helpdesk.dto.AgentLoadDto;
+import com.helpdesk.dto.QueuedTicket;
+import com.helpdesk.dto.TicketCountDto;
+import com.helpdesk.dto.TicketSetVersion;
+import com.helpdesk.dto.TicketSummaryDto;
 import com.helpdesk.entities.Ticket;
 import com.helpdesk.entities.User;
 import com.helpdesk.enums.Priority;
 import com.helpdesk.enums.Status;
+import com.helpdesk.enums.UserRole;
 
+import java.util.Collection;
+import java.util.Date;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface TicketRepository extends JpaRepository<Ticket, Long> {
 
+    // ---------- Keyset pagination ----------
+    // Every list query below returns tickets newest first and continues strictly after the
+    // (createdDate, id) of the last row of the previous page, so the database can walk an index
+    // instead of sorting the whole table. The id breaks ties between tickets created at the same time.
+
+    // Selects list rows straight into TicketSummaryDto: customer, agent and department are joined in the
+    // same statement and comments are only counted, so no ticket entity or comment body is loaded
+    String SUMMARIES = "select new com.helpdesk.dto.TicketSummaryDto(t.id, t.title, t.createdDate, t.priority, t.status, "
+            + "c.id, c.userName, a.id, a.userName, d.id, d.name, "
+            + "(select count(cm) from Comment cm where cm.ticket = t)) "
+            + "from Ticket t join t.customer c left join t.assignedAgent a join t.department d where ";
+
+    // The leading "<=" bound lets the database range-scan the (..., created_date, id) index; the
+    // parenthesised part then skips rows of the boundary timestamp that were already returned
+    String AFTER_CURSOR = "t.createdDate <= :createdDate and (t.createdDate < :createdDate or t.id < :id)";
+
+    String NEWEST_FIRST = " order by t.createdDate desc, t.id desc";
+
+    // ---------- Single tickets ----------
+    // Tickets shown in full are loaded with everything TicketDto shows (customer, agent, department, comments and
+    // their authors) in one statement, so building the DTO needs no further queries or an open persistence context
+
+    // A ticket with everything its DTO shows
+    @EntityGraph(attributePaths = { "customer", "assignedAgent", "department", "comments", "comments.user" })
+    Optional<Ticket> findWithDetailsById(Long id);
+
+    // Summaries of the given tickets in no particular order (used to render full-text search hits)
+    @Query(SUMMARIES + "t.id in :ids")
+    List<TicketSummaryDto> findSummariesByIdIn(Collection<Long> ids);
+
+    // ---------- Versions (conditional GETs and optimistic locking) ----------
+
+    // Version of a ticket, read without loading it so that polls for an unchanged ticket can be answered with 304
+    @Query("select t.version from Ticket t where t.id = :id")
+    Optional<Long> findVersionById(Long id);
+
+    // Version of a ticket created by the given customer
+    @Query("select t.version from Ticket t where t.id = :id and t.customer.id = :customerId")
+    Optional<Long> findVersionByIdAndCustomerId(Long id, Long customerId);
+
+    // Version of a ticket assigned to the given agent
+    @Query("select t.version from Ticket t where t.id = :id and t.assignedAgent.id = :agentId")
+    Optional<Long> findVersionByIdAndAssignedAgentId(Long id, Long agentId);
+
+    // Aggregates that change whenever a ticket of the set is added, removed or modified
+    String SET_VERSION = "select new com.helpdesk.dto.TicketSetVersion(count(t), max(t.id), sum(t.version), max(t.lastModified)) "
+            + "from Ticket t where ";
+
+    // Fingerprint of all tickets created by a customer
+    @Query(SET_VERSION + "t.customer.id = :customerId")
+    TicketSetVersion findSetVersionByCustomer(Long customerId);
+
+    // Fingerprint of all tickets assigned to an agent
+    @Query(SET_VERSION + "t.assignedAgent.id = :agentId")
+    TicketSetVersion findSetVersionByAssignedAgent(Long agentId);
+
+    // Bump the version and modification time of the given tickets (used when their comments change)
+    @Transactional
+    @Modifying
+    @Query("update Ticket t set t.version = t.version + 1, t.lastModified = :now where t.id in :ids")
+    int markModified(Collection<Long> ids, Date now);
+
+    // ---------- Dashboard statistics ----------
+
+    // Ticket counts per status × priority × department; department names come from the department cache, so no join
+    String COUNTS = "select new com.helpdesk.dto.TicketCountDto(t.status, t.priority, t.department.id, count(t)) from Ticket t ";
+
+    String BY_STATUS_PRIORITY_DEPARTMENT = " group by t.status, t.priority, t.department.id";
+
+    // Counts over all tickets (read from the covering idx_ticket_stats index)
+    @Query(COUNTS + BY_STATUS_PRIORITY_DEPARTMENT)
+    List<TicketCountDto> countGrouped();
+
+    // Counts over the tickets of one customer
+    @Query(COUNTS + "where t.customer.id = :customerId" + BY_STATUS_PRIORITY_DEPARTMENT)
+    List<TicketCountDto> countGroupedByCustomer(Long customerId);
+
+    // Counts over the tickets of one department
+    @Query(COUNTS + "where t.department.id = :departmentId" + BY_STATUS_PRIORITY_DEPARTMENT)
+    List<TicketCountDto> countGroupedByDepartment(Long departmentId);
+
+    // Tickets with one of the given statuses per agent, including agents with none
+    String AGENT_LOAD = "select new com.helpdesk.dto.AgentLoadDto(a.id, a.userName, count(t)) "
+            + "from User a left join Ticket t on t.assignedAgent = a and t.status in :statuses where a.userRole = :role ";
+
+    // Open tickets of every agent
+    @Query(AGENT_LOAD + "group by a.id, a.userName order by a.userName")
+    List<AgentLoadDto> countPerAgent(Collection<Status> statuses, UserRole role);
+
+    // Open tickets of the agents of one department
+    @Query(AGENT_LOAD + "and a.department.id = :departmentId group by a.id, a.userName order by a.userName")
+    List<AgentLoadDto> countPerAgentInDepartment(Collection<Status> statuses, UserRole role, Long departmentId);
+
     // ---------- Queries for Customers ----------
 
-    // Find all tickets created by a specific customer
-    List<Ticket> findByCustomer(User customer);
+    // Count the tickets created by a specific customer
+    long countByCustomerId(Long customerId);
 
-    // Search tickets by title containing a keyword for a specific customer
-    List<Ticket> findByCustomerAndTitleContaining(User customer, String title);
+    // IDs of a customer's tickets in ascending order, one chunk at a time (used by the customer purge)
+    @Query("select t.id from Ticket t where t.customer.id = :customerId order by t.id")
+    List<Long> findIdsByCustomer(Long customerId, Limit limit);
 
-    // Find a specific ticket by customer and ticket ID
+    // Delete the given tickets with one statement (their comments must be deleted first)
+    @Transactional
+    @Modifying
+    @Query("delete from Ticket t where t.id in :ids")
+    int deleteByIdIn(Collection<Long> ids);
+
+    // Find a specific ticket by customer and ticket ID, with everything its DTO shows
+    @EntityGraph(attributePaths = { "customer", "assignedAgent", "department", "comments", "comments.user" })
     Ticket findTicketByCustomerAndId(User assignedAgent, Long id);
 
-    // Filter tickets by priority for a specific customer
-    List<Ticket> findByCustomerAndPriority(User customer, Priority priority);
+    // Page through tickets created by a specific customer
+    @Query(SUMMARIES + "t.customer.id = :customerId and " + AFTER_CURSOR + NEWEST_FIRST)
+    List<TicketSummaryDto> findPageByCustomer(Long customerId, Date createdDate, Long id, Limit limit);
 
-    // Filter tickets by status for a specific customer
-    List<Ticket> findByCustomerAndStatus(User customer, Status status);
+    // Page through tickets of a specific customer with a given priority
+    @Query(SUMMARIES + "t.customer.id = :customerId and t.priority = :priority and " + AFTER_CURSOR + NEWEST_FIRST)
+    List<TicketSummaryDto> findPageByCustomerAndPriority(Long customerId, Priority priority, Date createdDate, Long id, Limit limit);
 
-    // Filter tickets by department name for a specific customer
-    List<Ticket> findByCustomerAndDepartmentName(User customer, String name);
+    // Page through tickets of a specific customer with a given status
+    @Query(SUMMARIES + "t.customer.id = :customerId and t.status = :status and " + AFTER_CURSOR + NEWEST_FIRST)
+    List<TicketSummaryDto> findPageByCustomerAndStatus(Long customerId, Status status, Date createdDate, Long id, Limit limit);
 
+    // Page through tickets of a specific customer in a given department
+    @Query(SUMMARIES + "t.customer.id = :customerId and d.name = :name and " + AFTER_CURSOR + NEWEST_FIRST)
+    List<TicketSummaryDto> findPageByCustomerAndDepartmentName(Long customerId, String name, Date createdDate, Long id, Limit limit);
 
     // ---------- Queries for Admin ----------
 
-    // Search all tickets by title containing a keyword
-    List<Ticket> findAllByTitleContaining(String title);
-
-    // Get all tickets with a specific priority
-    List<Ticket> findByPriority(Priority priority);
+    // Page through all tickets
+    @Query(SUMMARIES + AFTER_CURSOR + NEWEST_FIRST)
+    List<TicketSummaryDto> findPage(Date createdDate, Long id, Limit limit);
 
-    // Get all tickets with a specific status
-    List<Ticket> findByStatus(Status status);
+    // Page through all tickets with a specific priority
+    @Query(SUMMARIES + "t.priority = :priority and " + AFTER_CURSOR + NEWEST_FIRST)
+    List<TicketSummaryDto> findPageByPriority(Priority priority, Date createdDate, Long id, Limit limit);
 
-    // Get all tickets by department name
-    List<Ticket> findByDepartmentName(String name);
+    // Page through all tickets with a specific status
+    @Query(SUMMARIES + "t.status = :status and " + AFTER_CURSOR + NEWEST_FIRST)
+    List<TicketSummaryDto> findPageByStatus(Status status, Date createdDate, Long id, Limit limit);
 
+    // Page through all tickets of a department
+    @Query(SUMMARIES + "d.name = :name and " + AFTER_CURSOR + NEWEST_FIRST)
+    List<TicketSummaryDto> findPageByDepartmentName(String name, Date createdDate, Long id, Limit limit);
 
     // ---------- Queries for Agents ----------
 
+    // Claim an unassigned ticket for an agent in one statement; the row lock makes concurrent claims serialize,
+    // so exactly one of them updates the row and every other one sees it assigned and updates nothing
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("update Ticket t set t.assignedAgent = :agent, t.status = :status, t.version = t.version + 1, t.lastModified = :now "
+            + "where t.id = :id and t.assignedAgent is null")
+    int claim(Long id, User agent, Status status, Date now);
+
+    // ---------- Dispatch queue ----------
+
+    // Unassigned pending tickets, i.e. the work the dispatcher hands out
+    String QUEUED = "select new com.helpdesk.dto.QueuedTicket(t.id, t.department.id, t.priority, t.createdDate) "
+            + "from Ticket t where t.assignedAgent is null and t.status = :status";
+
+    // Queue entries of all departments (used to build the queues at startup)
+    @Query(QUEUED)
+    List<QueuedTicket> findQueued(Status status);
+
+    // Queue entries of one department (used to resynchronise its queue with the database)
+    @Query(QUEUED + " and t.department.id = :departmentId")
+    List<QueuedTicket> findQueuedByDepartment(Status status, Long departmentId);
+
+    // Claim a dispatched ticket like claim() does, but only while it is still pending and in the agent's department,
+    // since the queue entry may be older than the ticket's last change
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("update Ticket t set t.assignedAgent = :agent, t.status = :status, t.version = t.version + 1, t.lastModified = :now "
+            + "where t.id = :id and t.assignedAgent is null and t.status = :pending and t.department.id = :departmentId")
+    int claimPending(Long id, User agent, Status status, Status pending, Long departmentId, Date now);
+
     // Find all tickets assigned to a specific agent
     List<Ticket> findByAssignedAgent(User assignedAgent);
 
-    // Find a specific ticket by agent and ticket ID
+    // Find a specific ticket by agent and ticket ID, with everything its DTO shows
+    @EntityGraph(attributePaths = { "customer", "assignedAgent", "department", "comments", "comments.user" })
     Ticket findTicketByAssignedAgentAndId(User assignedAgent, Long id);
 
-    // Search tickets by title containing a keyword for a specific agent
-    List<Ticket> findByAssignedAgentAndTitleContaining(User assignedAgent, String title);
+    // Page through tickets assigned to a specific agent
+    @Query(SUMMARIES + "t.assignedAgent.id = :agentId and " + AFTER_CURSOR + NEWEST_FIRST)
+    List<TicketSummaryDto> findPageByAssignedAgent(Long agentId, Date createdDate, Long id, Limit limit);
 
-    // Filter tickets by priority for a specific agent
-    List<Ticket> findByAssignedAgentAndPriority(User assignedAgentr, Priority priority);
+    // Page through tickets of a specific agent with a given priority
+    @Query(SUMMARIES + "t.assignedAgent.id = :agentId and t.priority = :priority and " + AFTER_CURSOR + NEWEST_FIRST)
+    List<TicketSummaryDto> findPageByAssignedAgentAndPriority(Long agentId, Priority priority, Date createdDate, Long id, Limit limit);
 
-    // Filter tickets by status for a specific agent
-    List<Ticket> findByAssignedAgentAndStatus(User assignedAgentr, Status status);
+    // Page through tickets of a specific agent with a given status
+    @Query(SUMMARIES + "t.assignedAgent.id = :agentId and t.status = :status and " + AFTER_CURSOR + NEWEST_FIRST)
+    List<TicketSummaryDto> findPageByAssignedAgentAndStatus(Long agentId, Status status, Date createdDate, Long id, Limit limit);
 
-    // Filter tickets by department name containing a keyword for a specific agent
-    List<Ticket> findByAssignedAgentAndDepartment_NameContaining(User agent, String departmentName);
+    // Page through tickets of a specific agent whose department name contains a keyword
+    @Query(SUMMARIES + "t.assignedAgent.id = :agentId and d.name like %:departmentName% and " + AFTER_CURSOR + NEWEST_FIRST)
+    List<TicketSummaryDto> findPageByAssignedAgentAndDepartmentNameContaining(Long agentId, String departmentName, Date createdDate, Long id, Limit limit);
 
 }
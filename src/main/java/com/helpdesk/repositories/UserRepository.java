@@ -3,6 +3,7 @@ package com.helpdesk.repositories;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -21,7 +22,12 @@ public interface UserRepository extends JpaRepository<User, Long> {
     // Find a user by their role (e.g., ADMIN, AGENT, CUSTOMER)
     Optional<User> findByUserRole(UserRole userRole);
 
+    // Find all users with a role, with their department in the same statement (for admin listings)
+    @EntityGraph(attributePaths = "department")
+    List<User> findAllByUserRole(UserRole userRole);
+
     // Find users with a specific role whose username contains a given substring (for filtering/search)
+    @EntityGraph(attributePaths = "department")
     List<User> findByUserRoleAndUserNameContaining(UserRole userRole, String username);
 
 }
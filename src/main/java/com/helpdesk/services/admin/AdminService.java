@@ -2,7 +2,10 @@ package com.helpdesk.services.admin;
 
 import java.util.List;
 
+import com.helpdesk.dto.CursorPage;
 import com.helpdesk.dto.TicketDto;
+import com.helpdesk.dto.TicketStatsDto;
+import com.helpdesk.dto.TicketSummaryDto;
 import com.helpdesk.dto.UserDto;
 import com.helpdesk.enums.Priority;
 import com.helpdesk.enums.Status;
@@ -35,50 +38,99 @@ public interface AdminService {
 
     /**
      * Retrieve a list of all tickets in the system.
+     *
+     * @deprecated loads the whole table; use {@link #getAllTickets(String, Integer)}
+     */
+    @Deprecated
+    List<TicketSummaryDto> getAllTickets();
+
+    /**
+     * Retrieve one page of all tickets, newest first.
+     *
+     * @param cursor cursor returned with the previous page, or null for the first page
+     * @param size requested page size, or null for the default
      */
-    List<TicketDto> getAllTickets();
+    CursorPage<TicketSummaryDto> getAllTickets(String cursor, Integer size);
 
     /**
      * Get the details of a specific ticket by its ID.
      */
     TicketDto getTicketById(Long id);
 
+    /**
+     * Read the version of a ticket without loading it (null if not found).
+     */
+    Long getTicketVersion(Long id);
+
     /**
      * Assign a ticket to an agent.
      *
      * @param ticketId ID of the ticket to assign
      * @param agentId ID of the agent to assign the ticket to
+     * @param expectedVersion version the admin last saw (from If-Match), or null to skip the check
      * @return Updated ticket with assigned agent
      */
-    TicketDto assignTicket(Long ticketId, Long agentId);
+    TicketDto assignTicket(Long ticketId, Long agentId, Long expectedVersion);
+
+    /**
+     * Full-text search over all tickets (title, description and comments), most relevant first.
+     *
+     * @deprecated use the paged searchTicketByTitle variant
+     */
+    @Deprecated
+    List<TicketSummaryDto> searchTicketByTitle(String title);
 
     /**
-     * Search tickets by their title.
+     * Full-text search over all tickets, most relevant first, one page at a time.
      */
-    List<TicketDto> searchTicketByTitle(String title);
+    CursorPage<TicketSummaryDto> searchTicketByTitle(String title, String cursor, Integer size);
 
     /**
      * Filter tickets by priority level.
+     *
+     * @deprecated use the paged filterTicketsByPriority variant
+     */
+    @Deprecated
+    List<TicketSummaryDto> filterTicketsByPriority(Priority priority);
+
+    /**
+     * Filter tickets by priority level, one page at a time.
      */
-    List<TicketDto> filterTicketsByPriority(Priority priority);
+    CursorPage<TicketSummaryDto> filterTicketsByPriority(Priority priority, String cursor, Integer size);
 
     /**
      * Filter tickets by current status.
+     *
+     * @deprecated use the paged filterTicketsByStatus variant
+     */
+    @Deprecated
+    List<TicketSummaryDto> filterTicketsByStatus(Status status);
+
+    /**
+     * Filter tickets by current status, one page at a time.
      */
-    List<TicketDto> filterTicketsByStatus(Status status);
+    CursorPage<TicketSummaryDto> filterTicketsByStatus(Status status, String cursor, Integer size);
 
     /**
      * Filter tickets by the name of the department.
+     *
+     * @deprecated use the paged filterTicketsByDepartmentName variant
      */
-    List<TicketDto> filterTicketsByDepartmentName(String name);
+    @Deprecated
+    List<TicketSummaryDto> filterTicketsByDepartmentName(String name);
 
     /**
-     * Delete a customer by their ID.
+     * Filter tickets by the name of the department, one page at a time.
      */
-    void deleteCustomer(Long customerId);
+    CursorPage<TicketSummaryDto> filterTicketsByDepartmentName(String name, String cursor, Integer size);
 
     /**
      * Delete an agent by their ID.
      */
     void deleteAgent(Long agentId);
+
+    /**
+     * Dashboard counts over all tickets and the open tickets of every agent.
+     */
+    TicketStatsDto getStats();
 }
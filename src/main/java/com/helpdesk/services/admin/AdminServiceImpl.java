@@ -1,13 +1,18 @@
 package com.helpdesk.services.admin;
 
-import java.util.Comparator;
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.helpdesk.dto.CursorPage;
 import com.helpdesk.dto.TicketDto;
+import com.helpdesk.dto.TicketStatsDto;
+import com.helpdesk.dto.TicketSummaryDto;
 import com.helpdesk.dto.UserDto;
 import com.helpdesk.entities.Comment;
 import com.helpdesk.entities.Ticket;
@@ -18,6 +23,15 @@ import com.helpdesk.enums.UserRole;
 import com.helpdesk.repositories.CommentRepository;
 import com.helpdesk.repositories.TicketRepository;
 import com.helpdesk.repositories.UserRepository;
+import com.helpdesk.services.dispatch.TicketDispatchService;
+import com.helpdesk.services.event.TicketEventService;
+import com.helpdesk.services.search.TicketSearchScope;
+import com.helpdesk.services.search.TicketSearchService;
+import com.helpdesk.services.stats.TicketStatsScope;
+import com.helpdesk.services.stats.TicketStatsService;
+import com.helpdesk.utils.AssignmentRules;
+import com.helpdesk.utils.TicketPagination;
+import com.helpdesk.utils.TicketVersions;
 //import com.helpdesk.utils.JwtUtil;
 
 import lombok.RequiredArgsConstructor;
@@ -31,27 +45,29 @@ public class AdminServiceImpl implements AdminService {
 //	private final JwtUtil jwtUtil;
 	private final TicketRepository ticketRepository;
 	private final CommentRepository commentRepository;
+	private final TicketPagination ticketPagination;
+	private final TicketSearchService ticketSearchService;
+	private final TicketDispatchService ticketDispatchService;
+	private final TicketStatsService ticketStatsService;
+	private final TicketEventService ticketEventService;
 
     // Get all users with CUSTOMER role and convert them to DTOs
 	@Override
+	@Transactional(readOnly = true)
 	public List<UserDto> getCustomers() {
-		return userRepository.findAll().stream().filter(user -> {
-			UserRole role = user.getUserRole();
-			return role == UserRole.CUSTOMER;
-		}).map(User::getUserDto).collect(Collectors.toList());
+		return userRepository.findAllByUserRole(UserRole.CUSTOMER).stream().map(User::getUserDto).collect(Collectors.toList());
 	}
 	
     // Get all users with AGENT role and convert them to DTOs
 	@Override
+	@Transactional(readOnly = true)
 	public List<UserDto> getAgents() {
-		return userRepository.findAll().stream().filter(user -> {
-			UserRole role = user.getUserRole();
-			return role == UserRole.AGENT;
-		}).map(User::getUserDto).collect(Collectors.toList());
+		return userRepository.findAllByUserRole(UserRole.AGENT).stream().map(User::getUserDto).collect(Collectors.toList());
 	}
 	
     // Search for customers whose username contains the input string
 	@Override
+	@Transactional(readOnly = true)
 	public List<UserDto> searchCustomersByUsername(String username) {
 		return userRepository.findByUserRoleAndUserNameContaining(UserRole.CUSTOMER, username)
 				.stream()
@@ -61,6 +77,7 @@ public class AdminServiceImpl implements AdminService {
 	
     // Search for agents whose username contains the input string
 	@Override
+	@Transactional(readOnly = true)
 	public List<UserDto> searchAgentsByUsername(String username) {
 		return userRepository.findByUserRoleAndUserNameContaining(UserRole.AGENT, username)
 				.stream()
@@ -69,38 +86,56 @@ public class AdminServiceImpl implements AdminService {
 	}
 	
     // Get all tickets sorted by created date (latest first), and map them to DTOs
+	@Deprecated
 	@Override
-	public List<TicketDto> getAllTickets() {
-		return ticketRepository.findAll()
-				.stream()
-				.sorted(Comparator.comparing(Ticket::getCreatedDate).reversed())
-				.map(Ticket::getTicketDto)
-				.collect(Collectors.toList());
+	@Transactional(readOnly = true)
+	public List<TicketSummaryDto> getAllTickets() {
+		return ticketPagination.unpaged(ticketRepository::findPage);
+	}
+
+    // Get one page of tickets sorted by created date (latest first)
+	@Override
+	@Transactional(readOnly = true)
+	public CursorPage<TicketSummaryDto> getAllTickets(String cursor, Integer size) {
+		return ticketPagination.page(cursor, size, ticketRepository::findPage);
 	}
 	
     // Get a single ticket by its ID and return its DTO
 	@Override
+	@Transactional(readOnly = true)
 	public TicketDto getTicketById(Long id) {
-		Optional<Ticket> optionalTicket = ticketRepository.findById(id);
+		Optional<Ticket> optionalTicket = ticketRepository.findWithDetailsById(id);
 		return optionalTicket.map(Ticket::getTicketDto).orElse(null);
 	}
+
+    // Version of a ticket, read without loading the ticket
+	@Override
+	@Transactional(readOnly = true)
+	public Long getTicketVersion(Long id) {
+		return ticketRepository.findVersionById(id).orElse(null);
+	}
 	
-    // Assign a ticket to an agent if the agent belongs to the same department as the ticket
+    // Assign a ticket to an agent if the agent belongs to the same department as the ticket (one transaction)
 	@Override
-    public TicketDto assignTicket(Long ticketId, Long agentId) {
+	@Transactional
+    public TicketDto assignTicket(Long ticketId, Long agentId, Long expectedVersion) {
 //        User admin = jwtUtil.getLoggedInUser();
-        Optional<Ticket> optionalTicket = ticketRepository.findById(ticketId);
+        Optional<Ticket> optionalTicket = ticketRepository.findWithDetailsById(ticketId);
         Optional<User> optionalAgent = userRepository.findById(agentId);
 
         if (optionalTicket.isPresent() && optionalAgent.isPresent() && optionalAgent.get().getUserRole() == UserRole.AGENT) {
             Ticket ticket = optionalTicket.get();
             User agent = optionalAgent.get();
+            TicketVersions.check(ticket, expectedVersion); // Reject the assignment if the ticket changed since the admin read it
 
             // Ensure department match before assignment
-            if (ticket.getDepartment().equals(agent.getDepartment())) {
+            if (AssignmentRules.sameDepartment(ticket.getDepartment().getId(),
+                    agent.getDepartment() != null ? agent.getDepartment().getId() : null)) {
                 ticket.setAssignedAgent(agent);
                 ticket.setStatus(Status.INPROGRESS);
-                return ticketRepository.save(ticket).getTicketDto();
+                Ticket saved = ticketRepository.save(ticket);
+                ticketEventService.ticketChanged(saved);
+                return saved.getTicketDto();
             } else {
                 throw new RuntimeException("Agent's department does not match the ticket's department.");
             }
@@ -108,77 +143,74 @@ public class AdminServiceImpl implements AdminService {
         throw new RuntimeException("Ticket or Agent not found or invalid role.");
     }
 	
-    // Search tickets by title and return DTOs sorted by creation date
+    // Full-text search (title, description, comments) over all tickets, most relevant first
+	@Deprecated
 	@Override
-	public List<TicketDto> searchTicketByTitle(String title) {
-		return ticketRepository.findAllByTitleContaining(title)
-				.stream()
-				.sorted(Comparator.comparing(Ticket::getCreatedDate).reversed())
-				.map(Ticket::getTicketDto)
-				.collect(Collectors.toList());
+	public List<TicketSummaryDto> searchTicketByTitle(String title) {
+		return ticketSearchService.searchAll(title, TicketSearchScope.all());
+	}
+
+    // Full-text search over all tickets, one page at a time
+	@Override
+	public CursorPage<TicketSummaryDto> searchTicketByTitle(String title, String cursor, Integer size) {
+		return ticketSearchService.search(title, TicketSearchScope.all(), cursor, size);
 	}
 	
     // Filter tickets by priority and return DTOs sorted by creation date
+	@Deprecated
 	@Override
-	public List<TicketDto> filterTicketsByPriority(Priority priority) {
-		return ticketRepository.findByPriority(priority)
-				.stream()
-				.sorted(Comparator.comparing(Ticket::getCreatedDate).reversed())
-				.map(Ticket::getTicketDto)
-				.collect(Collectors.toList());
+	@Transactional(readOnly = true)
+	public List<TicketSummaryDto> filterTicketsByPriority(Priority priority) {
+		return ticketPagination.unpaged((createdDate, id, limit) ->
+				ticketRepository.findPageByPriority(priority, createdDate, id, limit));
+	}
+
+    // Filter tickets by priority, one page at a time
+	@Override
+	@Transactional(readOnly = true)
+	public CursorPage<TicketSummaryDto> filterTicketsByPriority(Priority priority, String cursor, Integer size) {
+		return ticketPagination.page(cursor, size, (createdDate, id, limit) ->
+				ticketRepository.findPageByPriority(priority, createdDate, id, limit));
 	}
 	
     // Filter tickets by status and return DTOs sorted by creation date
+	@Deprecated
 	@Override
-	public List<TicketDto> filterTicketsByStatus(Status status) {
-		return ticketRepository.findByStatus(status)
-				.stream()
-				.sorted(Comparator.comparing(Ticket::getCreatedDate).reversed())
-				.map(Ticket::getTicketDto)
-				.collect(Collectors.toList());
+	@Transactional(readOnly = true)
+	public List<TicketSummaryDto> filterTicketsByStatus(Status status) {
+		return ticketPagination.unpaged((createdDate, id, limit) ->
+				ticketRepository.findPageByStatus(status, createdDate, id, limit));
+	}
+
+    // Filter tickets by status, one page at a time
+	@Override
+	@Transactional(readOnly = true)
+	public CursorPage<TicketSummaryDto> filterTicketsByStatus(Status status, String cursor, Integer size) {
+		return ticketPagination.page(cursor, size, (createdDate, id, limit) ->
+				ticketRepository.findPageByStatus(status, createdDate, id, limit));
 	}
 	
     // Filter tickets by department name and return DTOs sorted by creation date
+	@Deprecated
 	@Override
-	public List<TicketDto> filterTicketsByDepartmentName(String name) {
-		return ticketRepository.findByDepartmentName(name)
-				.stream()
-				.sorted(Comparator.comparing(Ticket::getCreatedDate).reversed())
-				.map(Ticket::getTicketDto)
-				.collect(Collectors.toList());
+	@Transactional(readOnly = true)
+	public List<TicketSummaryDto> filterTicketsByDepartmentName(String name) {
+		return ticketPagination.unpaged((createdDate, id, limit) ->
+				ticketRepository.findPageByDepartmentName(name, createdDate, id, limit));
 	}
-	
-    // Delete a customer and all associated data (tickets + comments)
+
+    // Filter tickets by department name, one page at a time
 	@Override
-	public void deleteCustomer(Long customerId) {
-		Optional<User> optionalUser = userRepository.findById(customerId);
-		if (optionalUser.isEmpty()) {
-			throw new RuntimeException("Customer not found");
-		}
-		
-		User user = optionalUser.get();
-		if (user.getUserRole() != UserRole.CUSTOMER) {
-			throw new RuntimeException("User is not a customer");
-		}
-		
-		// Get all tickets created by this customer
-		List<Ticket> customerTickets = ticketRepository.findByCustomer(user);
-		
-		// Delete all comments on customer's tickets
-		for (Ticket ticket : customerTickets) {
-			List<Comment> ticketComments = commentRepository.findByTicket(ticket);
-			commentRepository.deleteAll(ticketComments);
-		}
-		
-		// Delete all tickets created by this customer
-		ticketRepository.deleteAll(customerTickets);
-		
-		// Delete the customer account
-		userRepository.deleteById(customerId);
+	@Transactional(readOnly = true)
+	public CursorPage<TicketSummaryDto> filterTicketsByDepartmentName(String name, String cursor, Integer size) {
+		return ticketPagination.page(cursor, size, (createdDate, id, limit) ->
+				ticketRepository.findPageByDepartmentName(name, createdDate, id, limit));
 	}
 	
     // Delete an agent and unassign them from all tickets, and remove their comments
+    // (one transaction, so the comment deletes and ticket updates are flushed together in JDBC batches)
 	@Override
+	@Transactional
 	public void deleteAgent(Long agentId) {
 		Optional<User> optionalUser = userRepository.findById(agentId);
 		if (optionalUser.isEmpty()) {
@@ -204,9 +236,25 @@ public class AdminServiceImpl implements AdminService {
 				}
 			});
 			ticketRepository.saveAll(assignedTickets);
+			assignedTickets.forEach(ticketDispatchService::enqueue); // Pending again, so back in the dispatch queue
+			assignedTickets.forEach(ticketEventService::ticketChanged);
+		}
+
+		// Tickets that lost comments have changed as well
+		Set<Long> commentedTicketIds = agentComments.stream()
+				.map(comment -> comment.getTicket().getId())
+				.collect(Collectors.toSet());
+		if (!commentedTicketIds.isEmpty()) {
+			ticketRepository.markModified(commentedTicketIds, new Date());
 		}
 		
 		// Delete the agent account
 		userRepository.deleteById(agentId);
 	}
+
+	// Dashboard counts over all tickets and agents (briefly cached)
+	@Override
+	public TicketStatsDto getStats() {
+		return ticketStatsService.getStats(TicketStatsScope.all());
+	}
 }
@@ -0,0 +1,28 @@
+package com.helpdesk.services.admin;
+
+import java.util.Optional;
+
+import com.helpdesk.dto.PurgeJobDto;
+
+/**
+ * CustomerPurgeService deletes customers together with their tickets and comments in the background.
+ */
+public interface CustomerPurgeService {
+
+    /**
+     * Validates the customer and queues a job that deletes their comments, tickets and account.
+     * If a purge of the same customer is already queued or running, that job is returned instead.
+     *
+     * @param customerId ID of the customer to delete
+     * @return the queued (or already active) job
+     */
+    PurgeJobDto startPurge(Long customerId);
+
+    /**
+     * Returns the current progress of a purge job.
+     *
+     * @param jobId ID returned by startPurge
+     * @return the job, or empty if it is unknown or expired
+     */
+    Optional<PurgeJobDto> getJob(String jobId);
+}
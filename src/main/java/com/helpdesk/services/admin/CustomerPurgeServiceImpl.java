@@ -0,0 +1,234 @@
+package com.helpdesk.services.admin;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.helpdesk.dto.PurgeJobDto;
+import com.helpdesk.entities.User;
+import com.helpdesk.enums.JobStatus;
+import com.helpdesk.enums.UserRole;
+import com.helpdesk.repositories.CommentRepository;
+import com.helpdesk.repositories.TicketRepository;
+import com.helpdesk.repositories.UserRepository;
+import com.helpdesk.services.search.TicketSearchService;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Purges customers chunk by chunk on the application task executor.
+ * Each chunk deletes the comments and tickets of at most {@code helpdesk.purge.chunk-size} tickets with two bulk
+ * statements in its own short transaction, so row locks are held only briefly and the HTTP request returns at once.
+ * Jobs are kept in memory, so progress is only visible on the node that runs the job and is lost on restart;
+ * a purge interrupted by a restart can simply be started again.
+ */
+@Slf4j
+@Service
+public class CustomerPurgeServiceImpl implements CustomerPurgeService {
+
+    // Finished jobs stay queryable for this long
+    private static final Duration RETENTION = Duration.ofHours(24);
+
+    private final UserRepository userRepository;
+    private final TicketRepository ticketRepository;
+    private final CommentRepository commentRepository;
+    private final TicketSearchService ticketSearchService;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskExecutor taskExecutor;
+    private final int chunkSize;
+
+    // Jobs by ID; each job is mutated only while holding its own lock
+    private final Map<String, PurgeJobDto> jobs = new ConcurrentHashMap<>();
+
+    // Serializes job starts; a lock rather than synchronized, since a virtual thread blocked in JDBC inside a
+    // synchronized method would pin its carrier thread
+    private final ReentrantLock startLock = new ReentrantLock();
+
+    // Rows removed by one transaction
+    private record Deleted(int tickets, int comments) {
+    }
+
+    public CustomerPurgeServiceImpl(UserRepository userRepository, TicketRepository ticketRepository,
+            CommentRepository commentRepository, TicketSearchService ticketSearchService,
+            TransactionTemplate transactionTemplate,
+            @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor,
+            @Value("${helpdesk.purge.chunk-size:500}") int chunkSize) {
+        this.userRepository = userRepository;
+        this.ticketRepository = ticketRepository;
+        this.commentRepository = commentRepository;
+        this.ticketSearchService = ticketSearchService;
+        this.transactionTemplate = transactionTemplate;
+        this.taskExecutor = taskExecutor;
+        this.chunkSize = chunkSize;
+    }
+
+    // Validate the customer, then queue the purge (or return the one already in progress)
+    @Override
+    public PurgeJobDto startPurge(Long customerId) {
+        startLock.lock();
+        try {
+            return start(customerId);
+        } finally {
+            startLock.unlock();
+        }
+    }
+
+    private PurgeJobDto start(Long customerId) {
+        User user = userRepository.findById(customerId)
+                .orElseThrow(() -> new RuntimeException("Customer not found"));
+        if (user.getUserRole() != UserRole.CUSTOMER) {
+            throw new RuntimeException("User is not a customer");
+        }
+
+        removeExpiredJobs();
+        Optional<PurgeJobDto> active = jobs.values().stream()
+                .filter(job -> customerId.equals(job.getCustomerId()) && !isFinished(job))
+                .findFirst();
+        if (active.isPresent()) {
+            return snapshot(active.get());
+        }
+
+        PurgeJobDto job = new PurgeJobDto();
+        job.setJobId(UUID.randomUUID().toString());
+        job.setCustomerId(customerId);
+        job.setStatus(JobStatus.QUEUED);
+        job.setTotalTickets(ticketRepository.countByCustomerId(customerId));
+        job.setSubmittedAt(new Date());
+        jobs.put(job.getJobId(), job);
+
+        try {
+            taskExecutor.execute(() -> run(job));
+        } catch (RuntimeException e) {
+            finish(job, e);
+            throw new RuntimeException("Purge could not be queued: " + e.getMessage());
+        }
+        return snapshot(job);
+    }
+
+    // Look up a job's progress
+    @Override
+    public Optional<PurgeJobDto> getJob(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId)).map(this::snapshot);
+    }
+
+    // Delete the customer's data chunk by chunk, then the account itself; progress is recorded after each commit
+    private void run(PurgeJobDto job) {
+        Long customerId = job.getCustomerId();
+        update(job, () -> job.setStatus(JobStatus.RUNNING));
+        try {
+            while (true) {
+                Deleted chunk = transactionTemplate.execute(status -> purgeChunk(customerId));
+                if (chunk.tickets() == 0) {
+                    Deleted account = transactionTemplate.execute(status -> deleteAccount(customerId));
+                    if (account != null) {
+                        record(job, account);
+                        break;
+                    }
+                }
+                record(job, chunk);
+            }
+            finish(job, null);
+            PurgeJobDto done = snapshot(job);
+            log.info("Purged customer {}: {} tickets, {} comments", customerId, done.getTicketsDeleted(), done.getCommentsDeleted());
+        } catch (RuntimeException e) {
+            log.error("Purge of customer {} failed", customerId, e);
+            finish(job, e);
+        }
+    }
+
+    // Delete the comments and tickets of the next chunk of the customer's tickets
+    private Deleted purgeChunk(Long customerId) {
+        List<Long> ticketIds = ticketRepository.findIdsByCustomer(customerId, Limit.of(chunkSize));
+        if (ticketIds.isEmpty()) {
+            return new Deleted(0, 0);
+        }
+        int comments = commentRepository.deleteByTicketIdIn(ticketIds);
+        int tickets = ticketRepository.deleteByIdIn(ticketIds);
+        ticketSearchService.removeFromIndex(ticketIds);
+        return new Deleted(tickets, comments);
+    }
+
+    // Delete the customer's remaining comments on other tickets and the account; returns null if the customer
+    // created another ticket while the purge was running, so the caller goes back to deleting tickets
+    private Deleted deleteAccount(Long customerId) {
+        if (!ticketRepository.findIdsByCustomer(customerId, Limit.of(1)).isEmpty()) {
+            return null;
+        }
+        List<Long> commentedTicketIds = commentRepository.findTicketIdsByUserId(customerId);
+        int comments = commentRepository.deleteByUserId(customerId);
+        if (!commentedTicketIds.isEmpty()) {
+            // The other tickets lost comments: new ETags, and their index documents drop the deleted comment text
+            ticketRepository.markModified(commentedTicketIds, new Date());
+            ticketSearchService.reindex(commentedTicketIds);
+        }
+        userRepository.deleteById(customerId);
+        return new Deleted(0, comments);
+    }
+
+    private static void record(PurgeJobDto job, Deleted deleted) {
+        update(job, () -> {
+            job.setTicketsDeleted(job.getTicketsDeleted() + deleted.tickets());
+            job.setCommentsDeleted(job.getCommentsDeleted() + deleted.comments());
+        });
+    }
+
+    // Mark a job as completed, or as failed with the given error
+    private void finish(PurgeJobDto job, RuntimeException error) {
+        update(job, () -> {
+            job.setStatus(error == null ? JobStatus.COMPLETED : JobStatus.FAILED);
+            job.setError(error == null ? null : error.getMessage());
+            job.setFinishedAt(new Date());
+        });
+    }
+
+    // Forget finished jobs older than the retention period
+    private void removeExpiredJobs() {
+        long cutoff = System.currentTimeMillis() - RETENTION.toMillis();
+        jobs.values().removeIf(job -> {
+            synchronized (job) {
+                return job.getFinishedAt() != null && job.getFinishedAt().getTime() < cutoff;
+            }
+        });
+    }
+
+    private static boolean isFinished(PurgeJobDto job) {
+        synchronized (job) {
+            return job.getFinishedAt() != null;
+        }
+    }
+
+    private static void update(PurgeJobDto job, Runnable change) {
+        synchronized (job) {
+            change.run();
+        }
+    }
+
+    // Copy of a job, so callers never see a half-applied update
+    private PurgeJobDto snapshot(PurgeJobDto job) {
+        synchronized (job) {
+            PurgeJobDto copy = new PurgeJobDto();
+            copy.setJobId(job.getJobId());
+            copy.setCustomerId(job.getCustomerId());
+            copy.setStatus(job.getStatus());
+            copy.setTotalTickets(job.getTotalTickets());
+            copy.setTicketsDeleted(job.getTicketsDeleted());
+            copy.setCommentsDeleted(job.getCommentsDeleted());
+            copy.setSubmittedAt(job.getSubmittedAt());
+            copy.setFinishedAt(job.getFinishedAt());
+            copy.setError(job.getError());
+            return copy;
+        }
+    }
+}
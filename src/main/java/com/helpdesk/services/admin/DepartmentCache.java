@@ -0,0 +1,148 @@
+package com.helpdesk.services.admin;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.helpdesk.config.ReplicaRoutingDataSource;
+import com.helpdesk.dto.DepartmentDto;
+import com.helpdesk.dto.DepartmentListDto;
+import com.helpdesk.entities.Department;
+import com.helpdesk.repositories.DepartmentRepository;
+
+/**
+ * In-process copy of the department table.
+ * Departments are reference data that almost never change, so listings and name lookups are served
+ * from memory instead of querying the database on every request. {@link DepartmentServiceImpl}
+ * invalidates the copy after each write; the time to live bounds how long other application
+ * instances keep serving a stale copy. The copy also carries a content hash used as an HTTP ETag.
+ * The table is always read from the primary database: a copy loaded from a lagging replica right after an
+ * invalidation would be served, and would reject the new department, for the whole time to live.
+ */
+@Component
+public class DepartmentCache {
+
+	// Immutable view of the department table as loaded at one point in time
+	private record Snapshot(long generation, long loadedAt, List<DepartmentDto> departments,
+			Map<String, DepartmentDto> byName, String version) {
+	}
+
+	private final DepartmentRepository departmentRepository; // Source of the cached rows
+	private final long ttlNanos; // How long a loaded copy is served before it is reloaded
+	private final TransactionTemplate primaryRead; // A transaction of its own, so no replica connection of the caller is reused
+
+	// Bumped on every invalidation; a copy loaded under an older generation is never served
+	private final AtomicLong generation = new AtomicLong();
+	private final AtomicReference<Snapshot> current = new AtomicReference<>();
+
+	public DepartmentCache(DepartmentRepository departmentRepository, PlatformTransactionManager transactionManager,
+			@Value("${helpdesk.departments.cache-ttl:5m}") Duration ttl) {
+		this.departmentRepository = departmentRepository;
+		this.ttlNanos = ttl.toNanos();
+		this.primaryRead = new TransactionTemplate(transactionManager);
+		this.primaryRead.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+		this.primaryRead.setReadOnly(true);
+	}
+
+	// All departments ordered by ID
+	public List<DepartmentDto> getAll() {
+		return snapshot().departments().stream().map(DepartmentCache::copy).toList();
+	}
+
+	// A single department by ID
+	public Optional<DepartmentDto> findById(Long id) {
+		return snapshot().departments().stream().filter(d -> d.getId().equals(id)).findFirst().map(DepartmentCache::copy);
+	}
+
+	// A detached department with the given name, ready to be referenced by a ticket or agent without another query
+	public Optional<Department> findByName(String name) {
+		return Optional.ofNullable(snapshot().byName().get(name)).map(dto -> {
+			Department department = new Department(dto.getName());
+			department.setId(dto.getId());
+			return department;
+		});
+	}
+
+	// All departments and the version of that list, taken from the same loaded copy
+	public DepartmentListDto getList() {
+		Snapshot snapshot = snapshot();
+		return new DepartmentListDto(snapshot.departments().stream().map(DepartmentCache::copy).toList(), snapshot.version());
+	}
+
+	// Drops the cached copy so the next read goes to the database; call after a write has committed
+	public void invalidate() {
+		generation.incrementAndGet();
+		current.set(null);
+	}
+
+	// Returns the cached copy, reloading it when it was invalidated or has expired
+	private Snapshot snapshot() {
+		Snapshot snapshot = current.get();
+		if (snapshot != null && snapshot.generation() == generation.get()
+				&& System.nanoTime() - snapshot.loadedAt() < ttlNanos) {
+			return snapshot;
+		}
+		return load();
+	}
+
+	// Reads the whole table from the primary; the generation is captured first so a load that races with a write
+	// is not kept
+	private Snapshot load() {
+		long loadedGeneration = generation.get();
+		List<Department> rows = ReplicaRoutingDataSource.onPrimary(
+				() -> primaryRead.execute(status -> departmentRepository.findAll()));
+		List<DepartmentDto> departments = rows.stream()
+				.map(DepartmentCache::toDto)
+				.sorted(Comparator.comparing(DepartmentDto::getId))
+				.toList();
+		Map<String, DepartmentDto> byName = departments.stream()
+				.collect(Collectors.toUnmodifiableMap(DepartmentDto::getName, Function.identity()));
+		Snapshot snapshot = new Snapshot(loadedGeneration, System.nanoTime(), departments, byName, hash(departments));
+		current.set(snapshot);
+		return snapshot;
+	}
+
+	// Hash of every ID and name, so all instances that see the same rows report the same version
+	private static String hash(List<DepartmentDto> departments) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			for (DepartmentDto department : departments) {
+				digest.update((department.getId() + "=" + department.getName() + "\n").getBytes(StandardCharsets.UTF_8));
+			}
+			return HexFormat.of().formatHex(digest.digest(), 0, 16);
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static DepartmentDto toDto(Department department) {
+		DepartmentDto dto = new DepartmentDto();
+		dto.setId(department.getId());
+		dto.setName(department.getName());
+		return dto;
+	}
+
+	// DepartmentDto is mutable, so callers get their own copy rather than the cached instance
+	private static DepartmentDto copy(DepartmentDto cached) {
+		DepartmentDto dto = new DepartmentDto();
+		dto.setId(cached.getId());
+		dto.setName(cached.getName());
+		return dto;
+	}
+}
@@ -1,8 +1,7 @@
 package com.helpdesk.services.admin;
 
-import java.util.List;
-
 import com.helpdesk.dto.DepartmentDto;
+import com.helpdesk.dto.DepartmentListDto;
 
 /**
  * DepartmentService interface defines operations related to department management.
@@ -12,9 +11,9 @@ public interface DepartmentService {
     /**
      * Retrieves all departments.
      * 
-     * @return List of DepartmentDto representing all departments
+     * @return all departments with the version of the list, used as the ETag of department responses
      */
-    List<DepartmentDto> getAllDepartments();
+    DepartmentListDto getAllDepartments();
 
     /**
      * Creates a new department.
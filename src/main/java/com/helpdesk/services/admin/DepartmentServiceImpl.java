@@ -1,14 +1,15 @@
 package com.helpdesk.services.admin;
 
-import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.helpdesk.dto.DepartmentDto;
+import com.helpdesk.dto.DepartmentListDto;
 import com.helpdesk.entities.Department;
 import com.helpdesk.repositories.DepartmentRepository;
+import com.helpdesk.utils.AfterCommit;
 
 import lombok.RequiredArgsConstructor;
 
@@ -21,6 +22,9 @@ public class DepartmentServiceImpl implements DepartmentService {
     // Injecting the department repository dependency
     private final DepartmentRepository departmentRepository;
 
+    // In-process copy of the departments; every write below invalidates it
+    private final DepartmentCache departmentCache;
+
     /**
      * Seeds the department table with default departments if the table is empty.
      * This method runs automatically after bean construction.
@@ -32,20 +36,18 @@ public class DepartmentServiceImpl implements DepartmentService {
             departmentRepository.save(new Department("Finance"));
             departmentRepository.save(new Department("Marketing"));
             departmentRepository.save(new Department("Others"));
+            departmentCache.invalidate();
         }
     }
 
     /**
-     * Fetches all departments from the database.
+     * Fetches all departments from the department cache.
      * 
-     * @return List of DepartmentDto
+     * @return the departments and the version of the list
      */
     @Override
-    public List<DepartmentDto> getAllDepartments() {
-        return departmentRepository.findAll()
-                .stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+    public DepartmentListDto getAllDepartments() {
+        return departmentCache.getList();
     }
 
     /**
@@ -59,23 +61,26 @@ public class DepartmentServiceImpl implements DepartmentService {
         Department department = new Department();
         department.setName(departmentDto.getName());
         Department savedDepartment = departmentRepository.save(department);
+        departmentCache.invalidate();
         return convertToDto(savedDepartment);
     }
 
     /**
-     * Updates an existing department by ID.
+     * Updates an existing department by ID (the lookup and the update share one transaction).
      * 
      * @param id Department ID to update
      * @param departmentDto Updated department data
      * @return Updated DepartmentDto or null if not found
      */
     @Override
+    @Transactional
     public DepartmentDto updateDepartment(Long id, DepartmentDto departmentDto) {
         Optional<Department> optionalDepartment = departmentRepository.findById(id);
         if (optionalDepartment.isPresent()) {
             Department department = optionalDepartment.get();
             department.setName(departmentDto.getName());
             Department updatedDepartment = departmentRepository.save(department);
+            AfterCommit.run(departmentCache::invalidate); // A reload before the commit would cache the old name
             return convertToDto(updatedDepartment);
         }
         return null;
@@ -89,18 +94,18 @@ public class DepartmentServiceImpl implements DepartmentService {
     @Override
     public void deleteDepartment(Long id) {
         departmentRepository.deleteById(id);
+        departmentCache.invalidate();
     }
 
     /**
-     * Retrieves a department by its ID.
+     * Retrieves a department by its ID from the department cache.
      * 
      * @param id Department ID
      * @return Corresponding DepartmentDto or null if not found
      */
     @Override
     public DepartmentDto getDepartmentById(Long id) {
-        Optional<Department> optionalDepartment = departmentRepository.findById(id);
-        return optionalDepartment.map(this::convertToDto).orElse(null);
+        return departmentCache.findById(id).orElse(null);
     }
 
     /**
@@ -0,0 +1,24 @@
+package com.helpdesk.services.admin;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import com.helpdesk.dto.TicketExportFilter;
+import com.helpdesk.enums.FileFormat;
+
+/**
+ * TicketExportService writes full ticket dumps (e.g. for compliance) without loading them into memory.
+ */
+public interface TicketExportService {
+
+    /**
+     * Writes every ticket matching the filter to the stream, in ID order, as rows are read from the database.
+     *
+     * @param filter which tickets to export
+     * @param format CSV (with a header line) or NDJSON
+     * @param output where to write; not closed
+     * @return the number of tickets written
+     * @throws IOException if writing fails (e.g. the client disconnected)
+     */
+    long export(TicketExportFilter filter, FileFormat format, OutputStream output) throws IOException;
+}
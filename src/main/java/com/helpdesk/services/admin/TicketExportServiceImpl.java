@@ -0,0 +1,124 @@
+package com.helpdesk.services.admin;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.helpdesk.dto.TicketExportDto;
+import com.helpdesk.dto.TicketExportFilter;
+import com.helpdesk.enums.FileFormat;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Streams export rows from a forward-only query straight into the output.
+ * Rows are built by a constructor expression, so nothing accumulates in the persistence context, and the JDBC
+ * driver fetches {@code helpdesk.export.fetch-size} rows per round trip; memory use does not depend on the number
+ * of tickets. (MySQL Connector/J only honours the fetch size with {@code useCursorFetch=true} in the URL.)
+ */
+@Slf4j
+@Service
+public class TicketExportServiceImpl implements TicketExportService {
+
+    private static final String SELECT = "select new com.helpdesk.dto.TicketExportDto(t.id, t.title, t.description, "
+            + "t.priority, t.status, t.createdDate, c.userName, a.userName, d.name) "
+            + "from Ticket t join t.customer c left join t.assignedAgent a join t.department d";
+
+    private final EntityManager entityManager;
+    private final ObjectWriter csvWriter;
+    private final ObjectWriter ndjsonWriter;
+    private final int fetchSize;
+
+    public TicketExportServiceImpl(EntityManager entityManager, ObjectMapper objectMapper,
+            @Value("${helpdesk.export.fetch-size:1000}") int fetchSize) {
+        this.entityManager = entityManager;
+        CsvMapper csvMapper = CsvMapper.builder().disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+        this.csvWriter = csvMapper.writerFor(TicketExportDto.class)
+                .with(csvMapper.schemaFor(TicketExportDto.class).withHeader())
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        this.ndjsonWriter = objectMapper.writerFor(TicketExportDto.class)
+                .withRootValueSeparator("\n")
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        this.fetchSize = fetchSize;
+    }
+
+    // Run the filtered query and write each row as soon as it is read
+    @Override
+    @Transactional(readOnly = true)
+    public long export(TicketExportFilter filter, FileFormat format, OutputStream output) throws IOException {
+        long written = 0;
+        try (Stream<TicketExportDto> rows = query(filter).getResultStream();
+                SequenceWriter writer = (format == FileFormat.CSV ? csvWriter : ndjsonWriter).writeValues(output)) {
+            for (Iterator<TicketExportDto> it = rows.iterator(); it.hasNext();) {
+                writer.write(it.next());
+                written++;
+            }
+            if (format == FileFormat.NDJSON && written > 0) {
+                writer.flush();
+                output.write('\n'); // Terminate the last line like the others
+            }
+        }
+        log.info("Exported {} tickets as {}", written, format);
+        return written;
+    }
+
+    // Builds the export query with a condition for each filter that is set; days start at midnight in the server's time
+    // zone, like the creation dates of tickets created through the API
+    private TypedQuery<TicketExportDto> query(TicketExportFilter filter) {
+        List<String> conditions = new ArrayList<>();
+        if (filter.getStatus() != null) {
+            conditions.add("t.status = :status");
+        }
+        if (filter.getPriority() != null) {
+            conditions.add("t.priority = :priority");
+        }
+        if (filter.getDepartment() != null) {
+            conditions.add("d.name = :department");
+        }
+        if (filter.getFrom() != null) {
+            conditions.add("t.createdDate >= :from");
+        }
+        if (filter.getTo() != null) {
+            conditions.add("t.createdDate < :before");
+        }
+        String jpql = SELECT + (conditions.isEmpty() ? "" : " where " + String.join(" and ", conditions)) + " order by t.id";
+
+        TypedQuery<TicketExportDto> query = entityManager.createQuery(jpql, TicketExportDto.class)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true);
+        if (filter.getStatus() != null) {
+            query.setParameter("status", filter.getStatus());
+        }
+        if (filter.getPriority() != null) {
+            query.setParameter("priority", filter.getPriority());
+        }
+        if (filter.getDepartment() != null) {
+            query.setParameter("department", filter.getDepartment());
+        }
+        if (filter.getFrom() != null) {
+            query.setParameter("from", Date.from(filter.getFrom().atStartOfDay(ZoneId.systemDefault()).toInstant()));
+        }
+        if (filter.getTo() != null) {
+            query.setParameter("before", Date.from(filter.getTo().plusDays(1).atStartOfDay(ZoneId.systemDefault()).toInstant()));
+        }
+        return query;
+    }
+}
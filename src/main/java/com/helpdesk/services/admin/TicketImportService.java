@@ -0,0 +1,24 @@
+package com.helpdesk.services.admin;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import com.helpdesk.dto.TicketImportResultDto;
+import com.helpdesk.enums.FileFormat;
+
+/**
+ * TicketImportService creates tickets in bulk from an uploaded file (e.g. when migrating historical tickets).
+ */
+public interface TicketImportService {
+
+    /**
+     * Reads tickets from the stream one row at a time and saves them in batches.
+     * Rows that cannot be imported are reported in the result; the other rows are still imported.
+     *
+     * @param input  the upload, read to the end but never held in memory as a whole
+     * @param format how the upload is encoded
+     * @return counts, rejected rows and throughput of the import
+     * @throws IOException if the upload cannot be read
+     */
+    TicketImportResultDto importTickets(InputStream input, FileFormat format) throws IOException;
+}
@@ -0,0 +1,283 @@
+package com.helpdesk.services.admin;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.helpdesk.dto.ImportRowErrorDto;
+import com.helpdesk.dto.TicketImportResultDto;
+import com.helpdesk.dto.TicketImportRow;
+import com.helpdesk.entities.Department;
+import com.helpdesk.entities.Ticket;
+import com.helpdesk.entities.User;
+import com.helpdesk.enums.FileFormat;
+import com.helpdesk.enums.Priority;
+import com.helpdesk.enums.Status;
+import com.helpdesk.enums.UserRole;
+import com.helpdesk.repositories.DepartmentRepository;
+import com.helpdesk.repositories.TicketRepository;
+import com.helpdesk.repositories.UserRepository;
+import com.helpdesk.services.dispatch.TicketDispatchService;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Streams an upload row by row and saves tickets {@code helpdesk.import.batch-size} at a time, each batch in its
+ * own transaction (JDBC-batched inserts). Customers, agents and departments are looked up once per distinct name
+ * and import. If a batch fails, its rows are retried one by one so only the offending rows are rejected. The import
+ * runs outside a transaction, so each batch's persistence context closes with its transaction and memory stays flat.
+ */
+@Slf4j
+@Service
+public class TicketImportServiceImpl implements TicketImportService {
+
+    // Rejected rows listed in the result; further failures are only counted
+    private static final int MAX_REPORTED_ERRORS = 100;
+
+    private final TicketRepository ticketRepository;
+    private final UserRepository userRepository;
+    private final DepartmentRepository departmentRepository;
+    private final TicketDispatchService ticketDispatchService;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectReader jsonReader;
+    private final ObjectReader csvReader;
+    private final int batchSize;
+
+    public TicketImportServiceImpl(TicketRepository ticketRepository, UserRepository userRepository,
+            DepartmentRepository departmentRepository, TicketDispatchService ticketDispatchService,
+            TransactionTemplate transactionTemplate, ObjectMapper objectMapper,
+            @Value("${helpdesk.import.batch-size:500}") int batchSize) {
+        this.ticketRepository = ticketRepository;
+        this.userRepository = userRepository;
+        this.departmentRepository = departmentRepository;
+        this.ticketDispatchService = ticketDispatchService;
+        this.transactionTemplate = transactionTemplate;
+        this.jsonReader = objectMapper.readerFor(TicketImportRow.class);
+        this.csvReader = new CsvMapper().readerFor(TicketImportRow.class).with(CsvSchema.emptySchema().withHeader());
+        this.batchSize = batchSize;
+    }
+
+    // Read, validate and save every row of the upload
+    @Override
+    public TicketImportResultDto importTickets(InputStream input, FileFormat format) throws IOException {
+        long started = System.nanoTime();
+        Run run = new Run();
+
+        long rowNumber = 0;
+        try (RowReader rows = format == FileFormat.CSV ? new CsvRows(input) : new NdjsonRows(input)) {
+            while (true) {
+                TicketImportRow row;
+                try {
+                    row = rows.next();
+                } catch (JsonProcessingException e) {
+                    run.reject(++rowNumber, "Unreadable row: " + e.getOriginalMessage());
+                    continue;
+                } catch (RuntimeJsonMappingException e) {
+                    run.reject(++rowNumber, "Unreadable row: " + e.getMessage());
+                    continue;
+                }
+                if (row == null) {
+                    break;
+                }
+                rowNumber++;
+                try {
+                    run.pending.add(new PendingTicket(rowNumber, toTicket(row, run)));
+                } catch (IllegalArgumentException e) {
+                    run.reject(rowNumber, e.getMessage());
+                }
+                if (run.pending.size() >= batchSize) {
+                    save(run);
+                }
+            }
+        }
+        save(run);
+
+        TicketImportResultDto result = run.result;
+        result.setRowsRead(rowNumber);
+        result.setDurationMillis((System.nanoTime() - started) / 1_000_000);
+        result.setRowsPerSecond(result.getRowsRead() * 1_000_000_000.0 / Math.max(1, System.nanoTime() - started));
+        log.info("Imported {} of {} tickets ({} rejected) in {} ms", result.getImported(), result.getRowsRead(),
+                result.getFailed(), result.getDurationMillis());
+        return result;
+    }
+
+    // Save the pending tickets in one transaction, falling back to one transaction per ticket if that fails
+    private void save(Run run) {
+        if (run.pending.isEmpty()) {
+            return;
+        }
+        List<PendingTicket> batch = List.copyOf(run.pending);
+        run.pending.clear();
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    ticketRepository.saveAll(batch.stream().map(PendingTicket::ticket).toList()));
+            run.result.setImported(run.result.getImported() + batch.size());
+            batch.forEach(pending -> ticketDispatchService.enqueue(pending.ticket()));
+        } catch (RuntimeException batchFailure) {
+            for (PendingTicket pending : batch) {
+                pending.ticket().setId(null); // The rolled back insert had reserved an ID
+                pending.ticket().setVersion(null); // and its initial version, which would make Spring Data treat it as persisted
+                try {
+                    transactionTemplate.executeWithoutResult(status -> ticketRepository.save(pending.ticket()));
+                    run.result.setImported(run.result.getImported() + 1);
+                    ticketDispatchService.enqueue(pending.ticket());
+                } catch (RuntimeException e) {
+                    run.reject(pending.row(), NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+                }
+            }
+        }
+    }
+
+    // Validate one row and build its ticket; IllegalArgumentException carries the reason for rejecting it
+    private Ticket toTicket(TicketImportRow row, Run run) {
+        Ticket ticket = new Ticket();
+        ticket.setTitle(required(row.getTitle(), "title"));
+        ticket.setDescription(required(row.getDescription(), "description"));
+        ticket.setPriority(parseEnum(Priority.class, required(row.getPriority(), "priority"), "priority"));
+        ticket.setStatus(isBlank(row.getStatus()) ? Status.PENDING : parseEnum(Status.class, row.getStatus(), "status"));
+        ticket.setCreatedDate(isBlank(row.getCreatedDate()) ? new Date() : parseDate(row.getCreatedDate().trim()));
+
+        String department = required(row.getDepartment(), "department");
+        ticket.setDepartment(run.departments.computeIfAbsent(department, departmentRepository::findByName)
+                .orElseThrow(() -> new IllegalArgumentException("Department not found: " + department)));
+
+        ticket.setCustomer(user(required(row.getCustomer(), "customer"), UserRole.CUSTOMER, run));
+        if (!isBlank(row.getAgent())) {
+            ticket.setAssignedAgent(user(row.getAgent().trim(), UserRole.AGENT, run));
+        }
+        return ticket;
+    }
+
+    // Look up a user by username (cached for the import) and check their role
+    private User user(String userName, UserRole role, Run run) {
+        User user = run.users.computeIfAbsent(userName, userRepository::findByUserName)
+                .orElseThrow(() -> new IllegalArgumentException("User not found: " + userName));
+        if (user.getUserRole() != role) {
+            throw new IllegalArgumentException("User " + userName + " is not a " + role.name().toLowerCase(Locale.ROOT));
+        }
+        return user;
+    }
+
+    private static String required(String value, String column) {
+        if (isBlank(value)) {
+            throw new IllegalArgumentException("Missing " + column);
+        }
+        return value.trim();
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private static <E extends Enum<E>> E parseEnum(Class<E> type, String value, String column) {
+        try {
+            return Enum.valueOf(type, value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid " + column + ": " + value);
+        }
+    }
+
+    // Accepts an instant (2023-04-01T09:30:00Z) or a date (2023-04-01, midnight in the server's time zone)
+    private static Date parseDate(String value) {
+        try {
+            return Date.from(value.length() == 10
+                    ? LocalDate.parse(value).atStartOfDay(ZoneId.systemDefault()).toInstant()
+                    : Instant.parse(value));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid createdDate: " + value);
+        }
+    }
+
+    // State of one import: lookup caches, the batch being filled and the running totals
+    private static final class Run {
+        private final Map<String, Optional<Department>> departments = new HashMap<>();
+        private final Map<String, Optional<User>> users = new HashMap<>();
+        private final List<PendingTicket> pending = new ArrayList<>();
+        private final TicketImportResultDto result = new TicketImportResultDto();
+
+        private void reject(long row, String message) {
+            result.setFailed(result.getFailed() + 1);
+            if (result.getErrors().size() < MAX_REPORTED_ERRORS) {
+                result.getErrors().add(new ImportRowErrorDto(row, message));
+            } else {
+                result.setErrorsTruncated(true);
+            }
+        }
+    }
+
+    private record PendingTicket(long row, Ticket ticket) {
+    }
+
+    // Rows of an upload, read one at a time; next() returns null at the end
+    private interface RowReader extends Closeable {
+        TicketImportRow next() throws IOException;
+    }
+
+    // CSV with a header line; columns are matched to TicketImportRow by name, unknown columns are ignored
+    private final class CsvRows implements RowReader {
+        private final MappingIterator<TicketImportRow> rows;
+
+        private CsvRows(InputStream input) throws IOException {
+            this.rows = csvReader.readValues(new InputStreamReader(input, StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public TicketImportRow next() throws IOException {
+            return rows.hasNextValue() ? rows.nextValue() : null;
+        }
+
+        @Override
+        public void close() throws IOException {
+            rows.close();
+        }
+    }
+
+    // One JSON object per line; blank lines are skipped
+    private final class NdjsonRows implements RowReader {
+        private final BufferedReader lines;
+
+        private NdjsonRows(InputStream input) {
+            this.lines = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public TicketImportRow next() throws IOException {
+            String line;
+            do {
+                line = lines.readLine();
+            } while (line != null && line.isBlank());
+            return line == null ? null : jsonReader.readValue(line);
+        }
+
+        @Override
+        public void close() throws IOException {
+            lines.close();
+        }
+    }
+}
@@ -2,8 +2,12 @@ package com.helpdesk.services.agent;
 
 import java.util.List;
 
-import com.helpdesk.dto.DepartmentDto;
+import com.helpdesk.dto.CursorPage;
+import com.helpdesk.dto.DepartmentListDto;
 import com.helpdesk.dto.TicketDto;
+import com.helpdesk.dto.TicketSetVersion;
+import com.helpdesk.dto.TicketStatsDto;
+import com.helpdesk.dto.TicketSummaryDto;
 import com.helpdesk.enums.Priority;
 import com.helpdesk.enums.Status;
 
@@ -13,51 +17,103 @@ import com.helpdesk.enums.Status;
  */
 public interface AgentService {
 
-    // Returns the list of tickets currently assigned to the logged-in agent
-    List<TicketDto> getAssignedTickets();
+    // Returns the list of tickets currently assigned to the logged-in agent (deprecated: unpaged)
+    @Deprecated
+    List<TicketSummaryDto> getAssignedTickets();
+
+    // Returns one page of tickets assigned to the logged-in agent, newest first
+    CursorPage<TicketSummaryDto> getAssignedTickets(String cursor, Integer size);
+
+    // Fingerprint of all tickets assigned to the logged-in agent, used as the ETag of the assigned list
+    TicketSetVersion getAssignedTicketsVersion();
 
     // Retrieves a specific assigned ticket by its ID
     TicketDto getAssignedTicketById(Long id);
 
-    // Searches assigned tickets by matching title
-    List<TicketDto> searchAssignedTicketByTitle(String title);
+    // Reads the version of an assigned ticket without loading it (null if not found or not assigned to the agent)
+    Long getAssignedTicketVersion(Long id);
+
+    // Full-text search over assigned tickets: title, description and comments (deprecated: unpaged)
+    @Deprecated
+    List<TicketSummaryDto> searchAssignedTicketByTitle(String title);
+
+    // Full-text search over assigned tickets, most relevant first, one page at a time
+    CursorPage<TicketSummaryDto> searchAssignedTicketByTitle(String title, String cursor, Integer size);
+
+    // Filters assigned tickets based on their priority (deprecated: unpaged)
+    @Deprecated
+    List<TicketSummaryDto> filterAssignedTicketsByPriority(Priority priority);
+
+    // Filters assigned tickets based on their priority, one page at a time
+    CursorPage<TicketSummaryDto> filterAssignedTicketsByPriority(Priority priority, String cursor, Integer size);
+
+    // Filters assigned tickets based on their status, e.g. INPROGRESS or RESOLVED (deprecated: unpaged)
+    @Deprecated
+    List<TicketSummaryDto> filterAssignedTicketsByStatus(Status status);
 
-    // Filters assigned tickets based on their priority
-    List<TicketDto> filterAssignedTicketsByPriority(Priority priority);
+    // Filters assigned tickets based on their status, one page at a time
+    CursorPage<TicketSummaryDto> filterAssignedTicketsByStatus(Status status, String cursor, Integer size);
 
-    // Filters assigned tickets based on their status (e.g., INPROGRESS, RESOLVED)
-    List<TicketDto> filterAssignedTicketsByStatus(Status status);
+    // Filters assigned tickets by department name (deprecated: unpaged)
+    @Deprecated
+    List<TicketSummaryDto> filterAssignedTicketsByDepartmentName(String name);
 
-    // Filters assigned tickets by department name
-    List<TicketDto> filterAssignedTicketsByDepartmentName(String name);
+    // Filters assigned tickets by department name, one page at a time
+    CursorPage<TicketSummaryDto> filterAssignedTicketsByDepartmentName(String name, String cursor, Integer size);
 
-    // Updates the priority of an assigned ticket
-    TicketDto updatAssignedTicketePriority(Long ticketId, Priority priority);
+    // Updates the priority of an assigned ticket; expectedVersion (from If-Match) guards against lost updates, null skips the check
+    TicketDto updatAssignedTicketePriority(Long ticketId, Priority priority, Long expectedVersion);
 
-    // Updates the status of an assigned ticket
-    TicketDto updateAssignedTicketStatus(Long ticketId, Status newStatus);
+    // Updates the status of an assigned ticket; expectedVersion (from If-Match) guards against lost updates, null skips the check
+    TicketDto updateAssignedTicketStatus(Long ticketId, Status newStatus, Long expectedVersion);
 
-    // Returns a list of all tickets in the system (admin-level access for agents, if allowed)
-    List<TicketDto> getAllTickets();
+    // Returns a list of all tickets in the system, admin-level access for agents (deprecated: unpaged)
+    @Deprecated
+    List<TicketSummaryDto> getAllTickets();
+
+    // Returns one page of all tickets in the system, newest first
+    CursorPage<TicketSummaryDto> getAllTickets(String cursor, Integer size);
 
     // Retrieves any ticket by its ID (not limited to assigned ones)
     TicketDto getTicketById(Long id);
 
-    // Searches all tickets by title
-    List<TicketDto> searchTicketByTitle(String title);
+    // Reads the version of any ticket without loading it (null if not found)
+    Long getTicketVersion(Long id);
+
+    // Full-text search over all tickets: title, description and comments (deprecated: unpaged)
+    @Deprecated
+    List<TicketSummaryDto> searchTicketByTitle(String title);
+
+    // Full-text search over all tickets, most relevant first, one page at a time
+    CursorPage<TicketSummaryDto> searchTicketByTitle(String title, String cursor, Integer size);
+
+    // Filters all tickets based on priority (deprecated: unpaged)
+    @Deprecated
+    List<TicketSummaryDto> filterTicketsByPriority(Priority priority);
 
-    // Filters all tickets based on priority
-    List<TicketDto> filterTicketsByPriority(Priority priority);
+    // Filters all tickets based on priority, one page at a time
+    CursorPage<TicketSummaryDto> filterTicketsByPriority(Priority priority, String cursor, Integer size);
 
-    // Filters all tickets based on status
-    List<TicketDto> filterTicketsByStatus(Status status);
+    // Filters all tickets based on status (deprecated: unpaged)
+    @Deprecated
+    List<TicketSummaryDto> filterTicketsByStatus(Status status);
 
-    // Filters all tickets by department name
-    List<TicketDto> filterTicketsByDepartmentName(String name);
+    // Filters all tickets based on status, one page at a time
+    CursorPage<TicketSummaryDto> filterTicketsByStatus(Status status, String cursor, Integer size);
+
+    // Filters all tickets by department name (deprecated: unpaged)
+    @Deprecated
+    List<TicketSummaryDto> filterTicketsByDepartmentName(String name);
+
+    // Filters all tickets by department name, one page at a time
+    CursorPage<TicketSummaryDto> filterTicketsByDepartmentName(String name, String cursor, Integer size);
 
     // Assigns a specific ticket to the currently logged-in agent
     TicketDto assignTicketToMe(Long ticketId);
 
-    // Retrieves a list of all departments in the system
-    List<DepartmentDto> getAllDepartments();
+    // Retrieves all departments in the system with the version of the list (the ETag of the response)
+    DepartmentListDto getAllDepartments();
+
+    // Dashboard counts over the tickets and agents of the logged-in agent's department
+    TicketStatsDto getStats();
 }
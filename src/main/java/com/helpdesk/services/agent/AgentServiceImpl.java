@@ -1,22 +1,34 @@
 package com.helpdesk.services.agent;
 
-import java.util.Comparator;
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
+import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import com.helpdesk.dto.DepartmentDto;
+import com.helpdesk.config.AuthenticatedUser;
+import com.helpdesk.dto.CursorPage;
+import com.helpdesk.dto.DepartmentListDto;
 import com.helpdesk.dto.TicketDto;
-import com.helpdesk.entities.Department;
+import com.helpdesk.dto.TicketSetVersion;
+import com.helpdesk.dto.TicketStatsDto;
+import com.helpdesk.dto.TicketSummaryDto;
 import com.helpdesk.entities.Ticket;
 import com.helpdesk.entities.User;
 import com.helpdesk.enums.Priority;
 import com.helpdesk.enums.Status;
-import com.helpdesk.repositories.DepartmentRepository;
 import com.helpdesk.repositories.TicketRepository;
-import com.helpdesk.utils.JwtUtil;
+import com.helpdesk.services.admin.DepartmentCache;
+import com.helpdesk.services.event.TicketEventService;
+import com.helpdesk.services.search.TicketSearchScope;
+import com.helpdesk.services.search.TicketSearchService;
+import com.helpdesk.services.stats.TicketStatsScope;
+import com.helpdesk.services.stats.TicketStatsService;
+import com.helpdesk.utils.CurrentUser;
+import com.helpdesk.utils.TicketPagination;
+import com.helpdesk.utils.TicketVersions;
 
 import lombok.RequiredArgsConstructor;
 
@@ -29,133 +41,220 @@ import lombok.RequiredArgsConstructor;
 public class AgentServiceImpl implements AgentService {
 
     private final TicketRepository ticketRepository;
-    private final JwtUtil jwtUtil;
-    private final DepartmentRepository departmentRepository;
+    private final CurrentUser currentUser;
+    private final DepartmentCache departmentCache;
+    private final TicketPagination ticketPagination;
+    private final TicketSearchService ticketSearchService;
+    private final TicketStatsService ticketStatsService;
+    private final TicketEventService ticketEventService;
 
     // Retrieves all tickets assigned to the currently logged-in agent
+    @Deprecated
     @Override
-    public List<TicketDto> getAssignedTickets() {
-        User agent = jwtUtil.getLoggedInUser();
-        if (agent != null) {
-            return ticketRepository.findByAssignedAgent(agent)
-                    .stream()
-                    .sorted(Comparator.comparing(Ticket::getCreatedDate).reversed())
-                    .map(Ticket::getTicketDto)
-                    .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public List<TicketSummaryDto> getAssignedTickets() {
+        Long agentId = currentUser.getId();
+        if (agentId != null) {
+            return ticketPagination.unpaged((createdDate, id, limit) ->
+                    ticketRepository.findPageByAssignedAgent(agentId, createdDate, id, limit));
         }
         return List.of();
     }
 
+    // Retrieves one page of tickets assigned to the currently logged-in agent
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<TicketSummaryDto> getAssignedTickets(String cursor, Integer size) {
+        Long agentId = currentUser.getId();
+        if (agentId != null) {
+            return ticketPagination.page(cursor, size, (createdDate, id, limit) ->
+                    ticketRepository.findPageByAssignedAgent(agentId, createdDate, id, limit));
+        }
+        return ticketPagination.empty(size);
+    }
+
+    // Fingerprint of the tickets assigned to the current agent (the ETag of the assigned list)
+    @Override
+    @Transactional(readOnly = true)
+    public TicketSetVersion getAssignedTicketsVersion() {
+        Long agentId = currentUser.getId();
+        if (agentId != null) {
+            return ticketRepository.findSetVersionByAssignedAgent(agentId);
+        }
+        return TicketSetVersion.empty();
+    }
+
     // Gets a specific ticket assigned to the current agent by ID
     @Override
+    @Transactional(readOnly = true)
     public TicketDto getAssignedTicketById(Long id) {
-        User agent = jwtUtil.getLoggedInUser();
+        User agent = currentUser.getReference();
         return Optional.ofNullable(ticketRepository.findTicketByAssignedAgentAndId(agent, id))
                 .map(Ticket::getTicketDto)
                 .orElse(null);
     }
 
-    // Searches assigned tickets by title
+    // Version of a ticket assigned to the current agent, read without loading the ticket
     @Override
-    public List<TicketDto> searchAssignedTicketByTitle(String title) {
-        User agent = jwtUtil.getLoggedInUser();
-        if (agent != null) {
-            return ticketRepository.findByAssignedAgentAndTitleContaining(agent, title)
-                    .stream()
-                    .map(Ticket::getTicketDto)
-                    .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public Long getAssignedTicketVersion(Long id) {
+        Long agentId = currentUser.getId();
+        if (agentId != null) {
+            return ticketRepository.findVersionByIdAndAssignedAgentId(id, agentId).orElse(null);
+        }
+        return null;
+    }
+
+    // Full-text search (title, description, comments) over assigned tickets
+    @Deprecated
+    @Override
+    public List<TicketSummaryDto> searchAssignedTicketByTitle(String title) {
+        Long agentId = currentUser.getId();
+        if (agentId != null) {
+            return ticketSearchService.searchAll(title, TicketSearchScope.assignedAgent(agentId));
         }
         return List.of();
     }
 
+    // Full-text search over assigned tickets, one page at a time
+    @Override
+    public CursorPage<TicketSummaryDto> searchAssignedTicketByTitle(String title, String cursor, Integer size) {
+        Long agentId = currentUser.getId();
+        if (agentId != null) {
+            return ticketSearchService.search(title, TicketSearchScope.assignedAgent(agentId), cursor, size);
+        }
+        return ticketPagination.empty(size);
+    }
+
     // Filters assigned tickets by priority
+    @Deprecated
     @Override
-    public List<TicketDto> filterAssignedTicketsByPriority(Priority priority) {
-        User agent = jwtUtil.getLoggedInUser();
-        if (agent != null) {
-            return ticketRepository.findByAssignedAgentAndPriority(agent, priority)
-                    .stream()
-                    .sorted(Comparator.comparing(Ticket::getCreatedDate).reversed())
-                    .map(Ticket::getTicketDto)
-                    .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public List<TicketSummaryDto> filterAssignedTicketsByPriority(Priority priority) {
+        Long agentId = currentUser.getId();
+        if (agentId != null) {
+            return ticketPagination.unpaged((createdDate, id, limit) ->
+                    ticketRepository.findPageByAssignedAgentAndPriority(agentId, priority, createdDate, id, limit));
         }
         return List.of();
     }
 
+    // Filters assigned tickets by priority, one page at a time
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<TicketSummaryDto> filterAssignedTicketsByPriority(Priority priority, String cursor, Integer size) {
+        Long agentId = currentUser.getId();
+        if (agentId != null) {
+            return ticketPagination.page(cursor, size, (createdDate, id, limit) ->
+                    ticketRepository.findPageByAssignedAgentAndPriority(agentId, priority, createdDate, id, limit));
+        }
+        return ticketPagination.empty(size);
+    }
+
     // Filters assigned tickets by status
+    @Deprecated
     @Override
-    public List<TicketDto> filterAssignedTicketsByStatus(Status status) {
-        User agent = jwtUtil.getLoggedInUser();
-        if (agent != null) {
-            return ticketRepository.findByAssignedAgentAndStatus(agent, status)
-                    .stream()
-                    .sorted(Comparator.comparing(Ticket::getCreatedDate).reversed())
-                    .map(Ticket::getTicketDto)
-                    .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public List<TicketSummaryDto> filterAssignedTicketsByStatus(Status status) {
+        Long agentId = currentUser.getId();
+        if (agentId != null) {
+            return ticketPagination.unpaged((createdDate, id, limit) ->
+                    ticketRepository.findPageByAssignedAgentAndStatus(agentId, status, createdDate, id, limit));
         }
         return List.of();
     }
 
+    // Filters assigned tickets by status, one page at a time
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<TicketSummaryDto> filterAssignedTicketsByStatus(Status status, String cursor, Integer size) {
+        Long agentId = currentUser.getId();
+        if (agentId != null) {
+            return ticketPagination.page(cursor, size, (createdDate, id, limit) ->
+                    ticketRepository.findPageByAssignedAgentAndStatus(agentId, status, createdDate, id, limit));
+        }
+        return ticketPagination.empty(size);
+    }
+
     // Filters assigned tickets by department name
+    @Deprecated
     @Override
-    public List<TicketDto> filterAssignedTicketsByDepartmentName(String name) {
-        User agent = jwtUtil.getLoggedInUser();
-        if (agent != null) {
-            return ticketRepository.findByAssignedAgentAndDepartment_NameContaining(agent, name)
-                    .stream()
-                    .sorted(Comparator.comparing(Ticket::getCreatedDate).reversed())
-                    .map(Ticket::getTicketDto)
-                    .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public List<TicketSummaryDto> filterAssignedTicketsByDepartmentName(String name) {
+        Long agentId = currentUser.getId();
+        if (agentId != null) {
+            return ticketPagination.unpaged((createdDate, id, limit) ->
+                    ticketRepository.findPageByAssignedAgentAndDepartmentNameContaining(agentId, name, createdDate, id, limit));
         }
         return List.of();
     }
 
+    // Filters assigned tickets by department name, one page at a time
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<TicketSummaryDto> filterAssignedTicketsByDepartmentName(String name, String cursor, Integer size) {
+        Long agentId = currentUser.getId();
+        if (agentId != null) {
+            return ticketPagination.page(cursor, size, (createdDate, id, limit) ->
+                    ticketRepository.findPageByAssignedAgentAndDepartmentNameContaining(agentId, name, createdDate, id, limit));
+        }
+        return ticketPagination.empty(size);
+    }
+
     // Updates the priority of an assigned ticket
     @Override
-    public TicketDto updatAssignedTicketePriority(Long ticketId, Priority priority) {
-        User agent = jwtUtil.getLoggedInUser();
-        if (agent == null) {
+    @Transactional
+    public TicketDto updatAssignedTicketePriority(Long ticketId, Priority priority, Long expectedVersion) {
+        Long agentId = currentUser.getId();
+        if (agentId == null) {
             throw new RuntimeException("Agent not authenticated");
         }
 
-        Optional<Ticket> optionalTicket = ticketRepository.findById(ticketId);
+        Optional<Ticket> optionalTicket = ticketRepository.findWithDetailsById(ticketId);
         if (optionalTicket.isEmpty()) {
             throw new RuntimeException("Ticket not found");
         }
 
         Ticket ticket = optionalTicket.get();
-        if (!agent.equals(ticket.getAssignedAgent())) {
+        if (ticket.getAssignedAgent() == null || !ticket.getAssignedAgent().getId().equals(agentId)) {
             throw new RuntimeException("You can only update tickets assigned to you");
         }
+        TicketVersions.check(ticket, expectedVersion); // Reject the update if the ticket changed since the agent read it
 
         ticket.setPriority(priority);
-        return ticketRepository.save(ticket).getTicketDto();
+        Ticket saved = ticketRepository.save(ticket);
+        ticketEventService.ticketChanged(saved);
+        return saved.getTicketDto();
     }
 
     // Updates the status of an assigned ticket after validating transition
     @Override
-    public TicketDto updateAssignedTicketStatus(Long ticketId, Status newStatus) {
-        User agent = jwtUtil.getLoggedInUser();
-        if (agent == null) {
+    @Transactional
+    public TicketDto updateAssignedTicketStatus(Long ticketId, Status newStatus, Long expectedVersion) {
+        Long agentId = currentUser.getId();
+        if (agentId == null) {
             throw new RuntimeException("Agent not authenticated");
         }
 
-        Optional<Ticket> optionalTicket = ticketRepository.findById(ticketId);
+        Optional<Ticket> optionalTicket = ticketRepository.findWithDetailsById(ticketId);
         if (optionalTicket.isEmpty()) {
             throw new RuntimeException("Ticket not found");
         }
 
         Ticket ticket = optionalTicket.get();
-        if (!agent.equals(ticket.getAssignedAgent())) {
+        if (ticket.getAssignedAgent() == null || !ticket.getAssignedAgent().getId().equals(agentId)) {
             throw new RuntimeException("You can only update tickets assigned to you");
         }
+        TicketVersions.check(ticket, expectedVersion); // Reject the update if the ticket changed since the agent read it
 
         if (!isValidStatusTransition(ticket.getStatus(), newStatus)) {
             throw new RuntimeException("Invalid status transition from " + ticket.getStatus() + " to " + newStatus);
         }
 
         ticket.setStatus(newStatus);
-        return ticketRepository.save(ticket).getTicketDto();
+        Ticket saved = ticketRepository.save(ticket);
+        ticketEventService.ticketChanged(saved);
+        return saved.getTicketDto();
     }
 
     // Validates allowed status transitions (e.g., INPROGRESS → RESOLVED)
@@ -164,100 +263,140 @@ public class AgentServiceImpl implements AgentService {
     }
 
     // Returns all tickets in the system (admin-like access for agents)
+    @Deprecated
     @Override
-    public List<TicketDto> getAllTickets() {
-        return ticketRepository.findAll()
-                .stream()
-                .sorted(Comparator.comparing(Ticket::getCreatedDate).reversed())
-                .map(Ticket::getTicketDto)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public List<TicketSummaryDto> getAllTickets() {
+        return ticketPagination.unpaged(ticketRepository::findPage);
+    }
+
+    // Returns one page of all tickets in the system
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<TicketSummaryDto> getAllTickets(String cursor, Integer size) {
+        return ticketPagination.page(cursor, size, ticketRepository::findPage);
     }
 
     // Gets any ticket by ID
     @Override
+    @Transactional(readOnly = true)
     public TicketDto getTicketById(Long id) {
-        return ticketRepository.findById(id)
+        return ticketRepository.findWithDetailsById(id)
                 .map(Ticket::getTicketDto)
                 .orElse(null);
     }
 
-    // Searches all tickets by title
+    // Version of any ticket, read without loading the ticket
     @Override
-    public List<TicketDto> searchTicketByTitle(String title) {
-        return ticketRepository.findAllByTitleContaining(title)
-                .stream()
-                .sorted(Comparator.comparing(Ticket::getCreatedDate).reversed())
-                .map(Ticket::getTicketDto)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public Long getTicketVersion(Long id) {
+        return ticketRepository.findVersionById(id).orElse(null);
+    }
+
+    // Full-text search (title, description, comments) over all tickets
+    @Deprecated
+    @Override
+    public List<TicketSummaryDto> searchTicketByTitle(String title) {
+        return ticketSearchService.searchAll(title, TicketSearchScope.all());
+    }
+
+    // Full-text search over all tickets, one page at a time
+    @Override
+    public CursorPage<TicketSummaryDto> searchTicketByTitle(String title, String cursor, Integer size) {
+        return ticketSearchService.search(title, TicketSearchScope.all(), cursor, size);
     }
 
     // Filters all tickets by priority
+    @Deprecated
     @Override
-    public List<TicketDto> filterTicketsByPriority(Priority priority) {
-        return ticketRepository.findByPriority(priority)
-                .stream()
-                .sorted(Comparator.comparing(Ticket::getCreatedDate).reversed())
-                .map(Ticket::getTicketDto)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public List<TicketSummaryDto> filterTicketsByPriority(Priority priority) {
+        return ticketPagination.unpaged((createdDate, id, limit) ->
+                ticketRepository.findPageByPriority(priority, createdDate, id, limit));
+    }
+
+    // Filters all tickets by priority, one page at a time
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<TicketSummaryDto> filterTicketsByPriority(Priority priority, String cursor, Integer size) {
+        return ticketPagination.page(cursor, size, (createdDate, id, limit) ->
+                ticketRepository.findPageByPriority(priority, createdDate, id, limit));
     }
 
     // Filters all tickets by status
+    @Deprecated
     @Override
-    public List<TicketDto> filterTicketsByStatus(Status status) {
-        return ticketRepository.findByStatus(status)
-                .stream()
-                .sorted(Comparator.comparing(Ticket::getCreatedDate).reversed())
-                .map(Ticket::getTicketDto)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public List<TicketSummaryDto> filterTicketsByStatus(Status status) {
+        return ticketPagination.unpaged((createdDate, id, limit) ->
+                ticketRepository.findPageByStatus(status, createdDate, id, limit));
+    }
+
+    // Filters all tickets by status, one page at a time
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<TicketSummaryDto> filterTicketsByStatus(Status status, String cursor, Integer size) {
+        return ticketPagination.page(cursor, size, (createdDate, id, limit) ->
+                ticketRepository.findPageByStatus(status, createdDate, id, limit));
     }
 
     // Filters all tickets by department name
+    @Deprecated
     @Override
-    public List<TicketDto> filterTicketsByDepartmentName(String name) {
-        return ticketRepository.findByDepartmentName(name)
-                .stream()
-                .sorted(Comparator.comparing(Ticket::getCreatedDate).reversed())
-                .map(Ticket::getTicketDto)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public List<TicketSummaryDto> filterTicketsByDepartmentName(String name) {
+        return ticketPagination.unpaged((createdDate, id, limit) ->
+                ticketRepository.findPageByDepartmentName(name, createdDate, id, limit));
     }
 
-    // Converts Department entity to DTO
-    private DepartmentDto convertToDto(Department department) {
-        DepartmentDto dto = new DepartmentDto();
-        dto.setId(department.getId());
-        dto.setName(department.getName());
-        return dto;
+    // Filters all tickets by department name, one page at a time
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<TicketSummaryDto> filterTicketsByDepartmentName(String name, String cursor, Integer size) {
+        return ticketPagination.page(cursor, size, (createdDate, id, limit) ->
+                ticketRepository.findPageByDepartmentName(name, createdDate, id, limit));
     }
 
-    // Retrieves all departments
+    // Retrieves all departments from the in-process department cache
     @Override
-    public List<DepartmentDto> getAllDepartments() {
-        return departmentRepository.findAll()
-                .stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+    public DepartmentListDto getAllDepartments() {
+        return departmentCache.getList();
     }
 
-    // Assigns a ticket to the current agent if it's unassigned
+    // Assigns a ticket to the current agent if it's unassigned. The check and the assignment are one conditional
+    // UPDATE, so when agents race for the same ticket exactly one wins and the others get a conflict
     @Override
+    @Transactional
     public TicketDto assignTicketToMe(Long ticketId) {
-        User agent = jwtUtil.getLoggedInUser();
+        User agent = currentUser.getReference();
         if (agent == null) {
             throw new RuntimeException("Agent not authenticated");
         }
 
-        Optional<Ticket> optionalTicket = ticketRepository.findById(ticketId);
-        if (optionalTicket.isEmpty()) {
-            throw new RuntimeException("Ticket not found");
+        if (ticketRepository.claim(ticketId, agent, Status.INPROGRESS, new Date()) == 0) {
+            if (!ticketRepository.existsById(ticketId)) {
+                throw new RuntimeException("Ticket not found");
+            }
+            throw new ConcurrencyFailureException("Ticket is already assigned to another agent");
         }
 
-        Ticket ticket = optionalTicket.get();
-        if (ticket.getAssignedAgent() != null) {
-            throw new RuntimeException("Ticket is already assigned to another agent");
-        }
+        // The bulk update bypasses automatic indexing, and the agent scopes assigned-ticket searches
+        ticketSearchService.reindex(List.of(ticketId));
+        Ticket claimed = ticketRepository.findWithDetailsById(ticketId).orElseThrow();
+        ticketEventService.ticketChanged(claimed);
+        return claimed.getTicketDto();
+    }
 
-        ticket.setAssignedAgent(agent);
-        ticket.setStatus(Status.INPROGRESS);
-        return ticketRepository.save(ticket).getTicketDto();
+    // Dashboard counts over the agent's department (briefly cached)
+    @Override
+    public TicketStatsDto getStats() {
+        AuthenticatedUser agent = currentUser.get();
+        if (agent == null) {
+            throw new RuntimeException("Agent not authenticated");
+        }
+        if (agent.getDepartmentId() == null) {
+            throw new RuntimeException("Agent has no department");
+        }
+        return ticketStatsService.getStats(TicketStatsScope.department(agent.getDepartmentId()));
     }
 }
@@ -2,7 +2,7 @@ package com.helpdesk.services.auth;
 
 import java.util.Optional;
 
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import com.helpdesk.dto.SignupRequest;
@@ -10,8 +10,8 @@ import com.helpdesk.dto.UserDto;
 import com.helpdesk.entities.Department;
 import com.helpdesk.entities.User;
 import com.helpdesk.enums.UserRole;
-import com.helpdesk.repositories.DepartmentRepository;
 import com.helpdesk.repositories.UserRepository;
+import com.helpdesk.services.admin.DepartmentCache;
 
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
@@ -22,7 +22,8 @@ public class AuthServiceImpl implements AuthService {
 
     // Dependency injections via constructor
     private final UserRepository userRepository;
-    private final DepartmentRepository departmentRepository;
+    private final DepartmentCache departmentCache;
+    private final PasswordEncoder passwordEncoder; // Hashes new passwords (BCrypt)
 
     /**
      * Automatically creates an admin account after the service is initialized,
@@ -37,7 +38,7 @@ public class AuthServiceImpl implements AuthService {
             user.setFullName("admin");
             user.setUserName("admin");
             user.setPhoneNumber("9876501234");
-            user.setPassword(new BCryptPasswordEncoder().encode("admin")); // Encrypt password
+            user.setPassword(passwordEncoder.encode("admin")); // Encrypt password
             user.setUserRole(UserRole.ADMIN);
             userRepository.save(user);
             System.out.println("Admin account created successfully!");
@@ -59,7 +60,7 @@ public class AuthServiceImpl implements AuthService {
         user.setUserName(signupRequest.getUserName());
         user.setFullName(signupRequest.getFullName());
         user.setPhoneNumber(signupRequest.getPhoneNumber());
-        user.setPassword(new BCryptPasswordEncoder().encode(signupRequest.getPassword())); // Encrypt password
+        user.setPassword(passwordEncoder.encode(signupRequest.getPassword())); // Encrypt password
         user.setUserRole(UserRole.CUSTOMER);
 
         User createdUser = userRepository.save(user);
@@ -79,12 +80,12 @@ public class AuthServiceImpl implements AuthService {
         user.setUserName(signupRequest.getUserName());
         user.setFullName(signupRequest.getFullName());
         user.setPhoneNumber(signupRequest.getPhoneNumber());
-        user.setPassword(new BCryptPasswordEncoder().encode(signupRequest.getPassword())); // Encrypt password
+        user.setPassword(passwordEncoder.encode(signupRequest.getPassword())); // Encrypt password
         user.setUserRole(UserRole.AGENT);
 
         // Set department if provided and valid
         if (UserRole.AGENT.equals(user.getUserRole()) && signupRequest.getDepartmentName() != null) {
-            Optional<Department> department = departmentRepository.findByName(signupRequest.getDepartmentName());
+            Optional<Department> department = departmentCache.findByName(signupRequest.getDepartmentName());
             if (department.isPresent()) {
                 user.setDepartment(department.get());
             } else {
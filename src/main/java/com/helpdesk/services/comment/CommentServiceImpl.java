@@ -1,15 +1,17 @@
 package com.helpdesk.services.comment;
 
+import com.helpdesk.config.AuthenticatedUser;
 import com.helpdesk.dto.CommentDto;
 import com.helpdesk.entities.Comment;
 import com.helpdesk.entities.Ticket;
-import com.helpdesk.entities.User;
-import com.helpdesk.enums.UserRole;
 import com.helpdesk.repositories.CommentRepository;
 import com.helpdesk.repositories.TicketRepository;
-import com.helpdesk.utils.JwtUtil;
+import com.helpdesk.services.event.TicketEventService;
+import com.helpdesk.utils.CurrentUser;
+import com.helpdesk.utils.TicketAccess;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Date;
 import java.util.List;
@@ -21,8 +23,9 @@ import java.util.stream.Collectors;
 public class CommentServiceImpl implements CommentService {
 
     private final TicketRepository ticketRepository;
-    private final JwtUtil jwtUtil;
+    private final CurrentUser currentUser;
     private final CommentRepository commentRepository;
+    private final TicketEventService ticketEventService;
 
     /**
      * Creates a comment on a ticket.
@@ -33,34 +36,30 @@ public class CommentServiceImpl implements CommentService {
      * @return the created CommentDto
      */
     @Override
+    @Transactional
     public CommentDto createComment(Long ticketId, String body) {
         // Get the currently logged-in user
-        User currentUser = jwtUtil.getLoggedInUser();
+        AuthenticatedUser user = currentUser.get();
         Optional<Ticket> optionalTicket = ticketRepository.findById(ticketId);
 
         // Proceed only if user and ticket exist
-        if (currentUser != null && optionalTicket.isPresent()) {
+        if (user != null && optionalTicket.isPresent()) {
             Ticket ticket = optionalTicket.get();
 
-            // Check if current user is the customer of the ticket
-            boolean isCustomer = currentUser.getUserRole() == UserRole.CUSTOMER &&
-                    ticket.getCustomer().getId().equals(currentUser.getId());
-
-            // Check if current user is the assigned agent of the ticket
-            boolean isAssignedAgent = currentUser.getUserRole() == UserRole.AGENT &&
-                    ticket.getAssignedAgent() != null &&
-                    ticket.getAssignedAgent().getId().equals(currentUser.getId());
-
-            // Allow comment creation only if user is customer or assigned agent
-            if (isCustomer || isAssignedAgent) {
+            // Allow comment creation only if user is the ticket's customer or its assigned agent
+            if (TicketAccess.isParticipant(user, ticket.getCustomer().getId(), assignedAgentId(ticket))) {
                 Comment comment = new Comment();
                 comment.setBody(body);
                 comment.setCreatedAt(new Date());
                 comment.setTicket(ticket);
-                comment.setUser(currentUser);
-
-                // Save the comment and return its DTO
-                return commentRepository.save(comment).getCommentDto();
+                comment.setUser(currentUser.getUser()); // Full entity: the response includes the author's name
+
+                // Save the comment and bump the ticket's version so pollers see the change. Hibernate Search
+                // reindexes the ticket through the inverse side of Ticket.comments, so the comment becomes searchable
+                CommentDto saved = commentRepository.save(comment).getCommentDto();
+                ticketRepository.markModified(List.of(ticketId), new Date());
+                ticketEventService.commentCreated(ticket, saved);
+                return saved;
             } else {
                 throw new RuntimeException("User is not authorized to comment on this ticket.");
             }
@@ -77,32 +76,18 @@ public class CommentServiceImpl implements CommentService {
      * @return a list of CommentDto
      */
     @Override
+    @Transactional(readOnly = true)
     public List<CommentDto> getCommentsByTicketId(Long ticketId) {
         // Get the currently logged-in user
-        User currentUser = jwtUtil.getLoggedInUser();
+        AuthenticatedUser user = currentUser.get();
         Optional<Ticket> optionalTicket = ticketRepository.findById(ticketId);
 
         // Proceed only if user and ticket exist
-        if (currentUser != null && optionalTicket.isPresent()) {
+        if (user != null && optionalTicket.isPresent()) {
             Ticket ticket = optionalTicket.get();
 
-            // Check if user is customer and owns the ticket
-            boolean isCustomer = currentUser.getUserRole() == UserRole.CUSTOMER &&
-                    ticket.getCustomer().getId().equals(currentUser.getId());
-
-            // Check if user is the assigned agent
-            boolean isAssignedAgent = currentUser.getUserRole() == UserRole.AGENT &&
-                    ticket.getAssignedAgent() != null &&
-                    ticket.getAssignedAgent().getId().equals(currentUser.getId());
-
-            // Check if user is any agent (not necessarily assigned)
-            boolean isAgent = currentUser.getUserRole() == UserRole.AGENT;
-
-            // Check if user is admin
-            boolean isAdmin = currentUser.getUserRole() == UserRole.ADMIN;
-
             // Allow viewing if user is customer, assigned agent, any agent, or admin
-            if (isCustomer || isAssignedAgent || isAgent || isAdmin) {
+            if (TicketAccess.canView(user, ticket.getCustomer().getId(), assignedAgentId(ticket))) {
                 return commentRepository.findAllByTicketId(ticketId).stream()
                         .map(Comment::getCommentDto)
                         .collect(Collectors.toList());
@@ -113,4 +98,8 @@ public class CommentServiceImpl implements CommentService {
 
         throw new RuntimeException("User or Ticket not found.");
     }
+
+    private static Long assignedAgentId(Ticket ticket) {
+        return ticket.getAssignedAgent() != null ? ticket.getAssignedAgent().getId() : null;
+    }
 }
@@ -2,8 +2,12 @@ package com.helpdesk.services.customer;
 
 import java.util.List;
 
-import com.helpdesk.dto.DepartmentDto;
+import com.helpdesk.dto.CursorPage;
+import com.helpdesk.dto.DepartmentListDto;
 import com.helpdesk.dto.TicketDto;
+import com.helpdesk.dto.TicketSetVersion;
+import com.helpdesk.dto.TicketStatsDto;
+import com.helpdesk.dto.TicketSummaryDto;
 import com.helpdesk.enums.Priority;
 import com.helpdesk.enums.Status;
 
@@ -20,9 +24,27 @@ public interface CustomerService {
     /**
      * Retrieves all tickets created by the currently logged-in customer.
      *
-     * @return a list of TicketDto created by the customer
+     * @return a list of TicketSummaryDto created by the customer
+     * @deprecated loads every matching ticket; use the paged variant
      */
-    List<TicketDto> getAllTicketsCreated();
+    @Deprecated
+    List<TicketSummaryDto> getAllTicketsCreated();
+
+    /**
+     * Retrieves one page of tickets created by the currently logged-in customer, newest first.
+     *
+     * @param cursor cursor returned with the previous page, or null for the first page
+     * @param size   requested page size, or null for the default
+     * @return one page of TicketSummaryDto
+     */
+    CursorPage<TicketSummaryDto> getAllTicketsCreated(String cursor, Integer size);
+
+    /**
+     * Fingerprint of all tickets created by the currently logged-in customer, used as the ETag of their ticket list.
+     *
+     * @return the TicketSetVersion of the customer's tickets
+     */
+    TicketSetVersion getTicketsCreatedVersion();
 
     /**
      * Deletes a specific ticket created by the customer.
@@ -34,19 +56,32 @@ public interface CustomerService {
     /**
      * Allows a customer to update the status of their own ticket.
      *
-     * @param ticketId  the ID of the ticket
-     * @param newStatus the new status to be set
+     * @param ticketId        the ID of the ticket
+     * @param newStatus       the new status to be set
+     * @param expectedVersion the version the customer last saw (from If-Match), or null to skip the check
      * @return the updated TicketDto
      */
-    TicketDto updateTicketStatus(Long ticketId, Status newStatus);
+    TicketDto updateTicketStatus(Long ticketId, Status newStatus, Long expectedVersion);
+
+    /**
+     * Full-text search over the customer's tickets (title, description and comments), most relevant first.
+     *
+     * @param title the words to search for
+     * @return a list of matching TicketSummaryDto
+     * @deprecated loads every matching ticket; use the paged variant
+     */
+    @Deprecated
+    List<TicketSummaryDto> searchTicketByTitle(String title);
 
     /**
-     * Searches for tickets created by the customer using a keyword in the title.
+     * Full-text search over the customer's tickets, most relevant first, one page at a time.
      *
-     * @param title the keyword to search in ticket titles
-     * @return a list of matching TicketDto
+     * @param title  the words to search for
+     * @param cursor cursor returned with the previous page, or null for the first page
+     * @param size   requested page size, or null for the default
+     * @return one page of TicketSummaryDto
      */
-    List<TicketDto> searchTicketByTitle(String title);
+    CursorPage<TicketSummaryDto> searchTicketByTitle(String title, String cursor, Integer size);
 
     /**
      * Retrieves a ticket by its ID, ensuring it belongs to the current customer.
@@ -56,34 +91,85 @@ public interface CustomerService {
      */
     TicketDto getTicketById(Long id);
 
+    /**
+     * Reads the version of one of the customer's tickets without loading it.
+     *
+     * @param id the ID of the ticket
+     * @return the ticket's version, or null if it does not exist or belongs to another customer
+     */
+    Long getTicketVersion(Long id);
+
     /**
      * Fetches all departments available in the system.
      *
-     * @return a list of DepartmentDto
+     * @return all departments with the version of the list, used as the ETag of the response
      */
-    List<DepartmentDto> getAllDepartments();
+    DepartmentListDto getAllDepartments();
 
     /**
      * Filters the customer's tickets by their priority level.
      *
      * @param priority the priority level to filter by
-     * @return a list of TicketDto with the specified priority
+     * @return a list of TicketSummaryDto with the specified priority
+     * @deprecated loads every matching ticket; use the paged variant
      */
-    List<TicketDto> filterTicketsByPriority(Priority priority);
+    @Deprecated
+    List<TicketSummaryDto> filterTicketsByPriority(Priority priority);
+
+    /**
+     * Filters the customer's tickets by priority level, one page at a time.
+     *
+     * @param priority the priority level to filter by
+     * @param cursor cursor returned with the previous page, or null for the first page
+     * @param size   requested page size, or null for the default
+     * @return one page of TicketSummaryDto
+     */
+    CursorPage<TicketSummaryDto> filterTicketsByPriority(Priority priority, String cursor, Integer size);
 
     /**
      * Filters the customer's tickets by their current status.
      *
      * @param status the ticket status to filter by
-     * @return a list of TicketDto with the specified status
+     * @return a list of TicketSummaryDto with the specified status
+     * @deprecated loads every matching ticket; use the paged variant
+     */
+    @Deprecated
+    List<TicketSummaryDto> filterTicketsByStatus(Status status);
+
+    /**
+     * Filters the customer's tickets by status, one page at a time.
+     *
+     * @param status the ticket status to filter by
+     * @param cursor cursor returned with the previous page, or null for the first page
+     * @param size   requested page size, or null for the default
+     * @return one page of TicketSummaryDto
      */
-    List<TicketDto> filterTicketsByStatus(Status status);
+    CursorPage<TicketSummaryDto> filterTicketsByStatus(Status status, String cursor, Integer size);
 
     /**
      * Filters the customer's tickets by the department name they are assigned to.
      *
      * @param name the department name
-     * @return a list of TicketDto under the specified department
+     * @return a list of TicketSummaryDto under the specified department
+     * @deprecated loads every matching ticket; use the paged variant
+     */
+    @Deprecated
+    List<TicketSummaryDto> filterTicketsByDepartmentName(String name);
+
+    /**
+     * Filters the customer's tickets by department name, one page at a time.
+     *
+     * @param name   the department name
+     * @param cursor cursor returned with the previous page, or null for the first page
+     * @param size   requested page size, or null for the default
+     * @return one page of TicketSummaryDto
+     */
+    CursorPage<TicketSummaryDto> filterTicketsByDepartmentName(String name, String cursor, Integer size);
+
+    /**
+     * Dashboard counts over the tickets created by the currently logged-in customer.
+     *
+     * @return the counts, or null if the user is not authenticated
      */
-    List<TicketDto> filterTicketsByDepartmentName(String name);
+    TicketStatsDto getStats();
 }
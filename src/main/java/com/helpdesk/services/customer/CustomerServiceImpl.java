@@ -1,24 +1,35 @@
 package com.helpdesk.services.customer;
 
 import java.time.LocalDate;
-import java.util.Comparator;
 import java.sql.Date;
 import java.util.List;
-import java.util.stream.Collectors;
 import java.util.Optional;
 
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import com.helpdesk.dto.DepartmentDto;
+import com.helpdesk.dto.CursorPage;
+import com.helpdesk.dto.DepartmentListDto;
 import com.helpdesk.dto.TicketDto;
+import com.helpdesk.dto.TicketSetVersion;
+import com.helpdesk.dto.TicketStatsDto;
+import com.helpdesk.dto.TicketSummaryDto;
 import com.helpdesk.entities.Ticket;
 import com.helpdesk.entities.User;
 import com.helpdesk.entities.Department;
 import com.helpdesk.enums.Priority;
 import com.helpdesk.enums.Status;
 import com.helpdesk.repositories.TicketRepository;
-import com.helpdesk.repositories.DepartmentRepository;
-import com.helpdesk.utils.JwtUtil;
+import com.helpdesk.services.admin.DepartmentCache;
+import com.helpdesk.services.dispatch.TicketDispatchService;
+import com.helpdesk.services.event.TicketEventService;
+import com.helpdesk.services.search.TicketSearchScope;
+import com.helpdesk.services.search.TicketSearchService;
+import com.helpdesk.services.stats.TicketStatsScope;
+import com.helpdesk.services.stats.TicketStatsService;
+import com.helpdesk.utils.CurrentUser;
+import com.helpdesk.utils.TicketPagination;
+import com.helpdesk.utils.TicketVersions;
 
 import lombok.RequiredArgsConstructor;
 
@@ -28,17 +39,23 @@ public class CustomerServiceImpl implements CustomerService {
 
     // Dependencies required for ticket and department handling
     private final TicketRepository ticketRepository;
-    private final JwtUtil jwtUtil;
-    private final DepartmentRepository departmentRepository;
+    private final CurrentUser currentUser;
+    private final DepartmentCache departmentCache;
+    private final TicketPagination ticketPagination;
+    private final TicketSearchService ticketSearchService;
+    private final TicketDispatchService ticketDispatchService;
+    private final TicketStatsService ticketStatsService;
+    private final TicketEventService ticketEventService;
 
-    // Create a new ticket for the currently logged-in user
+    // Create a new ticket for the currently logged-in user (one transaction with the user lookup)
     @Override
+    @Transactional
     public TicketDto createTicket(TicketDto ticketDto) {
-        User loggedInUser = jwtUtil.getLoggedInUser();
+        User loggedInUser = currentUser.getUser(); // Full entity: the response includes the customer's name
 
         if (loggedInUser != null && ticketDto.getDepartmentName() != null) {
-            // Fetch department by name
-            Department department = departmentRepository.findByName(ticketDto.getDepartmentName()).orElse(null);
+            // Look up the department by name (served from the department cache)
+            Department department = departmentCache.findByName(ticketDto.getDepartmentName()).orElse(null);
             if (department == null) {
                 throw new RuntimeException("Department not found");
             }
@@ -53,64 +70,112 @@ public class CustomerServiceImpl implements CustomerService {
             ticket.setCustomer(loggedInUser); // Assign customer
             ticket.setDepartment(department);
 
-            return ticketRepository.save(ticket).getTicketDto();
+            Ticket saved = ticketRepository.save(ticket);
+            ticketDispatchService.enqueue(saved); // Agents can pull it with "next ticket" right away
+            ticketEventService.ticketChanged(saved);
+            return saved.getTicketDto();
         }
         return null;
     }
 
     // Retrieve all tickets created by the currently logged-in user
+    @Deprecated
     @Override
-    public List<TicketDto> getAllTicketsCreated() {
-        User loggedInUser = jwtUtil.getLoggedInUser();
-        if (loggedInUser == null) {
+    @Transactional(readOnly = true)
+    public List<TicketSummaryDto> getAllTicketsCreated() {
+        Long customerId = currentUser.getId();
+        if (customerId == null) {
             return List.of(); // Return empty list if user is not authenticated
         }
 
-        // Fetch and sort tickets by creation date (descending)
-        List<Ticket> tickets = ticketRepository.findByCustomer(loggedInUser);
-        return tickets.stream()
-                .sorted(Comparator.comparing(Ticket::getCreatedDate).reversed())
-                .map(Ticket::getTicketDto)
-                .collect(Collectors.toList());
+        // Fetch tickets sorted by creation date (descending) in the database
+        return ticketPagination.unpaged((createdDate, id, limit) ->
+                ticketRepository.findPageByCustomer(customerId, createdDate, id, limit));
+    }
+
+    // Retrieve one page of tickets created by the currently logged-in user
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<TicketSummaryDto> getAllTicketsCreated(String cursor, Integer size) {
+        Long customerId = currentUser.getId();
+        if (customerId == null) {
+            return ticketPagination.empty(size); // Return empty page if user is not authenticated
+        }
+
+        return ticketPagination.page(cursor, size, (createdDate, id, limit) ->
+                ticketRepository.findPageByCustomer(customerId, createdDate, id, limit));
+    }
+
+    // Fingerprint of the currently logged-in user's tickets (the ETag of their ticket list)
+    @Override
+    @Transactional(readOnly = true)
+    public TicketSetVersion getTicketsCreatedVersion() {
+        Long customerId = currentUser.getId();
+        if (customerId == null) {
+            return TicketSetVersion.empty();
+        }
+        return ticketRepository.findSetVersionByCustomer(customerId);
     }
 
     // Delete a ticket by its ID
     @Override
+    @Transactional
     public void deleteTicket(Long id) {
         ticketRepository.deleteById(id);
     }
 
-    // Search tickets by title for the currently logged-in user
+    // Full-text search (title, description, comments) over the currently logged-in user's tickets
+    @Deprecated
     @Override
-    public List<TicketDto> searchTicketByTitle(String title) {
-        User customer = jwtUtil.getLoggedInUser();
-        if (customer != null) {
-            return ticketRepository.findByCustomerAndTitleContaining(customer, title)
-                    .stream()
-                    .map(Ticket::getTicketDto)
-                    .collect(Collectors.toList());
+    public List<TicketSummaryDto> searchTicketByTitle(String title) {
+        Long customerId = currentUser.getId();
+        if (customerId != null) {
+            return ticketSearchService.searchAll(title, TicketSearchScope.customer(customerId));
         }
         return List.of();
     }
 
+    // Full-text search over the currently logged-in user's tickets, one page at a time
+    @Override
+    public CursorPage<TicketSummaryDto> searchTicketByTitle(String title, String cursor, Integer size) {
+        Long customerId = currentUser.getId();
+        if (customerId != null) {
+            return ticketSearchService.search(title, TicketSearchScope.customer(customerId), cursor, size);
+        }
+        return ticketPagination.empty(size);
+    }
+
     // Retrieve a single ticket by ID (must belong to logged-in user)
     @Override
+    @Transactional(readOnly = true)
     public TicketDto getTicketById(Long id) {
-        User customer = jwtUtil.getLoggedInUser();
+        User customer = currentUser.getReference();
         return Optional.ofNullable(ticketRepository.findTicketByCustomerAndId(customer, id))
                 .map(Ticket::getTicketDto)
                 .orElse(null);
     }
 
+    // Version of one of the current user's tickets, read without loading the ticket
+    @Override
+    @Transactional(readOnly = true)
+    public Long getTicketVersion(Long id) {
+        Long customerId = currentUser.getId();
+        if (customerId == null) {
+            return null;
+        }
+        return ticketRepository.findVersionByIdAndCustomerId(id, customerId).orElse(null);
+    }
+
     // Update the status of a ticket to CLOSED (only by the ticket's creator)
     @Override
-    public TicketDto updateTicketStatus(Long ticketId, Status newStatus) {
-        User customer = jwtUtil.getLoggedInUser();
-        if (customer == null) {
+    @Transactional
+    public TicketDto updateTicketStatus(Long ticketId, Status newStatus, Long expectedVersion) {
+        Long customerId = currentUser.getId();
+        if (customerId == null) {
             throw new RuntimeException("Customer not authenticated");
         }
 
-        Optional<Ticket> optionalTicket = ticketRepository.findById(ticketId);
+        Optional<Ticket> optionalTicket = ticketRepository.findWithDetailsById(ticketId);
         if (optionalTicket.isEmpty()) {
             throw new RuntimeException("Ticket not found");
         }
@@ -118,10 +183,13 @@ public class CustomerServiceImpl implements CustomerService {
         Ticket ticket = optionalTicket.get();
 
         // Only the ticket owner can update the status
-        if (!customer.equals(ticket.getCustomer())) {
+        if (!ticket.getCustomer().getId().equals(customerId)) {
             throw new RuntimeException("You can only update tickets created by you");
         }
 
+        // Reject the update if the ticket changed since the customer last read it
+        TicketVersions.check(ticket, expectedVersion);
+
         // Prevent updates to already closed tickets
         if (ticket.getStatus() == Status.CLOSED) {
             throw new RuntimeException("Cannot update a closed ticket.");
@@ -133,65 +201,99 @@ public class CustomerServiceImpl implements CustomerService {
         }
 
         ticket.setStatus(Status.CLOSED);
-        return ticketRepository.save(ticket).getTicketDto();
-    }
-
-    // Utility method to convert Department entity to DTO
-    private DepartmentDto convertToDto(Department department) {
-        DepartmentDto dto = new DepartmentDto();
-        dto.setId(department.getId());
-        dto.setName(department.getName());
-        return dto;
+        Ticket saved = ticketRepository.save(ticket);
+        ticketEventService.ticketChanged(saved);
+        return saved.getTicketDto();
     }
 
     // Retrieve all departments available in the system
     @Override
-    public List<DepartmentDto> getAllDepartments() {
-        return departmentRepository.findAll()
-                .stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+    public DepartmentListDto getAllDepartments() {
+        return departmentCache.getList();
     }
 
     // Filter tickets by priority for the current user
+    @Deprecated
     @Override
-    public List<TicketDto> filterTicketsByPriority(Priority priority) {
-        User customer = jwtUtil.getLoggedInUser();
-        if (customer != null) {
-            return ticketRepository.findByCustomerAndPriority(customer, priority)
-                    .stream()
-                    .sorted(Comparator.comparing(Ticket::getCreatedDate).reversed())
-                    .map(Ticket::getTicketDto)
-                    .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public List<TicketSummaryDto> filterTicketsByPriority(Priority priority) {
+        Long customerId = currentUser.getId();
+        if (customerId != null) {
+            return ticketPagination.unpaged((createdDate, id, limit) ->
+                    ticketRepository.findPageByCustomerAndPriority(customerId, priority, createdDate, id, limit));
         }
         return List.of();
     }
 
+    // Filter tickets by priority for the current user, one page at a time
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<TicketSummaryDto> filterTicketsByPriority(Priority priority, String cursor, Integer size) {
+        Long customerId = currentUser.getId();
+        if (customerId != null) {
+            return ticketPagination.page(cursor, size, (createdDate, id, limit) ->
+                    ticketRepository.findPageByCustomerAndPriority(customerId, priority, createdDate, id, limit));
+        }
+        return ticketPagination.empty(size);
+    }
+
     // Filter tickets by status for the current user
+    @Deprecated
     @Override
-    public List<TicketDto> filterTicketsByStatus(Status status) {
-        User customer = jwtUtil.getLoggedInUser();
-        if (customer != null) {
-            return ticketRepository.findByCustomerAndStatus(customer, status)
-                    .stream()
-                    .sorted(Comparator.comparing(Ticket::getCreatedDate).reversed())
-                    .map(Ticket::getTicketDto)
-                    .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public List<TicketSummaryDto> filterTicketsByStatus(Status status) {
+        Long customerId = currentUser.getId();
+        if (customerId != null) {
+            return ticketPagination.unpaged((createdDate, id, limit) ->
+                    ticketRepository.findPageByCustomerAndStatus(customerId, status, createdDate, id, limit));
         }
         return List.of();
     }
 
+    // Filter tickets by status for the current user, one page at a time
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<TicketSummaryDto> filterTicketsByStatus(Status status, String cursor, Integer size) {
+        Long customerId = currentUser.getId();
+        if (customerId != null) {
+            return ticketPagination.page(cursor, size, (createdDate, id, limit) ->
+                    ticketRepository.findPageByCustomerAndStatus(customerId, status, createdDate, id, limit));
+        }
+        return ticketPagination.empty(size);
+    }
+
     // Filter tickets by department name for the current user
+    @Deprecated
     @Override
-    public List<TicketDto> filterTicketsByDepartmentName(String name) {
-        User customer = jwtUtil.getLoggedInUser();
-        if (customer != null) {
-            return ticketRepository.findByCustomerAndDepartmentName(customer, name)
-                    .stream()
-                    .sorted(Comparator.comparing(Ticket::getCreatedDate).reversed())
-                    .map(Ticket::getTicketDto)
-                    .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public List<TicketSummaryDto> filterTicketsByDepartmentName(String name) {
+        Long customerId = currentUser.getId();
+        if (customerId != null) {
+            return ticketPagination.unpaged((createdDate, id, limit) ->
+                    ticketRepository.findPageByCustomerAndDepartmentName(customerId, name, createdDate, id, limit));
         }
         return List.of();
     }
+
+    // Filter tickets by department name for the current user, one page at a time
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<TicketSummaryDto> filterTicketsByDepartmentName(String name, String cursor, Integer size) {
+        Long customerId = currentUser.getId();
+        if (customerId != null) {
+            return ticketPagination.page(cursor, size, (createdDate, id, limit) ->
+                    ticketRepository.findPageByCustomerAndDepartmentName(customerId, name, createdDate, id, limit));
+        }
+        return ticketPagination.empty(size);
+    }
+
+    // Dashboard counts over the logged-in customer's tickets (briefly cached)
+    @Override
+    public TicketStatsDto getStats() {
+        Long customerId = currentUser.getId();
+        if (customerId == null) {
+            return null; // Not authenticated
+        }
+        return ticketStatsService.getStats(TicketStatsScope.customer(customerId));
+    }
 }
@@ -0,0 +1,37 @@
+package com.helpdesk.services.dispatch;
+
+import com.helpdesk.dto.DispatchStatsDto;
+import com.helpdesk.dto.TicketDto;
+import com.helpdesk.entities.Ticket;
+
+/**
+ * TicketDispatchService hands agents the next ticket to work on, instead of having them browse and claim by hand.
+ */
+public interface TicketDispatchService {
+
+    /**
+     * Assigns the most urgent unassigned ticket of the calling agent's department to that agent:
+     * highest priority first, then oldest first.
+     *
+     * @return the assigned ticket, or null if the department has no pending unassigned ticket
+     */
+    TicketDto next();
+
+    /**
+     * Makes a ticket available for dispatch if it is pending and unassigned.
+     * Inside a transaction the ticket is queued only once the transaction has committed.
+     *
+     * @param ticket a saved ticket
+     */
+    void enqueue(Ticket ticket);
+
+    /**
+     * Rebuilds every department's queue from the database.
+     */
+    void rebuild();
+
+    /**
+     * Returns queue depths, dispatch counters and latency.
+     */
+    DispatchStatsDto getStats();
+}
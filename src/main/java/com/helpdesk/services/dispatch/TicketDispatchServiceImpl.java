@@ -0,0 +1,259 @@
+package com.helpdesk.services.dispatch;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.helpdesk.config.AuthenticatedUser;
+import com.helpdesk.dto.DepartmentDto;
+import com.helpdesk.dto.DispatchStatsDto;
+import com.helpdesk.dto.QueuedTicket;
+import com.helpdesk.dto.TicketDto;
+import com.helpdesk.entities.Ticket;
+import com.helpdesk.enums.Priority;
+import com.helpdesk.enums.Status;
+import com.helpdesk.repositories.TicketRepository;
+import com.helpdesk.services.admin.DepartmentCache;
+import com.helpdesk.services.event.TicketEventService;
+import com.helpdesk.services.search.TicketSearchService;
+import com.helpdesk.utils.AfterCommit;
+import com.helpdesk.utils.AssignmentRules;
+import com.helpdesk.utils.CurrentUser;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps one in-memory priority queue of unassigned pending tickets per department and pops from it on request.
+ * The queue only suggests a candidate: the claim itself is a conditional UPDATE that succeeds only while the ticket
+ * is still pending, unassigned and in the agent's department, so concurrent dispatches, manual claims and edits made
+ * since the ticket was queued can never hand the same ticket out twice. Entries that lose that race are dropped and
+ * the next one is tried. Queues are built at startup and resynchronised with the database every
+ * {@code helpdesk.dispatch.refresh-interval}, which also picks up tickets written by other application instances.
+ * Latency, outcomes and queue depths are Micrometer meters, so they are scraped with the other metrics.
+ */
+@Slf4j
+@Service
+public class TicketDispatchServiceImpl implements TicketDispatchService {
+
+    // Highest priority first, then oldest, then lowest ID; tickets without priority or date go last
+    private static final Comparator<QueuedTicket> DISPATCH_ORDER = Comparator
+            .comparing(QueuedTicket::priority, Comparator.nullsLast(Comparator.<Priority>reverseOrder()))
+            .thenComparing(QueuedTicket::createdDate, Comparator.nullsLast(Comparator.<Date>naturalOrder()))
+            .thenComparing(QueuedTicket::id);
+
+    private final TicketRepository ticketRepository;
+    private final TicketSearchService ticketSearchService;
+    private final TicketEventService ticketEventService; // Tells the customer the ticket was picked up
+    private final DepartmentCache departmentCache;
+    private final CurrentUser currentUser;
+    private final TransactionTemplate transactionTemplate;
+    private final long refreshNanos; // How long a department's queue is trusted before it is reloaded
+
+    // A department's queue and when it was loaded from the database
+    private record DepartmentQueue(PriorityBlockingQueue<QueuedTicket> tickets, long loadedAt) {
+    }
+
+    // Queues by department ID; a department missing here is loaded on its first dispatch
+    private final Map<Long, DepartmentQueue> queues = new ConcurrentHashMap<>();
+
+    // Meters behind getStats() and /actuator/prometheus
+    private final MeterRegistry meterRegistry;
+    private final Timer latency; // helpdesk.dispatch.latency, every "next ticket" request
+    private final Counter dispatched; // helpdesk.dispatch.requests{outcome=dispatched}
+    private final Counter emptyPolls; // helpdesk.dispatch.requests{outcome=empty}
+    private final Counter staleEntries; // helpdesk.dispatch.stale.entries
+
+    // Departments whose helpdesk.dispatch.queue.depth gauge is registered
+    private final Set<Long> gaugedDepartments = ConcurrentHashMap.newKeySet();
+
+    public TicketDispatchServiceImpl(TicketRepository ticketRepository, TicketSearchService ticketSearchService,
+            TicketEventService ticketEventService, DepartmentCache departmentCache, CurrentUser currentUser, TransactionTemplate transactionTemplate,
+            MeterRegistry meterRegistry, @Value("${helpdesk.dispatch.refresh-interval:30s}") Duration refreshInterval) {
+        this.ticketRepository = ticketRepository;
+        this.ticketSearchService = ticketSearchService;
+        this.ticketEventService = ticketEventService;
+        this.departmentCache = departmentCache;
+        this.currentUser = currentUser;
+        this.transactionTemplate = transactionTemplate;
+        this.refreshNanos = refreshInterval.toNanos();
+        this.meterRegistry = meterRegistry;
+        // The percentiles feed getStats(); Prometheus gets the histogram buckets (helpdesk.* in application.properties)
+        this.latency = Timer.builder("helpdesk.dispatch.latency").description("Time to find and claim the next ticket for an agent")
+                .publishPercentiles(0.5, 0.99).register(meterRegistry);
+        this.dispatched = Counter.builder("helpdesk.dispatch.requests").tag("outcome", "dispatched")
+                .description("Dispatch requests by outcome").register(meterRegistry);
+        this.emptyPolls = Counter.builder("helpdesk.dispatch.requests").tag("outcome", "empty")
+                .description("Dispatch requests by outcome").register(meterRegistry);
+        this.staleEntries = Counter.builder("helpdesk.dispatch.stale.entries")
+                .description("Queue entries skipped because the ticket was no longer available").register(meterRegistry);
+    }
+
+    // Pop candidates from the agent's department queue until one can be claimed
+    @Override
+    public TicketDto next() {
+        long started = System.nanoTime();
+        try {
+            AuthenticatedUser agent = currentUser.get();
+            if (agent == null) {
+                throw new RuntimeException("Agent not authenticated");
+            }
+            if (agent.getDepartmentId() == null) {
+                throw new RuntimeException("Agent has no department");
+            }
+
+            PriorityBlockingQueue<QueuedTicket> queue = queueFor(agent.getDepartmentId());
+            QueuedTicket candidate;
+            while ((candidate = queue.poll()) != null) {
+                TicketDto ticket = AssignmentRules.sameDepartment(candidate.departmentId(), agent.getDepartmentId())
+                        ? claim(candidate, queue) : null;
+                if (ticket != null) {
+                    dispatched.increment();
+                    return ticket;
+                }
+                staleEntries.increment();
+            }
+            emptyPolls.increment();
+            return null;
+        } finally {
+            latency.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    // Claim one candidate for the current agent; null if the ticket is no longer available
+    private TicketDto claim(QueuedTicket candidate, PriorityBlockingQueue<QueuedTicket> queue) {
+        try {
+            return transactionTemplate.execute(status -> {
+                if (ticketRepository.claimPending(candidate.id(), currentUser.getReference(), Status.INPROGRESS,
+                        Status.PENDING, candidate.departmentId(), new Date()) == 0) {
+                    return null;
+                }
+                // The bulk update bypasses automatic indexing, and the agent scopes assigned-ticket searches
+                ticketSearchService.reindex(List.of(candidate.id()));
+                Ticket claimed = ticketRepository.findWithDetailsById(candidate.id()).orElseThrow();
+                ticketEventService.ticketChanged(claimed);
+                return claimed.getTicketDto();
+            });
+        } catch (RuntimeException e) {
+            queue.offer(candidate); // Nothing was claimed, so the ticket is still up for grabs
+            throw e;
+        }
+    }
+
+    // Queue a pending unassigned ticket; inside a transaction, only after it has committed
+    @Override
+    public void enqueue(Ticket ticket) {
+        if (ticket.getId() == null || ticket.getAssignedAgent() != null || ticket.getStatus() != Status.PENDING) {
+            return;
+        }
+        QueuedTicket entry = new QueuedTicket(ticket.getId(), ticket.getDepartment().getId(),
+                ticket.getPriority(), ticket.getCreatedDate());
+        AfterCommit.run(() -> offer(entry));
+    }
+
+    // Add an entry to its department's queue; a department that is not loaded yet will read the ticket from the database
+    private void offer(QueuedTicket entry) {
+        DepartmentQueue queue = queues.get(entry.departmentId());
+        if (queue != null) {
+            queue.tickets().offer(entry);
+        }
+    }
+
+    // Build all queues with one query once the application is up
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long loadedAt = System.nanoTime();
+        Map<Long, List<QueuedTicket>> byDepartment = ticketRepository.findQueued(Status.PENDING).stream()
+                .collect(Collectors.groupingBy(QueuedTicket::departmentId));
+        queues.keySet().retainAll(byDepartment.keySet());
+        byDepartment.forEach((departmentId, tickets) -> {
+            queues.put(departmentId, new DepartmentQueue(queueOf(tickets), loadedAt));
+            gaugeDepth(departmentId);
+        });
+        log.info("Dispatch queues built: {} tickets in {} departments",
+                byDepartment.values().stream().mapToInt(List::size).sum(), byDepartment.size());
+    }
+
+    // The department's queue, (re)loaded from the database when missing or older than the refresh interval.
+    // The query runs outside the map's locks (a virtual thread blocked in JDBC there would pin its carrier thread);
+    // when two pollers reload at once, the later load wins.
+    private PriorityBlockingQueue<QueuedTicket> queueFor(Long departmentId) {
+        long now = System.nanoTime();
+        DepartmentQueue queue = queues.get(departmentId);
+        if (queue != null && now - queue.loadedAt() < refreshNanos) {
+            return queue.tickets();
+        }
+        DepartmentQueue loaded = new DepartmentQueue(queueOf(ticketRepository.findQueuedByDepartment(Status.PENDING, departmentId)), now);
+        gaugeDepth(departmentId);
+        return queues.merge(departmentId, loaded, (current, fresh) -> current.loadedAt() - fresh.loadedAt() >= 0 ? current : fresh)
+                .tickets();
+    }
+
+    private static PriorityBlockingQueue<QueuedTicket> queueOf(List<QueuedTicket> tickets) {
+        PriorityBlockingQueue<QueuedTicket> queue = new PriorityBlockingQueue<>(Math.max(1, tickets.size()), DISPATCH_ORDER);
+        queue.addAll(tickets);
+        return queue;
+    }
+
+    // Register the department's queue depth gauge the first time its queue is built. The gauge reads whichever queue
+    // is current, and 0 while the department has none.
+    private void gaugeDepth(Long departmentId) {
+        if (gaugedDepartments.add(departmentId)) {
+            Gauge.builder("helpdesk.dispatch.queue.depth", queues, all -> depthOf(all.get(departmentId)))
+                    .tag("department", departmentName(departmentId))
+                    .description("Unassigned pending tickets waiting in the department's dispatch queue")
+                    .register(meterRegistry);
+        }
+    }
+
+    private static int depthOf(DepartmentQueue queue) {
+        return queue == null ? 0 : queue.tickets().size();
+    }
+
+    private String departmentName(Long departmentId) {
+        return departmentCache.findById(departmentId).map(DepartmentDto::getName).orElse(String.valueOf(departmentId));
+    }
+
+    // Snapshot of queue depths, counters and latency, read from the meters
+    @Override
+    public DispatchStatsDto getStats() {
+        Map<String, Integer> depth = new TreeMap<>();
+        queues.forEach((departmentId, queue) -> depth.put(departmentName(departmentId), depthOf(queue)));
+
+        DispatchStatsDto stats = new DispatchStatsDto();
+        stats.setQueueDepth(depth);
+        stats.setDispatched((long) dispatched.count());
+        stats.setEmptyPolls((long) emptyPolls.count());
+        stats.setStaleEntries((long) staleEntries.count());
+        stats.setLatencySamples(latency.count());
+        stats.setLatencyMeanMillis(latency.mean(TimeUnit.MILLISECONDS));
+        for (ValueAtPercentile percentile : latency.takeSnapshot().percentileValues()) {
+            if (percentile.percentile() == 0.5) {
+                stats.setLatencyP50Millis(percentile.value(TimeUnit.MILLISECONDS));
+            } else if (percentile.percentile() == 0.99) {
+                stats.setLatencyP99Millis(percentile.value(TimeUnit.MILLISECONDS));
+            }
+        }
+        stats.setLatencyMaxMillis(latency.max(TimeUnit.MILLISECONDS));
+        return stats;
+    }
+}
@@ -0,0 +1,38 @@
+package com.helpdesk.services.event;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.helpdesk.dto.CommentDto;
+import com.helpdesk.entities.Ticket;
+
+/**
+ * TicketEventService pushes ticket changes and new comments to connected clients as Server-Sent Events,
+ * so they do not have to poll the ticket and comment endpoints.
+ */
+public interface TicketEventService {
+
+    /**
+     * Opens an event stream for the current user. Only events for tickets the user may view are delivered.
+     *
+     * @param mine        deliver only events of tickets the user created or is assigned to
+     * @param lastEventId ID of the last event the client received before reconnecting, or null
+     * @return the emitter to return from the controller
+     * @throws IllegalStateException if the server already holds the maximum number of streams
+     */
+    SseEmitter subscribe(boolean mine, Long lastEventId);
+
+    /**
+     * Announces that a ticket was created or changed; delivered once the current transaction commits.
+     *
+     * @param ticket the ticket in its new state
+     */
+    void ticketChanged(Ticket ticket);
+
+    /**
+     * Announces a new comment; delivered once the current transaction commits.
+     *
+     * @param ticket  the ticket that was commented on
+     * @param comment the new comment
+     */
+    void commentCreated(Ticket ticket, CommentDto comment);
+}
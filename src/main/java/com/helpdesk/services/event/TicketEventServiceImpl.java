@@ -0,0 +1,268 @@
+package com.helpdesk.services.event;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.helpdesk.config.AuthenticatedUser;
+import com.helpdesk.dto.CommentDto;
+import com.helpdesk.dto.TicketEventDto;
+import com.helpdesk.entities.Ticket;
+import com.helpdesk.enums.TicketEventType;
+import com.helpdesk.utils.AfterCommit;
+import com.helpdesk.utils.CurrentUser;
+import com.helpdesk.utils.TicketAccess;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Fans ticket events out to open Server-Sent Events streams.
+ * Streams are asynchronous servlet responses, so an open connection holds no thread. Each event is serialized once,
+ * filtered per subscriber with {@link TicketAccess} and appended to the subscriber's outbox; a small fixed pool drains
+ * the outboxes (a virtual thread per drain when {@code spring.threads.virtual.enabled} is set), so a slow client delays
+ * only its own events. A client whose outbox overflows is disconnected and catches up on reconnect: the last
+ * {@code helpdesk.events.replay-size} events are kept and replayed after the {@code Last-Event-ID} the browser sends. Events live in memory, so each application instance only streams the
+ * changes made through it.
+ */
+@Slf4j
+@Service
+public class TicketEventServiceImpl implements TicketEventService {
+
+    // Frames a subscriber may have waiting before it is considered stuck and disconnected
+    private static final int MAX_PENDING = 1000;
+
+    // An event as sent on the wire, together with what is needed to decide who may receive it
+    private record Frame(long id, Long customerId, Long agentId, Set<DataWithMediaType> data) {
+    }
+
+    // An open stream and the frames waiting to be written to it
+    private final class Subscriber {
+        final SseEmitter emitter;
+        final AuthenticatedUser user;
+        final boolean mine;
+        final Queue<Set<DataWithMediaType>> outbox = new ConcurrentLinkedQueue<>();
+        final AtomicInteger pending = new AtomicInteger();
+        final AtomicBoolean draining = new AtomicBoolean();
+
+        Subscriber(SseEmitter emitter, AuthenticatedUser user, boolean mine) {
+            this.emitter = emitter;
+            this.user = user;
+            this.mine = mine;
+        }
+
+        boolean accepts(Frame frame) {
+            return mine ? TicketAccess.isParticipant(user, frame.customerId(), frame.agentId())
+                    : TicketAccess.canView(user, frame.customerId(), frame.agentId());
+        }
+    }
+
+    private final CurrentUser currentUser;
+    private final ObjectMapper objectMapper;
+    private final long timeoutMillis; // Streams are closed after this long; clients reconnect with Last-Event-ID
+    private final int replaySize;
+    private final int maxConnections;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final Deque<Frame> recent = new ArrayDeque<>(); // Guarded by "this", like nextId
+    private long nextId = 1;
+
+    private final ExecutorService senders;              // Drain subscriber outboxes
+    private final ScheduledExecutorService heartbeats;  // Keep idle streams open through proxies and detect dead clients
+
+    public TicketEventServiceImpl(CurrentUser currentUser, ObjectMapper objectMapper,
+            @Value("${helpdesk.events.timeout:30m}") Duration timeout,
+            @Value("${helpdesk.events.heartbeat-interval:25s}") Duration heartbeatInterval,
+            @Value("${helpdesk.events.replay-size:1000}") int replaySize,
+            @Value("${helpdesk.events.max-connections:10000}") int maxConnections,
+            @Value("${helpdesk.events.send-threads:4}") int sendThreads,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.currentUser = currentUser;
+        this.objectMapper = objectMapper;
+        this.timeoutMillis = timeout.toMillis();
+        this.replaySize = replaySize;
+        this.maxConnections = maxConnections;
+        this.senders = virtualThreads
+                ? Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("ticket-events-", 0).factory())
+                : Executors.newFixedThreadPool(sendThreads, daemonThreads("ticket-events-"));
+        this.heartbeats = Executors.newSingleThreadScheduledExecutor(daemonThreads("ticket-events-heartbeat-"));
+        long interval = heartbeatInterval.toMillis();
+        heartbeats.scheduleAtFixedRate(this::heartbeat, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    // Register a stream for the current user, replaying what it missed since lastEventId
+    @Override
+    public SseEmitter subscribe(boolean mine, Long lastEventId) {
+        AuthenticatedUser user = currentUser.get();
+        if (user == null) {
+            throw new RuntimeException("User not authenticated");
+        }
+        if (subscribers.size() >= maxConnections) {
+            throw new IllegalStateException("Too many open event streams");
+        }
+
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter, user, mine);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+
+        // Under the publish lock, so no event falls between the replay and the registration
+        synchronized (this) {
+            if (lastEventId != null) {
+                Frame oldest = recent.peekFirst();
+                if (lastEventId >= nextId || (oldest != null && lastEventId < oldest.id() - 1)) {
+                    // Events were missed beyond the replay window (or the server restarted): the client must refetch
+                    deliver(subscriber, SseEmitter.event().name("reset").data("{}", MediaType.APPLICATION_JSON).build());
+                } else {
+                    recent.stream()
+                            .filter(frame -> frame.id() > lastEventId && subscriber.accepts(frame))
+                            .forEach(frame -> deliver(subscriber, frame.data()));
+                }
+            }
+            subscribers.add(subscriber);
+        }
+        return emitter;
+    }
+
+    // The event is taken from the entity after commit, when the flush has set its final version
+    @Override
+    public void ticketChanged(Ticket ticket) {
+        AfterCommit.run(() -> publish(event(TicketEventType.TICKET_CHANGED, ticket)));
+    }
+
+    @Override
+    public void commentCreated(Ticket ticket, CommentDto comment) {
+        AfterCommit.run(() -> {
+            TicketEventDto event = event(TicketEventType.COMMENT_CREATED, ticket);
+            // The comment's bulk version bump is not reflected in the entity, so no version is reported
+            event.setVersion(null);
+            event.setLastModified(null);
+            event.setComment(comment);
+            publish(event);
+        });
+    }
+
+    // Only IDs are read from the associations, so nothing is loaded (the persistence context may be gone by now)
+    private static TicketEventDto event(TicketEventType type, Ticket ticket) {
+        TicketEventDto event = new TicketEventDto();
+        event.setType(type);
+        event.setTicketId(ticket.getId());
+        event.setStatus(ticket.getStatus());
+        event.setPriority(ticket.getPriority());
+        event.setVersion(ticket.getVersion());
+        event.setLastModified(ticket.getLastModified());
+        event.setCustomerId(ticket.getCustomer().getId());
+        event.setAgentId(ticket.getAssignedAgent() != null ? ticket.getAssignedAgent().getId() : null);
+        event.setDepartmentId(ticket.getDepartment().getId());
+        return event;
+    }
+
+    // Number the event, remember it for replay and queue it for every subscriber allowed to see it
+    private void publish(TicketEventDto event) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            log.warn("Could not serialize ticket event for ticket {}", event.getTicketId(), e);
+            return;
+        }
+        synchronized (this) {
+            long id = nextId++;
+            Frame frame = new Frame(id, event.getCustomerId(), event.getAgentId(), SseEmitter.event()
+                    .id(Long.toString(id))
+                    .name(event.getType().getEventName())
+                    .data(json, MediaType.APPLICATION_JSON)
+                    .build());
+            recent.addLast(frame);
+            if (recent.size() > replaySize) {
+                recent.removeFirst();
+            }
+            for (Subscriber subscriber : subscribers) {
+                if (subscriber.accepts(frame)) {
+                    deliver(subscriber, frame.data());
+                }
+            }
+        }
+    }
+
+    // Append a frame to the subscriber's outbox and make sure a sender drains it
+    private void deliver(Subscriber subscriber, Set<DataWithMediaType> data) {
+        if (subscriber.pending.incrementAndGet() > MAX_PENDING) {
+            disconnect(subscriber);
+            return;
+        }
+        subscriber.outbox.add(data);
+        if (subscriber.draining.compareAndSet(false, true)) {
+            senders.execute(() -> drain(subscriber));
+        }
+    }
+
+    // Write out the subscriber's outbox; at most one sender drains a given subscriber at a time
+    private void drain(Subscriber subscriber) {
+        try {
+            Set<DataWithMediaType> data;
+            while ((data = subscriber.outbox.poll()) != null) {
+                subscriber.pending.decrementAndGet();
+                subscriber.emitter.send(data);
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Client went away, or the stream already completed
+            disconnect(subscriber);
+        } finally {
+            subscriber.draining.set(false);
+        }
+        // A frame may have arrived after the last poll but before the flag was cleared
+        if (!subscriber.outbox.isEmpty() && subscriber.draining.compareAndSet(false, true)) {
+            senders.execute(() -> drain(subscriber));
+        }
+    }
+
+    // Drop a subscriber and close its stream; completion waits for a send in progress, so it runs on a sender thread
+    private void disconnect(Subscriber subscriber) {
+        if (subscribers.remove(subscriber)) {
+            subscriber.outbox.clear();
+            senders.execute(subscriber.emitter::complete);
+        }
+    }
+
+    // Send an SSE comment line to every stream
+    private void heartbeat() {
+        Set<DataWithMediaType> ping = SseEmitter.event().comment("ping").build();
+        subscribers.forEach(subscriber -> deliver(subscriber, ping));
+    }
+
+    // Close all streams and stop the sender threads on shutdown
+    @PreDestroy
+    void shutdown() {
+        heartbeats.shutdownNow();
+        subscribers.forEach(this::disconnect);
+        senders.shutdown(); // Lets the queued completions run
+    }
+
+    private static CustomizableThreadFactory daemonThreads(String prefix) {
+        CustomizableThreadFactory factory = new CustomizableThreadFactory(prefix);
+        factory.setDaemon(true);
+        return factory;
+    }
+}
@@ -0,0 +1,31 @@
+package com.helpdesk.services.search;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Brings the search index in line with the database once the application has started,
+ * e.g. on first start or after tickets were written while the index directory was missing.
+ * Later writes through JPA keep the index current on their own. The rebuild runs in the background, so
+ * startup and readiness do not wait for it.
+ */
+@Component
+@RequiredArgsConstructor
+public class SearchIndexInitializer {
+
+    private final TicketSearchService ticketSearchService;
+
+    @Value("${helpdesk.search.reindex-on-startup:true}")
+    private boolean reindexOnStartup;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reindexIfNeeded() {
+        if (reindexOnStartup) {
+            ticketSearchService.reindexIfOutOfSync();
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.helpdesk.services.search;
+
+/**
+ * Which tickets a full-text search may return. Applied as a filter inside the index query.
+ *
+ * @param customerId only tickets created by this customer (null for no restriction)
+ * @param agentId    only tickets assigned to this agent (null for no restriction)
+ */
+public record TicketSearchScope(Long customerId, Long agentId) {
+
+    // Every ticket (admins, and agents browsing all tickets)
+    public static TicketSearchScope all() {
+        return new TicketSearchScope(null, null);
+    }
+
+    // Tickets created by one customer
+    public static TicketSearchScope customer(Long customerId) {
+        return new TicketSearchScope(customerId, null);
+    }
+
+    // Tickets assigned to one agent
+    public static TicketSearchScope assignedAgent(Long agentId) {
+        return new TicketSearchScope(null, agentId);
+    }
+}
@@ -0,0 +1,59 @@
+package com.helpdesk.services.search;
+
+import java.util.Collection;
+import java.util.List;
+
+import com.helpdesk.dto.CursorPage;
+import com.helpdesk.dto.TicketSummaryDto;
+
+/**
+ * Full-text search over ticket titles, descriptions and comment bodies, most relevant first.
+ */
+public interface TicketSearchService {
+
+    /**
+     * Searches tickets within a scope, one page at a time.
+     *
+     * @param text   the words to look for
+     * @param scope  which tickets may be returned
+     * @param cursor the nextCursor of the previous page, or null for the first page
+     * @param size   the page size, or null for the default
+     * @return one page of matching tickets, most relevant first
+     */
+    CursorPage<TicketSummaryDto> search(String text, TicketSearchScope scope, String cursor, Integer size);
+
+    /**
+     * Returns the matching tickets within a scope, up to {@code helpdesk.pagination.unpaged-max-size}
+     * (used by the deprecated unpaged endpoints).
+     *
+     * @param text  the words to look for
+     * @param scope which tickets may be returned
+     * @return the most relevant matching tickets, most relevant first
+     */
+    List<TicketSummaryDto> searchAll(String text, TicketSearchScope scope);
+
+    /**
+     * Starts rebuilding the index from the database when it does not hold exactly one document per ticket.
+     * The rebuild runs in the background; until it completes, searches only find the tickets indexed so far.
+     *
+     * @return true if a rebuild was started
+     */
+    boolean reindexIfOutOfSync();
+
+    /**
+     * Removes tickets from the index when they were deleted with a bulk statement, which automatic indexing
+     * does not see. Must be called inside the transaction that deleted them; the index is updated on commit.
+     *
+     * @param ticketIds the ids of the deleted tickets
+     */
+    void removeFromIndex(Collection<Long> ticketIds);
+
+    /**
+     * Reindexes tickets that were updated with a bulk statement, which automatic indexing does not see.
+     * Must be called inside the transaction that updated them, after the persistence context was cleared so the
+     * tickets are reloaded with their new state; they are indexed on commit.
+     *
+     * @param ticketIds the ids of the updated tickets
+     */
+    void reindex(Collection<Long> ticketIds);
+}
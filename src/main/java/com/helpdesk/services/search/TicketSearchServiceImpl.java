@@ -0,0 +1,178 @@
+package com.helpdesk.services.search;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.hibernate.search.engine.search.common.BooleanOperator;
+import org.hibernate.search.engine.search.query.SearchQuery;
+import org.hibernate.search.mapper.orm.Search;
+import org.hibernate.search.mapper.orm.session.SearchSession;
+import org.hibernate.search.mapper.orm.work.SearchIndexingPlan;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.helpdesk.dto.CursorPage;
+import com.helpdesk.dto.TicketSummaryDto;
+import com.helpdesk.entities.Ticket;
+import com.helpdesk.repositories.TicketRepository;
+import com.helpdesk.utils.TicketPagination;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Hibernate Search (embedded Lucene) implementation of ticket search.
+ * The index only returns matching ticket ids; the rows are then read with the same summary projection the list
+ * endpoints use, in one query. Hits are ranked by relevance (title matches weigh most), newest first on ties.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TicketSearchServiceImpl implements TicketSearchService {
+
+    // Title matches count three times as much as description or comment matches
+    private static final float TITLE_BOOST = 3f;
+
+    private final EntityManager entityManager;
+    private final TicketRepository ticketRepository;
+    private final TicketPagination ticketPagination;
+    private final TransactionTemplate transactionTemplate;
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<TicketSummaryDto> search(String text, TicketSearchScope scope, String cursor, Integer size) {
+        int pageSize = ticketPagination.resolveSize(size);
+        if (text == null || text.isBlank()) {
+            return ticketPagination.empty(size);
+        }
+
+        // Fetch one extra hit to know whether another page exists
+        int offset = decodeOffset(cursor);
+        List<Long> ids = query(text, scope).fetchHits(offset, pageSize + 1);
+        boolean hasMore = ids.size() > pageSize;
+
+        CursorPage<TicketSummaryDto> page = new CursorPage<>();
+        page.setSize(pageSize);
+        page.setHasMore(hasMore);
+        page.setItems(summaries(hasMore ? ids.subList(0, pageSize) : ids));
+        if (hasMore) {
+            page.setNextCursor(encodeOffset(offset + pageSize));
+        }
+        return page;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<TicketSummaryDto> searchAll(String text, TicketSearchScope scope) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        return summaries(query(text, scope).fetchHits(ticketPagination.unpagedMaxSize()));
+    }
+
+    // Only the two counts run in a transaction; the mass indexer opens its own sessions on its own threads
+    @Override
+    public boolean reindexIfOutOfSync() {
+        Long indexed = transactionTemplate.execute(status ->
+                Search.session(entityManager).search(Ticket.class).where(f -> f.matchAll()).fetchTotalHitCount());
+        long stored = ticketRepository.count();
+        if (indexed != null && indexed == stored) {
+            return false;
+        }
+
+        log.info("Search index holds {} tickets, database holds {}; rebuilding the index in the background", indexed, stored);
+        long started = System.nanoTime();
+        Search.mapping(entityManager.getEntityManagerFactory()).scope(Ticket.class).massIndexer().start()
+                .whenComplete((result, failure) -> {
+                    if (failure != null) {
+                        log.error("Rebuilding the search index failed", failure);
+                    } else {
+                        log.info("Search index rebuilt in {} ms", (System.nanoTime() - started) / 1_000_000);
+                    }
+                });
+        return true;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void removeFromIndex(Collection<Long> ticketIds) {
+        SearchIndexingPlan indexingPlan = Search.session(entityManager).indexingPlan();
+        ticketIds.forEach(id -> indexingPlan.purge(Ticket.class, id, null));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void reindex(Collection<Long> ticketIds) {
+        SearchIndexingPlan indexingPlan = Search.session(entityManager).indexingPlan();
+        ticketRepository.findAllById(ticketIds).forEach(indexingPlan::addOrUpdate);
+    }
+
+    // Builds the relevance-ranked id query; the scope is a filter, so it restricts hits without affecting scores
+    private SearchQuery<Long> query(String text, TicketSearchScope scope) {
+        return Search.session(entityManager).search(Ticket.class)
+                .select(f -> f.id(Long.class))
+                .where((f, root) -> {
+                    root.add(f.simpleQueryString()
+                            .field("title").boost(TITLE_BOOST)
+                            .fields("description", "comments.body")
+                            .matching(text)
+                            .defaultOperator(BooleanOperator.AND));
+                    if (scope.customerId() != null) {
+                        root.add(f.match().field("customer.id").matching(scope.customerId()));
+                    }
+                    if (scope.agentId() != null) {
+                        root.add(f.match().field("assignedAgent.id").matching(scope.agentId()));
+                    }
+                })
+                .sort(f -> f.score().then().field("createdDate").desc())
+                .toQuery();
+    }
+
+    // Loads the summaries of the hits and puts them back in ranking order
+    private List<TicketSummaryDto> summaries(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, TicketSummaryDto> byId = ticketRepository.findSummariesByIdIn(ids).stream()
+                .collect(Collectors.toMap(TicketSummaryDto::getId, Function.identity()));
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull) // A ticket deleted after the index was queried
+                .collect(Collectors.toList());
+    }
+
+    // Search pages are ranked, not ordered by a column, so their cursor is an opaque hit offset
+    private static String encodeOffset(int offset) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(("search:" + offset).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static int decodeOffset(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!raw.startsWith("search:")) {
+                throw new IllegalArgumentException();
+            }
+            int offset = Integer.parseInt(raw.substring("search:".length()));
+            if (offset < 0) {
+                throw new IllegalArgumentException();
+            }
+            return offset;
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.helpdesk.services.stats;
+
+/**
+ * Which tickets dashboard statistics are computed over.
+ *
+ * @param customerId   only tickets created by this customer (null for no restriction)
+ * @param departmentId only tickets and agents of this department (null for no restriction)
+ */
+public record TicketStatsScope(Long customerId, Long departmentId) {
+
+    // Every ticket and agent (admins)
+    public static TicketStatsScope all() {
+        return new TicketStatsScope(null, null);
+    }
+
+    // Tickets created by one customer; no agent workloads
+    public static TicketStatsScope customer(Long customerId) {
+        return new TicketStatsScope(customerId, null);
+    }
+
+    // Tickets and agents of one department (agents see their team)
+    public static TicketStatsScope department(Long departmentId) {
+        return new TicketStatsScope(null, departmentId);
+    }
+}
@@ -0,0 +1,18 @@
+package com.helpdesk.services.stats;
+
+import com.helpdesk.dto.TicketStatsDto;
+
+/**
+ * TicketStatsService computes dashboard ticket counts with grouped database queries.
+ */
+public interface TicketStatsService {
+
+    /**
+     * Returns ticket counts for the given scope. Results are kept in memory for {@code helpdesk.stats.cache-ttl},
+     * so they may lag behind the latest changes by that long.
+     *
+     * @param scope which tickets to count
+     * @return the counts
+     */
+    TicketStatsDto getStats(TicketStatsScope scope);
+}
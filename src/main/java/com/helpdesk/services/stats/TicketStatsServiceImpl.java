@@ -0,0 +1,131 @@
+package com.helpdesk.services.stats;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.helpdesk.dto.AgentLoadDto;
+import com.helpdesk.dto.TicketCountDto;
+import com.helpdesk.dto.TicketStatsDto;
+import com.helpdesk.enums.Priority;
+import com.helpdesk.enums.Status;
+import com.helpdesk.enums.UserRole;
+import com.helpdesk.repositories.TicketRepository;
+import com.helpdesk.services.admin.DepartmentCache;
+
+/**
+ * Computes dashboard statistics with GROUP BY queries and keeps each scope's result in memory for a short time.
+ * Dashboards refresh often and every refresh would otherwise aggregate the ticket table again; a concurrent burst
+ * of refreshes for the same scope runs the queries once and shares the result. The queries run outside the cache's
+ * locks, so callers on virtual threads wait for a result without pinning their carrier thread. Only the queries run in
+ * a (read-only, so replica-routed) transaction; callers served from the cache never open one.
+ */
+@Service
+public class TicketStatsServiceImpl implements TicketStatsService {
+
+    // Statuses that count as open work for an agent
+    private static final List<Status> OPEN = List.of(Status.PENDING, Status.INPROGRESS);
+
+    private final TicketRepository ticketRepository;
+    private final DepartmentCache departmentCache; // Resolves department names without joining the department table
+    private final AsyncCache<TicketStatsScope, TicketStatsDto> results;
+    private final TransactionTemplate readOnly; // Wraps the queries of a cache miss
+
+    public TicketStatsServiceImpl(TicketRepository ticketRepository, DepartmentCache departmentCache,
+            PlatformTransactionManager transactionManager,
+            @Value("${helpdesk.stats.cache-ttl:30s}") Duration cacheTtl,
+            @Value("${helpdesk.stats.cache-max-size:10000}") long cacheMaxSize) {
+        this.ticketRepository = ticketRepository;
+        this.departmentCache = departmentCache;
+        this.results = Caffeine.newBuilder().expireAfterWrite(cacheTtl).maximumSize(cacheMaxSize).buildAsync();
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+    }
+
+    // Served from memory when computed within the cache TTL; the first caller for a scope computes it on its own thread
+    @Override
+    public TicketStatsDto getStats(TicketStatsScope scope) {
+        CompletableFuture<TicketStatsDto> computing = new CompletableFuture<>();
+        CompletableFuture<TicketStatsDto> cached = results.asMap().putIfAbsent(scope, computing);
+        if (cached != null) {
+            try {
+                return cached.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e; // The computing caller's error
+            }
+        }
+        try {
+            computing.complete(compute(scope));
+        } catch (RuntimeException e) {
+            computing.completeExceptionally(e); // Failed results are dropped from the cache
+            throw e;
+        }
+        return computing.join();
+    }
+
+    // Grouped counts and agent workloads of a scope, read in one read-only transaction
+    private record Counts(List<TicketCountDto> counts, List<AgentLoadDto> openPerAgent) {
+    }
+
+    private Counts query(TicketStatsScope scope) {
+        if (scope.customerId() != null) {
+            // Customers do not see agent workloads
+            return new Counts(ticketRepository.countGroupedByCustomer(scope.customerId()), null);
+        }
+        if (scope.departmentId() != null) {
+            return new Counts(ticketRepository.countGroupedByDepartment(scope.departmentId()),
+                    ticketRepository.countPerAgentInDepartment(OPEN, UserRole.AGENT, scope.departmentId()));
+        }
+        return new Counts(ticketRepository.countGrouped(), ticketRepository.countPerAgent(OPEN, UserRole.AGENT));
+    }
+
+    private TicketStatsDto compute(TicketStatsScope scope) {
+        Counts queried = readOnly.execute(status -> query(scope));
+        List<TicketCountDto> counts = queried.counts();
+        List<AgentLoadDto> openPerAgent = queried.openPerAgent();
+
+        Map<Long, String> departmentNames = new TreeMap<>();
+        departmentCache.getAll().forEach(d -> departmentNames.put(d.getId(), d.getName()));
+
+        // Roll the grouped rows up into the per-dimension totals
+        long total = 0;
+        Map<Status, Long> byStatus = new EnumMap<>(Status.class);
+        Map<Priority, Long> byPriority = new EnumMap<>(Priority.class);
+        Map<String, Long> byDepartment = new TreeMap<>();
+        for (TicketCountDto count : counts) {
+            count.setDepartmentName(departmentNames.getOrDefault(count.getDepartmentId(), String.valueOf(count.getDepartmentId())));
+            total += count.getCount();
+            if (count.getStatus() != null) {
+                byStatus.merge(count.getStatus(), count.getCount(), Long::sum);
+            }
+            if (count.getPriority() != null) {
+                byPriority.merge(count.getPriority(), count.getCount(), Long::sum);
+            }
+            byDepartment.merge(count.getDepartmentName(), count.getCount(), Long::sum);
+        }
+
+        // Cached results are shared between requests, so nothing in them may change once built
+        TicketStatsDto stats = new TicketStatsDto();
+        stats.setTotal(total);
+        stats.setByStatus(Collections.unmodifiableMap(byStatus));
+        stats.setByPriority(Collections.unmodifiableMap(byPriority));
+        stats.setByDepartment(Collections.unmodifiableMap(byDepartment));
+        stats.setCounts(List.copyOf(counts));
+        stats.setOpenPerAgent(openPerAgent != null ? List.copyOf(openPerAgent) : null);
+        stats.setGeneratedAt(new Date());
+        return stats;
+    }
+}
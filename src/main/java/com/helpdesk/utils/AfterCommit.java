@@ -0,0 +1,27 @@
+package com.helpdesk.utils;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Defers in-memory side effects of a write (queueing, notifications) until the write is visible to other transactions.
+ */
+public final class AfterCommit {
+
+	private AfterCommit() {
+	}
+
+	// Runs the action once the current transaction has committed (never if it rolls back), or at once outside a transaction
+	public static void run(Runnable action) {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					action.run();
+				}
+			});
+		} else {
+			action.run();
+		}
+	}
+}
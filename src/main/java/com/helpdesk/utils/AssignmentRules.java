@@ -0,0 +1,15 @@
+package com.helpdesk.utils;
+
+/**
+ * Who may work on which ticket. Shared by manual assignment (admin) and automatic dispatch (agent "next ticket").
+ */
+public final class AssignmentRules {
+
+	private AssignmentRules() {
+	}
+
+	// An agent may only be given tickets of their own department; agents without a department get none
+	public static boolean sameDepartment(Long ticketDepartmentId, Long agentDepartmentId) {
+		return agentDepartmentId != null && agentDepartmentId.equals(ticketDepartmentId);
+	}
+}
@@ -0,0 +1,78 @@
+package com.helpdesk.utils;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import com.helpdesk.config.AuthenticatedUser;
+import com.helpdesk.entities.User;
+import com.helpdesk.repositories.UserRepository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Resolves the user behind the current request.
+ * The id/role/department view comes straight from the authenticated principal without any query. The full
+ * {@link User} entity is loaded only on request through {@link #getUser()}, and at most once per HTTP request.
+ */
+@Component
+@RequiredArgsConstructor
+public class CurrentUser {
+
+	// Request attribute holding the User entity once it has been loaded for the current request
+	private static final String LOADED_USER = CurrentUser.class.getName() + ".user";
+
+	private final UserRepository userRepository;
+
+	// Returns the authenticated user's id/role/department view, or null if the request is not authenticated
+	public AuthenticatedUser get() {
+		Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+		if (authentication == null || !authentication.isAuthenticated()) {
+			return null;
+		}
+		if (authentication.getPrincipal() instanceof AuthenticatedUser principal) {
+			return principal;
+		}
+		if (authentication.getPrincipal() instanceof User user) {
+			return AuthenticatedUser.of(user); // Database-checked authentication already holds the entity
+		}
+		return null;
+	}
+
+	// Returns the authenticated user's id, or null if the request is not authenticated
+	public Long getId() {
+		AuthenticatedUser principal = get();
+		return principal != null ? principal.getId() : null;
+	}
+
+	// Returns an uninitialized reference to the authenticated user, for setting associations and query parameters
+	// without loading the row; returns null if the request is not authenticated
+	public User getReference() {
+		Long id = getId();
+		return id != null ? userRepository.getReferenceById(id) : null;
+	}
+
+	// Returns the fully loaded User entity, loading it at most once per request; null if not authenticated
+	public User getUser() {
+		Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+		if (authentication != null && authentication.getPrincipal() instanceof User user) {
+			return user;
+		}
+		Long id = getId();
+		if (id == null) {
+			return null;
+		}
+
+		RequestAttributes request = RequestContextHolder.getRequestAttributes();
+		if (request != null && request.getAttribute(LOADED_USER, RequestAttributes.SCOPE_REQUEST) instanceof User user) {
+			return user;
+		}
+		User user = userRepository.findById(id).orElse(null);
+		if (request != null && user != null) {
+			request.setAttribute(LOADED_USER, user, RequestAttributes.SCOPE_REQUEST);
+		}
+		return user;
+	}
+}
@@ -0,0 +1,32 @@
+package com.helpdesk.utils;
+
+import java.util.List;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+
+import com.helpdesk.dto.DepartmentDto;
+import com.helpdesk.dto.DepartmentListDto;
+
+/**
+ * Responses of the department endpoints, tagged with the version of the department list they were read from.
+ * Clients that revalidate with If-None-Match get an empty 304 until a department is added, renamed or removed.
+ */
+public final class DepartmentETags {
+
+	private DepartmentETags() {
+	}
+
+	// The whole department list
+	public static ResponseEntity<List<DepartmentDto>> ok(DepartmentListDto list) {
+		return ok(list.getDepartments(), list);
+	}
+
+	// A body taken from the given department list; clients must revalidate before reusing it
+	public static <T> ResponseEntity<T> ok(T body, DepartmentListDto list) {
+		return ResponseEntity.ok()
+				.cacheControl(CacheControl.noCache().cachePrivate())
+				.eTag(list.getVersion())
+				.body(body);
+	}
+}
@@ -1,36 +1,72 @@
 package com.helpdesk.utils;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Optional;
-import java.util.function.Function;
+import java.util.concurrent.TimeUnit;
 
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import com.helpdesk.entities.User;
-import com.helpdesk.repositories.UserRepository;
 
-import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
-import lombok.RequiredArgsConstructor;
 
 @Component
-@RequiredArgsConstructor
 public class JwtUtil {
 
-	private final UserRepository userRepository;
+	// Claims that carry the user's identity, so requests can be authenticated without loading the user
+	public static final String USER_ID_CLAIM = "uid";
+	public static final String ROLE_CLAIM = "role";
+	public static final String DEPARTMENT_ID_CLAIM = "deptId";
+
+	// Signing key and parser are thread-safe and built once instead of on every call
+	private final Key signingKey = Keys.hmacShaKeyFor(
+			Decoders.BASE64.decode("413F442847284862506553685660597033733676397924422645294848406351"));
+	private final JwtParser parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+
+	// Recently verified tokens keyed by SHA-256 digest, each evicted when its token expires (null when disabled)
+	private final Cache<String, VerifiedToken> verifiedTokens;
 
-	// Generates a JWT token for the given user details
+	// Records how long token verification takes (metric helpdesk.jwt.validation)
+	private final MeterRegistry meterRegistry;
+
+	public JwtUtil(@Value("${helpdesk.security.jwt.cache.enabled:true}") boolean cacheEnabled,
+			@Value("${helpdesk.security.jwt.cache.max-size:10000}") long cacheMaxSize, MeterRegistry meterRegistry) {
+		this.verifiedTokens = cacheEnabled
+				? Caffeine.newBuilder().maximumSize(cacheMaxSize).expireAfter(new UntilTokenExpiry()).build()
+				: null;
+		this.meterRegistry = meterRegistry;
+	}
+
+	// Generates a JWT token for the given user details, embedding id, role and department as signed claims
 	public String generateToken(UserDetails userDetails) {
-		return generateToken(new HashMap<>(), userDetails);
+		Map<String, Object> claims = new HashMap<>();
+		if (userDetails instanceof User user) {
+			claims.put(USER_ID_CLAIM, user.getId());
+			claims.put(ROLE_CLAIM, user.getUserRole().name());
+			if (user.getDepartment() != null) {
+				claims.put(DEPARTMENT_ID_CLAIM, user.getDepartment().getId());
+			}
+		}
+		return generateToken(claims, userDetails);
 	}
 
 	// Generates a JWT token with additional claims
@@ -40,62 +76,63 @@ public class JwtUtil {
 				.setSubject(userDetails.getUsername()) // set subject as username
 				.setIssuedAt(new Date(System.currentTimeMillis())) // current time as issued date
 				.setExpiration(new Date(System.currentTimeMillis() + 1000 * 60 * 60 * 24)) // expires in 24 hours
-				.signWith(getSigningKey(), SignatureAlgorithm.HS256) // sign with key and HS256 algorithm
+				.signWith(signingKey, SignatureAlgorithm.HS256) // sign with key and HS256 algorithm
 				.compact(); // build the token
 	}
 
-	// Returns the signing key used to sign the JWT
-	private Key getSigningKey() {
-		byte[] keyBytes = Decoders.BASE64.decode("413F442847284862506553685660597033733676397924422645294848406351");
-		return Keys.hmacShaKeyFor(keyBytes);
-	}
-
-	// Validates the JWT token for the given user details
-	public boolean isTokenValid(String token, UserDetails userDetails) {
-		final String userName = extractUserName(token);
-		return (userName.equals(userDetails.getUsername())) && !isTokenExpired(token);
-	}
-
-	// Extracts the username (subject) from the token
-	public String extractUserName(String token) {
-		return extractClaim(token, Claims::getSubject);
-	}
-
-	// Checks if the token is expired
-	private boolean isTokenExpired(String token) {
-		return extractExpiration(token).before(new Date());
+	// Parses the token and checks its signature and expiry once; throws a JwtException if it is invalid.
+	// Tokens seen recently are served from the cache without being parsed again.
+	// Each call is timed, tagged with whether the token was parsed or found in the cache and whether it was valid.
+	public VerifiedToken verify(String token) {
+		long start = System.nanoTime();
+		boolean[] parsed = { verifiedTokens == null };
+		String outcome = "invalid";
+		try {
+			VerifiedToken verified = verifiedTokens == null
+					? parse(token)
+					: verifiedTokens.get(digest(token), key -> {
+						parsed[0] = true;
+						return parse(token);
+					});
+			outcome = "valid";
+			return verified;
+		} finally {
+			meterRegistry.timer("helpdesk.jwt.validation", "cache", parsed[0] ? "miss" : "hit", "outcome", outcome)
+					.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+		}
 	}
 
-	// Extracts the expiration date from the token
-	private Date extractExpiration(String token) {
-		return extractClaim(token, Claims::getExpiration);
+	// Parses and verifies the token
+	private VerifiedToken parse(String token) {
+		return VerifiedToken.from(parser.parseClaimsJws(token).getBody());
 	}
 
-	// Extracts a specific claim from the token using a function
-	private <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-		final Claims claims = extractAllClaims(token);
-		return claimsResolver.apply(claims);
+	// Hashes the token so the cache never holds usable credentials
+	private static String digest(String token) {
+		try {
+			byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+			return Base64.getEncoder().encodeToString(hash);
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 is not available", e);
+		}
 	}
 
-	// Extracts all claims from the JWT token
-	private Claims extractAllClaims(String token) {
-		return Jwts.parserBuilder()
-				.setSigningKey(getSigningKey()) // set the signing key
-				.build()
-				.parseClaimsJws(token)
-				.getBody(); // get the token's body (claims)
-	}
+	// Keeps each cache entry exactly until its token expires
+	private static final class UntilTokenExpiry implements Expiry<String, VerifiedToken> {
 
-	// Retrieves the currently authenticated user from the security context
-	public User getLoggedInUser() {
-		Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+		@Override
+		public long expireAfterCreate(String key, VerifiedToken token, long currentTime) {
+			return Math.max(0, Duration.between(Instant.now(), token.getExpiresAt()).toNanos());
+		}
 
-		if (authentication != null && authentication.isAuthenticated()) {
-			String username = authentication.getName(); // get username from authentication
-			Optional<User> optionalUser = userRepository.findByUserName(username);
-			return optionalUser.orElse(null); // return user or null if not found
+		@Override
+		public long expireAfterUpdate(String key, VerifiedToken token, long currentTime, long currentDuration) {
+			return currentDuration;
 		}
 
-		return null; // no authenticated user
+		@Override
+		public long expireAfterRead(String key, VerifiedToken token, long currentTime, long currentDuration) {
+			return currentDuration;
+		}
 	}
 }
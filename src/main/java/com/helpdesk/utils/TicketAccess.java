@@ -0,0 +1,28 @@
+package com.helpdesk.utils;
+
+import com.helpdesk.config.AuthenticatedUser;
+import com.helpdesk.enums.UserRole;
+
+/**
+ * Who may see and who may discuss a ticket. Shared by the comment APIs and the live event stream,
+ * so a user is never pushed anything they could not fetch.
+ */
+public final class TicketAccess {
+
+	private TicketAccess() {
+	}
+
+	// The ticket's customer or its assigned agent: the users who may comment on it
+	public static boolean isParticipant(AuthenticatedUser user, Long customerId, Long assignedAgentId) {
+		boolean isCustomer = user.getUserRole() == UserRole.CUSTOMER && user.getId().equals(customerId);
+		boolean isAssignedAgent = user.getUserRole() == UserRole.AGENT && user.getId().equals(assignedAgentId);
+		return isCustomer || isAssignedAgent;
+	}
+
+	// Participants, any agent (assigned or not) and admins may view the ticket and its comments
+	public static boolean canView(AuthenticatedUser user, Long customerId, Long assignedAgentId) {
+		return isParticipant(user, customerId, assignedAgentId)
+				|| user.getUserRole() == UserRole.AGENT
+				|| user.getUserRole() == UserRole.ADMIN;
+	}
+}
@@ -0,0 +1,57 @@
+package com.helpdesk.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Date;
+
+import lombok.Getter;
+
+/**
+ * Position in a "newest first" ticket listing.
+ * Holds the created date and ID of the last ticket a client has seen; the next page
+ * starts strictly after it. Encoded as an opaque URL-safe string for API clients.
+ */
+@Getter
+public final class TicketCursor {
+
+	// Starting position for the first page: sorts after every real ticket
+	public static final TicketCursor FIRST = new TicketCursor(Timestamp.from(Instant.parse("9000-01-01T00:00:00Z")), Long.MAX_VALUE);
+
+	private final Date createdDate;
+	private final Long id;
+
+	private TicketCursor(Date createdDate, Long id) {
+		this.createdDate = createdDate;
+		this.id = id;
+	}
+
+	// Creates a cursor pointing just after the given ticket
+	public static TicketCursor after(Date createdDate, Long id) {
+		return new TicketCursor(createdDate, id);
+	}
+
+	// Decodes a cursor received from a client; a missing cursor means the first page
+	public static TicketCursor decode(String cursor) {
+		if (cursor == null || cursor.isBlank()) {
+			return FIRST;
+		}
+		try {
+			String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":");
+			Instant createdAt = Instant.ofEpochSecond(Long.parseLong(parts[0]), Long.parseLong(parts[1]));
+			return new TicketCursor(Timestamp.from(createdAt), Long.parseLong(parts[2]));
+		} catch (RuntimeException e) {
+			throw new IllegalArgumentException("Invalid cursor: " + cursor);
+		}
+	}
+
+	// Encodes the cursor for API clients (keeps sub-millisecond precision of database timestamps)
+	public String encode() {
+		Instant createdAt = createdDate instanceof Timestamp timestamp
+				? timestamp.toInstant()
+				: Instant.ofEpochMilli(createdDate.getTime()); // java.sql.Date does not support toInstant()
+		String raw = createdAt.getEpochSecond() + ":" + createdAt.getNano() + ":" + id;
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+}
@@ -0,0 +1,88 @@
+package com.helpdesk.utils;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import com.helpdesk.dto.CursorPage;
+import com.helpdesk.dto.TicketSummaryDto;
+
+/**
+ * Runs keyset-paginated ticket queries and turns their rows into {@link CursorPage} responses.
+ * Page sizes, and the cap on what the deprecated unpaged endpoints return, are configurable through
+ * {@code helpdesk.pagination.*}.
+ */
+@Component
+public class TicketPagination {
+
+	/**
+	 * A repository query that returns ticket summaries ordered newest first, starting after the given position.
+	 */
+	@FunctionalInterface
+	public interface KeysetQuery {
+		List<TicketSummaryDto> fetch(Date createdDate, Long id, Limit limit);
+	}
+
+	private final int defaultSize;
+	private final int maxSize;
+	private final int unpagedMaxSize;
+
+	public TicketPagination(@Value("${helpdesk.pagination.default-size:20}") int defaultSize,
+			@Value("${helpdesk.pagination.max-size:100}") int maxSize,
+			@Value("${helpdesk.pagination.unpaged-max-size:1000}") int unpagedMaxSize) {
+		this.defaultSize = defaultSize;
+		this.maxSize = maxSize;
+		this.unpagedMaxSize = unpagedMaxSize;
+	}
+
+	// Fetches the page after the given cursor; one extra row is read to know whether more pages exist
+	public CursorPage<TicketSummaryDto> page(String cursor, Integer size, KeysetQuery query) {
+		TicketCursor after = TicketCursor.decode(cursor);
+		int pageSize = resolveSize(size);
+
+		List<TicketSummaryDto> rows = query.fetch(after.getCreatedDate(), after.getId(), Limit.of(pageSize + 1));
+
+		CursorPage<TicketSummaryDto> page = new CursorPage<>();
+		page.setSize(pageSize);
+		page.setHasMore(rows.size() > pageSize);
+		page.setItems(page.isHasMore() ? new ArrayList<>(rows.subList(0, pageSize)) : rows);
+		if (page.isHasMore()) {
+			TicketSummaryDto last = page.getItems().get(pageSize - 1);
+			page.setNextCursor(TicketCursor.after(last.getCreatedDate(), last.getId()).encode());
+		}
+		return page;
+	}
+
+	// Returns an empty page, used when there is no authenticated user to scope the query to
+	public CursorPage<TicketSummaryDto> empty(Integer size) {
+		CursorPage<TicketSummaryDto> page = new CursorPage<>();
+		page.setItems(List.of());
+		page.setSize(resolveSize(size));
+		return page;
+	}
+
+	// Runs the same query from the first row, for the deprecated unpaged endpoints; capped at the unpaged maximum
+	public List<TicketSummaryDto> unpaged(KeysetQuery query) {
+		return query.fetch(TicketCursor.FIRST.getCreatedDate(), TicketCursor.FIRST.getId(), Limit.of(unpagedMaxSize));
+	}
+
+	// The most rows a deprecated unpaged endpoint returns
+	public int unpagedMaxSize() {
+		return unpagedMaxSize;
+	}
+
+	// Falls back to the default size when none is requested and caps it at the configured maximum
+	public int resolveSize(Integer size) {
+		if (size == null) {
+			return defaultSize;
+		}
+		if (size < 1) {
+			throw new IllegalArgumentException("Page size must be at least 1");
+		}
+		return Math.min(size, maxSize);
+	}
+}
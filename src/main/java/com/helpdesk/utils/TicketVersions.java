@@ -0,0 +1,52 @@
+package com.helpdesk.utils;
+
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import com.helpdesk.dto.TicketSetVersion;
+import com.helpdesk.entities.Ticket;
+
+/**
+ * Turns ticket versions into HTTP entity tags and back.
+ * A single ticket is tagged with its ID and version; a ticket list with the fingerprint of the tickets it is drawn from.
+ * Update endpoints accept the tag of the ticket as {@code If-Match} and are rejected if the ticket has changed since.
+ */
+public final class TicketVersions {
+
+	private TicketVersions() {
+	}
+
+	// Entity tag of one ticket
+	public static String eTag(Long ticketId, Long version) {
+		return "\"" + ticketId + "-" + version + "\"";
+	}
+
+	// Entity tag of a ticket list
+	public static String eTag(TicketSetVersion set) {
+		long lastModified = set.getLastModified() != null ? set.getLastModified().getTime() : 0;
+		return "\"" + set.getCount() + "-" + set.getMaxId() + "-" + set.getVersionSum() + "-" + Long.toString(lastModified, 36) + "\"";
+	}
+
+	// Version the client expects the ticket to have, from an If-Match header; null (no check) when the header is absent or "*"
+	public static Long expectedVersion(String ifMatch, Long ticketId) {
+		if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+			return null;
+		}
+		String tag = ifMatch.trim();
+		String prefix = "\"" + ticketId + "-";
+		if (!tag.startsWith(prefix) || !tag.endsWith("\"") || tag.length() <= prefix.length() + 1) {
+			throw new IllegalArgumentException("If-Match must be the ETag of ticket " + ticketId + ", got: " + ifMatch);
+		}
+		try {
+			return Long.parseLong(tag.substring(prefix.length(), tag.length() - 1));
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("If-Match must be the ETag of ticket " + ticketId + ", got: " + ifMatch);
+		}
+	}
+
+	// Rejects an update made against an older version of the ticket; a null expected version skips the check
+	public static void check(Ticket ticket, Long expectedVersion) {
+		if (expectedVersion != null && !expectedVersion.equals(ticket.getVersion())) {
+			throw new ObjectOptimisticLockingFailureException(Ticket.class, ticket.getId());
+		}
+	}
+}
@@ -0,0 +1,50 @@
+package com.helpdesk.utils;
+
+import java.time.Instant;
+
+import org.springframework.security.core.userdetails.UserDetails;
+
+import com.helpdesk.config.AuthenticatedUser;
+import com.helpdesk.enums.UserRole;
+
+import io.jsonwebtoken.Claims;
+import lombok.Getter;
+
+/**
+ * A JWT whose signature and expiry have been checked, with the claims the application uses.
+ * Immutable, so one instance can be shared by every request that presents the same token.
+ */
+@Getter
+public final class VerifiedToken {
+
+	// Username the token was issued to
+	private final String subject;
+
+	// Moment the token stops being valid
+	private final Instant expiresAt;
+
+	// Identity embedded in the token (null for tokens issued without identity claims)
+	private final AuthenticatedUser principal;
+
+	private VerifiedToken(String subject, Instant expiresAt, AuthenticatedUser principal) {
+		this.subject = subject;
+		this.expiresAt = expiresAt;
+		this.principal = principal;
+	}
+
+	// Reads the application's claims from a verified token body
+	static VerifiedToken from(Claims claims) {
+		Long userId = claims.get(JwtUtil.USER_ID_CLAIM, Long.class);
+		String role = claims.get(JwtUtil.ROLE_CLAIM, String.class);
+		AuthenticatedUser principal = userId != null && role != null
+				? new AuthenticatedUser(userId, claims.getSubject(), UserRole.valueOf(role),
+						claims.get(JwtUtil.DEPARTMENT_ID_CLAIM, Long.class))
+				: null;
+		return new VerifiedToken(claims.getSubject(), claims.getExpiration().toInstant(), principal);
+	}
+
+	// Checks that the token was issued to the given user
+	public boolean belongsTo(UserDetails userDetails) {
+		return subject.equals(userDetails.getUsername());
+	}
+}
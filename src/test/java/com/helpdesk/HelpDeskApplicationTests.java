@@ -2,8 +2,11 @@ package com.helpdesk;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
 
-@SpringBootTest
+// A context of its own, so a database of its own: a new context recreates its schema and ID generator table
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:context-loads;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;NON_KEYWORDS=USER")
+@ActiveProfiles("test")
 class HelpDeskApplicationTests {
 
 	@Test
@@ -0,0 +1,100 @@
+package com.helpdesk.benchmark;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+
+import com.helpdesk.entities.Comment;
+import com.helpdesk.entities.Department;
+import com.helpdesk.entities.Ticket;
+import com.helpdesk.entities.User;
+import com.helpdesk.enums.Priority;
+import com.helpdesk.enums.Status;
+import com.helpdesk.enums.UserRole;
+
+/**
+ * Detached entities shaped like production data, shared by the benchmarks.
+ * Texts have realistic lengths; creation times are shuffled so sorts have work to do.
+ */
+final class BenchmarkData {
+
+	private BenchmarkData() {
+	}
+
+	// Tickets spread over a few customers, agents and departments, each with the given number of comments
+	static List<Ticket> tickets(int count, int commentsPerTicket, long seed) {
+		Random random = new Random(seed);
+		List<Department> departments = List.of(department(1, "Billing"), department(2, "Technical Support"), department(3, "Accounts"));
+		List<User> customers = new ArrayList<>();
+		List<User> agents = new ArrayList<>();
+		for (int i = 0; i < 20; i++) {
+			customers.add(user(100 + i, "customer-" + i, UserRole.CUSTOMER, null));
+		}
+		for (int i = 0; i < 6; i++) {
+			agents.add(user(200 + i, "agent-" + i, UserRole.AGENT, departments.get(i % departments.size())));
+		}
+
+		long now = System.currentTimeMillis();
+		List<Ticket> tickets = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			User agent = i % 4 == 0 ? null : agents.get(random.nextInt(agents.size()));
+			Ticket ticket = new Ticket();
+			ticket.setId(1000L + i);
+			ticket.setTitle("Cannot download invoice " + i + " from the billing portal");
+			ticket.setDescription(text(random, 400));
+			ticket.setCreatedDate(new Date(now - random.nextInt(90 * 24 * 3600) * 1000L));
+			ticket.setPriority(Priority.values()[random.nextInt(Priority.values().length)]);
+			ticket.setStatus(agent == null ? Status.PENDING : Status.INPROGRESS);
+			ticket.setVersion((long) random.nextInt(5));
+			ticket.setLastModified(ticket.getCreatedDate());
+			ticket.setCustomer(customers.get(random.nextInt(customers.size())));
+			ticket.setAssignedAgent(agent);
+			ticket.setDepartment(agent != null ? agent.getDepartment() : departments.get(random.nextInt(departments.size())));
+
+			List<Comment> comments = new ArrayList<>(commentsPerTicket);
+			for (int c = 0; c < commentsPerTicket; c++) {
+				Comment comment = new Comment();
+				comment.setId(100_000L * i + c);
+				comment.setBody(text(random, 200));
+				comment.setCreatedAt(new Date(ticket.getCreatedDate().getTime() + c * 60_000L));
+				comment.setTicket(ticket);
+				comment.setUser(c % 2 == 0 || agent == null ? ticket.getCustomer() : agent);
+				comments.add(comment);
+			}
+			ticket.setComments(comments);
+			tickets.add(ticket);
+		}
+		return tickets;
+	}
+
+	private static Department department(long id, String name) {
+		Department department = new Department(name);
+		department.setId(id);
+		return department;
+	}
+
+	private static User user(long id, String userName, UserRole role, Department department) {
+		User user = new User();
+		user.setId(id);
+		user.setUserName(userName);
+		user.setEmail(userName + "@bench.test");
+		user.setFullName("Full name of " + userName);
+		user.setUserRole(role);
+		user.setDepartment(department);
+		return user;
+	}
+
+	// Words of plausible length up to roughly the given number of characters
+	private static String text(Random random, int length) {
+		StringBuilder text = new StringBuilder(length + 10);
+		while (text.length() < length) {
+			int word = 2 + random.nextInt(8);
+			for (int i = 0; i < word; i++) {
+				text.append((char) ('a' + random.nextInt(26)));
+			}
+			text.append(' ');
+		}
+		return text.toString();
+	}
+}
@@ -0,0 +1,126 @@
+package com.helpdesk.benchmark;
+
+import java.security.Key;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.helpdesk.config.JwtAuthenticationFilter;
+import com.helpdesk.entities.Department;
+import com.helpdesk.entities.User;
+import com.helpdesk.enums.UserRole;
+import com.helpdesk.utils.JwtUtil;
+import com.helpdesk.utils.VerifiedToken;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Cost of authenticating one request from its bearer token.
+ * {@code legacyTripleParse} repeats what the filter used to do per request (decode the key, build a parser and
+ * parse the token three times; the user lookup that followed is left out). The filter benchmarks run the real
+ * filter with the verified-token cache off and on; {@code generateToken} and {@code verify} measure JwtUtil alone
+ * (token issue at login, and the signature check plus claim extraction that replaced extractUserName/isTokenValid).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtFilterBenchmark {
+
+	private static final String LEGACY_KEY = "413F442847284862506553685660597033733676397924422645294848406351";
+
+	private String token;
+	private User user;
+	private JwtUtil uncached;
+	private MockHttpServletRequest request;
+	private JwtAuthenticationFilter uncachedFilter;
+	private JwtAuthenticationFilter cachedFilter;
+
+	@Setup
+	public void setUp() {
+		Department department = new Department("Benchmark");
+		department.setId(3L);
+		user = new User();
+		user.setId(42L);
+		user.setUserName("bench-agent");
+		user.setUserRole(UserRole.AGENT);
+		user.setDepartment(department);
+
+		uncached = new JwtUtil(false, 0, new SimpleMeterRegistry());
+		token = uncached.generateToken(user);
+		uncachedFilter = new JwtAuthenticationFilter(uncached, null);
+		cachedFilter = new JwtAuthenticationFilter(new JwtUtil(true, 10_000, new SimpleMeterRegistry()), null);
+
+		request = new MockHttpServletRequest("GET", "/api/agent/tickets");
+		request.addHeader("Authorization", "Bearer " + token);
+	}
+
+	@Benchmark
+	public boolean legacyTripleParse() {
+		String userName = legacyClaims(token).getSubject(); // extractUserName
+		boolean sameUser = legacyClaims(token).getSubject().equals(userName); // isTokenValid -> extractUserName
+		boolean notExpired = !legacyClaims(token).getExpiration().before(new Date()); // isTokenValid -> isTokenExpired
+		return sameUser && notExpired;
+	}
+
+	@Benchmark
+	public String generateToken() {
+		return uncached.generateToken(user);
+	}
+
+	@Benchmark
+	public VerifiedToken verify() {
+		return uncached.verify(token);
+	}
+
+	@Benchmark
+	public Authentication filterUncached() throws Exception {
+		return authenticate(uncachedFilter);
+	}
+
+	@Benchmark
+	public Authentication filterCached() throws Exception {
+		return authenticate(cachedFilter);
+	}
+
+	// Runs the filter once and returns the authentication it established
+	private Authentication authenticate(JwtAuthenticationFilter filter) throws Exception {
+		SecurityContextHolder.clearContext();
+		filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+		return SecurityContextHolder.getContext().getAuthentication();
+	}
+
+	// Parses the token the way JwtUtil did before the key and parser were built once
+	private static Claims legacyClaims(String token) {
+		Key key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(LEGACY_KEY));
+		return Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody();
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(JwtFilterBenchmark.class.getSimpleName()).build()).run();
+	}
+}
@@ -0,0 +1,120 @@
+package com.helpdesk.benchmark;
+
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.helpdesk.enums.Priority;
+import com.helpdesk.enums.Status;
+
+/**
+ * Tickets inserted per second (the score is in ops/s, one op = one ticket), persisting 500 tickets per transaction.
+ * {@code IDENTITY} is the old auto-increment mapping, which forces one INSERT round trip per ticket;
+ * {@code POOLED} is the current table generator mapping with the application's batching settings.
+ * Both use an in-memory H2 database and copies of Ticket's columns (references as plain ID columns), so the
+ * numbers isolate key generation and batching; against MySQL over a network the gap is larger.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TicketInsertBenchmark {
+
+	private static final int TICKETS_PER_TRANSACTION = 500;
+
+	@Param({ "IDENTITY", "POOLED" })
+	public String strategy;
+
+	private SessionFactory sessionFactory;
+
+	@Setup
+	public void setUp() {
+		StandardServiceRegistry registry = new StandardServiceRegistryBuilder()
+				.applySetting("hibernate.connection.url", "jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1")
+				.applySetting("hibernate.hbm2ddl.auto", "create")
+				.applySetting("hibernate.search.enabled", "false")
+				// Same as application.properties
+				.applySetting("hibernate.jdbc.batch_size", "50")
+				.applySetting("hibernate.order_inserts", "true")
+				.applySetting("hibernate.order_updates", "true")
+				.applySetting("hibernate.id.optimizer.pooled.preferred", "pooled-lo")
+				.build();
+		sessionFactory = new MetadataSources(registry)
+				.addResource("benchmark/ticket-insert-orm.xml")
+				.buildMetadata()
+				.buildSessionFactory();
+	}
+
+	@TearDown
+	public void tearDown() {
+		sessionFactory.close();
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(TICKETS_PER_TRANSACTION)
+	public void insertTickets() {
+		try (Session session = sessionFactory.openSession()) {
+			session.beginTransaction();
+			for (int i = 0; i < TICKETS_PER_TRANSACTION; i++) {
+				BenchTicket ticket = "IDENTITY".equals(strategy) ? new IdentityTicket() : new PooledTicket();
+				ticket.title = "Printer on floor " + i + " is jammed";
+				ticket.description = "Paper stuck in tray two, error code E" + i;
+				ticket.createdDate = new Date();
+				ticket.priority = Priority.MEDIUM;
+				ticket.status = Status.PENDING;
+				ticket.customerId = 1L;
+				ticket.departmentId = 1L;
+				session.persist(ticket);
+			}
+			session.getTransaction().commit();
+		}
+	}
+
+	// Ticket's columns without its associations (mapped in benchmark/ticket-insert-orm.xml)
+	public abstract static class BenchTicket {
+		String title;
+		String description;
+		Date createdDate;
+		Priority priority;
+		Status status;
+		Long customerId;
+		Long assignedAgentId;
+		Long departmentId;
+	}
+
+	public static class IdentityTicket extends BenchTicket {
+		Long id;
+	}
+
+	public static class PooledTicket extends BenchTicket {
+		Long id;
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(TicketInsertBenchmark.class.getSimpleName()).build()).run();
+	}
+}
@@ -0,0 +1,92 @@
+package com.helpdesk.benchmark;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.helpdesk.dto.TicketDto;
+import com.helpdesk.dto.TicketSummaryDto;
+import com.helpdesk.entities.Ticket;
+
+/**
+ * CPU cost of producing a ticket list response once the rows are loaded.
+ * {@code legacySortAndMap} is what the list endpoints did before keyset pagination: sort every ticket by
+ * creation date in memory and map each one, comments included, to a TicketDto. The list endpoints now get
+ * sorted TicketSummaryDto rows from the database, so only serialization remains; both serializations are measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TicketListBenchmark {
+
+	private static final int COMMENTS_PER_TICKET = 5;
+
+	@Param({ "20", "100", "1000" })
+	public int tickets;
+
+	private List<Ticket> entities;
+	private List<TicketDto> ticketDtos;
+	private List<TicketSummaryDto> summaries;
+	private ObjectMapper objectMapper;
+
+	@Setup
+	public void setUp() {
+		entities = BenchmarkData.tickets(tickets, COMMENTS_PER_TICKET, 7);
+		ticketDtos = entities.stream().map(Ticket::getTicketDto).toList();
+		summaries = entities.stream().map(TicketListBenchmark::summary).toList();
+		objectMapper = Jackson2ObjectMapperBuilder.json().build(); // Same defaults as the MVC message converter
+	}
+
+	@Benchmark
+	public List<TicketDto> legacySortAndMap() {
+		return new ArrayList<>(entities).stream()
+				.sorted(Comparator.comparing(Ticket::getCreatedDate).reversed())
+				.map(Ticket::getTicketDto)
+				.collect(Collectors.toList());
+	}
+
+	@Benchmark
+	public byte[] serializeTicketDtos() throws Exception {
+		return objectMapper.writeValueAsBytes(ticketDtos);
+	}
+
+	@Benchmark
+	public byte[] serializeSummaries() throws Exception {
+		return objectMapper.writeValueAsBytes(summaries);
+	}
+
+	// The row the list queries select for a ticket
+	private static TicketSummaryDto summary(Ticket t) {
+		return new TicketSummaryDto(t.getId(), t.getTitle(), t.getCreatedDate(), t.getPriority(), t.getStatus(),
+				t.getCustomer().getId(), t.getCustomer().getUsername(),
+				t.getAssignedAgent() != null ? t.getAssignedAgent().getId() : null,
+				t.getAssignedAgent() != null ? t.getAssignedAgent().getUsername() : null,
+				t.getDepartment().getId(), t.getDepartment().getName(), (long) t.getComments().size());
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(TicketListBenchmark.class.getSimpleName()).build()).run();
+	}
+}
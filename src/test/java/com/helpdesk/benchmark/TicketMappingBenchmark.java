@@ -0,0 +1,63 @@
+package com.helpdesk.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.helpdesk.dto.CommentDto;
+import com.helpdesk.dto.TicketDto;
+import com.helpdesk.entities.Comment;
+import com.helpdesk.entities.Ticket;
+
+/**
+ * Cost of turning a loaded ticket into the DTO returned by the single-ticket endpoints.
+ * {@link Ticket#getTicketDto()} maps every comment, so the cost grows with the comment count;
+ * the entities are fully initialised, so no lazy loading is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TicketMappingBenchmark {
+
+	@Param({ "0", "10", "100" })
+	public int comments;
+
+	private Ticket ticket;
+
+	@Setup
+	public void setUp() {
+		ticket = BenchmarkData.tickets(1, comments, 42).get(0);
+	}
+
+	@Benchmark
+	public TicketDto ticketDto() {
+		return ticket.getTicketDto();
+	}
+
+	// Comment#getCommentDto for each comment, as the comment endpoint returns them
+	@Benchmark
+	public List<CommentDto> commentDtos() {
+		return ticket.getComments().stream().map(Comment::getCommentDto).toList();
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(TicketMappingBenchmark.class.getSimpleName()).build()).run();
+	}
+}
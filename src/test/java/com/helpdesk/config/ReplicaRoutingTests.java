@@ -0,0 +1,126 @@
+package com.helpdesk.config;
+
+import static com.helpdesk.support.TestData.ticket;
+import static com.helpdesk.support.TestData.user;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.helpdesk.dto.DepartmentDto;
+import com.helpdesk.entities.Department;
+import com.helpdesk.entities.User;
+import com.helpdesk.enums.UserRole;
+import com.helpdesk.repositories.DepartmentRepository;
+import com.helpdesk.repositories.TicketRepository;
+import com.helpdesk.repositories.UserRepository;
+import com.helpdesk.services.admin.DepartmentCache;
+import com.helpdesk.utils.JwtUtil;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Routing of real requests with one replica configured. H2 does not replicate, so the replica pool opens the
+ * primary's database; which pool served a request is read from the helpdesk.jdbc.routed counters.
+ */
+@SpringBootTest(properties = {
+		"spring.datasource.url=" + ReplicaRoutingTests.DATABASE,
+		"helpdesk.datasource.replicas=" + ReplicaRoutingTests.DATABASE,
+		"helpdesk.datasource.read-your-writes=" + ReplicaRoutingTests.STICKINESS_MILLIS + "ms" })
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ReplicaRoutingTests {
+
+	static final String DATABASE = "jdbc:h2:mem:routing;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;NON_KEYWORDS=USER";
+	static final long STICKINESS_MILLIS = 500;
+
+	@Autowired private MockMvc mockMvc;
+	@Autowired private JwtUtil jwtUtil;
+	@Autowired private MeterRegistry meterRegistry;
+	@Autowired private UserRepository userRepository;
+	@Autowired private DepartmentRepository departmentRepository;
+	@Autowired private TicketRepository ticketRepository;
+	@Autowired private DepartmentCache departmentCache;
+	@Autowired private PlatformTransactionManager transactionManager;
+
+	@Test
+	void listFilterAndStatsReadsGoToTheReplica() throws Exception {
+		Department department = departmentRepository.save(new Department("Routing list department"));
+		User customer = userRepository.save(user("routing-list-customer", UserRole.CUSTOMER));
+		ticketRepository.save(ticket("Routed to the replica", customer, department));
+		String token = jwtUtil.generateToken(customer);
+
+		for (String path : List.of("/api/customer/ticketsCreated?size=10", "/api/customer/tickets/status/PENDING?size=10",
+				"/api/customer/stats")) {
+			double replica = routed("replica-1");
+			double primary = routed("primary");
+			MockHttpServletResponse response = mockMvc.perform(get(path).header("Authorization", "Bearer " + token))
+					.andReturn().getResponse();
+			assertEquals(200, response.getStatus(), path);
+			assertTrue(response.getContentAsString().contains(path.contains("stats") ? "\"total\":1" : "Routed to the replica"), path);
+			assertTrue(routed("replica-1") > replica, path + " read from the replica");
+			assertEquals(primary, routed("primary"), path + " did not touch the primary");
+		}
+	}
+
+	@Test
+	void writersReadTheirWritesFromThePrimary() throws Exception {
+		departmentRepository.save(new Department("Routing writer department"));
+		departmentCache.invalidate(); // Saved behind the service's back
+		String token = jwtUtil.generateToken(userRepository.save(user("routing-writer", UserRole.CUSTOMER)));
+
+		assertEquals(201, mockMvc.perform(post("/api/customer/ticket").header("Authorization", "Bearer " + token)
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"title\":\"Written\",\"description\":\"Read back\",\"priority\":\"LOW\",\"departmentName\":\"Routing writer department\"}"))
+				.andReturn().getResponse().getStatus());
+
+		double replica = routed("replica-1");
+		String list = mockMvc.perform(get("/api/customer/ticketsCreated?size=10").header("Authorization", "Bearer " + token))
+				.andReturn().getResponse().getContentAsString();
+		assertTrue(list.contains("Written"));
+		assertEquals(replica, routed("replica-1"), "Within the window the writer reads from the primary");
+
+		Thread.sleep(STICKINESS_MILLIS + 200);
+		mockMvc.perform(get("/api/customer/ticketsCreated?size=10").header("Authorization", "Bearer " + token));
+		assertTrue(routed("replica-1") > replica, "Stickiness ends after the window");
+	}
+
+	@Test
+	void departmentCacheReloadsFromThePrimary() {
+		TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+		readOnly.setReadOnly(true);
+		departmentRepository.save(new Department("Routing new department"));
+		departmentCache.invalidate();
+
+		// Even from inside a read-only transaction that already holds a replica connection
+		double primary = routed("primary");
+		double replica = routed("replica-1");
+		List<DepartmentDto> departments = readOnly.execute(status -> {
+			ticketRepository.count();
+			return departmentCache.getAll();
+		});
+		assertTrue(departments.stream().anyMatch(d -> d.getName().equals("Routing new department")));
+		assertEquals(replica + 1, routed("replica-1"), "Only the caller's own query went to the replica");
+		assertEquals(primary + 1, routed("primary"), "The department table was read from the primary");
+	}
+
+	// Connections routed to a target so far
+	private double routed(String target) {
+		Counter counter = meterRegistry.find(ReplicaRoutingDataSource.METRIC).tag("target", target).counter();
+		return counter == null ? 0 : counter.count();
+	}
+}
@@ -0,0 +1,129 @@
+package com.helpdesk.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * The connection limit and the pinning report used when requests run on virtual threads.
+ */
+class VirtualThreadSafeguardTests {
+
+	private final Object lock = new Object();
+
+	@Test
+	void connectionsAreHeldByAtMostThePermittedThreads() throws Exception {
+		ConnectionLimitingDataSource dataSource = new ConnectionLimitingDataSource(h2(), 2, Duration.ofSeconds(10));
+		AtomicInteger holding = new AtomicInteger();
+		AtomicInteger mostHolding = new AtomicInteger();
+
+		try (ExecutorService threads = Executors.newVirtualThreadPerTaskExecutor()) {
+			List<Future<?>> done = new ArrayList<>();
+			for (int i = 0; i < 16; i++) {
+				done.add(threads.submit(() -> {
+					try (Connection connection = dataSource.getConnection();
+							Connection nested = dataSource.getConnection()) { // A thread's second connection needs no permit
+						mostHolding.accumulateAndGet(holding.incrementAndGet(), Math::max);
+						Thread.sleep(20);
+						holding.decrementAndGet();
+					}
+					return null;
+				}));
+			}
+			for (Future<?> future : done) {
+				future.get();
+			}
+		}
+		assertEquals(2, mostHolding.get());
+		assertEquals(2, dataSource.getAvailable(), "Every permit must be returned");
+	}
+
+	@Test
+	void waitingForAConnectionTimesOut() throws Exception {
+		ConnectionLimitingDataSource dataSource = new ConnectionLimitingDataSource(h2(), 1, Duration.ofMillis(100));
+		try (Connection held = dataSource.getConnection();
+				ExecutorService threads = Executors.newVirtualThreadPerTaskExecutor()) {
+			Future<?> waiting = threads.submit(() -> {
+				dataSource.getConnection().close();
+				return null;
+			});
+			Exception e = assertThrows(Exception.class, waiting::get);
+			assertTrue(e.getCause() instanceof SQLTransientConnectionException, e.getCause().toString());
+		}
+	}
+
+	@Test
+	void connectionsClosedByAnotherThreadReturnTheirPermit() throws Exception {
+		ConnectionLimitingDataSource dataSource = new ConnectionLimitingDataSource(h2(), 1, Duration.ofMillis(100));
+		try (ExecutorService threads = Executors.newVirtualThreadPerTaskExecutor()) {
+			for (int i = 0; i < 100; i++) {
+				Connection opened = dataSource.getConnection();
+				Future<?> closing = threads.submit(() -> {
+					opened.close();
+					return null;
+				});
+				dataSource.getConnection().close(); // Races the close on the other thread
+				closing.get();
+				assertEquals(1, dataSource.getAvailable(), "Every permit must be returned");
+			}
+		}
+	}
+
+	@Test
+	void pinnedVirtualThreadsAreCounted() throws Exception {
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		PinnedThreadMonitor monitor = new PinnedThreadMonitor(registry, Duration.ZERO);
+		monitor.start();
+		try {
+			Thread.ofVirtual().start(this::sleepHoldingMonitor).join();
+			long deadline = System.nanoTime() + Duration.ofSeconds(15).toNanos();
+			while (pinnedHere(registry) == 0 && System.nanoTime() < deadline) {
+				Thread.sleep(100); // JFR streams events in batches about once a second
+			}
+			assertTrue(pinnedHere(registry) > 0, "No pinning reported: " + registry.getMetersAsString());
+		} finally {
+			monitor.stop();
+		}
+	}
+
+	// Blocks inside synchronized, which keeps a virtual thread on its carrier on Java 21
+	private void sleepHoldingMonitor() {
+		synchronized (lock) {
+			try {
+				Thread.sleep(50);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	private static double pinnedHere(SimpleMeterRegistry registry) {
+		return registry.find(PinnedThreadMonitor.METRIC).counters().stream()
+				.filter(counter -> counter.getId().getTag("site").startsWith(VirtualThreadSafeguardTests.class.getName()))
+				.mapToDouble(Counter::count)
+				.sum();
+	}
+
+	private static JdbcDataSource h2() {
+		JdbcDataSource dataSource = new JdbcDataSource();
+		dataSource.setURL("jdbc:h2:mem:virtual-threads;DB_CLOSE_DELAY=-1");
+		dataSource.setUser("sa");
+		return dataSource;
+	}
+}
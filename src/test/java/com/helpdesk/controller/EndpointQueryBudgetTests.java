@@ -0,0 +1,343 @@
+package com.helpdesk.controller;
+
+import static com.helpdesk.support.TestData.ticket;
+import static com.helpdesk.support.TestData.user;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.request;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import com.helpdesk.entities.Comment;
+import com.helpdesk.entities.Department;
+import com.helpdesk.entities.Ticket;
+import com.helpdesk.entities.User;
+import com.helpdesk.enums.Priority;
+import com.helpdesk.enums.Status;
+import com.helpdesk.enums.UserRole;
+import com.helpdesk.repositories.CommentRepository;
+import com.helpdesk.repositories.DepartmentRepository;
+import com.helpdesk.repositories.TicketRepository;
+import com.helpdesk.repositories.UserRepository;
+import com.helpdesk.services.admin.DepartmentCache;
+import com.helpdesk.support.SqlCapture;
+import com.helpdesk.utils.JwtUtil;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Statement budget for every API endpoint.
+ * Each endpoint is called once against a seeded dataset (many customers, agents, departments, tickets and comments,
+ * so lazy associations walked per row would show up as extra statements), and the SQL it sends must stay within
+ * the budget listed here. Budgets are set to today's counts: a change that makes an endpoint chattier fails the
+ * build, and one that makes it cheaper should lower the budget. A guard test requires a budget for every endpoint.
+ */
+@Slf4j
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Import(SqlCapture.Config.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class EndpointQueryBudgetTests {
+
+	private static final int CUSTOMERS = 6;
+	private static final int AGENTS = 4;
+	private static final int TICKETS = 160;
+	private static final int PAGE = 100;
+
+	// Endpoints without a budget, and why
+	private static final Map<String, String> EXEMPT = Map.of(
+			"GET /api/events", "Server-Sent Events stream; opening it runs no query",
+			"POST /api/admin/tickets/import", "Bulk import; statements grow with the upload by design and are batched",
+			"GET /api/admin/tickets/export/{format}", "Streamed export; one cursor query written out asynchronously",
+			"DELETE /api/admin/customers/{customerId}", "Starts a background purge job whose statements race with the count",
+			"GET /api/admin/jobs/{jobId}", "Reads an in-memory job registry");
+
+	@Autowired private MockMvc mockMvc;
+	@Autowired private SqlCapture sqlCapture;
+	@Autowired private JwtUtil jwtUtil;
+	@Autowired private UserRepository userRepository;
+	@Autowired private DepartmentRepository departmentRepository;
+	@Autowired private TicketRepository ticketRepository;
+	@Autowired private CommentRepository commentRepository;
+	@Autowired private DepartmentCache departmentCache;
+	@Autowired private PasswordEncoder passwordEncoder;
+	@Autowired @Qualifier("requestMappingHandlerMapping") private RequestMappingHandlerMapping handlerMapping;
+
+	private final List<Department> departments = new ArrayList<>();
+	private final List<User> customers = new ArrayList<>();
+	private final List<User> agents = new ArrayList<>();
+	private String adminToken;
+	private String customerToken;
+	private String agentToken;
+
+	// Tickets and departments set aside for the endpoints that change or delete them
+	private Ticket shownTicket;
+	private Ticket unassignedTicket;
+	private Ticket claimableTicket;
+	private Ticket closableTicket;
+	private Ticket deletableTicket;
+	private Ticket reprioritisedTicket;
+	private Ticket resolvableTicket;
+	private Department renamedDepartment;
+	private Department deletableDepartment;
+	private User deletableAgent;
+
+	/**
+	 * One call of an endpoint and the most statements it may issue.
+	 */
+	record Budget(HttpMethod method, String pattern, String url, String token, String body, int maxStatements) {
+
+		String endpoint() {
+			return method.name() + " " + pattern;
+		}
+
+		@Override
+		public String toString() {
+			return endpoint() + " <= " + maxStatements;
+		}
+	}
+
+	@BeforeAll
+	void seed() {
+		sqlCapture.withoutRecording(() -> {
+			for (int i = 0; i < 3; i++) {
+				departments.add(departmentRepository.save(new Department("Budget department " + i)));
+			}
+			for (int i = 0; i < CUSTOMERS; i++) {
+				customers.add(userRepository.save(user("budget-customer-" + i, UserRole.CUSTOMER, null)));
+			}
+			for (int i = 0; i < AGENTS; i++) {
+				agents.add(userRepository.save(user("budget-agent-" + i, UserRole.AGENT, departments.get(i % departments.size()))));
+			}
+			User admin = user("budget-admin", UserRole.ADMIN, null);
+			admin.setPassword(passwordEncoder.encode("secret")); // Used to log in
+			admin = userRepository.save(admin);
+			adminToken = jwtUtil.generateToken(admin);
+			customerToken = jwtUtil.generateToken(customers.get(0));
+			agentToken = jwtUtil.generateToken(agents.get(0));
+
+			// The first customer owns most tickets; every fifth ticket is still waiting for an agent
+			List<Ticket> tickets = new ArrayList<>();
+			for (int i = 0; i < TICKETS; i++) {
+				User agent = i % 5 == 0 ? null : agents.get(i % AGENTS);
+				Ticket t = new Ticket();
+				t.setTitle("Budget ticket " + i);
+				t.setDescription("Seeded for statement budgets");
+				t.setCreatedDate(new Date(System.currentTimeMillis() - i * 1000L));
+				t.setPriority(Priority.values()[i % Priority.values().length]);
+				t.setStatus(agent == null ? Status.PENDING : Status.INPROGRESS);
+				t.setCustomer(i < 110 ? customers.get(0) : customers.get(1 + i % (CUSTOMERS - 1)));
+				t.setAssignedAgent(agent);
+				t.setDepartment(agent == null ? departments.get(i % departments.size()) : agent.getDepartment());
+				tickets.add(t);
+			}
+			tickets = ticketRepository.saveAll(tickets);
+
+			List<Comment> comments = new ArrayList<>();
+			for (Ticket t : tickets) {
+				for (int c = 0; c < 3; c++) {
+					Comment comment = new Comment();
+					comment.setBody("Budget comment " + c + " on " + t.getTitle());
+					comment.setCreatedAt(new Date());
+					comment.setTicket(t);
+					comment.setUser(c % 2 == 0 ? t.getCustomer() : t.getAssignedAgent() != null ? t.getAssignedAgent() : agents.get(c % AGENTS));
+					comments.add(comment);
+				}
+			}
+			commentRepository.saveAll(comments);
+
+			shownTicket = tickets.get(4); // Customer 0, agent 0
+			unassignedTicket = tickets.get(5);
+			claimableTicket = tickets.get(10);
+			closableTicket = tickets.get(12);
+			resolvableTicket = tickets.get(8); // Agent 0
+			reprioritisedTicket = tickets.get(16); // Agent 0
+			deletableTicket = ticketRepository.save(ticket("Budget ticket to delete", customers.get(0), departments.get(0)));
+			renamedDepartment = departmentRepository.save(new Department("Budget department to rename"));
+			deletableDepartment = departmentRepository.save(new Department("Budget department to delete"));
+			deletableAgent = userRepository.save(user("budget-agent-to-delete", UserRole.AGENT, departments.get(1)));
+			Ticket agentTicket = ticket("Budget ticket of a deleted agent", customers.get(1), departments.get(1));
+			agentTicket.setAssignedAgent(deletableAgent);
+			agentTicket.setStatus(Status.INPROGRESS);
+			ticketRepository.save(agentTicket);
+		});
+		departmentCache.invalidate(); // Departments were saved directly
+	}
+
+	Stream<Budget> budgets() {
+		String size = "?size=" + PAGE;
+		Long shown = shownTicket.getId();
+		String department = departments.get(0).getName();
+		return Stream.of(
+				// Authentication
+				post("/api/auth/login", null, "{\"userName\":\"budget-admin\",\"password\":\"secret\"}", 3),
+				post("/api/auth/signup", null, "{\"userName\":\"budget-signup\",\"email\":\"budget-signup@budget.test\","
+						+ "\"password\":\"secret\",\"fullName\":\"Budget signup\"}", 3),
+
+				// Customer
+				get("/api/customer/ticketsCreated", "/api/customer/ticketsCreated" + size, customerToken, 2),
+				get("/api/customer/ticket/{id}", "/api/customer/ticket/" + shown, customerToken, 2),
+				get("/api/customer/tickets/search/{title}", "/api/customer/tickets/search/Budget" + size, customerToken, 1),
+				get("/api/customer/tickets/priority/{priority}", "/api/customer/tickets/priority/HIGH" + size, customerToken, 1),
+				get("/api/customer/tickets/status/{status}", "/api/customer/tickets/status/INPROGRESS" + size, customerToken, 1),
+				get("/api/customer/tickets/department/{name}", "/api/customer/tickets/department/" + department + size, customerToken, 1),
+				get("/api/customer/departments", "/api/customer/departments", customerToken, 1),
+				get("/api/customer/stats", "/api/customer/stats", customerToken, 1),
+				post("/api/customer/ticket", customerToken, "{\"title\":\"Budget new ticket\",\"description\":\"Created by the budget test\","
+						+ "\"priority\":\"LOW\",\"departmentName\":\"" + department + "\"}", 2),
+				budget(HttpMethod.PUT, "/api/customer/tickets/{ticketId}/status",
+						"/api/customer/tickets/" + closableTicket.getId() + "/status?status=CLOSED", customerToken, null, 2),
+				budget(HttpMethod.DELETE, "/api/customer/ticket/{id}", "/api/customer/ticket/" + deletableTicket.getId(), customerToken, null, 3),
+
+				// Agent, all tickets
+				get("/api/agent/tickets", "/api/agent/tickets" + size, agentToken, 1),
+				get("/api/agent/ticket/{id}", "/api/agent/ticket/" + shown, agentToken, 2),
+				get("/api/agent/tickets/search/{title}", "/api/agent/tickets/search/Budget" + size, agentToken, 1),
+				get("/api/agent/tickets/priority/{priority}", "/api/agent/tickets/priority/HIGH" + size, agentToken, 1),
+				get("/api/agent/tickets/status/{status}", "/api/agent/tickets/status/PENDING" + size, agentToken, 1),
+				get("/api/agent/tickets/department/{name}", "/api/agent/tickets/department/" + department + size, agentToken, 1),
+				get("/api/agent/departments", "/api/agent/departments", agentToken, 0),
+				get("/api/agent/stats", "/api/agent/stats", agentToken, 2),
+				budget(HttpMethod.PUT, "/api/agent/tickets/{ticketId}/assign", "/api/agent/tickets/" + claimableTicket.getId() + "/assign",
+						agentToken, null, 5),
+				budget(HttpMethod.POST, "/api/agent/next", "/api/agent/next", agentToken, null, 5),
+
+				// Agent, assigned tickets
+				get("/api/agent/assigned/tickets", "/api/agent/assigned/tickets" + size, agentToken, 2),
+				get("/api/agent/assigned/ticket/{id}", "/api/agent/assigned/ticket/" + shown, agentToken, 2),
+				get("/api/agent/assigned/tickets/search/{title}", "/api/agent/assigned/tickets/search/Budget" + size, agentToken, 1),
+				get("/api/agent/assigned/tickets/priority/{priority}", "/api/agent/assigned/tickets/priority/HIGH" + size, agentToken, 1),
+				get("/api/agent/assigned/tickets/status/{status}", "/api/agent/assigned/tickets/status/INPROGRESS" + size, agentToken, 1),
+				get("/api/agent/assigned/tickets/department/{name}", "/api/agent/assigned/tickets/department/Budget" + size, agentToken, 1),
+				get("/api/agent/assigned/departments", "/api/agent/assigned/departments", agentToken, 0),
+				budget(HttpMethod.PUT, "/api/agent/assigned/tickets/{ticketId}/priority",
+						"/api/agent/assigned/tickets/" + reprioritisedTicket.getId() + "/priority?priority=HIGH", agentToken, null, 2),
+				budget(HttpMethod.PUT, "/api/agent/assigned/tickets/{ticketId}/status",
+						"/api/agent/assigned/tickets/" + resolvableTicket.getId() + "/status?status=RESOLVED", agentToken, null, 2),
+
+				// Comments
+				get("/api/comments/{ticketId}", "/api/comments/" + shown, customerToken, 2),
+				post("/api/comments", customerToken, "{\"ticketId\":" + shown + ",\"body\":\"Budget comment\"}", 5),
+
+				// Admin
+				get("/api/admin/tickets", "/api/admin/tickets" + size, adminToken, 1),
+				get("/api/admin/ticket/{id}", "/api/admin/ticket/" + shown, adminToken, 2),
+				get("/api/admin/tickets/search/{title}", "/api/admin/tickets/search/Budget" + size, adminToken, 1),
+				get("/api/admin/tickets/priority/{priority}", "/api/admin/tickets/priority/HIGH" + size, adminToken, 1),
+				get("/api/admin/tickets/status/{status}", "/api/admin/tickets/status/INPROGRESS" + size, adminToken, 1),
+				get("/api/admin/tickets/department/{name}", "/api/admin/tickets/department/" + department + size, adminToken, 1),
+				get("/api/admin/customers", "/api/admin/customers", adminToken, 1),
+				get("/api/admin/customers/search/{username}", "/api/admin/customers/search/budget", adminToken, 1),
+				get("/api/admin/agents", "/api/admin/agents", adminToken, 1),
+				get("/api/admin/agents/search/{username}", "/api/admin/agents/search/budget", adminToken, 1),
+				get("/api/admin/stats", "/api/admin/stats", adminToken, 2),
+				get("/api/admin/dispatch/stats", "/api/admin/dispatch/stats", adminToken, 0),
+				budget(HttpMethod.PUT, "/api/admin/tickets/{ticketId}/assign",
+						"/api/admin/tickets/" + unassignedTicket.getId() + "/assign?agentId=" + agentOf(unassignedTicket.getDepartment()).getId(),
+						adminToken, null, 3),
+				post("/api/admin/register", adminToken, "{\"userName\":\"budget-registered-agent\",\"email\":\"budget-registered@budget.test\","
+						+ "\"password\":\"secret\",\"fullName\":\"Budget agent\",\"departmentName\":\"" + department + "\"}", 3),
+				budget(HttpMethod.DELETE, "/api/admin/agents/{agentId}", "/api/admin/agents/" + deletableAgent.getId(), adminToken, null, 7),
+
+				// Departments
+				get("/api/admin/department", "/api/admin/department", adminToken, 0),
+				get("/api/admin/department/{id}", "/api/admin/department/" + departments.get(0).getId(), adminToken, 0),
+				post("/api/admin/department", adminToken, "{\"name\":\"Budget department created\"}", 1),
+				budget(HttpMethod.PUT, "/api/admin/department/{id}", "/api/admin/department/" + renamedDepartment.getId(), adminToken,
+						"{\"name\":\"Budget department renamed\"}", 2),
+				budget(HttpMethod.DELETE, "/api/admin/department/{id}", "/api/admin/department/" + deletableDepartment.getId(), adminToken,
+						null, 2));
+	}
+
+	@ParameterizedTest(name = "{0}")
+	@MethodSource("budgets")
+	void endpointStaysWithinItsStatementBudget(Budget budget) throws Exception {
+		MockHttpServletRequestBuilder request = request(budget.method(), budget.url());
+		if (budget.token() != null) {
+			request.header("Authorization", "Bearer " + budget.token());
+		}
+		if (budget.body() != null) {
+			request.contentType(MediaType.APPLICATION_JSON).content(budget.body());
+		}
+
+		sqlCapture.clear();
+		int status = mockMvc.perform(request).andReturn().getResponse().getStatus();
+		List<SqlCapture.Statement> statements = sqlCapture.statements();
+
+		assertTrue(status >= 200 && status < 300, budget.endpoint() + " answered " + status);
+		if (log.isDebugEnabled()) {
+			log.debug(String.format(Locale.ROOT, "BUDGET %-55s %3d  %7.3f ms connection held", budget.endpoint(), statements.size(),
+					sqlCapture.connectionHoldTime().toNanos() / 1e6));
+		}
+		assertTrue(statements.size() <= budget.maxStatements(), () -> budget.endpoint() + " issued " + statements.size()
+				+ " statements, budget is " + budget.maxStatements() + ":\n" + statements.stream()
+						.map(SqlCapture.Statement::sql)
+						.collect(Collectors.joining("\n")));
+	}
+
+	@Test
+	void everyEndpointHasABudget() {
+		Set<String> budgeted = budgets().map(Budget::endpoint).collect(Collectors.toSet());
+		Set<String> missing = new TreeSet<>();
+		for (Map.Entry<RequestMappingInfo, HandlerMethod> mapping : handlerMapping.getHandlerMethods().entrySet()) {
+			if (!mapping.getValue().getBeanType().getPackageName().startsWith("com.helpdesk")) {
+				continue;
+			}
+			for (String pattern : mapping.getKey().getPatternValues()) {
+				for (var method : mapping.getKey().getMethodsCondition().getMethods()) {
+					String endpoint = method.name() + " " + pattern;
+					if (!budgeted.contains(endpoint) && !EXEMPT.containsKey(endpoint)) {
+						missing.add(endpoint);
+					}
+				}
+			}
+		}
+		assertEquals(Set.of(), missing, "Endpoints without a statement budget");
+	}
+
+	// An agent of the given department
+	private User agentOf(Department department) {
+		return agents.stream().filter(a -> a.getDepartment().getId().equals(department.getId())).findFirst().orElseThrow();
+	}
+
+	private static Budget get(String pattern, String url, String token, int maxStatements) {
+		return budget(HttpMethod.GET, pattern, url, token, null, maxStatements);
+	}
+
+	private static Budget post(String url, String token, String body, int maxStatements) {
+		return budget(HttpMethod.POST, url, url, token, body, maxStatements);
+	}
+
+	private static Budget budget(HttpMethod method, String pattern, String url, String token, String body, int maxStatements) {
+		return new Budget(method, pattern, url, token, body, maxStatements);
+	}
+}
@@ -0,0 +1,96 @@
+package com.helpdesk.controller;
+
+import static com.helpdesk.support.TestData.user;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.helpdesk.entities.Department;
+import com.helpdesk.entities.User;
+import com.helpdesk.enums.UserRole;
+import com.helpdesk.repositories.DepartmentRepository;
+import com.helpdesk.repositories.UserRepository;
+import com.helpdesk.services.admin.DepartmentCache;
+import com.helpdesk.support.SqlCapture;
+import com.helpdesk.utils.JwtUtil;
+
+/**
+ * The Prometheus scrape endpoint is restricted to admins and exposes the application's own metrics
+ * next to the ones Spring Boot records.
+ */
+// Observability makes this a context of its own, so it gets a database of its own (see QueryPlanTests)
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:metrics;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;NON_KEYWORDS=USER")
+@AutoConfigureMockMvc
+@AutoConfigureObservability // Tests do not export metrics unless asked to
+@ActiveProfiles("test")
+@Import(SqlCapture.Config.class)
+class MetricsEndpointTests {
+
+	@Autowired private MockMvc mockMvc;
+	@Autowired private JwtUtil jwtUtil;
+	@Autowired private UserRepository userRepository;
+	@Autowired private PasswordEncoder passwordEncoder;
+	@Autowired private DepartmentRepository departmentRepository;
+	@Autowired private DepartmentCache departmentCache;
+
+	@Test
+	void scrapeEndpointNeedsAnAdmin() throws Exception {
+		mockMvc.perform(get("/actuator/health")).andExpect(status().isOk());
+		mockMvc.perform(get("/actuator/prometheus")).andExpect(status().isUnauthorized());
+
+		User customer = userRepository.save(user("metrics-customer", UserRole.CUSTOMER));
+		mockMvc.perform(get("/actuator/prometheus").header("Authorization", "Bearer " + jwtUtil.generateToken(customer)))
+				.andExpect(status().isForbidden());
+	}
+
+	@Test
+	void scrapeIncludesEndpointServiceRepositoryPoolJwtPasswordAndDispatchMetrics() throws Exception {
+		// A login exercises the password check; a customer request exercises JWT validation, a service and a repository
+		User admin = user("metrics-admin", UserRole.ADMIN);
+		admin.setPassword(passwordEncoder.encode("secret"));
+		admin = userRepository.save(admin);
+		mockMvc.perform(post("/api/auth/login").contentType(MediaType.APPLICATION_JSON)
+				.content("{\"userName\":\"metrics-admin\",\"password\":\"secret\"}"));
+		String adminToken = jwtUtil.generateToken(admin);
+		mockMvc.perform(get("/api/admin/stats").header("Authorization", "Bearer " + adminToken)).andExpect(status().isOk());
+		// A dispatch request builds its department's queue, which registers the queue depth gauge
+		Department department = departmentRepository.save(new Department("Metrics dispatch department"));
+		departmentCache.invalidate();
+		User agent = user("metrics-agent", UserRole.AGENT);
+		agent.setDepartment(department);
+		agent = userRepository.save(agent);
+		mockMvc.perform(post("/api/agent/next").header("Authorization", "Bearer " + jwtUtil.generateToken(agent)))
+				.andExpect(status().isNoContent());
+
+		mockMvc.perform(get("/actuator/prometheus").header("Authorization", "Bearer " + adminToken))
+				.andExpect(status().isOk())
+				.andExpect(content().string(containsString("http_server_requests_seconds_bucket")))
+				.andExpect(content().string(containsString("helpdesk_service_calls_seconds_bucket{")))
+				.andExpect(content().string(containsString("service=\"TicketStatsServiceImpl\"")))
+				.andExpect(content().string(containsString("spring_data_repository_invocations_seconds")))
+				.andExpect(content().string(containsString("helpdesk_repository_rows_count{")))
+				.andExpect(content().string(containsString("hikaricp_connections_active")))
+				.andExpect(content().string(containsString("hikaricp_connections_pending")))
+				.andExpect(content().string(containsString("helpdesk_jwt_validation_seconds_count{")))
+				.andExpect(content().string(containsString("helpdesk_password_encode_seconds")))
+				.andExpect(content().string(containsString("helpdesk_password_matches_seconds_count")))
+				.andExpect(content().string(containsString("helpdesk_dispatch_latency_seconds_bucket{")))
+				.andExpect(content().string(containsString("helpdesk_dispatch_requests_total{")))
+				.andExpect(content().string(containsString("outcome=\"empty\"")))
+				.andExpect(content().string(containsString("helpdesk_dispatch_stale_entries_total")))
+				.andExpect(content().string(containsString("department=\"Metrics dispatch department\"")));
+	}
+}
@@ -0,0 +1,230 @@
+package com.helpdesk.controller;
+
+import static com.helpdesk.support.TestData.user;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.helpdesk.entities.Comment;
+import com.helpdesk.entities.Department;
+import com.helpdesk.entities.Ticket;
+import com.helpdesk.entities.User;
+import com.helpdesk.enums.Priority;
+import com.helpdesk.enums.Status;
+import com.helpdesk.enums.UserRole;
+import com.helpdesk.repositories.CommentRepository;
+import com.helpdesk.repositories.DepartmentRepository;
+import com.helpdesk.repositories.TicketRepository;
+import com.helpdesk.repositories.UserRepository;
+import com.helpdesk.services.admin.DepartmentCache;
+import com.helpdesk.support.SqlCapture;
+import com.helpdesk.utils.JwtUtil;
+
+/**
+ * Counts the SQL statements issued by one request to each hot endpoint.
+ * Authentication comes from the token's claims, so none of these requests should look the user up.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Import(SqlCapture.Config.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class RequestQueryCountTests {
+
+	@Autowired private MockMvc mockMvc;
+	@Autowired private SqlCapture sqlCapture;
+	@Autowired private JwtUtil jwtUtil;
+	@Autowired private UserRepository userRepository;
+	@Autowired private DepartmentRepository departmentRepository;
+	@Autowired private TicketRepository ticketRepository;
+	@Autowired private CommentRepository commentRepository;
+	@Autowired private DepartmentCache departmentCache;
+
+	private String customerToken;
+	private String agentToken;
+	private Ticket ticket;
+
+	@BeforeAll
+	void seed() {
+		sqlCapture.withoutRecording(() -> {
+			Department department = departmentRepository.save(new Department("Query count department"));
+			User customer = userRepository.save(user("count-customer", UserRole.CUSTOMER, null));
+			User agent = userRepository.save(user("count-agent", UserRole.AGENT, department));
+			customerToken = jwtUtil.generateToken(customer);
+			agentToken = jwtUtil.generateToken(agent);
+
+			for (int i = 0; i < 30; i++) {
+				Ticket t = new Ticket();
+				t.setTitle("Counted ticket " + i);
+				t.setDescription("Seeded for query counting");
+				t.setCreatedDate(new Date(System.currentTimeMillis() - i * 1000L));
+				t.setPriority(Priority.MEDIUM);
+				t.setStatus(Status.INPROGRESS);
+				t.setCustomer(customer);
+				t.setAssignedAgent(agent);
+				t.setDepartment(department);
+				t = ticketRepository.save(t);
+				if (ticket == null) {
+					ticket = t;
+				}
+
+				Comment comment = new Comment();
+				comment.setBody("Counted comment " + i);
+				comment.setCreatedAt(new Date());
+				comment.setTicket(t);
+				comment.setUser(i % 2 == 0 ? customer : agent);
+				commentRepository.save(comment);
+			}
+		});
+	}
+
+	@Test
+	void customerListsTicketsInOneQuery() throws Exception {
+		// The list's version fingerprint (its ETag), then the page itself
+		assertQueries(2, "/api/customer/ticketsCreated?size=20", customerToken);
+		assertQueries(1, "/api/customer/tickets/search/Counted?size=20", customerToken);
+		assertQueries(1, "/api/customer/tickets/status/INPROGRESS?size=20", customerToken);
+	}
+
+	@Test
+	void agentListsTicketsInOneQuery() throws Exception {
+		assertQueries(2, "/api/agent/assigned/tickets?size=20", agentToken); // Version fingerprint and page
+		assertQueries(1, "/api/agent/assigned/tickets/priority/MEDIUM?size=20", agentToken);
+		assertQueries(1, "/api/agent/tickets?size=20", agentToken);
+	}
+
+	@Test
+	void singleTicketReadsDoNotLookUpTheCaller() throws Exception {
+		// The ticket's version, then the ticket with its customer, agent, department, comments and their authors in one
+		// statement; the caller comes from the token
+		assertQueries(2, "/api/customer/ticket/" + ticket.getId(), customerToken);
+		assertQueries(2, "/api/agent/assigned/ticket/" + ticket.getId(), agentToken);
+		// The ticket, then its comments with their authors
+		assertQueries(2, "/api/comments/" + ticket.getId(), customerToken);
+	}
+
+	@Test
+	void unchangedTicketsAreAnsweredWith304FromTheirVersion() throws Exception {
+		String ticketUrl = "/api/customer/ticket/" + ticket.getId();
+		String listUrl = "/api/customer/ticketsCreated?size=20";
+		String ticketETag = eTag(ticketUrl, customerToken);
+		String listETag = eTag(listUrl, customerToken);
+
+		assertNotModified(1, ticketUrl, customerToken, ticketETag);
+		assertNotModified(1, listUrl, customerToken, listETag);
+
+		// A new comment bumps the ticket's version, so both the ticket and the list change
+		mockMvc.perform(post("/api/comments").header("Authorization", "Bearer " + customerToken)
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"ticketId\": " + ticket.getId() + ", \"body\": \"Bumps the version\"}"))
+				.andExpect(status().isCreated());
+		mockMvc.perform(get(ticketUrl).header("Authorization", "Bearer " + customerToken).header("If-None-Match", ticketETag))
+				.andExpect(status().isOk());
+		mockMvc.perform(get(listUrl).header("Authorization", "Bearer " + customerToken).header("If-None-Match", listETag))
+				.andExpect(status().isOk());
+	}
+
+	@Test
+	void newCommentsAreSearchable() throws Exception {
+		mockMvc.perform(post("/api/comments").header("Authorization", "Bearer " + customerToken)
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"ticketId\": " + ticket.getId() + ", \"body\": \"Mentions a wombat\"}"))
+				.andExpect(status().isCreated());
+		mockMvc.perform(get("/api/customer/tickets/search/wombat?size=20").header("Authorization", "Bearer " + customerToken))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.items[0].id").value(ticket.getId()));
+	}
+
+	@Test
+	void updatesWithAStaleIfMatchAreRejected() throws Exception {
+		String url = "/api/agent/assigned/ticket/" + ticket.getId();
+		String stale = eTag(url, agentToken);
+		mockMvc.perform(put("/api/agent/assigned/tickets/" + ticket.getId() + "/priority")
+				.header("Authorization", "Bearer " + agentToken).header("If-Match", stale).param("priority", "HIGH"))
+				.andExpect(status().isOk());
+		mockMvc.perform(put("/api/agent/assigned/tickets/" + ticket.getId() + "/priority")
+				.header("Authorization", "Bearer " + agentToken).header("If-Match", stale).param("priority", "LOW"))
+				.andExpect(status().isPreconditionFailed());
+	}
+
+	@Test
+	void departmentListsAreServedFromCacheAndRevalidatedWithETag() throws Exception {
+		departmentCache.invalidate();
+		assertQueries(1, "/api/customer/departments", customerToken);
+		assertQueries(0, "/api/agent/departments", agentToken);
+
+		String etag = mockMvc.perform(get("/api/customer/departments").header("Authorization", "Bearer " + customerToken))
+				.andExpect(status().isOk())
+				.andExpect(header().string("Cache-Control", "no-cache, private"))
+				.andReturn().getResponse().getHeader("ETag");
+		mockMvc.perform(get("/api/agent/assigned/departments").header("Authorization", "Bearer " + agentToken)
+				.header("If-None-Match", etag))
+				.andExpect(status().isNotModified());
+	}
+
+	@Test
+	void dashboardStatsAreGroupedInTheDatabaseAndServedFromMemory() throws Exception {
+		departmentCache.getAll(); // Department names come from the cache; keep its load out of the count
+		assertQueries(1, "/api/customer/stats", customerToken);
+		assertQueries(0, "/api/customer/stats", customerToken);
+		assertQueries(2, "/api/agent/stats", agentToken);
+		assertQueries(0, "/api/agent/stats", agentToken);
+
+		mockMvc.perform(get("/api/agent/stats").header("Authorization", "Bearer " + agentToken))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.total").value(30))
+				.andExpect(jsonPath("$.byStatus.INPROGRESS").value(30))
+				.andExpect(jsonPath("$.byDepartment['Query count department']").value(30))
+				.andExpect(jsonPath("$.counts[0].priority").value("MEDIUM"))
+				.andExpect(jsonPath("$.openPerAgent[0].agentName").value("count-agent"))
+				.andExpect(jsonPath("$.openPerAgent[0].openTickets").value(30));
+		mockMvc.perform(get("/api/customer/stats").header("Authorization", "Bearer " + customerToken))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.total").value(30))
+				.andExpect(jsonPath("$.openPerAgent").doesNotExist());
+	}
+
+	// Performs an authenticated GET and returns the ETag of the response
+	private String eTag(String url, String token) throws Exception {
+		return mockMvc.perform(get(url).header("Authorization", "Bearer " + token))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getHeader("ETag");
+	}
+
+	// Performs a conditional GET and checks it was answered with 304 using the given number of statements
+	private void assertNotModified(int expected, String url, String token, String etag) throws Exception {
+		sqlCapture.clear();
+		mockMvc.perform(get(url).header("Authorization", "Bearer " + token).header("If-None-Match", etag))
+				.andExpect(status().isNotModified());
+		assertEquals(expected, sqlCapture.statements().size(), url);
+	}
+
+	// Performs an authenticated GET and checks how many statements it sent to the database
+	private void assertQueries(int expected, String url, String token) throws Exception {
+		sqlCapture.clear();
+		mockMvc.perform(get(url).header("Authorization", "Bearer " + token)).andExpect(status().isOk());
+		List<SqlCapture.Statement> statements = sqlCapture.statements();
+		assertEquals(expected, statements.size(), () -> url + " issued:\n" + statements.stream()
+				.map(SqlCapture.Statement::sql)
+				.collect(Collectors.joining("\n")));
+	}
+}
@@ -0,0 +1,167 @@
+package com.helpdesk.controller;
+
+import static com.helpdesk.support.TestData.user;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.helpdesk.entities.Department;
+import com.helpdesk.entities.Ticket;
+import com.helpdesk.entities.User;
+import com.helpdesk.enums.Priority;
+import com.helpdesk.enums.Status;
+import com.helpdesk.enums.UserRole;
+import com.helpdesk.repositories.DepartmentRepository;
+import com.helpdesk.repositories.TicketRepository;
+import com.helpdesk.repositories.UserRepository;
+import com.helpdesk.support.SqlCapture;
+import com.helpdesk.utils.JwtUtil;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Fires concurrent claims ("assign to me") at the same tickets from several agents.
+ * Every ticket must end up with exactly one winner; all other claims get 409 Conflict.
+ */
+@Slf4j
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Import(SqlCapture.Config.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class TicketClaimStressTests {
+
+	private static final int AGENTS = 8;
+	private static final int TICKETS = 50;
+	private static final int THREADS = 16;
+
+	@Autowired private MockMvc mockMvc;
+	@Autowired private ObjectMapper objectMapper;
+	@Autowired private JwtUtil jwtUtil;
+	@Autowired private UserRepository userRepository;
+	@Autowired private DepartmentRepository departmentRepository;
+	@Autowired private TicketRepository ticketRepository;
+
+	private final List<User> agents = new ArrayList<>();
+	private final List<String> agentTokens = new ArrayList<>();
+	private final List<Long> ticketIds = new ArrayList<>();
+
+	// A claim attempt and the HTTP status it got
+	private record Claim(Long ticketId, int agent, int status) {
+	}
+
+	@BeforeAll
+	void seed() {
+		Department department = departmentRepository.save(new Department("Claim department"));
+		User customer = userRepository.save(user("claim-customer", UserRole.CUSTOMER, null));
+		for (int i = 0; i < AGENTS; i++) {
+			User agent = userRepository.save(user("claim-agent-" + i, UserRole.AGENT, department));
+			agents.add(agent);
+			agentTokens.add(jwtUtil.generateToken(agent));
+		}
+
+		List<Ticket> tickets = new ArrayList<>();
+		for (int i = 0; i < TICKETS; i++) {
+			Ticket t = new Ticket();
+			t.setTitle("Claimable ticket " + i);
+			t.setDescription("Seeded for concurrent claims");
+			t.setCreatedDate(new Date());
+			t.setPriority(Priority.MEDIUM);
+			t.setStatus(Status.PENDING);
+			t.setCustomer(customer);
+			t.setDepartment(department);
+			tickets.add(t);
+		}
+		ticketRepository.saveAll(tickets).forEach(t -> ticketIds.add(t.getId()));
+	}
+
+	@Test
+	void concurrentClaimsHaveExactlyOneWinnerPerTicket() throws Exception {
+		// Ticket-major order, so all agents' claims on the same ticket are in flight together
+		List<Callable<Claim>> attempts = new ArrayList<>();
+		for (Long ticketId : ticketIds) {
+			for (int agent = 0; agent < AGENTS; agent++) {
+				int claimant = agent;
+				attempts.add(() -> new Claim(ticketId, claimant, mockMvc.perform(put("/api/agent/tickets/" + ticketId + "/assign")
+						.header("Authorization", "Bearer " + agentTokens.get(claimant)))
+						.andReturn().getResponse().getStatus()));
+			}
+		}
+
+		ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+		long start = System.nanoTime();
+		List<Future<Claim>> results;
+		try {
+			results = pool.invokeAll(attempts);
+		} finally {
+			pool.shutdown();
+		}
+		double seconds = (System.nanoTime() - start) / 1e9;
+		if (log.isDebugEnabled()) {
+			log.debug(String.format(Locale.ROOT, "%d concurrent claims on %d tickets in %.2f s (%.0f claims/s)",
+					attempts.size(), TICKETS, seconds, attempts.size() / seconds));
+		}
+
+		Map<Long, Integer> winners = new HashMap<>();
+		for (Future<Claim> result : results) {
+			Claim claim = result.get();
+			if (claim.status() == 200) {
+				Integer previous = winners.put(claim.ticketId(), claim.agent());
+				assertEquals(null, previous, "Ticket " + claim.ticketId() + " was claimed twice");
+			} else {
+				assertEquals(409, claim.status(), "Unexpected status for a losing claim on ticket " + claim.ticketId());
+			}
+		}
+		assertEquals(TICKETS, winners.size(), "Every ticket must have a winner");
+
+		// The database and the search index agree with the responses
+		Map<Integer, Set<Long>> wonByAgent = new HashMap<>();
+		for (Ticket ticket : ticketRepository.findAllById(ticketIds)) {
+			int winner = winners.get(ticket.getId());
+			assertEquals(agents.get(winner).getId(), ticket.getAssignedAgent().getId());
+			assertEquals(Status.INPROGRESS, ticket.getStatus());
+			assertEquals(1L, ticket.getVersion(), "Only the winning claim may write the ticket");
+			wonByAgent.computeIfAbsent(winner, a -> new HashSet<>()).add(ticket.getId());
+		}
+		for (int agent = 0; agent < AGENTS; agent++) {
+			assertEquals(wonByAgent.getOrDefault(agent, Set.of()), searchAssigned(agent, "Claimable"));
+		}
+	}
+
+	// IDs of the agent's assigned tickets matching a full-text search
+	private Set<Long> searchAssigned(int agent, String text) throws Exception {
+		String json = mockMvc.perform(get("/api/agent/assigned/tickets/search/" + text).param("size", "100")
+				.header("Authorization", "Bearer " + agentTokens.get(agent)))
+				.andReturn().getResponse().getContentAsString();
+		Set<Long> ids = new HashSet<>();
+		for (JsonNode item : objectMapper.readTree(json).get("items")) {
+			ids.add(item.get("id").asLong());
+		}
+		return ids;
+	}
+}
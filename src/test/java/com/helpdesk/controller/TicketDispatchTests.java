@@ -0,0 +1,151 @@
+package com.helpdesk.controller;
+
+import static com.helpdesk.support.TestData.user;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.helpdesk.entities.Department;
+import com.helpdesk.entities.Ticket;
+import com.helpdesk.entities.User;
+import com.helpdesk.enums.Priority;
+import com.helpdesk.enums.Status;
+import com.helpdesk.enums.UserRole;
+import com.helpdesk.repositories.DepartmentRepository;
+import com.helpdesk.repositories.TicketRepository;
+import com.helpdesk.repositories.UserRepository;
+import com.helpdesk.services.admin.DepartmentCache;
+import com.helpdesk.support.SqlCapture;
+import com.helpdesk.support.TestData;
+import com.helpdesk.utils.JwtUtil;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * "Next ticket" dispatch: agents get their department's tickets most urgent first, each ticket exactly once.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Import(SqlCapture.Config.class)
+class TicketDispatchTests {
+
+	@Autowired private MockMvc mockMvc;
+	@Autowired private ObjectMapper objectMapper;
+	@Autowired private JwtUtil jwtUtil;
+	@Autowired private UserRepository userRepository;
+	@Autowired private DepartmentRepository departmentRepository;
+	@Autowired private TicketRepository ticketRepository;
+	@Autowired private DepartmentCache departmentCache;
+	@Autowired private MeterRegistry meterRegistry;
+
+	@Test
+	void ticketsAreDispatchedByPriorityThenAge() throws Exception {
+		Department department = departmentRepository.save(new Department("Dispatch order department"));
+		Department other = departmentRepository.save(new Department("Dispatch other department"));
+		User customer = userRepository.save(user("dispatch-order-customer", UserRole.CUSTOMER, null));
+		String agent = jwtUtil.generateToken(userRepository.save(user("dispatch-order-agent", UserRole.AGENT, department)));
+
+		Ticket oldLow = ticketRepository.save(ticket("old low", Priority.LOW, 3, customer, department));
+		Ticket newHigh = ticketRepository.save(ticket("new high", Priority.HIGH, 1, customer, department));
+		Ticket oldHigh = ticketRepository.save(ticket("old high", Priority.HIGH, 2, customer, department));
+		Ticket newMedium = ticketRepository.save(ticket("new medium", Priority.MEDIUM, 1, customer, department));
+		ticketRepository.save(ticket("other department", Priority.HIGH, 5, customer, other));
+		departmentCache.invalidate(); // Departments were saved behind the service's back
+
+		List<Long> expected = List.of(oldHigh.getId(), newHigh.getId(), newMedium.getId(), oldLow.getId());
+		List<Long> dispatched = new ArrayList<>();
+		for (int i = 0; i < expected.size(); i++) {
+			MockHttpServletResponse response = next(agent);
+			assertEquals(200, response.getStatus());
+			JsonNode ticket = objectMapper.readTree(response.getContentAsString());
+			assertEquals("INPROGRESS", ticket.get("status").asText());
+			dispatched.add(ticket.get("id").asLong());
+		}
+		assertEquals(expected, dispatched);
+		assertEquals(204, next(agent).getStatus());
+
+		String admin = jwtUtil.generateToken(userRepository.save(user("dispatch-order-admin", UserRole.ADMIN, null)));
+		JsonNode stats = objectMapper.readTree(mockMvc.perform(get("/api/admin/dispatch/stats")
+				.header("Authorization", "Bearer " + admin)).andReturn().getResponse().getContentAsString());
+		assertEquals(0, stats.get("queueDepth").get(department.getName()).asInt());
+		assertTrue(stats.get("dispatched").asLong() >= expected.size());
+		assertTrue(stats.get("latencySamples").asInt() > 0);
+		assertEquals(0, meterRegistry.get("helpdesk.dispatch.queue.depth").tag("department", department.getName()).gauge().value());
+		assertTrue(meterRegistry.get("helpdesk.dispatch.requests").tag("outcome", "dispatched").counter().count() >= expected.size());
+	}
+
+	@Test
+	void concurrentAgentsNeverGetTheSameTicket() throws Exception {
+		Department department = departmentRepository.save(new Department("Dispatch concurrency department"));
+		User customer = userRepository.save(user("dispatch-busy-customer", UserRole.CUSTOMER, null));
+		List<String> agents = new ArrayList<>();
+		for (int i = 0; i < 4; i++) {
+			agents.add(jwtUtil.generateToken(userRepository.save(user("dispatch-busy-agent-" + i, UserRole.AGENT, department))));
+		}
+		Set<Long> seeded = new HashSet<>();
+		for (int i = 0; i < 40; i++) {
+			seeded.add(ticketRepository.save(ticket("busy " + i, Priority.values()[i % 3], i, customer, department)).getId());
+		}
+
+		// Every agent keeps asking for work until the queue runs dry
+		List<Callable<List<Long>>> workers = new ArrayList<>();
+		for (String agent : agents) {
+			workers.add(() -> {
+				List<Long> mine = new ArrayList<>();
+				MockHttpServletResponse response;
+				while ((response = next(agent)).getStatus() == 200) {
+					mine.add(objectMapper.readTree(response.getContentAsString()).get("id").asLong());
+				}
+				assertEquals(204, response.getStatus());
+				return mine;
+			});
+		}
+		ExecutorService pool = Executors.newFixedThreadPool(agents.size());
+		List<Long> dispatched = new ArrayList<>();
+		try {
+			for (Future<List<Long>> result : pool.invokeAll(workers)) {
+				dispatched.addAll(result.get());
+			}
+		} finally {
+			pool.shutdown();
+		}
+
+		assertEquals(seeded.size(), dispatched.size(), "No ticket may be handed out twice");
+		assertEquals(seeded, new HashSet<>(dispatched));
+		ticketRepository.findAllById(seeded).forEach(t -> assertEquals(Status.INPROGRESS, t.getStatus()));
+	}
+
+	private MockHttpServletResponse next(String token) throws Exception {
+		return mockMvc.perform(post("/api/agent/next").header("Authorization", "Bearer " + token)).andReturn().getResponse();
+	}
+
+	private static Ticket ticket(String title, Priority priority, int daysOld, User customer, Department department) {
+		Ticket t = TestData.ticket(title, customer, department);
+		t.setCreatedDate(new Date(System.currentTimeMillis() - daysOld * 86_400_000L));
+		t.setPriority(priority);
+		return t;
+	}
+}
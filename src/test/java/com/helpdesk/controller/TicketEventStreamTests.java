@@ -0,0 +1,157 @@
+package com.helpdesk.controller;
+
+import static com.helpdesk.support.TestData.user;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.helpdesk.entities.Department;
+import com.helpdesk.entities.Ticket;
+import com.helpdesk.entities.User;
+import com.helpdesk.enums.Priority;
+import com.helpdesk.enums.UserRole;
+import com.helpdesk.repositories.DepartmentRepository;
+import com.helpdesk.repositories.TicketRepository;
+import com.helpdesk.repositories.UserRepository;
+import com.helpdesk.support.SqlCapture;
+import com.helpdesk.support.TestData;
+import com.helpdesk.utils.JwtUtil;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Live ticket events: every open stream gets the events of the tickets its user may view, and no others.
+ */
+@Slf4j
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Import(SqlCapture.Config.class)
+class TicketEventStreamTests {
+
+	private static final int STREAMS = 500;
+
+	@Autowired private MockMvc mockMvc;
+	@Autowired private ObjectMapper objectMapper;
+	@Autowired private JwtUtil jwtUtil;
+	@Autowired private UserRepository userRepository;
+	@Autowired private DepartmentRepository departmentRepository;
+	@Autowired private TicketRepository ticketRepository;
+
+	@Test
+	void eventsReachOnlyUsersWhoMayViewTheTicket() throws Exception {
+		Department department = departmentRepository.save(new Department("Event department"));
+		User owner = userRepository.save(user("event-owner", UserRole.CUSTOMER, null));
+		User agent = userRepository.save(user("event-agent", UserRole.AGENT, department));
+		String ownerToken = jwtUtil.generateToken(owner);
+		String agentToken = jwtUtil.generateToken(agent);
+		String otherCustomerToken = jwtUtil.generateToken(userRepository.save(user("event-other", UserRole.CUSTOMER, null)));
+		String adminToken = jwtUtil.generateToken(userRepository.save(user("event-admin", UserRole.ADMIN, null)));
+		Ticket ticket = ticketRepository.save(ticket(owner, department));
+
+		MvcResult ownerStream = open(ownerToken, false);
+		MvcResult agentStream = open(agentToken, false);
+		MvcResult agentOwnStream = open(agentToken, true);
+		MvcResult otherCustomerStream = open(otherCustomerToken, false);
+		MvcResult adminStream = open(adminToken, false);
+
+		// The agent claims the ticket, then the customer comments on it
+		assertEquals(200, mockMvc.perform(put("/api/agent/tickets/" + ticket.getId() + "/assign")
+				.header("Authorization", "Bearer " + agentToken)).andReturn().getResponse().getStatus());
+		assertEquals(201, mockMvc.perform(post("/api/comments").header("Authorization", "Bearer " + ownerToken)
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(Map.of("ticketId", ticket.getId(), "body", "Any news?"))))
+				.andReturn().getResponse().getStatus());
+
+		for (MvcResult stream : List.of(ownerStream, agentStream, agentOwnStream, adminStream)) {
+			String events = awaitEvent(stream, "Any news?");
+			assertTrue(events.contains("event:ticket-changed"), events);
+			assertTrue(events.contains("\"status\":\"INPROGRESS\""), events);
+		}
+		assertFalse(content(otherCustomerStream).contains("\"ticketId\":" + ticket.getId()),
+				"Another customer must not see this ticket's events");
+
+		// A reconnecting client gets the events after the last one it saw
+		String firstId = content(ownerStream).lines().filter(line -> line.startsWith("id:")).findFirst().orElseThrow().substring(3);
+		MvcResult resumed = mockMvc.perform(get("/api/events").header("Authorization", "Bearer " + ownerToken)
+				.header("Last-Event-ID", firstId)).andReturn();
+		String replayed = awaitEvent(resumed, "Any news?");
+		assertFalse(replayed.contains("event:ticket-changed"), replayed);
+	}
+
+	@Test
+	void manyOpenStreamsDoNotHoldAThreadEach() throws Exception {
+		Department department = departmentRepository.save(new Department("Event fan-out department"));
+		User customer = userRepository.save(user("event-fanout-customer", UserRole.CUSTOMER, null));
+		String customerToken = jwtUtil.generateToken(customer);
+		Ticket ticket = ticketRepository.save(ticket(customer, department));
+
+		int threadsBefore = Thread.activeCount();
+		List<MvcResult> streams = new ArrayList<>();
+		for (int i = 0; i < STREAMS; i++) {
+			streams.add(open(customerToken, true));
+		}
+		assertTrue(Thread.activeCount() - threadsBefore < 50,
+				"Open streams must not hold threads: " + threadsBefore + " -> " + Thread.activeCount());
+
+		String marker = "fan-out " + System.nanoTime();
+		long start = System.nanoTime();
+		mockMvc.perform(post("/api/comments").header("Authorization", "Bearer " + customerToken)
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(Map.of("ticketId", ticket.getId(), "body", marker))));
+		for (MvcResult stream : streams) {
+			awaitEvent(stream, marker);
+		}
+		if (log.isDebugEnabled()) {
+			log.debug(String.format(Locale.ROOT, "Comment event delivered to %d streams in %.1f ms", STREAMS,
+					(System.nanoTime() - start) / 1e6));
+		}
+	}
+
+	private MvcResult open(String token, boolean mine) throws Exception {
+		MvcResult result = mockMvc.perform(get("/api/events").param("mine", String.valueOf(mine))
+				.header("Authorization", "Bearer " + token)).andReturn();
+		assertTrue(result.getRequest().isAsyncStarted(), "The stream must be an asynchronous response");
+		return result;
+	}
+
+	// Waits until the stream has received text containing the marker and returns everything received so far
+	private static String awaitEvent(MvcResult stream, String marker) throws Exception {
+		long deadline = System.currentTimeMillis() + 10_000;
+		String content;
+		while (!(content = content(stream)).contains(marker)) {
+			assertTrue(System.currentTimeMillis() < deadline, "No event containing '" + marker + "' in: " + content);
+			Thread.sleep(10);
+		}
+		return content;
+	}
+
+	private static String content(MvcResult stream) throws Exception {
+		return stream.getResponse().getContentAsString();
+	}
+
+	private static Ticket ticket(User customer, Department department) {
+		Ticket t = TestData.ticket("Watched ticket", customer, department);
+		t.setPriority(Priority.MEDIUM);
+		return t;
+	}
+}
@@ -0,0 +1,399 @@
+package com.helpdesk.dataset;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.sql.DataSource;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.helpdesk.HelpDeskApplication;
+import com.helpdesk.entities.IdGenerators;
+import com.helpdesk.enums.UserRole;
+import com.helpdesk.services.admin.DepartmentCache;
+import com.helpdesk.services.dispatch.TicketDispatchService;
+import com.helpdesk.services.search.TicketSearchService;
+
+/**
+ * Fills a database with a synthetic dataset of production size (see {@link DatasetModel} for its shape).
+ * Rows are written with batched JDBC inserts on parallel connections, one transaction per chunk, instead of through
+ * the services: at tens of millions of rows the entity layer, its events and the per-row search indexing would take
+ * days. IDs are reserved from the same {@code id_generator} rows Hibernate uses, so the application can keep
+ * inserting afterwards, and the department cache, dispatch queues and search index are refreshed at the end.
+ * <p>
+ * Run it with {@code mvn -Pdataset verify -Ddataset.args="tickets=20000000 comments=100000000 ..."} against the
+ * database configured by {@code DB_URL}, or pass {@code --spring.datasource.url=...} for another one.
+ */
+class DatasetGenerator {
+
+	private static final int USER_CHUNK = 10_000; // Users inserted per transaction
+	private static final int TICKET_CHUNK = 5_000; // Tickets (with their comments) inserted per transaction
+
+	/**
+	 * What was generated. The checksum covers every generated value except IDs and the password hash,
+	 * so equal settings and seeds give equal checksums in any database.
+	 */
+	record Result(int departments, int agents, int customers, long tickets, long comments, long checksum,
+			Duration elapsed) {
+	}
+
+	private final ApplicationContext context;
+	private final DatasetSettings settings;
+	private final DatasetModel model;
+	private final DataSource dataSource;
+	private final LongAdder checksum = new LongAdder();
+
+	DatasetGenerator(ApplicationContext context, DatasetSettings settings) {
+		this.context = context;
+		this.settings = settings;
+		this.model = new DatasetModel(settings);
+		this.dataSource = context.getBean(DataSource.class);
+	}
+
+	public static void main(String[] args) throws Exception {
+		DatasetSettings settings = DatasetSettings.parse(args);
+		String[] springArgs = Arrays.stream(args).filter(arg -> arg.startsWith("--")).toArray(String[]::new);
+		System.setProperty("spring.devtools.restart.enabled", "false"); // Devtools is on the test classpath
+
+		// Besides the writers, the search index rebuild loads entities on several connections of its own
+		ConfigurableApplicationContext context = new SpringApplicationBuilder(HelpDeskApplication.class)
+				.web(WebApplicationType.NONE)
+				.properties("spring.jpa.show-sql=false",
+						"spring.datasource.hikari.maximum-pool-size=" + Math.max(10, settings.threads() + 2))
+				.run(springArgs);
+		try {
+			log("Generating %s", settings);
+			Result result = new DatasetGenerator(context, settings).generate();
+			log("Generated %d departments, %d agents, %d customers, %d tickets and %d comments in %s (checksum %016x)",
+					result.departments(), result.agents(), result.customers(), result.tickets(), result.comments(),
+					result.elapsed(), result.checksum());
+		} finally {
+			context.close();
+		}
+	}
+
+	// Generates the whole dataset; in a dry run only the checksum is computed
+	Result generate() throws InterruptedException {
+		long start = System.nanoTime();
+
+		// First pass: comment counts per ticket chunk, so every chunk knows where its comment IDs start
+		int chunks = (int) ((settings.tickets() + TICKET_CHUNK - 1) / TICKET_CHUNK);
+		long[] commentCounts = new long[chunks];
+		parallel(chunks, chunk -> {
+			long count = 0;
+			for (long t = firstTicket(chunk); t < firstTicket(chunk + 1); t++) {
+				count += model.ticket(t).comments();
+			}
+			commentCounts[chunk] = count;
+		});
+		long[] commentOffsets = new long[chunks + 1];
+		for (int chunk = 0; chunk < chunks; chunk++) {
+			commentOffsets[chunk + 1] = commentOffsets[chunk] + commentCounts[chunk];
+		}
+		long commentTotal = commentOffsets[chunks];
+
+		long departmentBase = reserve("department", settings.departments());
+		long userBase = reserve("user", (long) settings.agents() + settings.customers());
+		long ticketBase = reserve("ticket", settings.tickets());
+		long commentBase = reserve("comment", commentTotal);
+		long customerBase = userBase + settings.agents();
+		String passwordHash = settings.dryRun() ? "" : context.getBean(PasswordEncoder.class).encode(settings.password());
+
+		write(connection -> {
+			try (Batch departments = new Batch(connection, "insert into department (id, name) values (?, ?)")) {
+				for (int d = 0; d < settings.departments(); d++) {
+					String name = model.departmentName(d);
+					departments.add(departmentBase + 1 + d, name);
+					record(d, name);
+				}
+			}
+		});
+		log("%s %d departments", verb(), settings.departments());
+
+		String insertUser = "insert into user (id, user_name, email, password, full_name, phone_number, user_role, department_id) "
+				+ "values (?, ?, ?, ?, ?, ?, ?, ?)";
+		parallel((settings.agents() + USER_CHUNK - 1) / USER_CHUNK, chunk -> write(connection -> {
+			try (Batch users = new Batch(connection, insertUser)) {
+				for (int a = chunk * USER_CHUNK; a < Math.min(settings.agents(), (chunk + 1) * USER_CHUNK); a++) {
+					DatasetModel.Person agent = model.agent(a);
+					int department = model.agentDepartment(a);
+					users.add(userBase + 1 + a, agent.userName(), agent.email(), passwordHash, agent.fullName(),
+							agent.phoneNumber(), UserRole.AGENT.ordinal(), departmentBase + 1 + department);
+					record(a, agent.userName(), agent.email(), agent.fullName(), agent.phoneNumber(), department);
+				}
+			}
+		}));
+		log("%s %d agents", verb(), settings.agents());
+
+		AtomicLong customersDone = new AtomicLong();
+		parallel((settings.customers() + USER_CHUNK - 1) / USER_CHUNK, chunk -> write(connection -> {
+			try (Batch users = new Batch(connection, insertUser)) {
+				for (int c = chunk * USER_CHUNK; c < Math.min(settings.customers(), (chunk + 1) * USER_CHUNK); c++) {
+					DatasetModel.Person customer = model.customer(c);
+					users.add(customerBase + 1 + c, customer.userName(), customer.email(), passwordHash, customer.fullName(),
+							customer.phoneNumber(), UserRole.CUSTOMER.ordinal(), null);
+					record(c, customer.userName(), customer.email(), customer.fullName(), customer.phoneNumber());
+				}
+			}
+			progress("customers", customersDone.addAndGet(USER_CHUNK), settings.customers(), USER_CHUNK * 50L, start);
+		}));
+		log("%s %d customers", verb(), settings.customers());
+
+		AtomicLong ticketsDone = new AtomicLong();
+		parallel(chunks, chunk -> write(connection -> {
+			long commentId = commentBase + 1 + commentOffsets[chunk];
+			try (Batch tickets = new Batch(connection, "insert into ticket (id, title, description, created_date, priority, status, "
+					+ "version, last_modified, customer_id, assigned_agent_id, department_id) values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)");
+					Batch comments = new Batch(connection, "insert into comment (id, body, created_at, ticket_id, user_id) values (?, ?, ?, ?, ?)",
+							tickets)) {
+				for (long t = firstTicket(chunk); t < firstTicket(chunk + 1); t++) {
+					DatasetModel.TicketShape ticket = model.ticket(t);
+					String title = model.title(t);
+					String description = model.description(t);
+					Long agentId = ticket.agent() < 0 ? null : userBase + 1 + ticket.agent();
+					tickets.add(ticketBase + 1 + t, title, description, new Timestamp(ticket.createdAt()), ticket.priority().ordinal(),
+							ticket.status().ordinal(), ticket.version(), new Timestamp(ticket.lastModified()),
+							customerBase + 1 + ticket.customer(), agentId, departmentBase + 1 + ticket.department());
+					record(t, title, description, ticket.createdAt(), ticket.priority().ordinal(), ticket.status().ordinal(),
+							ticket.version(), ticket.lastModified(), ticket.customer(), ticket.agent(), ticket.department());
+
+					for (int i = 0; i < ticket.comments(); i++) {
+						DatasetModel.CommentShape comment = model.comment(t, ticket, i);
+						comments.add(commentId++, comment.body(), new Timestamp(comment.createdAt()), ticketBase + 1 + t,
+								comment.byAgent() ? agentId : customerBase + 1 + ticket.customer());
+						record(t, i, comment.body(), comment.createdAt(), comment.byAgent());
+					}
+				}
+			}
+			progress("tickets", ticketsDone.addAndGet(TICKET_CHUNK), settings.tickets(), TICKET_CHUNK * 200L, start);
+		}));
+		log("%s %d tickets and %d comments", verb(), settings.tickets(), commentTotal);
+
+		if (!settings.dryRun()) {
+			refresh();
+		}
+		return new Result(settings.departments(), settings.agents(), settings.customers(), settings.tickets(), commentTotal,
+				checksum.sum(), Duration.ofNanos(System.nanoTime() - start));
+	}
+
+	// Brings the in-memory state of the application in line with rows it did not write itself
+	private void refresh() {
+		context.getBean(DepartmentCache.class).invalidate();
+		context.getBean(TicketDispatchService.class).rebuild();
+		if (settings.reindex()) {
+			log("Rebuilding the search index");
+			context.getBean(TicketSearchService.class).reindexIfOutOfSync();
+		}
+	}
+
+	// Position of the first ticket of a chunk
+	private long firstTicket(int chunk) {
+		return Math.min(settings.tickets(), (long) chunk * TICKET_CHUNK);
+	}
+
+	/**
+	 * Reserves a block of IDs from an entity's generator row and returns the ID before the first one.
+	 * The row holds the highest reserved ID, so a running application's next block starts after this one.
+	 */
+	private long reserve(String segment, long count) {
+		if (settings.dryRun()) {
+			return 0;
+		}
+		long[] base = new long[1];
+		write(connection -> {
+			try (PreparedStatement select = connection.prepareStatement("select " + IdGenerators.VALUE_COLUMN + " from "
+					+ IdGenerators.TABLE + " where " + IdGenerators.SEGMENT_COLUMN + " = ? for update")) {
+				select.setString(1, segment);
+				try (ResultSet row = select.executeQuery()) {
+					if (!row.next()) {
+						throw new IllegalStateException("No " + segment + " row in " + IdGenerators.TABLE
+								+ "; start the application once to create the schema");
+					}
+					base[0] = row.getLong(1);
+				}
+			}
+			try (PreparedStatement update = connection.prepareStatement("update " + IdGenerators.TABLE + " set "
+					+ IdGenerators.VALUE_COLUMN + " = ? where " + IdGenerators.SEGMENT_COLUMN + " = ?")) {
+				update.setLong(1, base[0] + count);
+				update.setString(2, segment);
+				update.executeUpdate();
+			}
+		});
+		return base[0];
+	}
+
+	/**
+	 * Runs work in one transaction on its own connection (or without one in a dry run).
+	 * On MySQL the session skips foreign key and unique checks, since the generated rows satisfy them by construction.
+	 */
+	private void write(Work work) {
+		if (settings.dryRun()) {
+			try {
+				work.run(null);
+			} catch (SQLException e) {
+				throw new IllegalStateException(e); // No statements run without a connection
+			}
+			return;
+		}
+		try (Connection connection = dataSource.getConnection()) {
+			boolean mysql = connection.getMetaData().getDatabaseProductName().toLowerCase().contains("mysql");
+			boolean autoCommit = connection.getAutoCommit();
+			connection.setAutoCommit(false);
+			if (mysql) {
+				session(connection, 0);
+			}
+			try {
+				work.run(connection);
+				connection.commit();
+			} catch (SQLException | RuntimeException e) {
+				connection.rollback();
+				throw e;
+			} finally {
+				if (mysql) {
+					session(connection, 1); // The connection goes back to the pool
+				}
+				connection.setAutoCommit(autoCommit);
+			}
+		} catch (SQLException e) {
+			throw new IllegalStateException("Writing the dataset failed", e);
+		}
+	}
+
+	private static void session(Connection connection, int checks) throws SQLException {
+		try (Statement statement = connection.createStatement()) {
+			statement.execute("set foreign_key_checks = " + checks + ", unique_checks = " + checks);
+		}
+	}
+
+	// Runs one task per chunk on the configured number of threads and waits for all of them
+	private void parallel(int chunks, ChunkTask task) throws InterruptedException {
+		ExecutorService pool = Executors.newFixedThreadPool(settings.threads());
+		try {
+			List<Callable<Void>> tasks = new ArrayList<>();
+			for (int chunk = 0; chunk < chunks; chunk++) {
+				int c = chunk;
+				tasks.add(() -> {
+					task.run(c);
+					return null;
+				});
+			}
+			for (Future<Void> result : pool.invokeAll(tasks)) {
+				result.get();
+			}
+		} catch (ExecutionException e) {
+			throw e.getCause() instanceof RuntimeException r ? r : new IllegalStateException(e.getCause());
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+	// Adds a row's generated values to the checksum; rows are summed, so the order chunks finish in does not matter.
+	// Only values with stable hash codes may be passed (no enums, whose hash codes change between runs)
+	private void record(Object... values) {
+		long hash = 17;
+		for (Object value : values) {
+			hash = DatasetModel.mix(hash, 31, Objects.hashCode(value));
+		}
+		checksum.add(hash);
+	}
+
+	// Logs every so many rows, so long runs show how far they are
+	private static void progress(String what, long done, long total, long every, long start) {
+		if (done % every == 0) {
+			double seconds = (System.nanoTime() - start) / 1e9;
+			log("%,d of %,d %s (%.0f s)", Math.min(done, total), total, what, seconds);
+		}
+	}
+
+	private String verb() {
+		return settings.dryRun() ? "Generated" : "Inserted";
+	}
+
+	private static void log(String format, Object... args) {
+		System.out.printf("[dataset] " + format + "%n", args);
+	}
+
+	// Work done on one connection, which is null in a dry run
+	@FunctionalInterface
+	private interface Work {
+		void run(Connection connection) throws SQLException;
+	}
+
+	@FunctionalInterface
+	private interface ChunkTask {
+		void run(int chunk);
+	}
+
+	/**
+	 * Rows of one table sent in JDBC batches; does nothing in a dry run.
+	 * A batch whose rows reference another table's pending rows sends that table's batch first.
+	 */
+	private final class Batch implements AutoCloseable {
+
+		private final PreparedStatement statement;
+		private final Batch parent; // Batch to send before this one, or null
+		private int size;
+
+		Batch(Connection connection, String sql) throws SQLException {
+			this(connection, sql, null);
+		}
+
+		Batch(Connection connection, String sql, Batch parent) throws SQLException {
+			this.statement = connection == null ? null : connection.prepareStatement(sql);
+			this.parent = parent;
+		}
+
+		// Queues one row, sending the batch when it is full
+		void add(Object... values) throws SQLException {
+			size++;
+			if (statement == null) {
+				return;
+			}
+			for (int i = 0; i < values.length; i++) {
+				statement.setObject(i + 1, values[i]);
+			}
+			statement.addBatch();
+			if (size >= settings.batchSize()) {
+				flush();
+			}
+		}
+
+		void flush() throws SQLException {
+			if (parent != null) {
+				parent.flush();
+			}
+			if (statement != null && size > 0) {
+				statement.executeBatch();
+			}
+			size = 0;
+		}
+
+		@Override
+		public void close() throws SQLException {
+			flush();
+			if (statement != null) {
+				statement.close();
+			}
+		}
+	}
+}
@@ -0,0 +1,112 @@
+package com.helpdesk.dataset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.helpdesk.entities.Department;
+import com.helpdesk.entities.IdGenerators;
+import com.helpdesk.entities.Ticket;
+import com.helpdesk.entities.User;
+import com.helpdesk.enums.UserRole;
+import com.helpdesk.repositories.CommentRepository;
+import com.helpdesk.repositories.DepartmentRepository;
+import com.helpdesk.repositories.TicketRepository;
+import com.helpdesk.repositories.UserRepository;
+import com.helpdesk.services.search.TicketSearchScope;
+import com.helpdesk.services.search.TicketSearchService;
+import com.helpdesk.support.SqlCapture;
+
+/**
+ * Generates a small dataset into the test database: the output must be reproducible from the seed, readable
+ * through the entities, and leave the ID generators ready for the application's own inserts.
+ * The class gets a context of its own (with a pool sized like {@link DatasetGenerator#main}'s): every new context
+ * recreates the shared test schema, so a cached older one could hold blocks of IDs the reset generator table no
+ * longer knows about.
+ */
+@SpringBootTest(properties = "spring.datasource.hikari.maximum-pool-size=12")
+@ActiveProfiles("test")
+@Import(SqlCapture.Config.class)
+class DatasetGeneratorTests {
+
+	@Autowired private ApplicationContext context;
+	@Autowired private PasswordEncoder passwordEncoder;
+	@Autowired private UserRepository userRepository;
+	@Autowired private DepartmentRepository departmentRepository;
+	@Autowired private TicketRepository ticketRepository;
+	@Autowired private CommentRepository commentRepository;
+	@Autowired private TicketSearchService ticketSearchService;
+
+	@Test
+	void sameSeedGivesSameDataset() throws Exception {
+		DatasetGenerator.Result first = generate("seed=7", "dry-run=true");
+		DatasetGenerator.Result second = generate("seed=7", "dry-run=true", "threads=1");
+		DatasetGenerator.Result other = generate("seed=8", "dry-run=true");
+
+		assertEquals(first.comments(), second.comments());
+		assertEquals(first.checksum(), second.checksum());
+		assertNotEquals(first.checksum(), other.checksum());
+	}
+
+	@Test
+	@Transactional
+	void generatedRowsAreValidEntities() throws Exception {
+		long tickets = ticketRepository.count();
+		long comments = commentRepository.count();
+
+		DatasetGenerator.Result result = generate("seed=11", "prefix=dataset-test");
+
+		assertEquals(tickets + 300, ticketRepository.count());
+		assertEquals(comments + result.comments(), commentRepository.count());
+		assertTrue(result.comments() > 0);
+		assertEquals(generate("seed=11", "prefix=dataset-test", "dry-run=true").checksum(), result.checksum());
+
+		User agent = userRepository.findByUserName("dataset-test-agent-0").orElseThrow();
+		assertEquals(UserRole.AGENT, agent.getUserRole());
+		assertNotNull(agent.getDepartment());
+		assertTrue(passwordEncoder.matches("password", agent.getPassword()));
+		User customer = userRepository.findByUserName("dataset-test-customer-19").orElseThrow();
+		assertEquals(UserRole.CUSTOMER, customer.getUserRole());
+
+		// The busiest customer's tickets load with their associations and comments
+		User customer0 = userRepository.findByUserName("dataset-test-customer-0").orElseThrow();
+		List<Ticket> generated = ticketRepository.findAll().stream()
+				.filter(t -> t.getCustomer().getId().equals(customer0.getId())).toList();
+		assertTrue(generated.size() > 300 / 20, "Tickets should concentrate on the first customers");
+		for (Ticket ticket : generated) {
+			assertTrue(ticket.getDepartment().getName().startsWith("dataset-test "));
+			assertEquals(ticket.getAssignedAgent() == null, ticket.getStatus().name().equals("PENDING"));
+			assertTrue(ticket.getVersion() >= ticket.getComments().size());
+		}
+
+		// More than one block of new IDs can be drawn without hitting a generated ID (the insert would fail)
+		List<Department> more = IntStream.rangeClosed(0, IdGenerators.ALLOCATION_SIZE)
+				.mapToObj(i -> new Department("dataset-test after " + i)).toList();
+		departmentRepository.saveAllAndFlush(more);
+
+		// The search index holds the generated tickets (every description has a reference)
+		assertEquals(generated.size(), ticketSearchService.searchAll("reference", TicketSearchScope.customer(customer0.getId())).size());
+	}
+
+	private DatasetGenerator.Result generate(String... args) throws InterruptedException {
+		String[] defaults = { "departments=3", "agents=4", "customers=20", "tickets=300", "comments=900", "threads=2",
+				"batch-size=64" };
+		String[] all = new String[defaults.length + args.length];
+		System.arraycopy(defaults, 0, all, 0, defaults.length);
+		System.arraycopy(args, 0, all, defaults.length, args.length);
+		return new DatasetGenerator(context, DatasetSettings.parse(all)).generate();
+	}
+}
@@ -0,0 +1,257 @@
+package com.helpdesk.dataset;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import com.helpdesk.enums.Priority;
+import com.helpdesk.enums.Status;
+
+/**
+ * What a generated dataset looks like, as pure functions of the settings and the seed.
+ * Every row is drawn from its own random stream, keyed by its table and position, so the result does not depend on
+ * how the work is split into chunks or threads. The shape follows what a busy help desk sees:
+ * <ul>
+ * <li>departments follow a Zipf-like distribution: the first one gets about as many tickets as the next two together;</li>
+ * <li>a few customers file most tickets (see {@link DatasetSettings#customerSkew()});</li>
+ * <li>more tickets were created recently than long ago, and old tickets are mostly closed while new ones are mostly open;</li>
+ * <li>priorities are 45% low, 40% medium and 15% high;</li>
+ * <li>most tickets get a few comments and a few get dozens; untouched tickets get few.</li>
+ * </ul>
+ */
+final class DatasetModel {
+
+	private static final long DAY = 24L * 60 * 60 * 1000;
+
+	// Independent random streams per kind of row
+	private static final long USER_STREAM = 1;
+	private static final long TICKET_STREAM = 2;
+	private static final long TEXT_STREAM = 3;
+	private static final long COMMENT_STREAM = 4;
+
+	private static final String[] DEPARTMENTS = { "Support", "Billing", "Accounts", "Network", "Hardware", "Software",
+			"Security", "Onboarding", "Shipping", "Returns", "Facilities", "Payroll" };
+	private static final String[] FIRST_NAMES = { "Alex", "Sam", "Maria", "Wei", "Priya", "Omar", "Lena", "Jonas",
+			"Aiko", "Carlos", "Fatima", "Noah", "Zoe", "Ivan", "Amara", "Luca" };
+	private static final String[] LAST_NAMES = { "Smith", "Garcia", "Chen", "Patel", "Haddad", "Novak", "Okafor",
+			"Silva", "Tanaka", "Müller", "Kowalski", "Rossi", "Nguyen", "Brown", "Larsen", "Dubois" };
+	private static final String[] SUBJECTS = { "VPN client", "Invoice", "Password reset", "Laptop", "Email account",
+			"Printer", "Mobile app", "Order", "Refund", "Shared drive", "Badge", "Monitor", "Payment", "Login page" };
+	private static final String[] PROBLEMS = { "keeps disconnecting", "shows the wrong amount", "does not arrive",
+			"is very slow", "fails with an error", "is missing", "cannot be opened", "was charged twice",
+			"stopped working after the update", "needs to be replaced" };
+	private static final String[] SINCE = { "this morning", "yesterday", "last week", "the last update",
+			"I changed my password", "we moved offices" };
+	private static final String[] DETAILS = { "It happens every time I try.", "A colleague has the same problem.",
+			"Restarting did not help.", "This blocks my work.", "I attached the error message.",
+			"It worked fine before." };
+	private static final String[] CUSTOMER_REPLIES = { "Any update on this?", "I tried that, it still happens.",
+			"Thanks, that fixed it.", "Here is the screenshot you asked for.", "It happened again just now.",
+			"Can someone please look at this today?" };
+	private static final String[] AGENT_REPLIES = { "Thanks for reporting, I am looking into it.",
+			"Could you send a screenshot of the error?", "Please restart and try again.",
+			"I escalated this to the second level team.", "A fix has been deployed, please check.",
+			"Closing this as resolved; reply to reopen." };
+
+	// Priority mix (LOW, MEDIUM, HIGH) as running sums
+	private static final double[] PRIORITIES = cumulative(45, 40, 15);
+
+	// Status mix (PENDING, INPROGRESS, RESOLVED, CLOSED) by ticket age, as running sums
+	private static final long[] AGE_LIMITS = { DAY, 7 * DAY, 30 * DAY, Long.MAX_VALUE };
+	private static final double[][] STATUSES = {
+			cumulative(60, 40, 0, 0),
+			cumulative(20, 50, 25, 5),
+			cumulative(5, 20, 35, 40),
+			cumulative(0.5, 3, 11.5, 85) };
+
+	/**
+	 * The generated facts of one ticket; users and departments are positions, not database IDs.
+	 *
+	 * @param agent          position of the assigned agent, or -1 when unassigned
+	 * @param activityWindow time from creation to the last change (comments are spread over it)
+	 */
+	record TicketShape(long createdAt, Priority priority, Status status, int department, int customer, int agent,
+			int comments, long activityWindow, long version) {
+
+		long lastModified() {
+			return createdAt + activityWindow;
+		}
+	}
+
+	/**
+	 * A generated comment; {@code byAgent} tells whether the ticket's agent or its customer wrote it.
+	 */
+	record CommentShape(String body, long createdAt, boolean byAgent) {
+	}
+
+	/**
+	 * Generated account details.
+	 */
+	record Person(String userName, String email, String fullName, String phoneNumber) {
+	}
+
+	private final DatasetSettings settings;
+	private final long endMillis; // Creation time of the newest tickets
+	private final long spanMillis; // Age of the oldest tickets
+	private final double commentMean; // Average comments per ticket
+	private final double[] departmentCumulative; // Running sum of the department weights
+	private final int[] agentDepartments; // Department position of each agent
+	private final int[][] agentsByDepartment; // Agent positions of each department
+
+	DatasetModel(DatasetSettings settings) {
+		this.settings = settings;
+		this.endMillis = settings.end().toEpochMilli();
+		this.spanMillis = settings.days() * DAY;
+		this.commentMean = settings.tickets() == 0 ? 0 : (double) settings.comments() / settings.tickets();
+
+		double[] departmentWeights = new double[settings.departments()];
+		for (int d = 0; d < departmentWeights.length; d++) {
+			departmentWeights[d] = 1.0 / (d + 1);
+		}
+		departmentCumulative = cumulative(departmentWeights);
+
+		// Every department gets an agent before the busy ones get more, so no department is left without one
+		agentDepartments = new int[settings.agents()];
+		List<List<Integer>> members = new ArrayList<>();
+		for (int d = 0; d < settings.departments(); d++) {
+			members.add(new ArrayList<>());
+		}
+		for (int a = 0; a < agentDepartments.length; a++) {
+			agentDepartments[a] = a < settings.departments() ? a : pick(departmentCumulative, random(USER_STREAM, a).nextDouble());
+			members.get(agentDepartments[a]).add(a);
+		}
+		agentsByDepartment = members.stream().map(m -> m.stream().mapToInt(Integer::intValue).toArray()).toArray(int[][]::new);
+	}
+
+	// Name of a department
+	String departmentName(int department) {
+		String name = settings.prefix() + " " + DEPARTMENTS[department % DEPARTMENTS.length];
+		return department < DEPARTMENTS.length ? name : name + " " + (department / DEPARTMENTS.length + 1);
+	}
+
+	// Department an agent works in
+	int agentDepartment(int agent) {
+		return agentDepartments[agent];
+	}
+
+	// Account details of an agent
+	Person agent(int agent) {
+		return person("agent", agent, random(USER_STREAM, agent));
+	}
+
+	// Account details of a customer
+	Person customer(int customer) {
+		return person("customer", customer, random(USER_STREAM, settings.agents() + (long) customer));
+	}
+
+	// The facts of a ticket, without its text (cheap enough to compute twice)
+	TicketShape ticket(long ticket) {
+		SplittableRandom random = random(TICKET_STREAM, ticket);
+		double recency = random.nextDouble();
+		long age = (long) (spanMillis * recency * recency);
+		Priority priority = Priority.values()[pick(PRIORITIES, random.nextDouble())];
+		int department = pick(departmentCumulative, random.nextDouble());
+		int customer = (int) (settings.customers() * Math.pow(random.nextDouble(), settings.customerSkew()));
+		Status status = status(age, random.nextDouble());
+
+		int[] candidates = agentsByDepartment[department];
+		if (candidates.length == 0) {
+			status = Status.PENDING; // Nobody could have picked it up
+		}
+		int agent = status == Status.PENDING ? -1 : candidates[random.nextInt(candidates.length)];
+		int comments = comments(random, status == Status.PENDING ? commentMean / 4 : commentMean);
+
+		long window;
+		if (status == Status.RESOLVED || status == Status.CLOSED) {
+			window = Math.min(age, (long) (-Math.log(1 - random.nextDouble()) * 3 * DAY)); // Handled in about 3 days
+		} else if (agent >= 0 || comments > 0) {
+			window = (long) (age * random.nextDouble());
+		} else {
+			window = 0;
+		}
+		long version = (agent >= 0 ? 1 : 0) + (status == Status.RESOLVED || status == Status.CLOSED ? 1 : 0)
+				+ (status == Status.CLOSED ? 1 : 0) + comments;
+		return new TicketShape(endMillis - age, priority, status, department, customer, agent, comments, window, version);
+	}
+
+	// Title of a ticket (at most 255 characters, like the column)
+	String title(long ticket) {
+		SplittableRandom random = random(TEXT_STREAM, ticket);
+		return SUBJECTS[random.nextInt(SUBJECTS.length)] + " " + PROBLEMS[random.nextInt(PROBLEMS.length)];
+	}
+
+	// Description of a ticket (at most 255 characters, like the column)
+	String description(long ticket) {
+		SplittableRandom random = random(TEXT_STREAM, ~ticket);
+		return "Since " + SINCE[random.nextInt(SINCE.length)] + " the " + SUBJECTS[random.nextInt(SUBJECTS.length)].toLowerCase()
+				+ " " + PROBLEMS[random.nextInt(PROBLEMS.length)] + ". " + DETAILS[random.nextInt(DETAILS.length)]
+				+ " Reference " + Long.toString(random.nextLong() & Long.MAX_VALUE, 36) + ".";
+	}
+
+	// The index-th comment of a ticket; comments alternate between customer and agent, starting with the customer
+	CommentShape comment(long ticket, TicketShape shape, int index) {
+		SplittableRandom random = random(COMMENT_STREAM, ticket * 1_000_003 + index);
+		boolean byAgent = shape.agent() >= 0 && index % 2 == 1;
+		String[] replies = byAgent ? AGENT_REPLIES : CUSTOMER_REPLIES;
+		String body = replies[random.nextInt(replies.length)];
+		if (random.nextInt(4) == 0) {
+			body = body + " " + DETAILS[random.nextInt(DETAILS.length)];
+		}
+		long offset = (long) (shape.activityWindow() * (index + random.nextDouble()) / shape.comments());
+		return new CommentShape(body, shape.createdAt() + offset, byAgent);
+	}
+
+	// Mixes the seed, a stream and a position into the seed of that row's random numbers (SplitMix64 finalizer)
+	static long mix(long seed, long stream, long position) {
+		long z = seed * 0x9E3779B97F4A7C15L + stream * 0xD1B54A32D192ED03L + position * 0xABC98388FB8FAC03L;
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+
+	private SplittableRandom random(long stream, long position) {
+		return new SplittableRandom(mix(settings.seed(), stream, position));
+	}
+
+	private Person person(String role, int position, SplittableRandom random) {
+		String userName = settings.prefix() + "-" + role + "-" + position;
+		String fullName = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " " + LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+		String phoneNumber = random.nextInt(5) == 0 ? null : String.format("+1-555-%07d", random.nextInt(10_000_000));
+		return new Person(userName, userName + "@" + settings.prefix() + ".example", fullName, phoneNumber);
+	}
+
+	private static Status status(long age, double draw) {
+		int band = 0;
+		while (age >= AGE_LIMITS[band]) {
+			band++;
+		}
+		return Status.values()[pick(STATUSES[band], draw)];
+	}
+
+	// Comment count: nine in ten tickets draw from a short geometric distribution, the rest from a long one
+	private static int comments(SplittableRandom random, double mean) {
+		if (mean <= 0) {
+			return 0;
+		}
+		double groupMean = random.nextInt(10) == 0 ? mean * 4.6 : mean * 0.6;
+		double keep = groupMean / (1 + groupMean); // Geometric: each further comment follows with this probability
+		return (int) Math.floor(Math.log(1 - random.nextDouble()) / Math.log(keep));
+	}
+
+	// Index drawn from running sums of weights for a uniform draw in [0, 1)
+	private static int pick(double[] cumulative, double draw) {
+		int i = Arrays.binarySearch(cumulative, draw * cumulative[cumulative.length - 1]);
+		return Math.min(i >= 0 ? i + 1 : -i - 1, cumulative.length - 1);
+	}
+
+	private static double[] cumulative(double... weights) {
+		double[] sums = new double[weights.length];
+		double sum = 0;
+		for (int i = 0; i < weights.length; i++) {
+			sum += weights[i];
+			sums[i] = sum;
+		}
+		return sums;
+	}
+}
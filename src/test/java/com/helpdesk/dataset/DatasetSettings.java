@@ -0,0 +1,69 @@
+package com.helpdesk.dataset;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Size and shape of a generated dataset, read from {@code key=value} program arguments.
+ * The same settings and seed always produce the same rows (apart from IDs, which continue after existing data).
+ *
+ * @param prefix            prefix of generated user and department names, so several datasets can share a schema
+ * @param departments       departments to create; tickets and agents are spread over them with a Zipf-like skew
+ * @param agents            agent accounts
+ * @param customers         customer accounts
+ * @param tickets           tickets
+ * @param comments          comments in total (approximately: the count per ticket is drawn from a long-tailed distribution)
+ * @param days              tickets are created over this many days before {@code end}, more of them recently
+ * @param end               creation time of the newest tickets
+ * @param customerSkew      how strongly tickets concentrate on few customers (1 = uniform; 2 means the busiest 1% file ~10%)
+ * @param password          password of every generated account (stored as one shared BCrypt hash)
+ * @param threads           parallel writer connections
+ * @param batchSize         rows per JDBC batch
+ * @param seed              random seed
+ * @param reindex           rebuild the full-text index afterwards (bulk inserts bypass automatic indexing)
+ * @param dryRun            generate rows and report their checksum without writing anything
+ */
+record DatasetSettings(String prefix, int departments, int agents, int customers, long tickets, long comments, int days,
+		Instant end, double customerSkew, String password, int threads, int batchSize, long seed, boolean reindex,
+		boolean dryRun) {
+
+	// Parses arguments such as "agents=10000 customers=1000000 tickets=20000000 comments=100000000 seed=7"
+	static DatasetSettings parse(String[] args) {
+		Map<String, String> values = new HashMap<>();
+		for (String arg : args) {
+			int eq = arg.indexOf('=');
+			if (eq <= 0 || arg.startsWith("--")) {
+				continue; // Spring Boot arguments such as --spring.datasource.url=... are passed on as they are
+			}
+			values.put(arg.substring(0, eq).trim(), arg.substring(eq + 1).trim());
+		}
+		DatasetSettings settings = new DatasetSettings(
+				values.getOrDefault("prefix", "gen"),
+				Integer.parseInt(values.getOrDefault("departments", "12")),
+				Integer.parseInt(values.getOrDefault("agents", "100")),
+				Integer.parseInt(values.getOrDefault("customers", "10000")),
+				Long.parseLong(values.getOrDefault("tickets", "100000")),
+				Long.parseLong(values.getOrDefault("comments", "500000")),
+				Integer.parseInt(values.getOrDefault("days", "730")),
+				Instant.parse(values.getOrDefault("end", "2026-01-01T00:00:00Z")),
+				Double.parseDouble(values.getOrDefault("customer-skew", "2.0")),
+				values.getOrDefault("password", "password"),
+				Integer.parseInt(values.getOrDefault("threads", String.valueOf(Runtime.getRuntime().availableProcessors()))),
+				Integer.parseInt(values.getOrDefault("batch-size", "1000")),
+				Long.parseLong(values.getOrDefault("seed", "42")),
+				Boolean.parseBoolean(values.getOrDefault("reindex", "true")),
+				Boolean.parseBoolean(values.getOrDefault("dry-run", "false")));
+		settings.validate();
+		return settings;
+	}
+
+	private void validate() {
+		if (departments < 1 || customers < 1 || agents < 0 || tickets < 0 || comments < 0 || days < 1) {
+			throw new IllegalArgumentException("Counts must not be negative, and at least one department and customer are needed: " + this);
+		}
+		if (threads < 1 || batchSize < 1 || customerSkew < 1) {
+			throw new IllegalArgumentException("threads and batch-size must be positive and customer-skew at least 1: " + this);
+		}
+	}
+}
@@ -0,0 +1,87 @@
+package com.helpdesk.load;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.concurrent.locks.LockSupport;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Adds a fixed delay to every statement execution and commit, so a load run on the embedded database blocks in JDBC
+ * about as long as one against a database server across the network. Without it requests hardly wait on I/O, and
+ * thread models that differ in how they wait cannot be compared.
+ */
+class JdbcLatency implements BeanPostProcessor {
+
+	private final long delayNanos;
+
+	JdbcLatency(Duration delay) {
+		this.delayNanos = delay.toNanos();
+	}
+
+	@Override
+	public Object postProcessAfterInitialization(Object bean, String beanName) {
+		if (bean instanceof DataSource dataSource && !(bean instanceof SlowDataSource)) {
+			return new SlowDataSource(dataSource);
+		}
+		return bean;
+	}
+
+	private final class SlowDataSource extends DelegatingDataSource {
+
+		SlowDataSource(DataSource target) {
+			super(target);
+		}
+
+		@Override
+		public Connection getConnection() throws SQLException {
+			return slowed(Connection.class, super.getConnection());
+		}
+	}
+
+	// A proxy that waits before executing statements and commits, and slows the statements it creates as well
+	@SuppressWarnings("unchecked")
+	private <T> T slowed(Class<T> type, T target) {
+		return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, (proxy, method, args) -> {
+			String name = method.getName();
+			if (name.equals("equals")) {
+				return proxy == args[0];
+			}
+			if (name.equals("hashCode")) {
+				return System.identityHashCode(proxy);
+			}
+			if (name.startsWith("execute") || name.equals("commit")) {
+				LockSupport.parkNanos(delayNanos); // Parks, so a virtual thread releases its carrier like it would on a socket read
+			}
+			Object result = invoke(method, target, args);
+			if (result instanceof CallableStatement statement) {
+				return slowed(CallableStatement.class, statement);
+			}
+			if (result instanceof PreparedStatement statement) {
+				return slowed(PreparedStatement.class, statement);
+			}
+			if (result instanceof Statement statement) {
+				return slowed(Statement.class, statement);
+			}
+			return result;
+		});
+	}
+
+	private static Object invoke(Method method, Object target, Object[] args) throws Throwable {
+		try {
+			return method.invoke(target, args);
+		} catch (InvocationTargetException e) {
+			throw e.getCause();
+		}
+	}
+}
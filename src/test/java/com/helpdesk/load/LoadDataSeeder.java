@@ -0,0 +1,192 @@
+package com.helpdesk.load;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.springframework.context.ApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.helpdesk.entities.Comment;
+import com.helpdesk.entities.Department;
+import com.helpdesk.entities.Ticket;
+import com.helpdesk.entities.User;
+import com.helpdesk.enums.Priority;
+import com.helpdesk.enums.Status;
+import com.helpdesk.enums.UserRole;
+import com.helpdesk.repositories.CommentRepository;
+import com.helpdesk.repositories.DepartmentRepository;
+import com.helpdesk.repositories.TicketRepository;
+import com.helpdesk.repositories.UserRepository;
+import com.helpdesk.services.admin.DepartmentCache;
+import com.helpdesk.services.dispatch.TicketDispatchService;
+
+/**
+ * Fills the embedded database of a load run through the application's repositories, in batches.
+ * All accounts share one password, hashed once, so seeding does not pay for thousands of BCrypt rounds;
+ * logging in still checks it the normal way.
+ */
+class LoadDataSeeder {
+
+	static final String PASSWORD = "load-password";
+
+	private static final int CHUNK = 500; // Rows saved per transaction
+
+	/**
+	 * A seeded account and the tickets it may comment on (grows as the run creates tickets).
+	 */
+	record Account(Long id, String userName, List<Long> ticketIds) {
+	}
+
+	/**
+	 * What the load run needs to know about the seeded data.
+	 */
+	record SeededData(List<String> departmentNames, List<Account> customers, List<Account> agents, Account admin) {
+	}
+
+	private final ApplicationContext context;
+	private final LoadSettings settings;
+
+	LoadDataSeeder(ApplicationContext context, LoadSettings settings) {
+		this.context = context;
+		this.settings = settings;
+	}
+
+	SeededData seed() {
+		DepartmentRepository departmentRepository = context.getBean(DepartmentRepository.class);
+		UserRepository userRepository = context.getBean(UserRepository.class);
+		TicketRepository ticketRepository = context.getBean(TicketRepository.class);
+		CommentRepository commentRepository = context.getBean(CommentRepository.class);
+		String passwordHash = context.getBean(PasswordEncoder.class).encode(PASSWORD);
+		Random random = new Random(settings.seed());
+
+		List<Department> departments = new ArrayList<>();
+		for (int i = 0; i < settings.departments(); i++) {
+			departments.add(new Department("Load department " + i));
+		}
+		departments = departmentRepository.saveAll(departments);
+		context.getBean(DepartmentCache.class).invalidate();
+
+		List<User> users = new ArrayList<>();
+		for (int i = 0; i < settings.customers(); i++) {
+			users.add(user("load-customer-" + i, UserRole.CUSTOMER, null, passwordHash));
+		}
+		for (int i = 0; i < settings.agents(); i++) {
+			users.add(user("load-agent-" + i, UserRole.AGENT, departments.get(i % departments.size()), passwordHash));
+		}
+		users.add(user("load-admin", UserRole.ADMIN, null, passwordHash));
+		List<User> saved = new ArrayList<>();
+		for (List<User> chunk : chunks(users)) {
+			saved.addAll(userRepository.saveAll(chunk));
+		}
+		List<User> customers = saved.subList(0, settings.customers());
+		List<User> agents = saved.subList(settings.customers(), settings.customers() + settings.agents());
+		User admin = saved.get(saved.size() - 1);
+
+		// Tickets: created over the last 90 days; about 60% already assigned to an agent of their department
+		long now = System.currentTimeMillis();
+		List<Ticket> tickets = new ArrayList<>();
+		List<Integer> owners = new ArrayList<>();
+		List<Integer> assignees = new ArrayList<>();
+		for (int i = 0; i < settings.tickets(); i++) {
+			int customer = random.nextInt(customers.size());
+			Department department = departments.get(random.nextInt(departments.size()));
+			List<Integer> departmentAgents = new ArrayList<>();
+			for (int a = 0; a < agents.size(); a++) {
+				if (agents.get(a).getDepartment().getId().equals(department.getId())) {
+					departmentAgents.add(a);
+				}
+			}
+			Integer agent = !departmentAgents.isEmpty() && random.nextInt(10) < 6
+					? departmentAgents.get(random.nextInt(departmentAgents.size()))
+					: null;
+
+			Ticket ticket = new Ticket();
+			ticket.setTitle("Load ticket " + i + " about " + department.getName());
+			ticket.setDescription("Seeded by the load generator. The customer describes the problem in a few sentences here.");
+			ticket.setCreatedDate(new Date(now - random.nextInt(90 * 24 * 3600) * 1000L));
+			ticket.setPriority(Priority.values()[random.nextInt(Priority.values().length)]);
+			ticket.setStatus(agent == null ? Status.PENDING : Status.INPROGRESS);
+			ticket.setCustomer(customers.get(customer));
+			ticket.setAssignedAgent(agent == null ? null : agents.get(agent));
+			ticket.setDepartment(department);
+			tickets.add(ticket);
+			owners.add(customer);
+			assignees.add(agent);
+		}
+		List<Ticket> savedTickets = new ArrayList<>();
+		for (List<Ticket> chunk : chunks(tickets)) {
+			savedTickets.addAll(ticketRepository.saveAll(chunk));
+		}
+		List<List<Long>> customerTickets = emptyLists(customers.size());
+		List<List<Long>> agentTickets = emptyLists(agents.size());
+		for (int i = 0; i < savedTickets.size(); i++) {
+			Long id = savedTickets.get(i).getId();
+			customerTickets.get(owners.get(i)).add(id);
+			if (assignees.get(i) != null) {
+				agentTickets.get(assignees.get(i)).add(id);
+			}
+		}
+
+		// Comments alternate between the customer and, once assigned, the agent
+		List<Comment> comments = new ArrayList<>();
+		for (Ticket ticket : savedTickets) {
+			for (int c = 0; c < settings.commentsPerTicket(); c++) {
+				Comment comment = new Comment();
+				comment.setBody("Seeded comment " + c + " on ticket " + ticket.getId());
+				comment.setCreatedAt(new Date(ticket.getCreatedDate().getTime() + (c + 1) * 60_000L));
+				comment.setTicket(ticket);
+				comment.setUser(c % 2 == 1 && ticket.getAssignedAgent() != null ? ticket.getAssignedAgent() : ticket.getCustomer());
+				comments.add(comment);
+			}
+		}
+		for (List<Comment> chunk : chunks(comments)) {
+			commentRepository.saveAll(chunk);
+		}
+
+		context.getBean(TicketDispatchService.class).rebuild(); // Pending tickets were written around the dispatcher
+		List<Account> customerAccounts = new ArrayList<>();
+		for (int i = 0; i < customers.size(); i++) {
+			customerAccounts.add(account(customers.get(i), customerTickets.get(i)));
+		}
+		List<Account> agentAccounts = new ArrayList<>();
+		for (int i = 0; i < agents.size(); i++) {
+			agentAccounts.add(account(agents.get(i), agentTickets.get(i)));
+		}
+		return new SeededData(departments.stream().map(Department::getName).toList(), customerAccounts, agentAccounts,
+				account(admin, List.of()));
+	}
+
+	private static Account account(User user, List<Long> ticketIds) {
+		return new Account(user.getId(), user.getUsername(), new CopyOnWriteArrayList<>(ticketIds));
+	}
+
+	private static List<List<Long>> emptyLists(int count) {
+		List<List<Long>> lists = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			lists.add(new ArrayList<>());
+		}
+		return lists;
+	}
+
+	private static User user(String userName, UserRole role, Department department, String passwordHash) {
+		User user = new User();
+		user.setUserName(userName);
+		user.setEmail(userName + "@load.test");
+		user.setPassword(passwordHash);
+		user.setFullName(userName);
+		user.setUserRole(role);
+		user.setDepartment(department);
+		return user;
+	}
+
+	private static <T> List<List<T>> chunks(List<T> rows) {
+		List<List<T>> chunks = new ArrayList<>();
+		for (int from = 0; from < rows.size(); from += CHUNK) {
+			chunks.add(rows.subList(from, Math.min(rows.size(), from + CHUNK)));
+		}
+		return chunks;
+	}
+}
@@ -0,0 +1,23 @@
+package com.helpdesk.load;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * The requests a load run mixes, with their default share of the traffic.
+ * The defaults follow a support desk's usual shape: agents poll their queue far more often than anyone writes.
+ */
+@Getter
+@RequiredArgsConstructor
+enum LoadOperation {
+
+	CREATE_TICKET("create-ticket", "POST /api/customer/ticket", 10),
+	POLL_ASSIGNED("poll-assigned", "GET /api/agent/assigned/tickets", 45),
+	POST_COMMENT("post-comment", "POST /api/comments", 20),
+	ADMIN_LIST("admin-list", "GET /api/admin/tickets", 10),
+	ADMIN_FILTER("admin-filter", "GET /api/admin/tickets/status/{status}", 15);
+
+	private final String key; // Name used in the "mix." settings
+	private final String endpoint; // Endpoint shown in the report
+	private final int defaultWeight;
+}
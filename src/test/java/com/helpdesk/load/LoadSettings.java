@@ -0,0 +1,86 @@
+package com.helpdesk.load;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.convert.DurationStyle;
+
+/**
+ * Scale, duration and request mix of a load run, read from {@code key=value} program arguments.
+ * Every setting has a default, so a run without arguments is a short smoke test on a small dataset.
+ *
+ * @param departments       departments to seed
+ * @param customers         customer accounts to seed (each logs in once)
+ * @param agents            agent accounts to seed, spread over the departments
+ * @param tickets           tickets to seed
+ * @param commentsPerTicket comments seeded on every ticket
+ * @param threads           concurrent virtual users
+ * @param warmup            time spent driving load before measuring
+ * @param duration          measured time
+ * @param rate              total requests per second to aim for; 0 runs every user in a closed loop (as fast as possible)
+ * @param mix               relative weight of each operation
+ * @param report            directory the report is written to
+ * @param seed              random seed for the dataset and the request sequence
+ * @param virtualThreads    run the application with {@code spring.threads.virtual.enabled}
+ * @param jdbcLatency       delay added to every statement and commit, standing in for the network round trip to a
+ *                          database server (the embedded database answers in microseconds)
+ * @param springArgs        arguments starting with {@code --}, passed to the application (e.g. {@code --server.tomcat.threads.max=50})
+ */
+record LoadSettings(int departments, int customers, int agents, int tickets, int commentsPerTicket, int threads,
+		Duration warmup, Duration duration, int rate, Map<LoadOperation, Integer> mix, Path report, long seed,
+		boolean virtualThreads, Duration jdbcLatency, List<String> springArgs) {
+
+	// Parses arguments such as "customers=500 duration=2m mix.poll-assigned=80"
+	static LoadSettings parse(String[] args) {
+		Map<String, String> values = new HashMap<>();
+		List<String> springArgs = new ArrayList<>();
+		for (String arg : args) {
+			if (arg.startsWith("--")) {
+				springArgs.add(arg);
+				continue;
+			}
+			int eq = arg.indexOf('=');
+			if (eq <= 0) {
+				throw new IllegalArgumentException("Expected key=value, got: " + arg);
+			}
+			values.put(arg.substring(0, eq).trim(), arg.substring(eq + 1).trim());
+		}
+
+		Map<LoadOperation, Integer> mix = new EnumMap<>(LoadOperation.class);
+		for (LoadOperation operation : LoadOperation.values()) {
+			int weight = Integer.parseInt(values.getOrDefault("mix." + operation.getKey(), String.valueOf(operation.getDefaultWeight())));
+			if (weight > 0) {
+				mix.put(operation, weight);
+			}
+		}
+		if (mix.isEmpty()) {
+			throw new IllegalArgumentException("The request mix is empty");
+		}
+
+		return new LoadSettings(
+				intValue(values, "departments", 5),
+				intValue(values, "customers", 100),
+				intValue(values, "agents", 10),
+				intValue(values, "tickets", 2_000),
+				intValue(values, "comments-per-ticket", 3),
+				intValue(values, "threads", 16),
+				DurationStyle.detectAndParse(values.getOrDefault("warmup", "10s")),
+				DurationStyle.detectAndParse(values.getOrDefault("duration", "30s")),
+				intValue(values, "rate", 0),
+				mix,
+				Path.of(values.getOrDefault("report", "target/load-report")),
+				Long.parseLong(values.getOrDefault("seed", "42")),
+				Boolean.parseBoolean(values.getOrDefault("virtual-threads", "false")),
+				DurationStyle.detectAndParse(values.getOrDefault("jdbc-latency", "0ms")),
+				List.copyOf(springArgs));
+	}
+
+	private static int intValue(Map<String, String> values, String key, int defaultValue) {
+		return values.containsKey(key) ? Integer.parseInt(values.get(key)) : defaultValue;
+	}
+}
@@ -0,0 +1,345 @@
+package com.helpdesk.load;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.helpdesk.HelpDeskApplication;
+import com.helpdesk.enums.Priority;
+import com.helpdesk.enums.Status;
+import com.helpdesk.load.LoadDataSeeder.Account;
+import com.helpdesk.load.LoadDataSeeder.SeededData;
+
+/**
+ * Load generator: boots the application on a random local port with the embedded database of the "load" profile,
+ * seeds it, logs every account in through {@code /api/auth/login} and drives a weighted mix of real endpoints
+ * over HTTP. Latencies go into one HdrHistogram per endpoint; the report (percentiles, throughput, errors) is
+ * printed and written to {@code report.txt} next to a percentile distribution file per endpoint.
+ *
+ * <p>Run with {@code mvn -Pload verify -Dload.args="customers=500 threads=32 duration=2m"}; see {@link LoadSettings}
+ * for every setting. With {@code rate=N} the users send N requests per second in total and latency is measured from
+ * when each request was due, so a stalled server is not hidden by users that stopped sending (coordinated omission).
+ */
+public final class LoadTestRunner {
+
+	private static final Duration TIMEOUT = Duration.ofSeconds(30);
+	private static final long HIGHEST_MICROS = TimeUnit.SECONDS.toMicros(60);
+
+	// Machine-readable per-endpoint results: requests, errors, requests/s and latencies in milliseconds
+	static final String SUMMARY_FILE = "summary.csv";
+	static final String SUMMARY_HEADER = "endpoint,requests,errors,throughput,p50,p90,p99,p99.9,max";
+
+	/**
+	 * Latencies and outcomes of one endpoint.
+	 */
+	private static final class EndpointStats {
+		private final Histogram latencyMicros = new ConcurrentHistogram(HIGHEST_MICROS, 3);
+		private final LongAdder errors = new LongAdder();
+		private final LongAdder notModified = new LongAdder();
+
+		void record(long nanos, int status) {
+			latencyMicros.recordValue(Math.min(HIGHEST_MICROS, TimeUnit.NANOSECONDS.toMicros(nanos)));
+			if (status == 304) {
+				notModified.increment();
+			} else if (status < 200 || status >= 300) {
+				errors.increment();
+			}
+		}
+	}
+
+	private final LoadSettings settings;
+	private final SeededData data;
+	private final String baseUrl;
+	private final HttpClient http = HttpClient.newBuilder().connectTimeout(TIMEOUT).version(HttpClient.Version.HTTP_1_1).build();
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	private final List<String> customerTokens = new ArrayList<>();
+	private final List<String> agentTokens = new ArrayList<>();
+	private String adminToken;
+	private AtomicReferenceArray<String> agentListETags; // Last list ETag per agent, sent back as If-None-Match like a polling client
+
+	private final LoadOperation[] weighted; // Each operation repeated by its weight, so picking one is a single random index
+
+	private LoadTestRunner(LoadSettings settings, SeededData data, int port) {
+		this.settings = settings;
+		this.data = data;
+		this.baseUrl = "http://localhost:" + port;
+		List<LoadOperation> operations = new ArrayList<>();
+		settings.mix().forEach((operation, weight) -> {
+			for (int i = 0; i < weight; i++) {
+				operations.add(operation);
+			}
+		});
+		this.weighted = operations.toArray(LoadOperation[]::new);
+	}
+
+	public static void main(String[] args) throws Exception {
+		LoadSettings settings = LoadSettings.parse(args);
+		System.setProperty("spring.devtools.restart.enabled", "false"); // Devtools is on the test classpath
+
+		SpringApplicationBuilder application = new SpringApplicationBuilder(HelpDeskApplication.class).profiles("load");
+		if (!settings.jdbcLatency().isZero()) {
+			application.initializers(context -> context.getBeanFactory().addBeanPostProcessor(new JdbcLatency(settings.jdbcLatency())));
+		}
+		// Passed as an argument rather than a default property, which application.properties would override
+		List<String> springArgs = new ArrayList<>(settings.springArgs());
+		springArgs.add(0, "--spring.threads.virtual.enabled=" + settings.virtualThreads());
+		ConfigurableApplicationContext context = application.run(springArgs.toArray(String[]::new));
+		try {
+			int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+			log("Seeding %d customers, %d agents, %d tickets with %d comments each", settings.customers(), settings.agents(),
+					settings.tickets(), settings.commentsPerTicket());
+			SeededData data = new LoadDataSeeder(context, settings).seed();
+
+			LoadTestRunner runner = new LoadTestRunner(settings, data, port);
+			runner.logIn();
+			log("Warming up for %s", settings.warmup());
+			runner.drive(settings.warmup());
+			log("Measuring for %s with %d users%s on %s threads", settings.duration(), settings.threads(),
+					settings.rate() > 0 ? " at " + settings.rate() + " requests/s" : "", settings.virtualThreads() ? "virtual" : "platform");
+			long start = System.nanoTime();
+			Map<LoadOperation, EndpointStats> stats = runner.drive(settings.duration());
+			runner.report(stats, (System.nanoTime() - start) / 1e9);
+		} finally {
+			context.close();
+		}
+	}
+
+	// Logs every seeded account in, in parallel (each login is a BCrypt check)
+	private void logIn() throws Exception {
+		log("Logging in %d accounts", data.customers().size() + data.agents().size() + 1);
+		ExecutorService pool = Executors.newFixedThreadPool(settings.threads());
+		try {
+			List<Future<String>> customers = pool.invokeAll(data.customers().stream().map(this::loginTask).toList());
+			List<Future<String>> agents = pool.invokeAll(data.agents().stream().map(this::loginTask).toList());
+			for (Future<String> token : customers) {
+				customerTokens.add(token.get());
+			}
+			for (Future<String> token : agents) {
+				agentTokens.add(token.get());
+			}
+			adminToken = loginTask(data.admin()).call();
+		} finally {
+			pool.shutdown();
+		}
+		agentListETags = new AtomicReferenceArray<>(agentTokens.size());
+	}
+
+	private Callable<String> loginTask(Account account) {
+		return () -> {
+			String body = objectMapper.writeValueAsString(Map.of("userName", account.userName(), "password", LoadDataSeeder.PASSWORD));
+			HttpResponse<String> response = http.send(post("/api/auth/login", null, body), HttpResponse.BodyHandlers.ofString());
+			if (response.statusCode() != 200) {
+				throw new IllegalStateException("Login of " + account.userName() + " failed with " + response.statusCode());
+			}
+			return objectMapper.readTree(response.body()).get("jwt").asText();
+		};
+	}
+
+	// Runs every user for the given time and returns what they measured
+	private Map<LoadOperation, EndpointStats> drive(Duration duration) throws Exception {
+		Map<LoadOperation, EndpointStats> stats = new EnumMap<>(LoadOperation.class);
+		settings.mix().keySet().forEach(operation -> stats.put(operation, new EndpointStats()));
+		long end = System.nanoTime() + duration.toNanos();
+		long interval = settings.rate() > 0 ? TimeUnit.SECONDS.toNanos(settings.threads()) / settings.rate() : 0;
+
+		ExecutorService users = Executors.newFixedThreadPool(settings.threads());
+		try {
+			List<Future<?>> running = new ArrayList<>();
+			for (int u = 0; u < settings.threads(); u++) {
+				running.add(users.submit(() -> {
+					ThreadLocalRandom random = ThreadLocalRandom.current();
+					long due = System.nanoTime() + (interval > 0 ? random.nextLong(interval) : 0); // Spread the users' first requests
+					while (due < end) {
+						LoadOperation operation = weighted[random.nextInt(weighted.length)];
+						long start;
+						if (interval > 0) {
+							LockSupport.parkNanos(due - System.nanoTime());
+							start = due;
+							due += interval;
+						} else {
+							start = System.nanoTime();
+							due = start;
+						}
+						int status;
+						try {
+							status = execute(operation, random);
+						} catch (IOException e) {
+							status = -1;
+						} catch (InterruptedException e) {
+							Thread.currentThread().interrupt();
+							return null;
+						}
+						stats.get(operation).record(System.nanoTime() - start, status);
+					}
+					return null;
+				}));
+			}
+			for (Future<?> user : running) {
+				user.get();
+			}
+		} finally {
+			users.shutdownNow();
+		}
+		return stats;
+	}
+
+	// Sends one request of the operation as a random user and returns the HTTP status
+	private int execute(LoadOperation operation, ThreadLocalRandom random) throws IOException, InterruptedException {
+		switch (operation) {
+			case CREATE_TICKET -> {
+				int customer = random.nextInt(customerTokens.size());
+				String body = objectMapper.writeValueAsString(Map.of(
+						"title", "Load ticket from " + data.customers().get(customer).userName(),
+						"description", "Created during the load run",
+						"priority", Priority.values()[random.nextInt(Priority.values().length)].name(),
+						"departmentName", data.departmentNames().get(random.nextInt(data.departmentNames().size()))));
+				HttpResponse<String> response = http.send(post("/api/customer/ticket", customerTokens.get(customer), body),
+						HttpResponse.BodyHandlers.ofString());
+				if (response.statusCode() == 201) {
+					JsonNode created = objectMapper.readTree(response.body());
+					data.customers().get(customer).ticketIds().add(created.get("id").asLong());
+				}
+				return response.statusCode();
+			}
+			case POLL_ASSIGNED -> {
+				int agent = random.nextInt(agentTokens.size());
+				HttpRequest.Builder request = get("/api/agent/assigned/tickets?size=20", agentTokens.get(agent));
+				String eTag = agentListETags.get(agent);
+				if (eTag != null) {
+					request.header("If-None-Match", eTag);
+				}
+				HttpResponse<Void> response = http.send(request.build(), HttpResponse.BodyHandlers.discarding());
+				response.headers().firstValue("ETag").ifPresent(tag -> agentListETags.set(agent, tag));
+				return response.statusCode();
+			}
+			case POST_COMMENT -> {
+				boolean byAgent = random.nextBoolean();
+				List<Account> accounts = byAgent ? data.agents() : data.customers();
+				int index = random.nextInt(accounts.size());
+				List<Long> tickets = accounts.get(index).ticketIds();
+				if (tickets.isEmpty()) {
+					byAgent = false;
+					index = random.nextInt(data.customers().size());
+					tickets = data.customers().get(index).ticketIds();
+				}
+				if (tickets.isEmpty()) {
+					return 204; // Nothing this user may comment on yet
+				}
+				String body = objectMapper.writeValueAsString(Map.of(
+						"ticketId", tickets.get(random.nextInt(tickets.size())),
+						"body", "Comment posted during the load run"));
+				String token = byAgent ? agentTokens.get(index) : customerTokens.get(index);
+				return http.send(post("/api/comments", token, body), HttpResponse.BodyHandlers.discarding()).statusCode();
+			}
+			case ADMIN_LIST -> {
+				return http.send(get("/api/admin/tickets?size=50", adminToken).build(), HttpResponse.BodyHandlers.discarding())
+						.statusCode();
+			}
+			case ADMIN_FILTER -> {
+				Status status = Status.values()[random.nextInt(Status.values().length)];
+				return http.send(get("/api/admin/tickets/status/" + status + "?size=50", adminToken).build(),
+						HttpResponse.BodyHandlers.discarding()).statusCode();
+			}
+			default -> throw new IllegalArgumentException("Unknown operation " + operation);
+		}
+	}
+
+	// Prints the report and writes it, with one percentile distribution per endpoint and a CSV summary
+	// (read by ThreadModeComparison), to the report directory
+	private void report(Map<LoadOperation, EndpointStats> stats, double seconds) throws IOException {
+		Path directory = settings.report();
+		Files.createDirectories(directory);
+		Histogram all = new Histogram(HIGHEST_MICROS, 3);
+		long allErrors = 0;
+		StringBuilder summary = new StringBuilder(SUMMARY_HEADER).append('\n');
+
+		StringBuilder report = new StringBuilder();
+		report.append(String.format("Load run finished %s%n", Instant.now()));
+		report.append(String.format("%s%n%n", settings));
+		report.append(String.format("%-42s %9s %7s %6s %9s %8s %8s %8s %8s %8s%n",
+				"Endpoint", "Requests", "Errors", "304s", "Req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms"));
+		for (Map.Entry<LoadOperation, EndpointStats> entry : stats.entrySet()) {
+			EndpointStats endpoint = entry.getValue();
+			Histogram histogram = endpoint.latencyMicros.copy();
+			all.add(histogram);
+			allErrors += endpoint.errors.sum();
+			report.append(row(entry.getKey().getEndpoint(), histogram, endpoint.errors.sum(), endpoint.notModified.sum(), seconds));
+			summary.append(csv(entry.getKey().getEndpoint(), histogram, endpoint.errors.sum(), seconds));
+			try (PrintStream out = new PrintStream(Files.newOutputStream(directory.resolve(entry.getKey().getKey() + ".hgrm")))) {
+				histogram.outputPercentileDistribution(out, 1000.0); // In milliseconds
+			}
+		}
+		report.append(row("All endpoints", all, allErrors, -1, seconds));
+		summary.append(csv("All endpoints", all, allErrors, seconds));
+
+		Files.writeString(directory.resolve("report.txt"), report);
+		Files.writeString(directory.resolve(SUMMARY_FILE), summary);
+		System.out.println();
+		System.out.print(report);
+		log("Report written to %s", directory.toAbsolutePath());
+	}
+
+	private static String row(String name, Histogram histogram, long errors, long notModified, double seconds) {
+		return String.format("%-42s %9d %7d %6s %9.1f %8.2f %8.2f %8.2f %8.2f %8.2f%n", name, histogram.getTotalCount(), errors,
+				notModified < 0 ? "" : String.valueOf(notModified), histogram.getTotalCount() / seconds,
+				millis(histogram, 50), millis(histogram, 90), millis(histogram, 99), millis(histogram, 99.9),
+				histogram.getMaxValue() / 1000.0);
+	}
+
+	private static String csv(String name, Histogram histogram, long errors, double seconds) {
+		return String.format(Locale.ROOT, "%s,%d,%d,%.1f,%.3f,%.3f,%.3f,%.3f,%.3f%n", name, histogram.getTotalCount(), errors,
+				histogram.getTotalCount() / seconds, millis(histogram, 50), millis(histogram, 90), millis(histogram, 99),
+				millis(histogram, 99.9), histogram.getMaxValue() / 1000.0);
+	}
+
+	private static double millis(Histogram histogram, double percentile) {
+		return histogram.getValueAtPercentile(percentile) / 1000.0;
+	}
+
+	private HttpRequest.Builder get(String path, String token) {
+		return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(TIMEOUT).header("Authorization", "Bearer " + token).GET();
+	}
+
+	private HttpRequest post(String path, String token, String json) {
+		HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(TIMEOUT)
+				.header("Content-Type", "application/json")
+				.POST(HttpRequest.BodyPublishers.ofString(json));
+		if (token != null) {
+			request.header("Authorization", "Bearer " + token);
+		}
+		return request.build();
+	}
+
+	private static void log(String format, Object... args) {
+		System.out.printf("[load] " + format + "%n", args);
+	}
+}
@@ -0,0 +1,93 @@
+package com.helpdesk.load;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs the same load twice, once with requests on platform threads and once on virtual threads, and puts throughput
+ * and tail latency side by side. Each run gets a fresh JVM, so the second does not profit from the first's JIT
+ * compilation or heap. Every {@link LoadSettings} argument is passed to both runs; use enough users to exceed
+ * Tomcat's 200 platform threads and a {@code jdbc-latency} that makes requests wait on the database, e.g.
+ * {@code mvn -Pload verify -Dload.main=com.helpdesk.load.ThreadModeComparison -Dload.args="threads=400 jdbc-latency=5ms"}.
+ * The per-run reports go to {@code platform/} and {@code virtual/} below the report directory, the comparison to
+ * {@code comparison.txt}.
+ */
+public final class ThreadModeComparison {
+
+	private static final String[] MODES = { "platform", "virtual" };
+
+	private ThreadModeComparison() {
+	}
+
+	public static void main(String[] args) throws Exception {
+		LoadSettings settings = LoadSettings.parse(args);
+		List<String> shared = Arrays.stream(args)
+				.filter(arg -> !arg.startsWith("report=") && !arg.startsWith("virtual-threads="))
+				.toList();
+
+		Map<String, Map<String, String[]>> results = new LinkedHashMap<>();
+		for (String mode : MODES) {
+			Path report = settings.report().resolve(mode);
+			List<String> command = new ArrayList<>(List.of(ProcessHandle.current().info().command().orElse("java"),
+					"-classpath", System.getProperty("java.class.path"), LoadTestRunner.class.getName()));
+			command.addAll(shared);
+			command.add("virtual-threads=" + mode.equals("virtual"));
+			command.add("report=" + report);
+			System.out.printf("[compare] Running the load on %s threads%n", mode);
+			int exit = new ProcessBuilder(command).inheritIO().start().waitFor();
+			if (exit != 0) {
+				throw new IllegalStateException("The " + mode + " run failed with exit code " + exit);
+			}
+			results.put(mode, read(report.resolve(LoadTestRunner.SUMMARY_FILE)));
+		}
+
+		String comparison = compare(settings, results.get("platform"), results.get("virtual"));
+		Files.writeString(settings.report().resolve("comparison.txt"), comparison);
+		System.out.println();
+		System.out.print(comparison);
+	}
+
+	// Summary rows by endpoint
+	private static Map<String, String[]> read(Path summary) throws IOException {
+		Map<String, String[]> rows = new LinkedHashMap<>();
+		for (String line : Files.readAllLines(summary)) {
+			if (!line.isBlank() && !line.equals(LoadTestRunner.SUMMARY_HEADER)) {
+				String[] columns = line.split(",");
+				rows.put(columns[0], columns);
+			}
+		}
+		return rows;
+	}
+
+	// Requests/s and latency percentiles of both runs per endpoint, with the change from platform to virtual
+	private static String compare(LoadSettings settings, Map<String, String[]> platform, Map<String, String[]> virtual) {
+		StringBuilder out = new StringBuilder();
+		out.append(String.format("Platform vs. virtual threads, %d users for %s, JDBC latency %s%n%n", settings.threads(),
+				settings.duration(), settings.jdbcLatency()));
+		out.append(String.format("%-42s %-8s %18s %18s %18s %18s %11s%n", "Endpoint", "", "Req/s", "p50 ms", "p99 ms",
+				"p99.9 ms", "Errors"));
+		for (String endpoint : platform.keySet()) {
+			String[] p = platform.get(endpoint);
+			String[] v = virtual.get(endpoint);
+			if (v == null) {
+				continue;
+			}
+			out.append(String.format("%-42s %-8s %18s %18s %18s %18s %11s%n", endpoint, "p -> v",
+					change(p[3], v[3]), change(p[4], v[4]), change(p[6], v[6]), change(p[7], v[7]), p[2] + " -> " + v[2]));
+		}
+		return out.toString();
+	}
+
+	private static String change(String before, String after) {
+		double from = Double.parseDouble(before);
+		double to = Double.parseDouble(after);
+		String percent = from == 0 ? "" : String.format(" (%+.0f%%)", (to - from) * 100 / from);
+		return String.format("%.1f->%.1f%s", from, to, percent);
+	}
+}
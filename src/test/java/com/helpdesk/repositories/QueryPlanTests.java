@@ -0,0 +1,221 @@
+package com.helpdesk.repositories;
+
+import static com.helpdesk.support.TestData.user;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.helpdesk.entities.Comment;
+import com.helpdesk.entities.Department;
+import com.helpdesk.entities.Ticket;
+import com.helpdesk.entities.User;
+import com.helpdesk.enums.Priority;
+import com.helpdesk.enums.Status;
+import com.helpdesk.enums.UserRole;
+import com.helpdesk.support.SqlCapture;
+import com.helpdesk.utils.TicketCursor;
+
+/**
+ * Query-plan regression suite: runs every repository query against a seeded database,
+ * asks H2 to EXPLAIN each captured SELECT with the same parameters and fails on full table scans.
+ * Adding a repository method without a plan check here fails {@link #everyRepositoryMethodHasAPlanCheck()}.
+ * The class has a context, and so a database, of its own: starting a context recreates the schema and the ID
+ * generator table, which would hand out IDs that a cached context sharing the database has already reserved.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:query-plans;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;NON_KEYWORDS=USER")
+@ActiveProfiles("test")
+@Import(SqlCapture.Config.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class QueryPlanTests {
+
+	private static final List<Class<?>> REPOSITORIES = List.of(
+			TicketRepository.class, CommentRepository.class, UserRepository.class, DepartmentRepository.class);
+
+	private static final int CUSTOMERS = 40;
+	private static final int AGENTS = 10;
+	private static final int TICKETS = 2000;
+
+	@Autowired private TicketRepository ticketRepository;
+	@Autowired private CommentRepository commentRepository;
+	@Autowired private UserRepository userRepository;
+	@Autowired private DepartmentRepository departmentRepository;
+	@Autowired private JdbcTemplate jdbcTemplate;
+	@Autowired private SqlCapture sqlCapture;
+
+	private Department department;
+	private User customer;
+	private User agent;
+	private Ticket ticket;
+
+	@BeforeAll
+	void seed() {
+		sqlCapture.withoutRecording(() -> {
+			List<Department> departments = new ArrayList<>();
+			for (int i = 0; i < 8; i++) {
+				departments.add(departmentRepository.save(new Department("Plan department " + i)));
+			}
+			department = departments.get(0);
+
+			List<User> customers = new ArrayList<>();
+			for (int i = 0; i < CUSTOMERS; i++) {
+				customers.add(userRepository.save(user("plan-customer-" + i, UserRole.CUSTOMER, null)));
+			}
+			List<User> agents = new ArrayList<>();
+			for (int i = 0; i < AGENTS; i++) {
+				agents.add(userRepository.save(user("plan-agent-" + i, UserRole.AGENT, departments.get(i % departments.size()))));
+			}
+			customer = customers.get(0);
+			agent = agents.get(0);
+
+			long start = System.currentTimeMillis() - TICKETS * 60_000L;
+			List<Ticket> tickets = new ArrayList<>();
+			for (int i = 0; i < TICKETS; i++) {
+				Ticket t = new Ticket();
+				t.setTitle("Plan ticket " + i);
+				t.setDescription("Seeded for query plan checks");
+				t.setCreatedDate(new Date(start + i * 60_000L));
+				t.setPriority(Priority.values()[i % Priority.values().length]);
+				t.setStatus(Status.values()[i % Status.values().length]);
+				t.setCustomer(customers.get(i % CUSTOMERS));
+				t.setAssignedAgent(i % 3 == 0 ? null : agents.get(i % AGENTS));
+				t.setDepartment(departments.get(i % departments.size()));
+				tickets.add(t);
+			}
+			tickets = ticketRepository.saveAll(tickets);
+			ticket = tickets.get(0);
+
+			List<Comment> comments = new ArrayList<>();
+			for (int i = 0; i < TICKETS; i++) {
+				Comment c = new Comment();
+				c.setBody("Plan comment " + i);
+				c.setCreatedAt(new Date(start + i * 60_000L));
+				c.setTicket(tickets.get(i));
+				c.setUser(i % 2 == 0 ? customers.get(i % CUSTOMERS) : agents.get(i % AGENTS));
+				comments.add(c);
+			}
+			commentRepository.saveAll(comments);
+
+			// Refresh optimizer statistics so index selectivity reflects the seeded data
+			jdbcTemplate.execute("ANALYZE");
+		});
+	}
+
+	// One entry per declared repository method, keyed "Repository.method"
+	private Map<String, Runnable> planChecks() {
+		Date first = TicketCursor.FIRST.getCreatedDate();
+		Long firstId = TicketCursor.FIRST.getId();
+		Limit page = Limit.of(21);
+		Long customerId = customer.getId();
+		Long agentId = agent.getId();
+
+		Map<String, Runnable> checks = new LinkedHashMap<>();
+
+		checks.put("TicketRepository.findWithDetailsById", () -> ticketRepository.findWithDetailsById(ticket.getId()));
+		checks.put("TicketRepository.findSummariesByIdIn", () -> ticketRepository.findSummariesByIdIn(List.of(ticket.getId(), ticket.getId() + 1)));
+		checks.put("TicketRepository.findVersionById", () -> ticketRepository.findVersionById(ticket.getId()));
+		checks.put("TicketRepository.findVersionByIdAndCustomerId", () -> ticketRepository.findVersionByIdAndCustomerId(ticket.getId(), customerId));
+		checks.put("TicketRepository.findVersionByIdAndAssignedAgentId", () -> ticketRepository.findVersionByIdAndAssignedAgentId(ticket.getId(), agentId));
+		checks.put("TicketRepository.findSetVersionByCustomer", () -> ticketRepository.findSetVersionByCustomer(customerId));
+		checks.put("TicketRepository.findSetVersionByAssignedAgent", () -> ticketRepository.findSetVersionByAssignedAgent(agentId));
+		checks.put("TicketRepository.markModified", () -> ticketRepository.markModified(List.of(-1L, -2L), new Date()));
+		checks.put("TicketRepository.countByCustomerId", () -> ticketRepository.countByCustomerId(customerId));
+		checks.put("TicketRepository.findIdsByCustomer", () -> ticketRepository.findIdsByCustomer(customerId, Limit.of(500)));
+		// Bulk deletes are checked with IDs that do not exist, so the seeded data stays intact
+		checks.put("TicketRepository.deleteByIdIn", () -> ticketRepository.deleteByIdIn(List.of(-1L, -2L)));
+		checks.put("TicketRepository.findTicketByCustomerAndId", () -> ticketRepository.findTicketByCustomerAndId(customer, ticket.getId()));
+		checks.put("TicketRepository.findPageByCustomer", () -> ticketRepository.findPageByCustomer(customerId, first, firstId, page));
+		checks.put("TicketRepository.findPageByCustomerAndPriority", () -> ticketRepository.findPageByCustomerAndPriority(customerId, Priority.HIGH, first, firstId, page));
+		checks.put("TicketRepository.findPageByCustomerAndStatus", () -> ticketRepository.findPageByCustomerAndStatus(customerId, Status.PENDING, first, firstId, page));
+		checks.put("TicketRepository.findPageByCustomerAndDepartmentName", () -> ticketRepository.findPageByCustomerAndDepartmentName(customerId, department.getName(), first, firstId, page));
+		checks.put("TicketRepository.findPage", () -> ticketRepository.findPage(first, firstId, page));
+		checks.put("TicketRepository.findPageByPriority", () -> ticketRepository.findPageByPriority(Priority.HIGH, first, firstId, page));
+		checks.put("TicketRepository.findPageByStatus", () -> ticketRepository.findPageByStatus(Status.PENDING, first, firstId, page));
+		checks.put("TicketRepository.findPageByDepartmentName", () -> ticketRepository.findPageByDepartmentName(department.getName(), first, firstId, page));
+		checks.put("TicketRepository.countGrouped", () -> ticketRepository.countGrouped());
+		checks.put("TicketRepository.countGroupedByCustomer", () -> ticketRepository.countGroupedByCustomer(customerId));
+		checks.put("TicketRepository.countGroupedByDepartment", () -> ticketRepository.countGroupedByDepartment(department.getId()));
+		checks.put("TicketRepository.countPerAgent", () -> ticketRepository.countPerAgent(List.of(Status.PENDING, Status.INPROGRESS), UserRole.AGENT));
+		checks.put("TicketRepository.countPerAgentInDepartment", () -> ticketRepository.countPerAgentInDepartment(List.of(Status.PENDING, Status.INPROGRESS), UserRole.AGENT, department.getId()));
+		checks.put("TicketRepository.findQueued", () -> ticketRepository.findQueued(Status.PENDING));
+		checks.put("TicketRepository.findQueuedByDepartment", () -> ticketRepository.findQueuedByDepartment(Status.PENDING, department.getId()));
+		checks.put("TicketRepository.claimPending", () -> ticketRepository.claimPending(-1L, agent, Status.INPROGRESS, Status.PENDING, department.getId(), new Date()));
+		checks.put("TicketRepository.claim", () -> ticketRepository.claim(-1L, agent, Status.INPROGRESS, new Date()));
+		checks.put("TicketRepository.findByAssignedAgent", () -> ticketRepository.findByAssignedAgent(agent));
+		checks.put("TicketRepository.findTicketByAssignedAgentAndId", () -> ticketRepository.findTicketByAssignedAgentAndId(agent, ticket.getId()));
+		checks.put("TicketRepository.findPageByAssignedAgent", () -> ticketRepository.findPageByAssignedAgent(agentId, first, firstId, page));
+		checks.put("TicketRepository.findPageByAssignedAgentAndPriority", () -> ticketRepository.findPageByAssignedAgentAndPriority(agentId, Priority.HIGH, first, firstId, page));
+		checks.put("TicketRepository.findPageByAssignedAgentAndStatus", () -> ticketRepository.findPageByAssignedAgentAndStatus(agentId, Status.PENDING, first, firstId, page));
+		checks.put("TicketRepository.findPageByAssignedAgentAndDepartmentNameContaining", () -> ticketRepository.findPageByAssignedAgentAndDepartmentNameContaining(agentId, "department", first, firstId, page));
+
+		checks.put("CommentRepository.findAllByTicketId", () -> commentRepository.findAllByTicketId(ticket.getId()));
+		checks.put("CommentRepository.findByUser", () -> commentRepository.findByUser(agent));
+		checks.put("CommentRepository.deleteByTicketIdIn", () -> commentRepository.deleteByTicketIdIn(List.of(-1L, -2L)));
+		checks.put("CommentRepository.findTicketIdsByUserId", () -> commentRepository.findTicketIdsByUserId(agent.getId()));
+		checks.put("CommentRepository.deleteByUserId", () -> commentRepository.deleteByUserId(-1L));
+
+		checks.put("UserRepository.findByUserName", () -> userRepository.findByUserName(customer.getUsername()));
+		checks.put("UserRepository.findFirstByEmail", () -> userRepository.findFirstByEmail(customer.getEmail()));
+		checks.put("UserRepository.findByUserRole", () -> userRepository.findByUserRole(UserRole.ADMIN));
+		checks.put("UserRepository.findAllByUserRole", () -> userRepository.findAllByUserRole(UserRole.AGENT));
+		checks.put("UserRepository.findByUserRoleAndUserNameContaining", () -> userRepository.findByUserRoleAndUserNameContaining(UserRole.AGENT, "agent-1"));
+
+		checks.put("DepartmentRepository.findByName", () -> departmentRepository.findByName(department.getName()));
+
+		return checks;
+	}
+
+	@TestFactory
+	Stream<DynamicTest> repositoryQueriesUseIndexes() {
+		return planChecks().entrySet().stream()
+				.map(check -> DynamicTest.dynamicTest(check.getKey(), () -> assertNoTableScan(check.getValue())));
+	}
+
+	@Test
+	void everyRepositoryMethodHasAPlanCheck() {
+		Set<String> declared = REPOSITORIES.stream()
+				.flatMap(repository -> Arrays.stream(repository.getDeclaredMethods())
+						.map(method -> repository.getSimpleName() + "." + method.getName()))
+				.collect(Collectors.toCollection(TreeSet::new));
+		assertEquals(declared, new TreeSet<>(planChecks().keySet()),
+				"Every repository method needs an entry in QueryPlanTests.planChecks()");
+	}
+
+	// Runs the query, then EXPLAINs every SELECT, UPDATE and DELETE it issued with the parameters it was bound to
+	private void assertNoTableScan(Runnable query) {
+		sqlCapture.clear();
+		query.run();
+		List<SqlCapture.Statement> statements = sqlCapture.statements().stream()
+				.filter(SqlCapture.Statement::isExplainable)
+				.toList();
+		assertFalse(statements.isEmpty(), "Query did not reach the database");
+
+		sqlCapture.withoutRecording(() -> {
+			for (SqlCapture.Statement statement : statements) {
+				String plan = jdbcTemplate.queryForObject("EXPLAIN " + statement.sql(), String.class, statement.parameters().toArray());
+				assertFalse(plan.contains("tableScan"), () -> "Full table scan:\n" + plan);
+			}
+		});
+	}
+}
@@ -0,0 +1,233 @@
+package com.helpdesk.services.admin;
+
+import static com.helpdesk.support.TestData.ticket;
+import static com.helpdesk.support.TestData.user;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.helpdesk.dto.PurgeJobDto;
+import com.helpdesk.entities.Comment;
+import com.helpdesk.entities.Department;
+import com.helpdesk.entities.Ticket;
+import com.helpdesk.entities.User;
+import com.helpdesk.enums.JobStatus;
+import com.helpdesk.enums.UserRole;
+import com.helpdesk.repositories.CommentRepository;
+import com.helpdesk.repositories.DepartmentRepository;
+import com.helpdesk.repositories.TicketRepository;
+import com.helpdesk.repositories.UserRepository;
+import com.helpdesk.services.search.TicketSearchScope;
+import com.helpdesk.services.search.TicketSearchService;
+import com.helpdesk.support.SqlCapture;
+import com.helpdesk.utils.JwtUtil;
+
+/**
+ * Customer purge: everything the customer wrote is deleted chunk by chunk, and the job reports its progress.
+ * Most tests drive their own purge service with a small chunk size and an executor the test runs by hand, so every
+ * state of the job can be observed.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Import(SqlCapture.Config.class)
+class CustomerPurgeTests {
+
+	private static final int CHUNK_SIZE = 3;
+
+	@Autowired private MockMvc mockMvc;
+	@Autowired private ObjectMapper objectMapper;
+	@Autowired private JwtUtil jwtUtil;
+	@Autowired private UserRepository userRepository;
+	@Autowired private DepartmentRepository departmentRepository;
+	@Autowired private TicketRepository ticketRepository;
+	@Autowired private CommentRepository commentRepository;
+	@Autowired private TicketSearchService ticketSearchService;
+	@Autowired private TransactionTemplate transactionTemplate;
+
+	private final List<Runnable> queued = new ArrayList<>(); // Jobs handed to the executor, run by the test
+	private final List<PurgeJobDto> progress = new ArrayList<>(); // The job as seen by each chunk before it commits
+	private CustomerPurgeService purgeService;
+	private String jobId;
+
+	@Test
+	void purgeDeletesTheCustomerChunkByChunk() {
+		Department department = departmentRepository.save(new Department("Purge department"));
+		User customer = userRepository.save(user("purge-customer", UserRole.CUSTOMER, null));
+		User neighbour = userRepository.save(user("purge-neighbour", UserRole.CUSTOMER, null));
+		User agent = userRepository.save(user("purge-agent", UserRole.AGENT, department));
+
+		// More tickets than fit in two chunks, each commented on by its customer and by the agent
+		for (int i = 0; i < 7; i++) {
+			Ticket own = ticket("Zanzibar printer " + i, customer, department);
+			ticketRepository.save(withComments(own, comment("Still broken", own, customer), comment("Looking into it", own, agent)));
+		}
+		// The customer also commented on someone else's ticket
+		Ticket foreign = ticket("Neighbour scanner", neighbour, department);
+		foreign = ticketRepository.save(withComments(foreign, comment("Quokka workaround", foreign, customer), comment("Thanks", foreign, neighbour)));
+		long foreignVersion = ticketRepository.findById(foreign.getId()).orElseThrow().getVersion();
+		assertEquals(7, search("Zanzibar").size());
+		assertEquals(1, search("Quokka").size());
+
+		PurgeJobDto job = startPurge(customer.getId());
+		assertEquals(JobStatus.QUEUED, job.getStatus());
+		assertEquals(7, job.getTotalTickets());
+		assertEquals(JobStatus.QUEUED, purgeService.getJob(job.getJobId()).orElseThrow().getStatus());
+
+		runQueued();
+
+		// One chunk per CHUNK_SIZE tickets, each seeing the progress committed before it
+		assertEquals(List.of(0L, 3L, 6L), progress.stream().map(PurgeJobDto::getTicketsDeleted).toList());
+		progress.forEach(seen -> assertEquals(JobStatus.RUNNING, seen.getStatus()));
+		PurgeJobDto done = purgeService.getJob(job.getJobId()).orElseThrow();
+		assertEquals(JobStatus.COMPLETED, done.getStatus());
+		assertEquals(7, done.getTicketsDeleted());
+		assertEquals(15, done.getCommentsDeleted()); // 14 on the customer's tickets, 1 on the neighbour's
+		assertNotNull(done.getFinishedAt());
+		assertNull(done.getError());
+
+		assertTrue(userRepository.findById(customer.getId()).isEmpty());
+		assertEquals(0, ticketRepository.countByCustomerId(customer.getId()));
+		assertTrue(commentRepository.findByUser(agent).isEmpty(), "Comments of other users go with the tickets");
+		List<Comment> left = commentRepository.findAllByTicketId(foreign.getId());
+		assertEquals(1, left.size());
+		assertEquals(neighbour.getId(), left.get(0).getUser().getId());
+		assertTrue(ticketRepository.findById(foreign.getId()).orElseThrow().getVersion() > foreignVersion,
+				"The neighbour's ticket lost a comment, so its ETag changes");
+
+		assertEquals(List.of(), search("Zanzibar"));
+		assertEquals(List.of(), search("Quokka"));
+		assertEquals(1, search("Neighbour scanner").size());
+	}
+
+	@Test
+	void failedPurgeKeepsTheAccountAndReportsTheError() {
+		Department department = departmentRepository.save(new Department("Purge failure department"));
+		User customer = userRepository.save(user("purge-failing-customer", UserRole.CUSTOMER, null));
+		User neighbour = userRepository.save(user("purge-failing-neighbour", UserRole.CUSTOMER, null));
+		for (int i = 0; i < 4; i++) {
+			ticketRepository.save(ticket("Failing purge " + i, customer, department));
+		}
+		// A row the purge does not clean up keeps the account from being deleted
+		Ticket blocking = ticket("Assigned to a customer", neighbour, department);
+		blocking.setAssignedAgent(customer);
+		ticketRepository.save(blocking);
+
+		PurgeJobDto job = startPurge(customer.getId());
+		runQueued();
+
+		PurgeJobDto failed = purgeService.getJob(job.getJobId()).orElseThrow();
+		assertEquals(JobStatus.FAILED, failed.getStatus());
+		assertNotNull(failed.getError());
+		assertNotNull(failed.getFinishedAt());
+		assertEquals(4, failed.getTicketsDeleted(), "Chunks committed before the failure stay deleted");
+		assertEquals(0, ticketRepository.countByCustomerId(customer.getId()));
+		assertTrue(userRepository.findById(customer.getId()).isPresent());
+	}
+
+	@Test
+	void purgeEndpointQueuesTheJobAndReportsItsProgress() throws Exception {
+		User admin = userRepository.save(user("purge-admin", UserRole.ADMIN, null));
+		User agent = userRepository.save(user("purge-endpoint-agent", UserRole.AGENT, null));
+		User customer = userRepository.save(user("purge-endpoint-customer", UserRole.CUSTOMER, null));
+		Department department = departmentRepository.save(new Department("Purge endpoint department"));
+		ticketRepository.save(ticket("Purged through the endpoint", customer, department));
+		String token = jwtUtil.generateToken(admin);
+
+		MockHttpServletResponse missing = mockMvc.perform(delete("/api/admin/customers/" + Long.MAX_VALUE)
+				.header("Authorization", "Bearer " + token)).andReturn().getResponse();
+		assertEquals(400, missing.getStatus());
+		assertEquals("Customer not found", objectMapper.readTree(missing.getContentAsString()).get("message").asText());
+		MockHttpServletResponse notCustomer = mockMvc.perform(delete("/api/admin/customers/" + agent.getId())
+				.header("Authorization", "Bearer " + token)).andReturn().getResponse();
+		assertEquals(400, notCustomer.getStatus());
+		assertEquals(404, mockMvc.perform(get("/api/admin/jobs/no-such-job")
+				.header("Authorization", "Bearer " + token)).andReturn().getResponse().getStatus());
+
+		MockHttpServletResponse accepted = mockMvc.perform(delete("/api/admin/customers/" + customer.getId())
+				.header("Authorization", "Bearer " + token)).andReturn().getResponse();
+		assertEquals(202, accepted.getStatus());
+		String location = accepted.getHeader("Location");
+		assertEquals("/api/admin/jobs/" + objectMapper.readTree(accepted.getContentAsString()).get("jobId").asText(), location);
+
+		// The job runs on the application executor; poll it like a client would
+		JsonNode job = null;
+		for (int i = 0; i < 100; i++) {
+			job = objectMapper.readTree(mockMvc.perform(get(location).header("Authorization", "Bearer " + token))
+					.andReturn().getResponse().getContentAsString());
+			if (job.get("finishedAt") != null && !job.get("finishedAt").isNull()) {
+				break;
+			}
+			Thread.sleep(50);
+		}
+		assertEquals("COMPLETED", job.get("status").asText());
+		assertEquals(1, job.get("ticketsDeleted").asLong());
+		assertTrue(userRepository.findById(customer.getId()).isEmpty());
+	}
+
+	// Starts a purge on a service with a hand-run executor whose chunks record the job's state before they commit
+	private PurgeJobDto startPurge(Long customerId) {
+		TicketSearchService recording = (TicketSearchService) Proxy.newProxyInstance(getClass().getClassLoader(),
+				new Class<?>[] { TicketSearchService.class }, (proxy, method, args) -> {
+					if (method.getName().equals("removeFromIndex")) {
+						purgeService.getJob(jobId).ifPresent(progress::add);
+					}
+					try {
+						return method.invoke(ticketSearchService, args);
+					} catch (InvocationTargetException e) {
+						throw e.getCause();
+					}
+				});
+		purgeService = new CustomerPurgeServiceImpl(userRepository, ticketRepository, commentRepository, recording,
+				transactionTemplate, queued::add, CHUNK_SIZE);
+		PurgeJobDto job = purgeService.startPurge(customerId);
+		jobId = job.getJobId();
+		return job;
+	}
+
+	// Runs the job queued by startPurge on the test thread
+	private void runQueued() {
+		assertEquals(1, queued.size());
+		queued.remove(0).run();
+	}
+
+	private List<?> search(String text) {
+		return ticketSearchService.searchAll(text, TicketSearchScope.all());
+	}
+
+	// Comments are saved with their ticket, so its first search document already includes them
+	private static Ticket withComments(Ticket ticket, Comment... comments) {
+		ticket.setComments(new ArrayList<>(List.of(comments)));
+		return ticket;
+	}
+
+	private static Comment comment(String body, Ticket ticket, User author) {
+		Comment comment = new Comment();
+		comment.setBody(body);
+		comment.setCreatedAt(new Date());
+		comment.setTicket(ticket);
+		comment.setUser(author);
+		return comment;
+	}
+}
@@ -0,0 +1,159 @@
+package com.helpdesk.services.admin;
+
+import static com.helpdesk.support.TestData.user;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.TimeZone;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.helpdesk.entities.Department;
+import com.helpdesk.entities.Ticket;
+import com.helpdesk.entities.User;
+import com.helpdesk.enums.Priority;
+import com.helpdesk.enums.Status;
+import com.helpdesk.enums.UserRole;
+import com.helpdesk.repositories.DepartmentRepository;
+import com.helpdesk.repositories.TicketRepository;
+import com.helpdesk.repositories.UserRepository;
+import com.helpdesk.support.SqlCapture;
+import com.helpdesk.support.TestData;
+import com.helpdesk.utils.JwtUtil;
+
+/**
+ * Ticket export: filters, day boundaries in the server's time zone, and the CSV and NDJSON output.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Import(SqlCapture.Config.class)
+class TicketExportTests {
+
+	// Far from UTC, so a day boundary taken in the wrong zone misses tickets by half a day
+	private static final ZoneId ZONE = ZoneId.of("Pacific/Auckland");
+
+	@Autowired private MockMvc mockMvc;
+	@Autowired private ObjectMapper objectMapper;
+	@Autowired private JwtUtil jwtUtil;
+	@Autowired private UserRepository userRepository;
+	@Autowired private DepartmentRepository departmentRepository;
+	@Autowired private TicketRepository ticketRepository;
+
+	@Test
+	void exportFiltersByDayInTheServersTimeZone() throws Exception {
+		TimeZone original = TimeZone.getDefault();
+		TimeZone.setDefault(TimeZone.getTimeZone(ZONE));
+		try {
+			Department department = departmentRepository.save(new Department("Export department"));
+			Department other = departmentRepository.save(new Department("Export other department"));
+			User customer = userRepository.save(user("export-customer", UserRole.CUSTOMER, null));
+			User agent = userRepository.save(user("export-agent", UserRole.AGENT, department));
+			String token = jwtUtil.generateToken(userRepository.save(user("export-admin", UserRole.ADMIN, null)));
+
+			// Created through the API on 10 March: midnight of that day, like CustomerServiceImpl stores it
+			Ticket first = ticketRepository.save(ticket("Export first", Priority.HIGH, Status.PENDING,
+					java.sql.Date.valueOf(LocalDate.of(2024, 3, 10)), customer, null, department));
+			Ticket late = ticketRepository.save(ticket("Export late", Priority.LOW, Status.CLOSED,
+					at(LocalDateTime.of(2024, 3, 11, 23, 30)), customer, agent, department));
+			ticketRepository.save(ticket("Export next day", Priority.HIGH, Status.PENDING,
+					at(LocalDateTime.of(2024, 3, 12, 0, 0)), customer, null, department));
+			ticketRepository.save(ticket("Export other", Priority.HIGH, Status.PENDING,
+					at(LocalDateTime.of(2024, 3, 11, 12, 0)), customer, null, other));
+
+			String days = "?department=Export department&from=2024-03-10&to=2024-03-11";
+			List<String> csv = lines(export("csv" + days, token));
+			assertEquals("id,title,description,priority,status,createdDate,customerName,agentName,departmentName", csv.get(0));
+			assertEquals(3, csv.size(), "Header, then the tickets of both days and nothing from the 12th");
+			assertTrue(csv.get(1).startsWith(first.getId() + ",\"Export first\","), csv.get(1));
+			assertTrue(csv.get(2).startsWith(late.getId() + ","), "Rows come in ID order");
+			assertTrue(csv.get(2).endsWith(",export-customer,export-agent,\"Export department\""), csv.get(2));
+
+			MockHttpServletResponse ndjson = export("ndjson" + days + "&status=CLOSED", token);
+			assertEquals("application/x-ndjson", ndjson.getContentType());
+			assertTrue(ndjson.getContentAsString().endsWith("\n"));
+			List<String> rows = lines(ndjson);
+			assertEquals(1, rows.size());
+			JsonNode row = objectMapper.readTree(rows.get(0));
+			assertEquals(late.getId(), row.get("id").asLong());
+			assertEquals("CLOSED", row.get("status").asText());
+			assertEquals("LOW", row.get("priority").asText());
+			assertEquals("export-agent", row.get("agentName").asText());
+			assertEquals("Export department", row.get("departmentName").asText());
+
+			List<String> high = lines(export("ndjson?department=Export department&priority=HIGH", token));
+			assertEquals(List.of("Export first", "Export next day"), high.stream().map(this::title).toList());
+		} finally {
+			TimeZone.setDefault(original);
+		}
+	}
+
+	@Test
+	void unknownFormatIsABadRequest() throws Exception {
+		String token = jwtUtil.generateToken(userRepository.save(user("export-format-admin", UserRole.ADMIN, null)));
+		MockHttpServletResponse response = mockMvc.perform(get("/api/admin/tickets/export/xml")
+				.header("Authorization", "Bearer " + token)).andReturn().getResponse();
+		assertEquals(400, response.getStatus());
+		assertEquals("Unknown export format xml, expected csv or ndjson",
+				objectMapper.readTree(response.getContentAsString()).get("message").asText());
+	}
+
+	// Performs an export and waits for the streamed body
+	private MockHttpServletResponse export(String path, String token) throws Exception {
+		MvcResult started = mockMvc.perform(get("/api/admin/tickets/export/" + path).header("Authorization", "Bearer " + token))
+				.andReturn();
+		MockHttpServletResponse response = mockMvc.perform(asyncDispatch(started)).andReturn().getResponse();
+		assertEquals(200, response.getStatus());
+		return response;
+	}
+
+	private static List<String> lines(MockHttpServletResponse response) throws Exception {
+		List<String> lines = new ArrayList<>();
+		for (String line : response.getContentAsString().split("\n")) {
+			if (!line.isBlank()) {
+				lines.add(line.strip());
+			}
+		}
+		return lines;
+	}
+
+	private String title(String ndjsonLine) {
+		try {
+			return objectMapper.readTree(ndjsonLine).get("title").asText();
+		} catch (Exception e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static Date at(LocalDateTime time) {
+		return Date.from(time.atZone(ZONE).toInstant());
+	}
+
+	private static Ticket ticket(String title, Priority priority, Status status, Date created, User customer, User agent,
+			Department department) {
+		Ticket t = TestData.ticket(title, customer, department);
+		t.setCreatedDate(created);
+		t.setPriority(priority);
+		t.setStatus(status);
+		t.setAssignedAgent(agent);
+		return t;
+	}
+}
@@ -0,0 +1,154 @@
+package com.helpdesk.services.admin;
+
+import static com.helpdesk.support.TestData.user;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.helpdesk.dto.ImportRowErrorDto;
+import com.helpdesk.dto.TicketImportResultDto;
+import com.helpdesk.entities.Department;
+import com.helpdesk.entities.Ticket;
+import com.helpdesk.entities.User;
+import com.helpdesk.enums.FileFormat;
+import com.helpdesk.enums.Status;
+import com.helpdesk.enums.UserRole;
+import com.helpdesk.repositories.DepartmentRepository;
+import com.helpdesk.repositories.TicketRepository;
+import com.helpdesk.repositories.UserRepository;
+import com.helpdesk.services.dispatch.TicketDispatchService;
+import com.helpdesk.support.SqlCapture;
+import com.helpdesk.utils.JwtUtil;
+
+/**
+ * Bulk import: every kind of bad row is rejected with its row number while the other rows are imported, including
+ * the good rows of a batch that failed at the database and was retried row by row.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Import(SqlCapture.Config.class)
+class TicketImportTests {
+
+	private static final int BATCH_SIZE = 4;
+	private static final List<String> COLUMNS = List.of("title", "description", "priority", "status", "createdDate",
+			"customer", "department", "agent");
+
+	@Autowired private MockMvc mockMvc;
+	@Autowired private ObjectMapper objectMapper;
+	@Autowired private JwtUtil jwtUtil;
+	@Autowired private UserRepository userRepository;
+	@Autowired private DepartmentRepository departmentRepository;
+	@Autowired private TicketRepository ticketRepository;
+	@Autowired private TicketDispatchService ticketDispatchService;
+	@Autowired private TransactionTemplate transactionTemplate;
+
+	@ParameterizedTest
+	@EnumSource(FileFormat.class)
+	void badRowsAreRejectedAndTheRestImportedOnce(FileFormat format) throws Exception {
+		String prefix = "Import " + format + " ";
+		String suffix = "-" + format.name().toLowerCase(Locale.ROOT);
+		Department department = departmentRepository.save(new Department("Import department" + suffix));
+		String customer = userRepository.save(user("import-customer" + suffix, UserRole.CUSTOMER)).getUsername();
+		String agent = userRepository.save(user("import-agent" + suffix, UserRole.AGENT)).getUsername();
+		String dept = department.getName();
+
+		List<String> lines = new ArrayList<>();
+		lines.add(row(format, prefix + "1", "LOW", "", "2023-04-01", customer, dept, ""));
+		lines.add(format == FileFormat.CSV ? "one,two,three,four,five,six,seven,eight,nine,ten" : "{\"title\": ");
+		lines.add(row(format, prefix + "3", "URGENT", "", "", customer, dept, ""));
+		lines.add(row(format, prefix + "4", "LOW", "", "", customer, "No such department", ""));
+		lines.add(row(format, prefix + "5", "LOW", "", "", "no-such-customer", dept, ""));
+		lines.add(row(format, prefix + "6", "LOW", "", "", agent, dept, ""));
+		lines.add(row(format, prefix + "7", "HIGH", "INPROGRESS", "2023-04-01T09:30:00Z", customer, dept, agent));
+		lines.add(row(format, prefix + "8", "medium", "", "", customer, dept, ""));
+		// Valid as far as the import can tell, but longer than the title column: fails the batch of rows 1, 7, 8 and 9
+		lines.add(row(format, prefix + "9 " + "x".repeat(300), "LOW", "", "", customer, dept, ""));
+		lines.add(row(format, prefix + "10", "LOW", "", "", customer, dept, ""));
+
+		TicketImportResultDto result = importer().importTickets(upload(format, lines), format);
+
+		assertEquals(10, result.getRowsRead());
+		assertEquals(4, result.getImported());
+		assertEquals(6, result.getFailed());
+		assertEquals(List.of(2L, 3L, 4L, 5L, 6L, 9L), result.getErrors().stream().map(ImportRowErrorDto::getRow).toList());
+		Map<Long, String> messages = new LinkedHashMap<>();
+		result.getErrors().forEach(error -> messages.put(error.getRow(), error.getMessage()));
+		assertTrue(messages.get(2L).startsWith("Unreadable row"), messages.get(2L));
+		assertEquals("Invalid priority: URGENT", messages.get(3L));
+		assertEquals("Department not found: No such department", messages.get(4L));
+		assertEquals("User not found: no-such-customer", messages.get(5L));
+		assertEquals("User " + agent + " is not a customer", messages.get(6L));
+
+		List<Ticket> imported = ticketRepository.findAll().stream().filter(t -> t.getTitle().startsWith(prefix)).toList();
+		assertEquals(List.of(prefix + "1", prefix + "10", prefix + "7", prefix + "8"),
+				imported.stream().map(Ticket::getTitle).sorted().toList(), "Each good row is saved exactly once");
+		Ticket assigned = imported.stream().filter(t -> t.getTitle().equals(prefix + "7")).findFirst().orElseThrow();
+		assertEquals(Status.INPROGRESS, assigned.getStatus());
+	}
+
+	@Test
+	void importEndpointReadsTheFormatFromTheContentType() throws Exception {
+		User admin = userRepository.save(user("import-admin", UserRole.ADMIN));
+		String customer = userRepository.save(user("import-endpoint-customer", UserRole.CUSTOMER)).getUsername();
+		String department = departmentRepository.save(new Department("Import endpoint department")).getName();
+		String body = row(FileFormat.NDJSON, "Import endpoint ticket", "LOW", "", "", customer, department, "") + "\n";
+
+		JsonNode result = objectMapper.readTree(mockMvc.perform(post("/api/admin/tickets/import")
+				.header("Authorization", "Bearer " + jwtUtil.generateToken(admin))
+				.contentType("application/x-ndjson").content(body))
+				.andReturn().getResponse().getContentAsString());
+		assertEquals(1, result.get("imported").asLong());
+		assertEquals(0, result.get("failed").asLong());
+	}
+
+	// An importer that saves BATCH_SIZE rows per transaction
+	private TicketImportService importer() {
+		return new TicketImportServiceImpl(ticketRepository, userRepository, departmentRepository, ticketDispatchService,
+				transactionTemplate, objectMapper, BATCH_SIZE);
+	}
+
+	// One ticket as a CSV line or an NDJSON object, in COLUMNS order; the description is always set
+	private String row(FileFormat format, String title, String priority, String status, String createdDate,
+			String customer, String department, String agent) throws Exception {
+		List<String> values = List.of(title, "Imported by the test", priority, status, createdDate, customer, department, agent);
+		if (format == FileFormat.CSV) {
+			return String.join(",", values);
+		}
+		Map<String, String> object = new LinkedHashMap<>();
+		for (int i = 0; i < COLUMNS.size(); i++) {
+			object.put(COLUMNS.get(i), values.get(i));
+		}
+		return objectMapper.writeValueAsString(object);
+	}
+
+	private static ByteArrayInputStream upload(FileFormat format, List<String> lines) {
+		List<String> all = new ArrayList<>();
+		if (format == FileFormat.CSV) {
+			all.add(String.join(",", COLUMNS));
+		}
+		all.addAll(lines);
+		return new ByteArrayInputStream((String.join("\n", all) + "\n").getBytes(StandardCharsets.UTF_8));
+	}
+}
@@ -0,0 +1,167 @@
+package com.helpdesk.support;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+
+/**
+ * Records every SQL statement (with its bound parameters) that the application sends to the database,
+ * and how long connections were held open. Import it into a Spring Boot test to wrap the application's DataSource.
+ */
+public class SqlCapture implements QueryExecutionListener {
+
+	/**
+	 * A statement as executed, with parameters in JDBC index order.
+	 */
+	public record Statement(String sql, List<Object> parameters) {
+
+		public boolean isSelect() {
+			return sql.stripLeading().toLowerCase().startsWith("select");
+		}
+
+		// Statements that read rows through a WHERE clause and therefore have a query plan
+		public boolean isExplainable() {
+			String verb = sql.stripLeading().toLowerCase();
+			return verb.startsWith("select") || verb.startsWith("update") || verb.startsWith("delete");
+		}
+	}
+
+	private final List<Statement> statements = new CopyOnWriteArrayList<>();
+	private final AtomicLong heldNanos = new AtomicLong(); // Time from getConnection() to close(), summed over connections
+	private volatile boolean recording = true;
+
+	// Forgets everything recorded so far
+	public void clear() {
+		statements.clear();
+		heldNanos.set(0);
+	}
+
+	// Statements recorded since the last clear()
+	public List<Statement> statements() {
+		return List.copyOf(statements);
+	}
+
+	// Total time connections closed since the last clear() were held open
+	public Duration connectionHoldTime() {
+		return Duration.ofNanos(heldNanos.get());
+	}
+
+	// Runs work against the database without recording it (e.g. EXPLAIN or seeding)
+	public void withoutRecording(Runnable work) {
+		recording = false;
+		try {
+			work.run();
+		} finally {
+			recording = true;
+		}
+	}
+
+	@Override
+	public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+	}
+
+	@Override
+	public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+		if (!recording) {
+			return;
+		}
+		for (QueryInfo queryInfo : queryInfoList) {
+			if (queryInfo.getParametersList().isEmpty()) {
+				statements.add(new Statement(queryInfo.getQuery(), List.of()));
+			}
+			for (List<ParameterSetOperation> operations : queryInfo.getParametersList()) {
+				List<Object> parameters = new ArrayList<>();
+				operations.stream()
+						.sorted(Comparator.comparingInt(op -> (Integer) op.getArgs()[0]))
+						.forEach(op -> parameters.add(op.getArgs()[1]));
+				statements.add(new Statement(queryInfo.getQuery(), parameters));
+			}
+		}
+	}
+
+	// Measures each connection from the moment it is handed out until it is closed (returned to the pool)
+	private DataSource holdTiming(DataSource target) {
+		return new DelegatingDataSource(target) {
+			@Override
+			public Connection getConnection() throws SQLException {
+				return timed(super.getConnection());
+			}
+
+			@Override
+			public Connection getConnection(String username, String password) throws SQLException {
+				return timed(super.getConnection(username, password));
+			}
+		};
+	}
+
+	private Connection timed(Connection connection) {
+		long opened = System.nanoTime();
+		AtomicBoolean closed = new AtomicBoolean();
+		return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] { Connection.class },
+				(proxy, method, args) -> {
+					if (method.getName().equals("close") && closed.compareAndSet(false, true) && recording) {
+						heldNanos.addAndGet(System.nanoTime() - opened);
+					}
+					if (method.getName().equals("equals")) {
+						return proxy == args[0];
+					}
+					if (method.getName().equals("hashCode")) {
+						return System.identityHashCode(proxy);
+					}
+					try {
+						return method.invoke(connection, args);
+					} catch (InvocationTargetException e) {
+						throw e.getCause();
+					}
+				});
+	}
+
+	/**
+	 * Wraps the application's DataSource so every statement passes through a shared SqlCapture.
+	 */
+	@TestConfiguration(proxyBeanMethods = false)
+	public static class Config {
+
+		@Bean
+		public SqlCapture sqlCapture() {
+			return new SqlCapture();
+		}
+
+		@Bean
+		public static BeanPostProcessor sqlCaptureDataSourceWrapper(org.springframework.beans.factory.ObjectProvider<SqlCapture> sqlCapture) {
+			return new BeanPostProcessor() {
+				@Override
+				public Object postProcessAfterInitialization(Object bean, String beanName) {
+					if (bean instanceof DataSource dataSource) {
+						return ProxyDataSourceBuilder.create(sqlCapture.getObject().holdTiming(dataSource))
+								.name("sql-capture")
+								.listener(sqlCapture.getObject())
+								.build();
+					}
+					return bean;
+				}
+			};
+		}
+	}
+}
@@ -0,0 +1,50 @@
+package com.helpdesk.support;
+
+import java.util.Date;
+
+import com.helpdesk.entities.Department;
+import com.helpdesk.entities.Ticket;
+import com.helpdesk.entities.User;
+import com.helpdesk.enums.Priority;
+import com.helpdesk.enums.Status;
+import com.helpdesk.enums.UserRole;
+
+/**
+ * Unsaved users and tickets for tests to seed. Usernames are unique in the schema, so every test class picks its own
+ * username prefix; the email is derived from the username.
+ */
+public final class TestData {
+
+	private TestData() {
+	}
+
+	// A user with a placeholder password; tests authenticate with tokens from JwtUtil rather than by logging in
+	public static User user(String userName, UserRole role, Department department) {
+		User user = new User();
+		user.setUserName(userName);
+		user.setEmail(userName + "@helpdesk.test");
+		user.setPassword("not-used");
+		user.setFullName(userName);
+		user.setUserRole(role);
+		user.setDepartment(department);
+		return user;
+	}
+
+	// A user outside any department, as customers and admins are
+	public static User user(String userName, UserRole role) {
+		return user(userName, role, null);
+	}
+
+	// A new, unassigned LOW priority ticket created now; tests adjust the fields they care about
+	public static Ticket ticket(String title, User customer, Department department) {
+		Ticket ticket = new Ticket();
+		ticket.setTitle(title);
+		ticket.setDescription("Seeded by a test");
+		ticket.setCreatedDate(new Date());
+		ticket.setPriority(Priority.LOW);
+		ticket.setStatus(Status.PENDING);
+		ticket.setCustomer(customer);
+		ticket.setDepartment(department);
+		return ticket;
+	}
+}